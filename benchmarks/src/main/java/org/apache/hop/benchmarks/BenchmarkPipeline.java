@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.HopEnvironment;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.LogLevel;
+import org.apache.hop.core.plugins.PluginRegistry;
+import org.apache.hop.core.plugins.TransformPluginType;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+
+/**
+ * A small in-memory pipeline for the benchmarks. Rows are injected in Injector transforms and the
+ * rows arriving in the output transform are counted. The pipeline runs on the local engine, just
+ * like a pipeline started from the GUI or from hop-run.
+ */
+public class BenchmarkPipeline {
+
+  private final PipelineMeta pipelineMeta;
+  private final Map<String, List<Object[]>> inputs;
+  private final IRowMeta inputRowMeta;
+  private String outputTransformName;
+
+  /**
+   * @param inputRowMeta the layout of the rows injected in the input transforms
+   */
+  public BenchmarkPipeline(IRowMeta inputRowMeta) throws HopException {
+    HopEnvironment.init();
+    this.pipelineMeta = new PipelineMeta();
+    this.pipelineMeta.setName("benchmark");
+    this.inputs = new LinkedHashMap<>();
+    this.inputRowMeta = inputRowMeta;
+  }
+
+  /**
+   * Add an Injector transform. The inputs are injected one after the other in the order in which
+   * they were added.
+   *
+   * @param name the name of the transform
+   * @param rows the rows to inject in every run
+   * @return the added transform
+   */
+  public TransformMeta addInput(String name, List<Object[]> rows) {
+    inputs.put(name, rows);
+    return addTransform(name, new InjectorMeta());
+  }
+
+  /**
+   * Add a Dummy transform of which the output rows are counted.
+   *
+   * @param name the name of the transform
+   * @return the added transform
+   */
+  public TransformMeta addOutput(String name) {
+    outputTransformName = name;
+    return addTransform(name, new DummyMeta());
+  }
+
+  public TransformMeta addTransform(String name, ITransformMeta meta) {
+    String pluginId = PluginRegistry.getInstance().getPluginId(TransformPluginType.class, meta);
+    TransformMeta transformMeta = new TransformMeta(pluginId, name, meta);
+    pipelineMeta.addTransform(transformMeta);
+    return transformMeta;
+  }
+
+  public void addHop(TransformMeta from, TransformMeta to) {
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(from, to));
+  }
+
+  /**
+   * Execute the pipeline once.
+   *
+   * @return the number of rows written by the output transform
+   * @throws HopException in case the pipeline finished with errors
+   */
+  public long run() throws HopException {
+    Pipeline pipeline = new LocalPipelineEngine(pipelineMeta);
+    pipeline.setLogLevel(LogLevel.MINIMAL);
+    pipeline.prepareExecution();
+
+    AtomicLong nrRows = new AtomicLong();
+    pipeline
+        .getTransform(outputTransformName, 0)
+        .addRowListener(
+            new RowAdapter() {
+              @Override
+              public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+                nrRows.incrementAndGet();
+              }
+            });
+
+    List<RowProducer> producers = new ArrayList<>();
+    for (String name : inputs.keySet()) {
+      producers.add(pipeline.addRowProducer(name, 0));
+    }
+
+    pipeline.startThreads();
+
+    int index = 0;
+    for (List<Object[]> rows : inputs.values()) {
+      RowProducer producer = producers.get(index++);
+      for (Object[] row : rows) {
+        producer.putRow(inputRowMeta, row);
+      }
+      producer.finished();
+    }
+
+    pipeline.waitUntilFinished();
+    if (pipeline.getErrors() > 0) {
+      throw new HopException("The benchmark pipeline finished with errors, check the log.");
+    }
+    return nrRows.get();
+  }
+}
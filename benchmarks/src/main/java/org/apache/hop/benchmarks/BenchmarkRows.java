@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+
+/**
+ * Generates the test data of the benchmarks. The data is generated from a fixed seed so that every
+ * run of a benchmark works on exactly the same rows.
+ */
+public final class BenchmarkRows {
+  public static final String ID_FIELD = "id";
+  public static final String KEY_FIELD = "key";
+  public static final String AMOUNT_FIELD = "amount";
+  public static final String DATE_FIELD = "date";
+
+  private BenchmarkRows() {}
+
+  /**
+   * @return the layout of the generated rows: an integer id, a string key, a number amount and a
+   *     date
+   */
+  public static IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger(ID_FIELD));
+    rowMeta.addValueMeta(new ValueMetaString(KEY_FIELD));
+    rowMeta.addValueMeta(new ValueMetaNumber(AMOUNT_FIELD));
+    rowMeta.addValueMeta(new ValueMetaDate(DATE_FIELD));
+    return rowMeta;
+  }
+
+  /**
+   * Generate rows in the layout of {@link #createRowMeta()}.
+   *
+   * @param nrRows the number of rows to generate
+   * @param nrKeys the number of distinct keys
+   * @return the rows, in a pseudo random order of the ids and keys
+   */
+  public static List<Object[]> createRows(int nrRows, int nrKeys) {
+    List<Object[]> rows = new ArrayList<>(nrRows);
+    long seed = 42L;
+    for (int i = 0; i < nrRows; i++) {
+      seed = seed * 6364136223846793005L + 1442695040888963407L;
+      long random = seed >>> 33;
+      rows.add(
+          new Object[] {
+            random,
+            "key-" + (random % nrKeys),
+            (random % 100000) / 100.0,
+            new Date(1_600_000_000_000L + random * 1000L)
+          });
+    }
+    return rows;
+  }
+
+  /**
+   * Generate a row layout with the given number of fields, cycling through strings, integers,
+   * numbers and dates.
+   */
+  public static IRowMeta createWideRowMeta(int nrFields) {
+    IRowMeta rowMeta = new RowMeta();
+    for (int i = 0; i < nrFields; i++) {
+      switch (i % 4) {
+        case 0:
+          rowMeta.addValueMeta(new ValueMetaString("string" + i));
+          break;
+        case 1:
+          rowMeta.addValueMeta(new ValueMetaInteger("integer" + i));
+          break;
+        case 2:
+          rowMeta.addValueMeta(new ValueMetaNumber("number" + i));
+          break;
+        default:
+          rowMeta.addValueMeta(new ValueMetaDate("date" + i));
+          break;
+      }
+    }
+    return rowMeta;
+  }
+
+  /** Generate a row for a layout created with {@link #createWideRowMeta(int)}. */
+  public static Object[] createWideRow(int nrFields) {
+    Object[] row = new Object[nrFields];
+    for (int i = 0; i < nrFields; i++) {
+      switch (i % 4) {
+        case 0:
+          row[i] = "The quick brown fox jumps over the lazy dog " + i;
+          break;
+        case 1:
+          row[i] = 1234567L * i;
+          break;
+        case 2:
+          row[i] = 123.456 * i;
+          break;
+        default:
+          row[i] = new Date(1_600_000_000_000L + i * 86_400_000L);
+          break;
+      }
+    }
+    return row;
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rows passing through a chain of Dummy transforms. This measures the putRow() and getRow() path of
+ * BaseTransform and the row sets between the transforms. The score is in rows per millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PipelineBenchmark {
+  private static final int NR_ROWS = 200_000;
+
+  private BenchmarkPipeline pipeline;
+
+  @Setup
+  public void setup() throws Exception {
+    pipeline = new BenchmarkPipeline(BenchmarkRows.createRowMeta());
+    TransformMeta input = pipeline.addInput("input", BenchmarkRows.createRows(NR_ROWS, 1000));
+    TransformMeta pass1 = pipeline.addTransform("pass1", new DummyMeta());
+    TransformMeta pass2 = pipeline.addTransform("pass2", new DummyMeta());
+    TransformMeta output = pipeline.addOutput("output");
+    pipeline.addHop(input, pass1);
+    pipeline.addHop(pass1, pass2);
+    pipeline.addHop(pass2, output);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NR_ROWS)
+  public long passThrough() throws Exception {
+    return pipeline.run();
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.row.IRowMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Cloning, serializing and de-serializing rows with {@link IRowMeta}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMetaBenchmark {
+
+  @Param({"10", "100"})
+  private int nrFields;
+
+  private IRowMeta rowMeta;
+  private Object[] row;
+  private ByteArrayOutputStream outputBytes;
+  private DataOutputStream outputStream;
+  private byte[] serializedRow;
+
+  @Setup
+  public void setup() throws Exception {
+    rowMeta = BenchmarkRows.createWideRowMeta(nrFields);
+    row = BenchmarkRows.createWideRow(nrFields);
+
+    outputBytes = new ByteArrayOutputStream(nrFields * 64);
+    outputStream = new DataOutputStream(outputBytes);
+
+    rowMeta.writeData(outputStream, row);
+    outputStream.flush();
+    serializedRow = outputBytes.toByteArray();
+  }
+
+  @Benchmark
+  public Object[] cloneRow() throws Exception {
+    return rowMeta.cloneRow(row);
+  }
+
+  @Benchmark
+  public int writeData() throws Exception {
+    outputBytes.reset();
+    rowMeta.writeData(outputStream, row);
+    return outputBytes.size();
+  }
+
+  @Benchmark
+  public Object[] readData() throws Exception {
+    return rowMeta.readData(new DataInputStream(new ByteArrayInputStream(serializedRow)));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.BlockingBatchingRowSet;
+import org.apache.hop.core.BlockingRowSet;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.RingBufferRowSet;
+import org.apache.hop.core.row.IRowMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The handoff of rows between a producing and a consuming thread through a row set, one row at a
+ * time and in batches. The waits use a short timeout so that neither thread can hang when the other
+ * one stops at the end of an iteration.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowSetBenchmark {
+  private static final int BATCH_SIZE = 100;
+
+  @Param({"BlockingRowSet", "BlockingBatchingRowSet", "RingBufferRowSet"})
+  private String rowSetType;
+
+  @Param({"10000"})
+  private int rowSetSize;
+
+  private IRowSet rowSet;
+  private IRowMeta rowMeta;
+  private Object[] row;
+  private List<Object[]> batch;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    switch (rowSetType) {
+      case "BlockingBatchingRowSet":
+        rowSet = new BlockingBatchingRowSet(rowSetSize);
+        break;
+      case "RingBufferRowSet":
+        rowSet = new RingBufferRowSet(rowSetSize);
+        break;
+      default:
+        rowSet = new BlockingRowSet(rowSetSize);
+        break;
+    }
+    rowMeta = BenchmarkRows.createRowMeta();
+    row = BenchmarkRows.createRows(1, 10).get(0);
+    batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(row);
+    }
+  }
+
+  @Benchmark
+  @Group("row")
+  @GroupThreads(1)
+  public boolean putRow() {
+    return rowSet.putRowWait(rowMeta, row, 1, TimeUnit.MILLISECONDS);
+  }
+
+  @Benchmark
+  @Group("row")
+  @GroupThreads(1)
+  public Object[] getRow() {
+    return rowSet.getRowWait(1, TimeUnit.MILLISECONDS);
+  }
+
+  @Benchmark
+  @Group("batch")
+  @GroupThreads(1)
+  public int putRows() {
+    return rowSet.putRows(rowMeta, batch, 0);
+  }
+
+  @Benchmark
+  @Group("batch")
+  @GroupThreads(1)
+  public int getRows() {
+    return rowSet.getRows(BATCH_SIZE).size();
+  }
+}
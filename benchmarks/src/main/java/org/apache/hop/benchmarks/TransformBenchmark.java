@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.stream.IStream;
+import org.apache.hop.pipeline.transforms.calculator.CalculatorMeta;
+import org.apache.hop.pipeline.transforms.calculator.CalculatorMetaFunction;
+import org.apache.hop.pipeline.transforms.calculator.CalculatorMetaFunction.CalculationType;
+import org.apache.hop.pipeline.transforms.memgroupby.GAggregate;
+import org.apache.hop.pipeline.transforms.memgroupby.GGroup;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType;
+import org.apache.hop.pipeline.transforms.sort.SortRowsMeta;
+import org.apache.hop.pipeline.transforms.streamlookup.StreamLookupMeta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rows passing through a single transform between an Injector and a Dummy transform. The score is
+ * in input rows per millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransformBenchmark {
+  private static final int NR_ROWS = 200_000;
+  private static final int NR_KEYS = 1000;
+
+  @Param({"SortRows", "MemoryGroupBy", "StreamLookup", "Calculator"})
+  private String transform;
+
+  private BenchmarkPipeline pipeline;
+
+  @Setup
+  public void setup() throws Exception {
+    pipeline = new BenchmarkPipeline(BenchmarkRows.createRowMeta());
+
+    TransformMeta test;
+    switch (transform) {
+      case "SortRows":
+        test = pipeline.addTransform(transform, createSortRowsMeta());
+        break;
+      case "MemoryGroupBy":
+        test = pipeline.addTransform(transform, createMemoryGroupByMeta());
+        break;
+      case "StreamLookup":
+        // The lookup rows are injected before the main stream
+        //
+        TransformMeta lookup = pipeline.addInput("lookup", createLookupRows());
+        StreamLookupMeta streamLookupMeta = createStreamLookupMeta();
+        IStream infoStream = streamLookupMeta.getTransformIOMeta().getInfoStreams().get(0);
+        infoStream.setSubject(lookup.getName());
+        infoStream.setTransformMeta(lookup);
+        test = pipeline.addTransform(transform, streamLookupMeta);
+        pipeline.addHop(lookup, test);
+        break;
+      case "Calculator":
+        test = pipeline.addTransform(transform, createCalculatorMeta());
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown transform to benchmark: " + transform);
+    }
+    TransformMeta input = pipeline.addInput("input", BenchmarkRows.createRows(NR_ROWS, NR_KEYS));
+    TransformMeta output = pipeline.addOutput("output");
+    pipeline.addHop(input, test);
+    pipeline.addHop(test, output);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NR_ROWS)
+  public long run() throws Exception {
+    return pipeline.run();
+  }
+
+  private static ITransformMeta createSortRowsMeta() {
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.allocate(2);
+    meta.setFieldName(new String[] {BenchmarkRows.KEY_FIELD, BenchmarkRows.AMOUNT_FIELD});
+    meta.setAscending(new boolean[] {true, false});
+    meta.setCaseSensitive(new boolean[] {true, true});
+    meta.setCollatorEnabled(new boolean[] {false, false});
+    meta.setCollatorStrength(new int[] {0, 0});
+    meta.setPreSortedField(new boolean[] {false, false});
+
+    // Sort everything in memory
+    //
+    meta.setSortSize(Integer.toString(NR_ROWS));
+    return meta;
+  }
+
+  private static ITransformMeta createMemoryGroupByMeta() {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.getGroups().add(new GGroup(BenchmarkRows.KEY_FIELD));
+    meta.getAggregates()
+        .add(new GAggregate("total", BenchmarkRows.AMOUNT_FIELD, GroupType.Sum, null));
+    meta.getAggregates()
+        .add(new GAggregate("nr", BenchmarkRows.ID_FIELD, GroupType.CountAll, null));
+    meta.getAggregates()
+        .add(new GAggregate("last", BenchmarkRows.DATE_FIELD, GroupType.Maximum, null));
+    return meta;
+  }
+
+  private static StreamLookupMeta createStreamLookupMeta() {
+    StreamLookupMeta meta = new StreamLookupMeta();
+    meta.setDefault();
+    meta.allocate(1, 1);
+    meta.getKeystream()[0] = BenchmarkRows.KEY_FIELD;
+    meta.getKeylookup()[0] = BenchmarkRows.KEY_FIELD;
+    meta.getValue()[0] = BenchmarkRows.AMOUNT_FIELD;
+    meta.getValueName()[0] = "lookup_amount";
+    meta.getValueDefaultType()[0] = IValueMeta.TYPE_NUMBER;
+    return meta;
+  }
+
+  private static List<Object[]> createLookupRows() {
+    List<Object[]> rows = new ArrayList<>(NR_KEYS);
+    for (int i = 0; i < NR_KEYS; i++) {
+      rows.add(new Object[] {(long) i, "key-" + i, i * 1.5, new Date(1_600_000_000_000L)});
+    }
+    return rows;
+  }
+
+  private static ITransformMeta createCalculatorMeta() {
+    CalculatorMeta meta = new CalculatorMeta();
+    meta.getFunctions()
+        .add(
+            new CalculatorMetaFunction(
+                "double",
+                CalculationType.ADD,
+                BenchmarkRows.AMOUNT_FIELD,
+                BenchmarkRows.AMOUNT_FIELD,
+                null,
+                "Number",
+                -1,
+                -1,
+                null,
+                null,
+                null,
+                null,
+                false));
+    meta.getFunctions()
+        .add(
+            new CalculatorMetaFunction(
+                "key_length",
+                CalculationType.STRING_LEN,
+                BenchmarkRows.KEY_FIELD,
+                null,
+                null,
+                "Integer",
+                -1,
+                -1,
+                null,
+                null,
+                null,
+                null,
+                false));
+    return meta;
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaBase;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Comparing and converting values with {@link ValueMetaBase}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueMetaBenchmark {
+
+  private IValueMeta stringMeta;
+  private IValueMeta integerMeta;
+  private IValueMeta numberMeta;
+  private IValueMeta dateMeta;
+
+  private String string1;
+  private String string2;
+  private Long integer1;
+  private Long integer2;
+  private Double number1;
+  private Double number2;
+  private Date date1;
+  private Date date2;
+
+  private String integerString;
+  private String numberString;
+  private String dateString;
+
+  @Setup
+  public void setup() throws Exception {
+    stringMeta = new ValueMetaString("string");
+    integerMeta = new ValueMetaInteger("integer");
+    numberMeta = new ValueMetaNumber("number");
+    dateMeta = new ValueMetaDate("date");
+
+    string1 = "The quick brown fox jumps over the lazy dog 1";
+    string2 = "The quick brown fox jumps over the lazy dog 2";
+    integer1 = 123456789L;
+    integer2 = 123456790L;
+    number1 = 12345.678;
+    number2 = 12345.679;
+    date1 = new Date(1_600_000_000_000L);
+    date2 = new Date(1_600_000_001_000L);
+
+    integerString = integerMeta.getString(integer1);
+    numberString = numberMeta.getString(number1);
+    dateString = dateMeta.getString(date1);
+  }
+
+  @Benchmark
+  public int compareString() throws Exception {
+    return stringMeta.compare(string1, string2);
+  }
+
+  @Benchmark
+  public int compareInteger() throws Exception {
+    return integerMeta.compare(integer1, integer2);
+  }
+
+  @Benchmark
+  public int compareNumber() throws Exception {
+    return numberMeta.compare(number1, number2);
+  }
+
+  @Benchmark
+  public int compareDate() throws Exception {
+    return dateMeta.compare(date1, date2);
+  }
+
+  @Benchmark
+  public Object convertStringToInteger() throws Exception {
+    return integerMeta.convertData(stringMeta, integerString);
+  }
+
+  @Benchmark
+  public Object convertStringToNumber() throws Exception {
+    return numberMeta.convertData(stringMeta, numberString);
+  }
+
+  @Benchmark
+  public Object convertStringToDate() throws Exception {
+    return dateMeta.convertData(stringMeta, dateString);
+  }
+
+  @Benchmark
+  public Object convertIntegerToString() throws Exception {
+    return stringMeta.convertData(integerMeta, integer1);
+  }
+
+  @Benchmark
+  public Object convertIntegerToNumber() throws Exception {
+    return numberMeta.convertData(integerMeta, integer1);
+  }
+}
@@ -38,6 +38,8 @@ abstract class BaseRowSet implements Comparable<IRowSet>, IRowSet {
   protected volatile String remoteHopServerName;
   private ReadWriteLock lock;
 
+  private volatile RowSetNotifier notifier;
+
   public BaseRowSet() {
     // not done putting data into this IRowSet
     done = new AtomicBoolean(false);
@@ -132,6 +134,7 @@ abstract class BaseRowSet implements Comparable<IRowSet>, IRowSet {
   @Override
   public void setDone() {
     done.set(true);
+    signalReader();
   }
 
   /*
@@ -296,4 +299,17 @@ abstract class BaseRowSet implements Comparable<IRowSet>, IRowSet {
   public boolean isBlocking() {
     return false;
   }
+
+  @Override
+  public void setNotifier(RowSetNotifier notifier) {
+    this.notifier = notifier;
+  }
+
+  /** Wake up the reading transform after rows were added or the row set was set to done. */
+  protected void signalReader() {
+    RowSetNotifier readerNotifier = notifier;
+    if (readerNotifier != null) {
+      readerNotifier.signal();
+    }
+  }
 }
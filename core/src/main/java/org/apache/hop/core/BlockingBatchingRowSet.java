@@ -17,6 +17,8 @@
 
 package org.apache.hop.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -98,6 +100,7 @@ public class BlockingBatchingRowSet extends BaseRowSet implements Comparable<IRo
       try {
         getArray.offer(inputBuffer, time, tu);
         inputBuffer = null;
+        signalReader();
       } catch (InterruptedException e) {
         return false;
       }
@@ -106,6 +109,48 @@ public class BlockingBatchingRowSet extends BaseRowSet implements Comparable<IRo
     return true;
   }
 
+  /**
+   * Copies the rows into the input buffer, handing it over to the reader every time it's full. Only
+   * the first buffer is waited for.
+   */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows, int offset) {
+
+    this.rowMeta = rowMeta;
+
+    int index = offset;
+    while (index < rows.size()) {
+      if (inputBuffer == null) {
+        try {
+          inputBuffer =
+              putArray.poll(
+                  index == offset ? Const.TIMEOUT_PUT_MILLIS : 0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          break;
+        }
+        if (inputBuffer == null) {
+          break;
+        }
+        putIndex = 0;
+      }
+      int count = Math.min(size - putIndex, rows.size() - index);
+      for (int i = 0; i < count; i++) {
+        inputBuffer[putIndex++] = rows.get(index++);
+      }
+      if (putIndex == size) {
+        try {
+          getArray.offer(inputBuffer, Const.TIMEOUT_PUT_MILLIS, TimeUnit.MILLISECONDS);
+          inputBuffer = null;
+          signalReader();
+        } catch (InterruptedException e) {
+          break;
+        }
+      }
+    }
+
+    return index - offset;
+  }
+
   // default getRow with wait time = 100ms
   //
   /*
@@ -153,6 +198,21 @@ public class BlockingBatchingRowSet extends BaseRowSet implements Comparable<IRo
     return row;
   }
 
+  /** Returns the rows which are left in the current batch, waiting for a new batch if needed. */
+  @Override
+  public List<Object[]> getRows(int maxRows) {
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row = getRow();
+    while (row != null) {
+      rows.add(row);
+      if (rows.size() >= maxRows || outputBuffer == null) {
+        break;
+      }
+      row = getRowWait(0, TimeUnit.MILLISECONDS);
+    }
+    return rows;
+  }
+
   @Override
   public int size() {
     // does BlockingQueue.size() grab a lock? If so, frequent call to this method
@@ -171,6 +231,7 @@ public class BlockingBatchingRowSet extends BaseRowSet implements Comparable<IRo
       getArray.offer(inputBuffer);
     }
     putArray.clear();
+    signalReader();
   }
 
   @Override
@@ -17,6 +17,8 @@
 
 package org.apache.hop.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -69,8 +71,11 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
   public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
     this.rowMeta = rowMeta;
     try {
-
-      return queArray.offer(rowData, time, tu);
+      if (queArray.offer(rowData, time, tu)) {
+        signalReader();
+        return true;
+      }
+      return false;
     } catch (InterruptedException | NullPointerException e) {
       return false;
     }
@@ -114,6 +119,23 @@ public class BlockingRowSet extends BaseRowSet implements Comparable<IRowSet>, I
     }
   }
 
+  /**
+   * Waits for the first row and then drains the rows which are available in one go so the queue
+   * lock is only taken twice for the whole batch.
+   */
+  @Override
+  public List<Object[]> getRows(int maxRows) {
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row = getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+    if (row != null) {
+      rows.add(row);
+      if (maxRows > 1) {
+        queArray.drainTo(rows, maxRows - 1);
+      }
+    }
+    return rows;
+  }
+
   @Override
   public int size() {
     return queArray.size();
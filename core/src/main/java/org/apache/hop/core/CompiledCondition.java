@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.apache.commons.lang.StringUtils;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.util.Utils;
+
+/**
+ * A {@link Condition} prepared for rows of one specific layout. Field positions are looked up once,
+ * constant values are created and converted to the type of the field they're compared with once,
+ * and the regular expressions and IN LIST values of constants are prepared up front.
+ *
+ * <p>A compiled condition evaluates to the same result as {@link Condition#evaluate(IRowMeta,
+ * Object[])} for rows of the layout it was compiled for. It doesn't change after it was created and
+ * doesn't keep state between rows. Since it uses the value metadata of that layout, create one per
+ * transform copy with {@link Condition#compile(IRowMeta)}.
+ */
+public abstract class CompiledCondition {
+
+  /**
+   * Evaluate the condition for a row of the layout it was compiled for.
+   *
+   * @param row the row data
+   * @return true if the condition evaluates to true.
+   */
+  public abstract boolean evaluate(Object[] row);
+
+  static CompiledCondition compile(Condition condition, IRowMeta rowMeta) throws HopException {
+    if (condition.isAtomic()) {
+      if (condition.getFunction() == Condition.Function.TRUE) {
+        return new ConstantCondition(!condition.isNegated());
+      }
+      int leftIndex = -1;
+      if (StringUtils.isNotEmpty(condition.getLeftValueName())) {
+        leftIndex = rowMeta.indexOfValue(condition.getLeftValueName());
+      }
+      if (leftIndex < 0) {
+        // No fields to evaluate, this is never negated
+        //
+        return new ConstantCondition(false);
+      }
+      return new AtomicCondition(condition, rowMeta, leftIndex);
+    }
+
+    List<Condition> children = condition.getChildren();
+    CompiledCondition[] compiledChildren = new CompiledCondition[children.size()];
+    Condition.Operator[] operators = new Condition.Operator[children.size()];
+    for (int i = 0; i < children.size(); i++) {
+      compiledChildren[i] = compile(children.get(i), rowMeta);
+      operators[i] = children.get(i).getOperator();
+    }
+    return new CompositeCondition(condition, compiledChildren, operators);
+  }
+
+  /** A condition which doesn't depend on the row: TRUE or a condition on a missing field. */
+  private static final class ConstantCondition extends CompiledCondition {
+    private final boolean evaluation;
+
+    private ConstantCondition(boolean evaluation) {
+      this.evaluation = evaluation;
+    }
+
+    @Override
+    public boolean evaluate(Object[] row) {
+      return evaluation;
+    }
+  }
+
+  /** Compares a field with a constant value or with another field. */
+  private static final class AtomicCondition extends CompiledCondition {
+    private final Condition condition;
+    private final Condition.Function function;
+    private final boolean negated;
+
+    private final int leftIndex;
+    private final IValueMeta leftMeta;
+
+    /** The index of the right hand field or -1 if the right hand side is a constant */
+    private final int rightIndex;
+
+    private final IValueMeta rightMeta;
+    private final Object rightData;
+
+    /** The constant converted to the type and storage of the left hand field */
+    private final boolean rightConverted;
+
+    private final Object convertedRightData;
+
+    /** Prepared for constants: the compatible string, the regular expression or the IN LIST */
+    private final String rightString;
+
+    private final Pattern pattern;
+    private final Set<String> inList;
+
+    private AtomicCondition(Condition condition, IRowMeta rowMeta, int leftIndex)
+        throws HopException {
+      this.condition = condition;
+      this.function = condition.getFunction();
+      this.negated = condition.isNegated();
+      this.leftIndex = leftIndex;
+      this.leftMeta = rowMeta.getValueMeta(leftIndex);
+
+      if (StringUtils.isNotEmpty(condition.getRightValueName())) {
+        // We can't have a right value in this case
+        //
+        int index = rowMeta.indexOfValue(condition.getRightValueName());
+        this.rightIndex = index >= 0 ? index : -1;
+        this.rightMeta = index >= 0 ? rowMeta.getValueMeta(index) : null;
+        this.rightData = null;
+      } else {
+        Condition.CValue rightValue = condition.getRightValue();
+        this.rightIndex = -1;
+        this.rightMeta = rightValue != null ? rightValue.createValueMeta() : null;
+        this.rightData = rightValue != null ? rightValue.createValueData() : null;
+      }
+
+      // Everything below only applies to constants.
+      // Whatever can't be prepared is evaluated for every row, the same way as the condition does.
+      //
+      boolean constant = rightIndex < 0 && rightMeta != null;
+
+      boolean converted = false;
+      Object convertedData = null;
+      if (constant) {
+        if (leftMeta.getType() == rightMeta.getType()) {
+          if (leftMeta.getStorageType() == rightMeta.getStorageType()) {
+            converted = true;
+            convertedData = rightData;
+          }
+        } else if (leftMeta.getType() != IValueMeta.TYPE_INTEGER
+            || rightMeta.getType() != IValueMeta.TYPE_NUMBER) {
+          try {
+            convertedData = leftMeta.convertData(rightMeta, rightData);
+            converted = true;
+          } catch (HopValueException e) {
+            // Report the conversion error when a row is evaluated
+          }
+        }
+      }
+      this.rightConverted = converted;
+      this.convertedRightData = convertedData;
+
+      String string = null;
+      Pattern regex = null;
+      Set<String> list = null;
+      if (constant && rightData != null) {
+        try {
+          string = rightMeta.getCompatibleString(rightData);
+          if (function == Condition.Function.REGEXP) {
+            regex = Pattern.compile(string);
+          } else if (function == Condition.Function.LIKE) {
+            regex = Pattern.compile(string.replace("%", ".*").replace("?", "."));
+          }
+        } catch (Exception e) {
+          // Report invalid expressions when a row is evaluated
+        }
+      }
+      if (constant && function == Condition.Function.IN_LIST) {
+        list = new HashSet<>(Arrays.asList(getInList(rightData)));
+      }
+      this.rightString = string;
+      this.pattern = regex;
+      this.inList = list;
+    }
+
+    @Override
+    public boolean evaluate(Object[] row) {
+      boolean evaluation = false;
+      try {
+        Object field = row[leftIndex];
+        Object field2 = rightIndex >= 0 ? row[rightIndex] : rightData;
+
+        switch (function) {
+          case EQUAL:
+            evaluation = compare(field, field2) == 0;
+            break;
+          case NOT_EQUAL:
+            evaluation = compare(field, field2) != 0;
+            break;
+          case SMALLER:
+            evaluation = !leftMeta.isNull(field) && compare(field, field2) < 0;
+            break;
+          case SMALLER_EQUAL:
+            evaluation = !leftMeta.isNull(field) && compare(field, field2) <= 0;
+            break;
+          case LARGER:
+            evaluation = compare(field, field2) > 0;
+            break;
+          case LARGER_EQUAL:
+            evaluation = compare(field, field2) >= 0;
+            break;
+          case REGEXP:
+            if (!leftMeta.isNull(field) && field2 != null) {
+              Pattern regex =
+                  pattern != null
+                      ? pattern
+                      : Pattern.compile(rightMeta.getCompatibleString(field2));
+              evaluation = regex.matcher(leftMeta.getCompatibleString(field)).matches();
+            }
+            break;
+          case NULL:
+            evaluation = leftMeta.isNull(field);
+            break;
+          case NOT_NULL:
+            evaluation = !leftMeta.isNull(field);
+            break;
+          case IN_LIST:
+            String searchString = leftMeta.getCompatibleString(field);
+            if (inList != null) {
+              evaluation = searchString != null && inList.contains(searchString);
+            } else {
+              String[] values = getInList(field2);
+              Arrays.sort(values);
+              evaluation = searchString != null && Arrays.binarySearch(values, searchString) >= 0;
+            }
+            break;
+          case CONTAINS:
+            String containsString = leftMeta.getCompatibleString(field);
+            evaluation = containsString != null && containsString.contains(getRightString(field2));
+            break;
+          case STARTS_WITH:
+            String startString = leftMeta.getCompatibleString(field);
+            evaluation = startString != null && startString.startsWith(getRightString(field2));
+            break;
+          case ENDS_WITH:
+            String endString = leftMeta.getCompatibleString(field);
+            if (!Utils.isEmpty(endString) && field2 != null) {
+              String suffix = getRightString(field2);
+              evaluation = suffix != null && endString.endsWith(suffix);
+            }
+            break;
+          case LIKE:
+            if (!leftMeta.isNull(field) && field2 != null) {
+              Pattern regex = pattern;
+              if (regex == null) {
+                String like = rightMeta.getCompatibleString(field2);
+                regex = Pattern.compile(like.replace("%", ".*").replace("?", "."));
+              }
+              evaluation = regex.matcher(leftMeta.getCompatibleString(field)).matches();
+            }
+            break;
+          default:
+            break;
+        }
+      } catch (Exception e) {
+        throw new RuntimeException("Unexpected error evaluation condition [" + condition + "]", e);
+      }
+
+      // Optionally negate
+      //
+      return negated != evaluation;
+    }
+
+    private int compare(Object field, Object field2) throws HopValueException {
+      if (rightConverted) {
+        return leftMeta.compare(field, convertedRightData);
+      }
+      return leftMeta.compare(field, rightMeta, field2);
+    }
+
+    private String getRightString(Object field2) throws HopValueException {
+      if (rightString != null) {
+        return rightString;
+      }
+      return rightMeta.getCompatibleString(field2);
+    }
+
+    private String[] getInList(Object field2) throws HopValueException {
+      String[] values = Const.splitString(rightMeta.getString(field2), ';', true);
+      for (int i = 0; i < values.length; i++) {
+        values[i] = values[i] == null ? null : values[i].replace("\\", "");
+      }
+      return values;
+    }
+  }
+
+  /** Combines the child conditions in the order in which they are found. */
+  private static final class CompositeCondition extends CompiledCondition {
+    private final Condition condition;
+    private final boolean negated;
+    private final CompiledCondition[] children;
+    private final Condition.Operator[] operators;
+
+    private CompositeCondition(
+        Condition condition, CompiledCondition[] children, Condition.Operator[] operators) {
+      this.condition = condition;
+      this.negated = condition.isNegated();
+      this.children = children;
+      this.operators = operators;
+    }
+
+    @Override
+    public boolean evaluate(Object[] row) {
+      boolean evaluation;
+      try {
+        evaluation = children[0].evaluate(row);
+
+        // The right hand side is only evaluated when the left hand side doesn't decide
+        //
+        for (int i = 1; i < children.length; i++) {
+          switch (operators[i]) {
+            case OR:
+              evaluation = evaluation || children[i].evaluate(row);
+              break;
+            case AND:
+              evaluation = evaluation && children[i].evaluate(row);
+              break;
+            case OR_NOT:
+              evaluation = evaluation || !children[i].evaluate(row);
+              break;
+            case AND_NOT:
+              evaluation = evaluation && !children[i].evaluate(row);
+              break;
+            case XOR:
+              evaluation = evaluation ^ children[i].evaluate(row);
+              break;
+            default:
+              break;
+          }
+        }
+      } catch (Exception e) {
+        throw new RuntimeException("Unexpected error evaluation condition [" + condition + "]", e);
+      }
+
+      // Composite: optionally negate
+      //
+      return negated != evaluation;
+    }
+  }
+}
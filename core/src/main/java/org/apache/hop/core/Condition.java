@@ -347,6 +347,20 @@ public class Condition implements Cloneable {
     rightFieldIndex = -2;
   }
 
+  /**
+   * Compile the condition for rows with the given layout. Use this when the same condition is
+   * evaluated for a lot of rows: the field positions are looked up once and constant values are
+   * only created and converted once instead of for every row.
+   *
+   * @param rowMeta the row metadata of the rows to evaluate
+   * @return the compiled condition, evaluating to the same result as {@link #evaluate(IRowMeta,
+   *     Object[])}
+   * @throws HopException in case the constant values can't be created
+   */
+  public CompiledCondition compile(IRowMeta rowMeta) throws HopException {
+    return CompiledCondition.compile(this, rowMeta);
+  }
+
   /**
    * Evaluate the condition...
    *
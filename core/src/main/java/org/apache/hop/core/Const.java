@@ -110,6 +110,9 @@ public class Const {
   /** Size of rowset: bigger = faster for large amounts of data */
   public static final int ROWS_IN_ROWSET = 10000;
 
+  /** Number of rows handed over at once by transforms which read and write rows in batches */
+  public static final int ROWS_IN_BATCH = 500;
+
   /** Fetch size in rows when querying a database */
   public static final int FETCH_SIZE = 10000;
 
@@ -654,6 +657,16 @@ public class Const {
           "Set this variable to 'Y' if you want to test a more efficient batching row set.")
   public static final String HOP_BATCHING_ROWSET = "HOP_BATCHING_ROWSET";
 
+  /**
+   * The maximum number of parsed pipeline and workflow files to keep in memory for executors,
+   * mappings and actions which load the same files over and over (default = 0, no caching)
+   */
+  @Variable(
+      value = "0",
+      description =
+          "The maximum number of parsed pipeline and workflow files to keep in memory. Executor and mapping transforms and pipeline and workflow actions get a copy of the parsed file as long as the file isn't modified. Set to 0 to disable the cache.")
+  public static final String HOP_METADATA_FILE_CACHE_SIZE = "HOP_METADATA_FILE_CACHE_SIZE";
+
   /**
    * Set this variable to limit max number of files the Text File Output transform can have open at
    * one time.
@@ -930,13 +943,14 @@ public class Const {
   public static final String CONNECTION_GROUP = "CONNECTION_GROUP";
 
   /**
-   * This is the default wait time used for DynamicWaitTimes can be overwritten by a runtime
-   * configuration
+   * This is the default maximum time a transform waits for a signal from its input buffers before
+   * checking them again. It can be overwritten by a runtime configuration
    */
   @Variable(
       scope = VariableScope.ENGINE,
       value = "20",
-      description = "This is the default polling frequency for the transforms input buffer (in ms)")
+      description =
+          "This is the default maximum wait time for a signal from the transforms input buffer (in ms)")
   public static final String HOP_DEFAULT_BUFFER_POLLING_WAITTIME =
       "HOP_DEFAULT_BUFFER_POLLING_WAITTIME";
 
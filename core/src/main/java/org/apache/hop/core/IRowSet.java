@@ -17,6 +17,8 @@
 
 package org.apache.hop.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.apache.hop.core.row.IRowMeta;
 
@@ -44,6 +46,54 @@ public interface IRowSet {
    */
   boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu);
 
+  /**
+   * Offer a batch of rows to this rowset, starting at the given offset in the list. If the buffer
+   * is full, wait (block) for a small period of time for the first row. The remaining rows are only
+   * added as long as there is room in the buffer.
+   *
+   * @param rowMeta The description of the row data
+   * @param rows the rows of data
+   * @param offset the index of the first row in the list to add
+   * @return the number of rows that were added to the rowset, 0 if the buffer stayed full.
+   */
+  default int putRows(IRowMeta rowMeta, List<Object[]> rows, int offset) {
+    int added = 0;
+    for (int i = offset; i < rows.size(); i++) {
+      boolean put;
+      if (added == 0) {
+        put = putRow(rowMeta, rows.get(i));
+      } else {
+        put = putRowWait(rowMeta, rows.get(i), 0, TimeUnit.MILLISECONDS);
+      }
+      if (!put) {
+        break;
+      }
+      added++;
+    }
+    return added;
+  }
+
+  /**
+   * Get a batch of rows from the input buffer. It blocks for a short period until a first row
+   * becomes available and then takes the rows which are immediately available, up to the given
+   * maximum.
+   *
+   * @param maxRows the maximum number of rows to return
+   * @return the rows of data, an empty list if no row is available.
+   */
+  default List<Object[]> getRows(int maxRows) {
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row = getRow();
+    while (row != null) {
+      rows.add(row);
+      if (rows.size() >= maxRows) {
+        break;
+      }
+      row = getRowImmediate();
+    }
+    return rows;
+  }
+
   /**
    * Get a row from the input buffer, it blocks for a short period until a new row becomes
    * available. Otherwise, it returns null.
@@ -136,4 +186,12 @@ public interface IRowSet {
 
   /** Clear this rowset: remove all rows and remove the "done" flag. */
   void clear();
+
+  /**
+   * Register the notifier of the reading transform. The row set signals it whenever rows are added
+   * or when the row set is set to done. Row sets which don't support this are polled instead.
+   *
+   * @param notifier the notifier to signal or null to stop signalling
+   */
+  default void setNotifier(RowSetNotifier notifier) {}
 }
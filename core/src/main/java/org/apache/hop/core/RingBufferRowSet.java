@@ -0,0 +1,319 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * A lock-free buffer of rows for exactly one producing thread and one consuming thread. Rows are
+ * kept in a power-of-two sized ring. The writer only ever moves the tail and the reader only ever
+ * moves the head so no locking is needed on the hot path.
+ *
+ * <p>When the buffer is full (writer) or empty (reader) the waiting thread first spins for a short
+ * while, then yields and finally parks until the other side signals or the timeout expires.
+ *
+ * <p>Only use this row set when a single transform copy writes to it and a single transform copy
+ * reads from it. For all other situations use {@link BlockingRowSet}.
+ */
+public class RingBufferRowSet extends BaseRowSet implements Comparable<IRowSet>, IRowSet {
+  /** The number of busy-spin iterations before we start yielding */
+  private static final int SPIN_TRIES = 100;
+
+  /** The number of yield iterations before we start parking */
+  private static final int YIELD_TRIES = 10;
+
+  /** The maximum time to park in one go. This caps the delay of a missed wake-up signal. */
+  private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final Object[][] buffer;
+  private final int mask;
+  private final int capacity;
+
+  /** The next position to read from, only written by the consumer */
+  private final AtomicLong head;
+
+  /** The next position to write to, only written by the producer */
+  private final AtomicLong tail;
+
+  /** Consumer-local copy of the tail to avoid volatile reads while there are rows available */
+  private long cachedTail;
+
+  /** Producer-local copy of the head to avoid volatile reads while there is room available */
+  private long cachedHead;
+
+  private volatile Thread waitingProducer;
+  private volatile Thread waitingConsumer;
+
+  private int timeoutPut;
+  private int timeoutGet;
+
+  /**
+   * Create a new ring buffer row set which can hold at least maxSize rows.
+   *
+   * @param maxSize the minimum capacity of the buffer
+   */
+  public RingBufferRowSet(int maxSize) {
+    super();
+
+    int ringSize = 1;
+    while (ringSize < Math.max(2, maxSize)) {
+      ringSize <<= 1;
+    }
+    buffer = new Object[ringSize][];
+    mask = ringSize - 1;
+    capacity = Math.max(1, maxSize);
+
+    head = new AtomicLong(0L);
+    tail = new AtomicLong(0L);
+
+    timeoutGet =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_GET_TIMEOUT), Const.TIMEOUT_GET_MILLIS);
+    timeoutPut =
+        Const.toInt(System.getProperty(Const.HOP_ROWSET_PUT_TIMEOUT), Const.TIMEOUT_PUT_MILLIS);
+  }
+
+  @Override
+  public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
+    return putRowWait(rowMeta, rowData, timeoutPut, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public boolean putRowWait(IRowMeta rowMeta, Object[] rowData, long time, TimeUnit tu) {
+    if (rowData == null) {
+      return false;
+    }
+    this.rowMeta = rowMeta;
+
+    long position = tail.get();
+    if (position - cachedHead >= capacity) {
+      cachedHead = head.get();
+      if (position - cachedHead >= capacity && !waitForRoom(position, tu.toNanos(time))) {
+        return false;
+      }
+    }
+
+    buffer[(int) position & mask] = rowData;
+    tail.lazySet(position + 1);
+
+    Thread consumer = waitingConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+    signalReader();
+    return true;
+  }
+
+  /** Writes all rows that fit in the buffer and publishes them with a single tail update. */
+  @Override
+  public int putRows(IRowMeta rowMeta, List<Object[]> rows, int offset) {
+    if (offset >= rows.size()) {
+      return 0;
+    }
+    this.rowMeta = rowMeta;
+
+    // One volatile read per batch to see all the room that is available
+    //
+    long position = tail.get();
+    cachedHead = head.get();
+    if (position - cachedHead >= capacity
+        && !waitForRoom(position, TimeUnit.MILLISECONDS.toNanos(timeoutPut))) {
+      return 0;
+    }
+
+    int count = (int) Math.min(rows.size() - offset, capacity - (position - cachedHead));
+    for (int i = 0; i < count; i++) {
+      buffer[(int) (position + i) & mask] = rows.get(offset + i);
+    }
+    tail.lazySet(position + count);
+
+    Thread consumer = waitingConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+    signalReader();
+    return count;
+  }
+
+  private boolean waitForRoom(long position, long timeoutNanos) {
+    long deadline = System.nanoTime() + timeoutNanos;
+    int tries = 0;
+    while (true) {
+      cachedHead = head.get();
+      if (position - cachedHead < capacity) {
+        return true;
+      }
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+        return false;
+      }
+      if (tries < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+        Thread.yield();
+      } else {
+        waitingProducer = Thread.currentThread();
+        try {
+          if (position - head.get() >= capacity) {
+            LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+          }
+        } finally {
+          waitingProducer = null;
+        }
+      }
+      tries++;
+    }
+  }
+
+  @Override
+  public Object[] getRow() {
+    return getRowWait(timeoutGet, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Object[] getRowImmediate() {
+    long position = head.get();
+    if (position >= cachedTail) {
+      cachedTail = tail.get();
+      if (position >= cachedTail) {
+        return null;
+      }
+    }
+    return take(position);
+  }
+
+  @Override
+  public Object[] getRowWait(long timeout, TimeUnit tu) {
+    long position = head.get();
+    if (position >= cachedTail) {
+      cachedTail = tail.get();
+      if (position >= cachedTail && !waitForRows(position, tu.toNanos(timeout))) {
+        return null;
+      }
+    }
+    return take(position);
+  }
+
+  /** Takes all available rows up to maxRows and releases them with a single head update. */
+  @Override
+  public List<Object[]> getRows(int maxRows) {
+    List<Object[]> rows = new ArrayList<>();
+    // One volatile read per batch to see all the rows that are available
+    //
+    long position = head.get();
+    cachedTail = tail.get();
+    if (position >= cachedTail
+        && !waitForRows(position, TimeUnit.MILLISECONDS.toNanos(timeoutGet))) {
+      return rows;
+    }
+
+    int count = (int) Math.min(maxRows, cachedTail - position);
+    for (int i = 0; i < count; i++) {
+      int index = (int) (position + i) & mask;
+      rows.add(buffer[index]);
+      buffer[index] = null; // prevent any hold-up to GC
+    }
+    head.lazySet(position + count);
+
+    Thread producer = waitingProducer;
+    if (producer != null) {
+      LockSupport.unpark(producer);
+    }
+    return rows;
+  }
+
+  private Object[] take(long position) {
+    int index = (int) position & mask;
+    Object[] row = buffer[index];
+    buffer[index] = null; // prevent any hold-up to GC
+    head.lazySet(position + 1);
+
+    Thread producer = waitingProducer;
+    if (producer != null) {
+      LockSupport.unpark(producer);
+    }
+    return row;
+  }
+
+  private boolean waitForRows(long position, long timeoutNanos) {
+    long deadline = System.nanoTime() + timeoutNanos;
+    int tries = 0;
+    while (true) {
+      cachedTail = tail.get();
+      if (position < cachedTail) {
+        return true;
+      }
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0 || isDone() || Thread.currentThread().isInterrupted()) {
+        // Rows written right before the done flag was set still need to be picked up
+        //
+        cachedTail = tail.get();
+        return position < cachedTail;
+      }
+      if (tries < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+        Thread.yield();
+      } else {
+        waitingConsumer = Thread.currentThread();
+        try {
+          if (position >= tail.get() && !isDone()) {
+            LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+          }
+        } finally {
+          waitingConsumer = null;
+        }
+      }
+      tries++;
+    }
+  }
+
+  @Override
+  public void setDone() {
+    super.setDone();
+    Thread consumer = waitingConsumer;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+  }
+
+  @Override
+  public int size() {
+    return (int) (tail.get() - head.get());
+  }
+
+  /**
+   * Removes all rows from the buffer. This is only safe to call when neither the producer nor the
+   * consumer is active on this row set.
+   */
+  @Override
+  public void clear() {
+    long position = tail.get();
+    for (long i = head.get(); i < position; i++) {
+      buffer[(int) i & mask] = null;
+    }
+    head.set(position);
+    cachedHead = position;
+    cachedTail = position;
+    done.set(false);
+  }
+}
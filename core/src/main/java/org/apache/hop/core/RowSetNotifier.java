@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Wakes up the thread reading from one or more row sets as soon as any of them receives rows or is
+ * set to done. Every signal increments a sequence number. The reader takes the sequence number
+ * before it looks at its row sets and then waits until the number changes, so no signal is lost in
+ * between.
+ *
+ * <p>A notifier has a single waiting thread: the thread of the transform reading the row sets.
+ */
+public class RowSetNotifier {
+  private final AtomicLong sequence;
+  private volatile Thread waiter;
+
+  public RowSetNotifier() {
+    sequence = new AtomicLong(0L);
+  }
+
+  /**
+   * @return the current sequence number, to be passed to {@link #await(long, long, TimeUnit)}
+   */
+  public long getSequence() {
+    return sequence.get();
+  }
+
+  /** Signal that rows arrived or that a row set is done. This never blocks. */
+  public void signal() {
+    sequence.incrementAndGet();
+    Thread thread = waiter;
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Park the current thread until a signal arrives after the given sequence number was obtained, or
+   * until the timeout expires.
+   *
+   * @param seenSequence the sequence number obtained before the row sets were checked
+   * @param timeout the maximum time to wait
+   * @param unit the unit of the timeout
+   * @return true if a signal arrived, false if we timed out or were interrupted
+   */
+  public boolean await(long seenSequence, long timeout, TimeUnit unit) {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    waiter = Thread.currentThread();
+    try {
+      while (sequence.get() == seenSequence) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+          return false;
+        }
+        LockSupport.parkNanos(this, remaining);
+      }
+      return true;
+    } finally {
+      waiter = null;
+    }
+  }
+}
@@ -48,6 +48,7 @@ public class SingleRowRowSet extends BaseRowSet implements Comparable<IRowSet>,
   public boolean putRow(IRowMeta rowMeta, Object[] rowData) {
     this.rowMeta = rowMeta;
     this.row = rowData;
+    signalReader();
     return true;
   }
 
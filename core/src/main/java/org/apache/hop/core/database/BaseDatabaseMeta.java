@@ -91,6 +91,18 @@ public abstract class BaseDatabaseMeta implements Cloneable, IDatabase {
    */
   public static final String ATTRIBUTE_PRESERVE_RESERVED_WORD_CASE = "PRESERVE_RESERVED_WORD_CASE";
 
+  /** A flag to determine if the connections are taken from a connection pool */
+  public static final String ATTRIBUTE_USE_POOLING = "USE_POOLING";
+
+  /** The maximum number of idle connections kept open in the connection pool */
+  public static final String ATTRIBUTE_MAXIMUM_IDLE_CONNECTIONS = "MAXIMUM_IDLE_CONNECTIONS";
+
+  /** The number of seconds after which an unused connection in the pool is closed */
+  public static final String ATTRIBUTE_POOL_IDLE_TIMEOUT = "POOL_IDLE_TIMEOUT";
+
+  /** The query to validate a connection with before it's taken from the pool */
+  public static final String ATTRIBUTE_POOL_VALIDATION_QUERY = "POOL_VALIDATION_QUERY";
+
   public static final String SEQUENCE_FOR_BATCH_ID = "SEQUENCE_FOR_BATCH_ID";
   public static final String AUTOINCREMENT_SQL_FOR_BATCH_ID = "AUTOINCREMENT_SQL_FOR_BATCH_ID";
 
@@ -1052,6 +1064,74 @@ public abstract class BaseDatabaseMeta implements Cloneable, IDatabase {
     attributes.put(ATTRIBUTE_SQL_CONNECT, sql);
   }
 
+  /**
+   * @return true if the connections are taken from a connection pool
+   */
+  @Override
+  public boolean isUsingConnectionPool() {
+    String usePool = getAttributeProperty(ATTRIBUTE_USE_POOLING, "N"); // DEFAULT TO NO!!
+    return "Y".equalsIgnoreCase(usePool);
+  }
+
+  /**
+   * @param usePool true if the connections should be taken from a connection pool
+   */
+  @Override
+  public void setUsingConnectionPool(boolean usePool) {
+    attributes.put(ATTRIBUTE_USE_POOLING, usePool ? "Y" : "N");
+  }
+
+  /**
+   * @return The maximum number of idle connections kept open in the connection pool
+   */
+  @Override
+  public String getMaximumIdleConnections() {
+    return getAttributeProperty(ATTRIBUTE_MAXIMUM_IDLE_CONNECTIONS);
+  }
+
+  /**
+   * @param maximumIdleConnections The maximum number of idle connections kept open in the
+   *     connection pool
+   */
+  @Override
+  public void setMaximumIdleConnections(String maximumIdleConnections) {
+    attributes.put(ATTRIBUTE_MAXIMUM_IDLE_CONNECTIONS, maximumIdleConnections);
+  }
+
+  /**
+   * @return The number of seconds after which an unused connection in the pool is closed
+   */
+  @Override
+  public String getPoolIdleTimeout() {
+    return getAttributeProperty(ATTRIBUTE_POOL_IDLE_TIMEOUT);
+  }
+
+  /**
+   * @param poolIdleTimeout The number of seconds after which an unused connection in the pool is
+   *     closed
+   */
+  @Override
+  public void setPoolIdleTimeout(String poolIdleTimeout) {
+    attributes.put(ATTRIBUTE_POOL_IDLE_TIMEOUT, poolIdleTimeout);
+  }
+
+  /**
+   * @return The query to validate a connection with before it's taken from the pool
+   */
+  @Override
+  public String getPoolValidationQuery() {
+    return getAttributeProperty(ATTRIBUTE_POOL_VALIDATION_QUERY);
+  }
+
+  /**
+   * @param poolValidationQuery The query to validate a connection with before it's taken from the
+   *     pool
+   */
+  @Override
+  public void setPoolValidationQuery(String poolValidationQuery) {
+    attributes.put(ATTRIBUTE_POOL_VALIDATION_QUERY, poolValidationQuery);
+  }
+
   /**
    * @return true if the database supports setting the maximum number of return rows in a resultset.
    */
@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.dbcp.DriverManagerConnectionFactory;
+import org.apache.commons.dbcp.PoolableConnectionFactory;
+import org.apache.commons.dbcp.PoolingDataSource;
+import org.apache.commons.pool.impl.GenericObjectPool;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.core.util.Utils;
+
+/**
+ * Keeps a pool of JDBC connections per database connection. A connection taken from a pool goes
+ * back to the pool when it's closed. Uncommitted work is rolled back and auto-commit is switched on
+ * again before another database uses it.
+ *
+ * <p>The pool never makes a database wait for a connection: when all connections are in use a new
+ * one is opened. The maximum number of idle connections is the number of connections which are
+ * kept open after they're returned, it doesn't limit the connections in use. Connections which
+ * aren't used for the idle timeout are closed.
+ *
+ * <p>A pool is kept per database connection name, URL, connection properties and pool settings, so
+ * database connections which share a name but connect to another database or as another user get a
+ * pool each. When a database connection changes, a new pool is created for it. The old pool is
+ * closed by the eviction check once none of its connections are in use. All pools are closed when
+ * the Hop environment is shut down.
+ */
+public class ConnectionPoolUtil {
+
+  /** Loads the JDBC driver the first time a connection is needed for a pool */
+  @FunctionalInterface
+  public interface IDriverLoader {
+    void loadDriver() throws HopDatabaseException;
+  }
+
+  /** The interval of the check which closes the pools of changed database connections */
+  private static final long EVICTION_INTERVAL_MS = 60000L;
+
+  private static final Map<List<Object>, Pool> pools = new HashMap<>();
+
+  private static final ScheduledExecutorService evictor =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "Hop connection pool evictor");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  static {
+    evictor.scheduleWithFixedDelay(
+        ConnectionPoolUtil::evictStalePools,
+        EVICTION_INTERVAL_MS,
+        EVICTION_INTERVAL_MS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  private ConnectionPoolUtil() {}
+
+  /**
+   * Take a connection from the pool, the pool is created if needed.
+   *
+   * @param log The log channel to report the creation of the pool to
+   * @param name The name of the database connection
+   * @param url The resolved URL to connect to
+   * @param properties The connection properties, including the user and password
+   * @param maximumIdle The maximum number of unused connections kept open in the pool
+   * @param idleTimeout The number of seconds after which an unused connection is closed, 0 to keep
+   *     the connections open
+   * @param validationQuery The query to validate a connection with before it's handed out or null
+   * @param driverLoader Loads the JDBC driver when the pool is created
+   * @return A connection which goes back to the pool when it's closed
+   * @throws HopDatabaseException In case the driver can't be loaded
+   * @throws SQLException In case no connection can be opened
+   */
+  public static Connection getConnection(
+      ILogChannel log,
+      String name,
+      String url,
+      Properties properties,
+      int maximumIdle,
+      int idleTimeout,
+      String validationQuery,
+      IDriverLoader driverLoader)
+      throws HopDatabaseException, SQLException {
+    Properties copy = new Properties();
+    copy.putAll(properties);
+    List<Object> key = Arrays.asList(name, url, copy, maximumIdle, idleTimeout, validationQuery);
+    Pool pool;
+    synchronized (pools) {
+      pool = pools.get(key);
+      if (pool == null) {
+        driverLoader.loadDriver();
+        pool = new Pool(name, url, copy, maximumIdle, idleTimeout, validationQuery);
+        pools.put(key, pool);
+        if (log != null && log.isDetailed()) {
+          log.logDetailed(
+              "Created a pool of maximum "
+                  + maximumIdle
+                  + " idle connections for database connection '"
+                  + name
+                  + "'");
+        }
+        markCurrent(pool);
+      } else if (pool.stale) {
+        markCurrent(pool);
+      }
+      pool.borrowing++;
+    }
+
+    // Opening a connection can take a while: don't keep the other pools waiting
+    //
+    try {
+      return pool.dataSource.getConnection();
+    } finally {
+      synchronized (pools) {
+        pool.borrowing--;
+      }
+    }
+  }
+
+  /** The older pools of the same database connection are closed by the eviction check */
+  private static void markCurrent(Pool current) {
+    for (Pool pool : pools.values()) {
+      if (pool.name.equals(current.name)) {
+        pool.stale = pool != current;
+      }
+    }
+  }
+
+  /**
+   * Close the pools which were replaced by a newer pool of the same database connection and which
+   * have no connections in use anymore.
+   */
+  static void evictStalePools() {
+    synchronized (pools) {
+      Iterator<Pool> iterator = pools.values().iterator();
+      while (iterator.hasNext()) {
+        Pool pool = iterator.next();
+        if (pool.stale && pool.borrowing == 0 && pool.objectPool.getNumActive() == 0) {
+          pool.close();
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  /**
+   * @param name The name of the database connection
+   * @return The number of connections handed out by the pools of the database connection
+   */
+  public static int getNumActive(String name) {
+    int numActive = 0;
+    synchronized (pools) {
+      for (Pool pool : pools.values()) {
+        if (pool.name.equals(name)) {
+          numActive += pool.objectPool.getNumActive();
+        }
+      }
+    }
+    return numActive;
+  }
+
+  /**
+   * @param name The name of the database connection
+   * @return The number of connections waiting in the pools of the database connection
+   */
+  public static int getNumIdle(String name) {
+    int numIdle = 0;
+    synchronized (pools) {
+      for (Pool pool : pools.values()) {
+        if (pool.name.equals(name)) {
+          numIdle += pool.objectPool.getNumIdle();
+        }
+      }
+    }
+    return numIdle;
+  }
+
+  /**
+   * Close the connections waiting in all pools and remove the pools. Connections which are in use
+   * are closed when they're returned.
+   */
+  public static void closeAll() {
+    synchronized (pools) {
+      for (Pool pool : pools.values()) {
+        pool.close();
+      }
+      pools.clear();
+    }
+  }
+
+  private static final class Pool {
+    private final String name;
+    private final GenericObjectPool objectPool;
+    private final PoolingDataSource dataSource;
+
+    /** True if a newer pool of the same database connection exists */
+    private boolean stale;
+
+    /** The number of connections which are being taken from the pool */
+    private int borrowing;
+
+    private Pool(
+        String name,
+        String url,
+        Properties properties,
+        int maximumIdle,
+        int idleTimeout,
+        String validationQuery) {
+      this.name = name;
+      objectPool = new GenericObjectPool();
+      objectPool.setMaxActive(-1);
+      objectPool.setMaxIdle(maximumIdle);
+      objectPool.setWhenExhaustedAction(GenericObjectPool.WHEN_EXHAUSTED_GROW);
+      if (idleTimeout > 0) {
+        long idleMillis = idleTimeout * 1000L;
+        objectPool.setMinEvictableIdleTimeMillis(idleMillis);
+        objectPool.setTimeBetweenEvictionRunsMillis(Math.min(idleMillis, 60000L));
+        objectPool.setNumTestsPerEvictionRun(-1);
+      }
+      boolean validate = !Utils.isEmpty(validationQuery);
+      objectPool.setTestOnBorrow(validate);
+
+      // Registers itself as the factory of the pool
+      //
+      new PoolableConnectionFactory(
+          new DriverManagerConnectionFactory(url, properties),
+          objectPool,
+          null,
+          validate ? validationQuery : null,
+          false,
+          true);
+
+      dataSource = new PoolingDataSource(objectPool);
+      dataSource.setAccessToUnderlyingConnectionAllowed(true);
+    }
+
+    private void close() {
+      try {
+        objectPool.close();
+      } catch (Exception e) {
+        // Closing the idle connections is best effort
+      }
+    }
+  }
+}
@@ -74,7 +74,6 @@ import org.apache.hop.core.plugins.IPlugin;
 import org.apache.hop.core.plugins.PluginRegistry;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
-import org.apache.hop.core.row.RowDataUtil;
 import org.apache.hop.core.row.RowMeta;
 import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.row.value.ValueMetaBigNumber;
@@ -124,6 +123,14 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
   private IRowMeta rowMeta;
 
+  /** Reads the rows of the current query */
+  private ResultSetRowReader rowReader;
+
+  /** The prepared statement the row metadata was last determined for by openQuery() */
+  private PreparedStatement rowMetaStatement;
+
+  private IRowMeta statementRowMeta;
+
   private int written;
 
   private ILogChannel log;
@@ -338,8 +345,8 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
    * Open the database connection. The algorithm is:
    *
    * <ol>
-   *   <li>If <code>databaseMeta.isUsingConnectionPool()</code>, then the connection's datasource is
-   *       looked up in the pool
+   *   <li>If <code>databaseMeta.isUsingConnectionPool()</code>, then the connection is taken from
+   *       the pool of the database connection, see {@link ConnectionPoolUtil}
    *   <li>otherwise, the connection is established via {@linkplain DriverManager}
    * </ol>
    *
@@ -381,47 +388,10 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
    * @return true if the connect was successful, false if something went wrong.
    */
   private void connectUsingClass(String classname, String partitionId) throws HopDatabaseException {
-    // Install and load the jdbc Driver
-    IPlugin plugin =
-        PluginRegistry.getInstance()
-            .getPlugin(DatabasePluginType.class, databaseMeta.getIDatabase());
-
-    try {
-      synchronized (DriverManager.class) {
-        ClassLoader classLoader = PluginRegistry.getInstance().getClassLoader(plugin);
-        Class<?> driverClass = classLoader.loadClass(classname);
-
-        // Only need DelegatingDriver for drivers not from our classloader
-        if (driverClass.getClassLoader() != this.getClass().getClassLoader()) {
-          String pluginId =
-              PluginRegistry.getInstance()
-                  .getPluginId(DatabasePluginType.class, databaseMeta.getIDatabase());
-          Set<String> registeredDriversFromPlugin = registeredDrivers.get(pluginId);
-          if (registeredDriversFromPlugin == null) {
-            registeredDriversFromPlugin = new HashSet<>();
-            registeredDrivers.put(pluginId, registeredDriversFromPlugin);
-          }
-          // Prevent registering multiple delegating drivers for same class, plugin
-          if (!registeredDriversFromPlugin.contains(driverClass.getCanonicalName())) {
-            DriverManager.registerDriver(
-                new DelegatingDriver((Driver) driverClass.getDeclaredConstructor().newInstance()));
-            registeredDriversFromPlugin.add(driverClass.getCanonicalName());
-          }
-        } else {
-          // Trigger static register block in driver class
-          Class.forName(classname);
-        }
-      }
-    } catch (NoClassDefFoundError | ClassNotFoundException e) {
-      throw new HopDatabaseException(
-          BaseMessages.getString(
-              PKG,
-              "Database.Exception.UnableToFindClassMissingDriver",
-              classname,
-              plugin.getName()),
-          e);
-    } catch (Exception e) {
-      throw new HopDatabaseException("Exception while loading class", e);
+    // A pool only needs the driver when it's created
+    //
+    if (!databaseMeta.isUsingConnectionPool()) {
+      loadDriverClass(classname);
     }
 
     try {
@@ -449,10 +419,10 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
               url += ";instanceName=" + instance;
             }
           }
-          connection = DriverManager.getConnection(url, properties);
+          connection = getConnection(classname, url, properties);
         } else {
           // Perhaps the username is in the URL or no username is required...
-          connection = DriverManager.getConnection(url, properties);
+          connection = getConnection(classname, url, properties);
         }
       } else {
         if (!Utils.isEmpty(username)) {
@@ -462,7 +432,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
           properties.put("password", password);
         }
 
-        connection = DriverManager.getConnection(url, properties);
+        connection = getConnection(classname, url, properties);
       }
     } catch (Exception e) {
       throw new HopDatabaseException(
@@ -470,6 +440,82 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
     }
   }
 
+  /**
+   * Open a new connection or take one from the pool of the database connection.
+   *
+   * @param classname The class of the JDBC driver
+   * @param url The resolved URL
+   * @param properties The connection properties, including the user and password
+   * @return The connection
+   */
+  private Connection getConnection(String classname, String url, Properties properties)
+      throws HopDatabaseException, SQLException {
+    if (databaseMeta.isUsingConnectionPool()) {
+      return ConnectionPoolUtil.getConnection(
+          log,
+          databaseMeta.getName(),
+          url,
+          properties,
+          Const.toInt(
+              resolve(databaseMeta.getMaximumIdleConnections()),
+              DatabaseMeta.DEFAULT_MAXIMUM_IDLE_CONNECTIONS),
+          Const.toInt(
+              resolve(databaseMeta.getPoolIdleTimeout()), DatabaseMeta.DEFAULT_POOL_IDLE_TIMEOUT),
+          resolve(databaseMeta.getPoolValidationQuery()),
+          () -> loadDriverClass(classname));
+    }
+    return DriverManager.getConnection(url, properties);
+  }
+
+  /**
+   * Install and load the JDBC driver
+   *
+   * @param classname for example "org.gjt.mm.mysql.Driver"
+   */
+  private void loadDriverClass(String classname) throws HopDatabaseException {
+    IPlugin plugin =
+        PluginRegistry.getInstance()
+            .getPlugin(DatabasePluginType.class, databaseMeta.getIDatabase());
+
+    try {
+      synchronized (DriverManager.class) {
+        ClassLoader classLoader = PluginRegistry.getInstance().getClassLoader(plugin);
+        Class<?> driverClass = classLoader.loadClass(classname);
+
+        // Only need DelegatingDriver for drivers not from our classloader
+        if (driverClass.getClassLoader() != this.getClass().getClassLoader()) {
+          String pluginId =
+              PluginRegistry.getInstance()
+                  .getPluginId(DatabasePluginType.class, databaseMeta.getIDatabase());
+          Set<String> registeredDriversFromPlugin = registeredDrivers.get(pluginId);
+          if (registeredDriversFromPlugin == null) {
+            registeredDriversFromPlugin = new HashSet<>();
+            registeredDrivers.put(pluginId, registeredDriversFromPlugin);
+          }
+          // Prevent registering multiple delegating drivers for same class, plugin
+          if (!registeredDriversFromPlugin.contains(driverClass.getCanonicalName())) {
+            DriverManager.registerDriver(
+                new DelegatingDriver((Driver) driverClass.getDeclaredConstructor().newInstance()));
+            registeredDriversFromPlugin.add(driverClass.getCanonicalName());
+          }
+        } else {
+          // Trigger static register block in driver class
+          Class.forName(classname);
+        }
+      }
+    } catch (NoClassDefFoundError | ClassNotFoundException e) {
+      throw new HopDatabaseException(
+          BaseMessages.getString(
+              PKG,
+              "Database.Exception.UnableToFindClassMissingDriver",
+              classname,
+              plugin.getName()),
+          e);
+    } catch (Exception e) {
+      throw new HopDatabaseException("Exception while loading class", e);
+    }
+  }
+
   /** close() and disconnect() are the same. */
   @Override
   public synchronized void close() {
@@ -1537,7 +1583,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
         if (canWeSetFetchSize(pstmt)) {
           int maxRows = pstmt.getMaxRows();
-          int fs = Const.FETCH_SIZE <= maxRows ? maxRows : Const.FETCH_SIZE;
+          int fs = getFetchSize(maxRows);
           if (databaseMeta.isMySqlVariant()) {
             setMysqlFetchSize(pstmt, fs, maxRows);
           } else {
@@ -1559,8 +1605,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
         selStmt = connection.createStatement();
         log.snap(Metrics.METRIC_DATABASE_CREATE_SQL_STOP, databaseMeta.getName());
         if (canWeSetFetchSize(selStmt)) {
-          int fs =
-              Const.FETCH_SIZE <= selStmt.getMaxRows() ? selStmt.getMaxRows() : Const.FETCH_SIZE;
+          int fs = getFetchSize(selStmt.getMaxRows());
           if (databaseMeta.getIDatabase().isMySqlVariant() && databaseMeta.isStreamingResults()) {
             selStmt.setFetchSize(Integer.MIN_VALUE);
           } else {
@@ -1597,10 +1642,23 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
   private boolean canWeSetFetchSize(Statement statement) throws SQLException {
     return databaseMeta.isFetchSizeSupported()
         && (statement.getMaxRows() > 0
+            || databaseMeta.getPreferredFetchSize() > 0
             || databaseMeta.getIDatabase().isPostgresVariant()
             || (databaseMeta.isMySqlVariant() && databaseMeta.isStreamingResults()));
   }
 
+  /**
+   * @param maxRows The maximum number of rows the statement returns, 0 if there is no maximum
+   * @return The number of rows to fetch from the database at once
+   */
+  private int getFetchSize(int maxRows) {
+    int fetchSize =
+        databaseMeta.getPreferredFetchSize() > 0
+            ? databaseMeta.getPreferredFetchSize()
+            : Const.FETCH_SIZE;
+    return fetchSize <= maxRows ? maxRows : fetchSize;
+  }
+
   public ResultSet openQuery(PreparedStatement ps, IRowMeta params, Object[] data)
       throws HopDatabaseException {
     ResultSet res;
@@ -1615,7 +1673,7 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
 
       if (canWeSetFetchSize(ps)) {
         int maxRows = ps.getMaxRows();
-        int fs = Const.FETCH_SIZE <= maxRows ? maxRows : Const.FETCH_SIZE;
+        int fs = getFetchSize(maxRows);
         // mysql have some restriction on fetch size assignment
         if (databaseMeta.isMySqlVariant()) {
           setMysqlFetchSize(ps, fs, maxRows);
@@ -1640,9 +1698,16 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
       // to get the length of a String field. So, on MySQL, we ignore the length
       // of Strings in result rows.
       //
-      log.snap(Metrics.METRIC_DATABASE_GET_ROW_META_START, databaseMeta.getName());
-      rowMeta = getRowInfo(res.getMetaData(), databaseMeta.isMySqlVariant(), false);
-      log.snap(Metrics.METRIC_DATABASE_GET_ROW_META_STOP, databaseMeta.getName());
+      // A statement which is executed again, for example for every row of a
+      // database join, returns the same columns: keep the row metadata.
+      //
+      if (ps != rowMetaStatement || statementRowMeta == null) {
+        log.snap(Metrics.METRIC_DATABASE_GET_ROW_META_START, databaseMeta.getName());
+        statementRowMeta = getRowInfo(res.getMetaData(), databaseMeta.isMySqlVariant(), false);
+        rowMetaStatement = ps;
+        log.snap(Metrics.METRIC_DATABASE_GET_ROW_META_STOP, databaseMeta.getName());
+      }
+      rowMeta = statementRowMeta;
     } catch (SQLException ex) {
       throw new HopDatabaseException("ERROR executing query", ex);
     } catch (Exception e) {
@@ -2438,28 +2503,25 @@ public class Database implements IVariables, ILoggingObject, AutoCloseable {
    */
   public Object[] getRow(ResultSet rs, ResultSetMetaData dummy, IRowMeta rowInfo)
       throws HopDatabaseException {
-    long startTime = System.currentTimeMillis();
+    boolean gatheringMetrics = log.isGatheringMetrics();
+    long startTime = gatheringMetrics ? System.currentTimeMillis() : 0L;
 
     try {
-
-      int nrcols = rowInfo.size();
-      Object[] data = RowDataUtil.allocateRowData(nrcols);
-
-      if (rs.next()) {
-        for (int i = 0; i < nrcols; i++) {
-          IValueMeta val = rowInfo.getValueMeta(i);
-
-          data[i] = databaseMeta.getValueFromResultSet(rs, val, i);
-        }
-      } else {
-        data = null;
+      if (!rs.next()) {
+        return null;
       }
 
-      return data;
+      // Work out how to read the columns once per query, not for every value
+      //
+      IDatabase iDatabase = databaseMeta.getIDatabase();
+      if (rowReader == null || !rowReader.isReading(iDatabase, rowInfo)) {
+        rowReader = new ResultSetRowReader(iDatabase, rowInfo);
+      }
+      return rowReader.readRow(rs);
     } catch (Exception ex) {
       throw new HopDatabaseException("Couldn't get row from result set", ex);
     } finally {
-      if (log.isGatheringMetrics()) {
+      if (gatheringMetrics) {
         long time = System.currentTimeMillis() - startTime;
         log.snap(Metrics.METRIC_DATABASE_GET_ROW_SUM_TIME, databaseMeta.getName(), time);
         log.snap(Metrics.METRIC_DATABASE_GET_ROW_MIN_TIME, databaseMeta.getName(), time);
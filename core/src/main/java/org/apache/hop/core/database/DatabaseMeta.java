@@ -121,6 +121,12 @@ public class DatabaseMeta extends HopMetadataBase implements Cloneable, IHopMeta
    */
   public static final int CLOB_LENGTH = 9999999;
 
+  /** The default maximum number of idle connections kept open in a connection pool */
+  public static final int DEFAULT_MAXIMUM_IDLE_CONNECTIONS = 10;
+
+  /** The default number of seconds after which an unused connection in a pool is closed */
+  public static final int DEFAULT_POOL_IDLE_TIMEOUT = 300;
+
   /** The value to store in the attributes so that an empty value doesn't get lost... */
   public static final String EMPTY_OPTIONS_STRING = "><EMPTY><";
 
@@ -1014,6 +1020,13 @@ public class DatabaseMeta extends HopMetadataBase implements Cloneable, IHopMeta
     return iDatabase.isFetchSizeSupported();
   }
 
+  /**
+   * @return The number of rows to fetch from the database at once or 0 if there is no preference
+   */
+  public int getPreferredFetchSize() {
+    return iDatabase.getPreferredFetchSize();
+  }
+
   /**
    * Indicates the need to insert a placeholder (0) for auto increment fields.
    *
@@ -1880,6 +1893,65 @@ public class DatabaseMeta extends HopMetadataBase implements Cloneable, IHopMeta
     iDatabase.setConnectSql(sql);
   }
 
+  /**
+   * @return true if the connections are taken from a connection pool
+   */
+  public boolean isUsingConnectionPool() {
+    return iDatabase.isUsingConnectionPool();
+  }
+
+  /**
+   * @param usePool true if the connections should be taken from a connection pool
+   */
+  public void setUsingConnectionPool(boolean usePool) {
+    iDatabase.setUsingConnectionPool(usePool);
+  }
+
+  /**
+   * @return The maximum number of idle connections kept open in the connection pool
+   */
+  public String getMaximumIdleConnections() {
+    return iDatabase.getMaximumIdleConnections();
+  }
+
+  /**
+   * @param maximumIdleConnections The maximum number of idle connections kept open in the
+   *     connection pool
+   */
+  public void setMaximumIdleConnections(String maximumIdleConnections) {
+    iDatabase.setMaximumIdleConnections(maximumIdleConnections);
+  }
+
+  /**
+   * @return The number of seconds after which an unused connection in the pool is closed
+   */
+  public String getPoolIdleTimeout() {
+    return iDatabase.getPoolIdleTimeout();
+  }
+
+  /**
+   * @param poolIdleTimeout The number of seconds after which an unused connection in the pool is
+   *     closed
+   */
+  public void setPoolIdleTimeout(String poolIdleTimeout) {
+    iDatabase.setPoolIdleTimeout(poolIdleTimeout);
+  }
+
+  /**
+   * @return The query to validate a connection with before it's taken from the pool
+   */
+  public String getPoolValidationQuery() {
+    return iDatabase.getPoolValidationQuery();
+  }
+
+  /**
+   * @param poolValidationQuery The query to validate a connection with before it's taken from the
+   *     pool
+   */
+  public void setPoolValidationQuery(String poolValidationQuery) {
+    iDatabase.setPoolValidationQuery(poolValidationQuery);
+  }
+
   /**
    * @return true if the database supports setting the maximum number of return rows in a resultset.
    */
@@ -308,6 +308,16 @@ public interface IDatabase extends Cloneable {
    */
   boolean isFetchSizeSupported();
 
+  /**
+   * The number of rows to fetch from the database at once when reading the result of a query. Use
+   * this for drivers which fetch very few rows at a time by default.
+   *
+   * @return The preferred fetch size or 0 to only set a fetch size in the cases Hop always does
+   */
+  default int getPreferredFetchSize() {
+    return 0;
+  }
+
   /**
    * @return true if the database supports transactions.
    */
@@ -641,6 +651,49 @@ public interface IDatabase extends Cloneable {
    */
   void setConnectSql(String sql);
 
+  /**
+   * @return true if the connections are taken from a connection pool
+   */
+  boolean isUsingConnectionPool();
+
+  /**
+   * @param usePool true if the connections should be taken from a connection pool
+   */
+  void setUsingConnectionPool(boolean usePool);
+
+  /**
+   * @return The maximum number of idle connections kept open in the connection pool
+   */
+  String getMaximumIdleConnections();
+
+  /**
+   * @param maximumIdleConnections The maximum number of idle connections kept open in the
+   *     connection pool
+   */
+  void setMaximumIdleConnections(String maximumIdleConnections);
+
+  /**
+   * @return The number of seconds after which an unused connection in the pool is closed
+   */
+  String getPoolIdleTimeout();
+
+  /**
+   * @param poolIdleTimeout The number of seconds after which an unused connection in the pool is
+   *     closed
+   */
+  void setPoolIdleTimeout(String poolIdleTimeout);
+
+  /**
+   * @return The query to validate a connection with before it's taken from the pool
+   */
+  String getPoolValidationQuery();
+
+  /**
+   * @param poolValidationQuery The query to validate a connection with before it's taken from the
+   *     pool
+   */
+  void setPoolValidationQuery(String poolValidationQuery);
+
   /**
    * @return true if the database supports setting the maximum number of return rows in a resultset.
    */
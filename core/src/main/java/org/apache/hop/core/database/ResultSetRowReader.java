@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import java.sql.Blob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.row.value.ValueMetaBase;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+
+/**
+ * Reads the rows of a result set. The way every column is read is worked out once per query instead
+ * of once per value: the standard value types are read straight from the result set with the
+ * matching JDBC getter. Databases and value types which read values their own way keep going
+ * through {@link IDatabase#getValueFromResultSet(ResultSet, IValueMeta, int)}.
+ */
+class ResultSetRowReader {
+
+  /** Reads the value of one column of the current row of a result set. */
+  @FunctionalInterface
+  interface IColumnReader {
+    Object read(ResultSet resultSet) throws SQLException, HopDatabaseException;
+  }
+
+  /** Remembers which classes use the standard way of reading a value from a result set. */
+  private static final Map<List<Class<?>>, Boolean> standardReadClasses = new ConcurrentHashMap<>();
+
+  private final IDatabase iDatabase;
+  private final IRowMeta rowMeta;
+  private final IColumnReader[] readers;
+
+  ResultSetRowReader(IDatabase iDatabase, IRowMeta rowMeta) {
+    this.iDatabase = iDatabase;
+    this.rowMeta = rowMeta;
+
+    boolean standardDatabase =
+        isStandardRead(
+            iDatabase.getClass(),
+            BaseDatabaseMeta.class,
+            ResultSet.class,
+            IValueMeta.class,
+            int.class);
+
+    readers = new IColumnReader[rowMeta.size()];
+    for (int i = 0; i < readers.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(i);
+      IColumnReader reader = null;
+      if (standardDatabase) {
+        reader = getStandardReader(iDatabase, valueMeta, i + 1);
+      }
+      if (reader == null) {
+        final int index = i;
+        reader = resultSet -> iDatabase.getValueFromResultSet(resultSet, valueMeta, index);
+      }
+      readers[i] = reader;
+    }
+  }
+
+  /**
+   * Read the current row of the result set.
+   *
+   * @param resultSet The result set, positioned on the row to read
+   * @return The row
+   * @throws HopDatabaseException In case a value can't be read
+   */
+  Object[] readRow(ResultSet resultSet) throws HopDatabaseException {
+    Object[] row = RowDataUtil.allocateRowData(readers.length);
+    int i = 0;
+    try {
+      for (; i < readers.length; i++) {
+        row[i] = readers[i].read(resultSet);
+      }
+    } catch (SQLException e) {
+      throw new HopDatabaseException(
+          "Unable to get value '"
+              + rowMeta.getValueMeta(i).toStringMeta()
+              + "' from database resultset, index "
+              + i,
+          e);
+    }
+    return row;
+  }
+
+  /**
+   * Can this reader be used for the rows described by the given row metadata? That is the case if
+   * every column is of the same type and is stored the same way.
+   *
+   * @param iDatabase The database the rows are read from
+   * @param otherRowMeta The row metadata to compare with
+   * @return true if the rows can be read with this reader
+   */
+  boolean isReading(IDatabase iDatabase, IRowMeta otherRowMeta) {
+    if (this.iDatabase != iDatabase) {
+      return false;
+    }
+    if (rowMeta == otherRowMeta) {
+      return true;
+    }
+    if (otherRowMeta == null || rowMeta.size() != otherRowMeta.size()) {
+      return false;
+    }
+    for (int i = 0; i < rowMeta.size(); i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(i);
+      IValueMeta other = otherRowMeta.getValueMeta(i);
+      if (valueMeta.getClass() != other.getClass()
+          || valueMeta.getType() != other.getType()
+          || valueMeta.getStorageType() != other.getStorageType()
+          || valueMeta.getPrecision() != other.getPrecision()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Get a reader calling the JDBC getter for the type of a column directly. It reads the same
+   * values as {@link ValueMetaBase#getValueFromResultSet(IDatabase, ResultSet, int)} and {@link
+   * ValueMetaTimestamp#getValueFromResultSet(IDatabase, ResultSet, int)}.
+   *
+   * @return The reader or null if the value type reads values its own way
+   */
+  private static IColumnReader getStandardReader(
+      IDatabase iDatabase, IValueMeta valueMeta, int column) {
+    if (valueMeta.getType() == IValueMeta.TYPE_TIMESTAMP) {
+      if (!isStandardRead(
+          valueMeta.getClass(),
+          ValueMetaTimestamp.class,
+          IDatabase.class,
+          ResultSet.class,
+          int.class)) {
+        return null;
+      }
+      return resultSet -> resultSet.getTimestamp(column);
+    }
+    if (!isStandardRead(
+        valueMeta.getClass(), ValueMetaBase.class, IDatabase.class, ResultSet.class, int.class)) {
+      return null;
+    }
+
+    // The JDBC getters returning an object return null for SQL NULL values,
+    // only the getters returning a primitive need the wasNull() check.
+    //
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_BOOLEAN:
+        return resultSet -> {
+          boolean value = resultSet.getBoolean(column);
+          return resultSet.wasNull() ? null : Boolean.valueOf(value);
+        };
+      case IValueMeta.TYPE_NUMBER:
+        return resultSet -> {
+          double value = resultSet.getDouble(column);
+          return resultSet.wasNull() ? null : Double.valueOf(value);
+        };
+      case IValueMeta.TYPE_INTEGER:
+        return resultSet -> {
+          long value = resultSet.getLong(column);
+          return resultSet.wasNull() ? null : Long.valueOf(value);
+        };
+      case IValueMeta.TYPE_BIGNUMBER:
+        return resultSet -> resultSet.getBigDecimal(column);
+      case IValueMeta.TYPE_STRING:
+        if (valueMeta.isStorageBinaryString()) {
+          return resultSet -> resultSet.getBytes(column);
+        }
+        return resultSet -> resultSet.getString(column);
+      case IValueMeta.TYPE_BINARY:
+        if (iDatabase.isSupportsGetBlob()) {
+          return resultSet -> {
+            Blob blob = resultSet.getBlob(column);
+            return blob == null ? null : blob.getBytes(1L, (int) blob.length());
+          };
+        }
+        return resultSet -> resultSet.getBytes(column);
+      case IValueMeta.TYPE_DATE:
+        if (valueMeta.getPrecision() != 1 && iDatabase.isSupportsTimeStampToDateConversion()) {
+          return resultSet -> resultSet.getTimestamp(column);
+        }
+        if (iDatabase.isNetezzaVariant()) {
+          return null;
+        }
+        return resultSet -> resultSet.getDate(column);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Does a class inherit the way of reading a value from a result set from the given base class?
+   */
+  private static boolean isStandardRead(
+      Class<?> clazz, Class<?> baseClass, Class<?>... parameterTypes) {
+    return standardReadClasses.computeIfAbsent(
+        List.of(clazz, baseClass),
+        key -> {
+          try {
+            return clazz.getMethod("getValueFromResultSet", parameterTypes).getDeclaringClass()
+                == baseClass;
+          } catch (NoSuchMethodException e) {
+            return false;
+          }
+        });
+  }
+}
@@ -0,0 +1,587 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import java.util.Arrays;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+
+/**
+ * A hash index of rows with a key of one or more Integer, Number, Date, Boolean or String values.
+ * The index uses open addressing with linear probing, so looking up a key doesn't allocate any
+ * objects. Keys and values are stored column by column in primitive arrays where possible: strings
+ * are stored in a shared character pool, numbers in long or double arrays and null values in a bit
+ * set. This takes a lot less memory than a hash map with a row object per entry.
+ *
+ * <p>Keys are equal when the value metadata considers them equal: null values are equal to each
+ * other and strings are compared exactly. Use {@link #isSupportedKey(IRowMeta)} to see if a key can
+ * be indexed.
+ */
+public class CompositeKeyHashIndex {
+
+  private static final int STANDARD_INDEX_SIZE = 512;
+  private static final float STANDARD_LOAD_FACTOR = 0.7f;
+
+  private final IRowMeta keyMeta;
+  private final IRowMeta valueMeta;
+  private final KeyColumn[] keyColumns;
+  private final Column[] valueColumns;
+
+  /** The row number + 1 of the entry in every slot, 0 for an empty slot */
+  private int[] slots;
+
+  /** The hash code of the key of every row */
+  private int[] hashCodes;
+
+  private int size;
+  private int capacity;
+  private int resizeThreshold;
+
+  /**
+   * Create a new hash index
+   *
+   * @param keyMeta The layout of the keys, see {@link #isSupportedKey(IRowMeta)}
+   * @param valueMeta The layout of the values, any type and storage is supported
+   */
+  public CompositeKeyHashIndex(IRowMeta keyMeta, IRowMeta valueMeta) throws HopValueException {
+    if (!isSupportedKey(keyMeta)) {
+      throw new HopValueException("Unsupported key for a composite key hash index: " + keyMeta);
+    }
+    this.keyMeta = keyMeta;
+    this.valueMeta = valueMeta;
+    this.keyColumns = new KeyColumn[keyMeta.size()];
+    for (int i = 0; i < keyColumns.length; i++) {
+      keyColumns[i] = createKeyColumn(keyMeta.getValueMeta(i));
+    }
+    this.valueColumns = new Column[valueMeta.size()];
+    for (int i = 0; i < valueColumns.length; i++) {
+      valueColumns[i] = createColumn(valueMeta.getValueMeta(i));
+    }
+
+    this.slots = new int[STANDARD_INDEX_SIZE];
+    this.resizeThreshold = (int) (STANDARD_INDEX_SIZE * STANDARD_LOAD_FACTOR);
+    this.capacity = 0;
+    this.hashCodes = new int[0];
+  }
+
+  /**
+   * See if rows with the given key can be indexed. The key values need to be of type Integer,
+   * Number, Date, Boolean or String with normal storage. Strings need to be compared case
+   * sensitively, without collation and without ignoring white space.
+   *
+   * @param keyMeta The layout of the key
+   * @return true if the key can be indexed
+   */
+  public static boolean isSupportedKey(IRowMeta keyMeta) {
+    if (keyMeta == null || keyMeta.isEmpty()) {
+      return false;
+    }
+    for (IValueMeta valueMeta : keyMeta.getValueMetaList()) {
+      if (valueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+        return false;
+      }
+      Class<?> valueMetaClass = valueMeta.getClass();
+      if (valueMetaClass == ValueMetaString.class) {
+        if (valueMeta.isCaseInsensitive()
+            || !valueMeta.isCollatorDisabled()
+            || valueMeta.isIgnoreWhitespace()) {
+          return false;
+        }
+      } else if (valueMetaClass != ValueMetaInteger.class
+          && valueMetaClass != ValueMetaNumber.class
+          && valueMetaClass != ValueMetaDate.class
+          && valueMetaClass != ValueMetaBoolean.class) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return The primitive column for the value or null if the type or storage type isn't supported
+   */
+  private static KeyColumn createKeyColumn(IValueMeta valueMeta) {
+    if (valueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+      return null;
+    }
+    Class<?> valueMetaClass = valueMeta.getClass();
+    if (valueMetaClass == ValueMetaString.class) {
+      return new StringColumn(valueMeta);
+    } else if (valueMetaClass == ValueMetaInteger.class) {
+      return new IntegerColumn(valueMeta);
+    } else if (valueMetaClass == ValueMetaNumber.class) {
+      return new NumberColumn(valueMeta);
+    } else if (valueMetaClass == ValueMetaDate.class) {
+      return new DateColumn(valueMeta);
+    } else if (valueMetaClass == ValueMetaBoolean.class) {
+      return new BooleanColumn(valueMeta);
+    }
+    return null;
+  }
+
+  private static Column createColumn(IValueMeta valueMeta) {
+    Column column = createKeyColumn(valueMeta);
+    return column != null ? column : new ObjectColumn(valueMeta);
+  }
+
+  public int getSize() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Look up the values of a key.
+   *
+   * @param keyData The key, laid out as described by the key metadata
+   * @return The values or null if the key isn't in the index
+   */
+  public Object[] get(Object[] keyData) throws HopValueException {
+    int row = findRow(keyData, hashCode(keyData));
+    if (row < 0) {
+      return null;
+    }
+    Object[] valueData = new Object[valueColumns.length];
+    for (int i = 0; i < valueColumns.length; i++) {
+      valueData[i] = valueColumns[i].get(row);
+    }
+    return valueData;
+  }
+
+  /**
+   * Add the values of a key to the index, replacing the values if the key is already present.
+   *
+   * @param keyData The key, laid out as described by the key metadata
+   * @param valueData The values, laid out as described by the value metadata
+   */
+  public void put(Object[] keyData, Object[] valueData) throws HopValueException {
+    int hashCode = hashCode(keyData);
+    int row = findRow(keyData, hashCode);
+    if (row < 0) {
+      row = size;
+      ensureCapacity(row + 1);
+      for (int i = 0; i < keyColumns.length; i++) {
+        keyColumns[i].set(row, keyData[i]);
+      }
+      hashCodes[row] = hashCode;
+      slots[emptySlot(hashCode, slots)] = row + 1;
+      size++;
+
+      if (size >= resizeThreshold) {
+        resize();
+      }
+    }
+    for (int i = 0; i < valueColumns.length; i++) {
+      valueColumns[i].set(row, valueData[i]);
+    }
+  }
+
+  private int hashCode(Object[] keyData) throws HopValueException {
+    int hashCode = 1;
+    for (int i = 0; i < keyColumns.length; i++) {
+      hashCode = 31 * hashCode + keyColumns[i].hashCode(keyData[i]);
+    }
+    // Spread the bits as we only use the lowest bits to pick a slot
+    //
+    hashCode *= 0x9e3779b9;
+    return hashCode ^ (hashCode >>> 16);
+  }
+
+  private int findRow(Object[] keyData, int hashCode) throws HopValueException {
+    int mask = slots.length - 1;
+    int slot = hashCode & mask;
+    while (slots[slot] != 0) {
+      int row = slots[slot] - 1;
+      if (hashCodes[row] == hashCode && equalsKey(row, keyData)) {
+        return row;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  private boolean equalsKey(int row, Object[] keyData) throws HopValueException {
+    for (int i = 0; i < keyColumns.length; i++) {
+      if (!keyColumns[i].matches(row, keyData[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int emptySlot(int hashCode, int[] slots) {
+    int mask = slots.length - 1;
+    int slot = hashCode & mask;
+    while (slots[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private void resize() {
+    // Double the number of slots to keep it a power of 2 and re-distribute the rows
+    //
+    int[] newSlots = new int[slots.length * 2];
+    for (int row = 0; row < size; row++) {
+      newSlots[emptySlot(hashCodes[row], newSlots)] = row + 1;
+    }
+    slots = newSlots;
+    resizeThreshold = (int) (newSlots.length * STANDARD_LOAD_FACTOR);
+  }
+
+  private void ensureCapacity(int minCapacity) {
+    if (minCapacity <= capacity) {
+      return;
+    }
+    int newCapacity = Math.max(minCapacity, Math.max(1024, capacity + (capacity >> 1)));
+    hashCodes = Arrays.copyOf(hashCodes, newCapacity);
+    for (Column column : keyColumns) {
+      column.ensureCapacity(newCapacity);
+    }
+    for (Column column : valueColumns) {
+      column.ensureCapacity(newCapacity);
+    }
+    capacity = newCapacity;
+  }
+
+  /**
+   * @return The layout of the keys
+   */
+  public IRowMeta getKeyMeta() {
+    return keyMeta;
+  }
+
+  /**
+   * @return The layout of the values
+   */
+  public IRowMeta getValueMeta() {
+    return valueMeta;
+  }
+
+  /** The values of one field of all the rows */
+  private abstract static class Column {
+    protected final IValueMeta valueMeta;
+    private long[] nulls;
+
+    Column(IValueMeta valueMeta) {
+      this.valueMeta = valueMeta;
+      this.nulls = new long[0];
+    }
+
+    void ensureCapacity(int capacity) {
+      nulls = Arrays.copyOf(nulls, (capacity + 63) >>> 6);
+    }
+
+    boolean isNull(int row) {
+      return (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    void setNull(int row, boolean isNull) {
+      if (isNull) {
+        nulls[row >>> 6] |= 1L << row;
+      } else {
+        nulls[row >>> 6] &= ~(1L << row);
+      }
+    }
+
+    void set(int row, Object value) throws HopValueException {
+      boolean isNull = valueMeta.isNull(value);
+      setNull(row, isNull);
+      if (!isNull) {
+        setValue(row, value);
+      }
+    }
+
+    Object get(int row) {
+      return isNull(row) ? null : getValue(row);
+    }
+
+    abstract void setValue(int row, Object value) throws HopValueException;
+
+    abstract Object getValue(int row);
+  }
+
+  /** A column of a type that can be hashed and compared without converting it to an object */
+  private abstract static class KeyColumn extends Column {
+
+    KeyColumn(IValueMeta valueMeta) {
+      super(valueMeta);
+    }
+
+    int hashCode(Object value) throws HopValueException {
+      return valueMeta.isNull(value) ? 0 : valueHashCode(value);
+    }
+
+    boolean matches(int row, Object value) throws HopValueException {
+      boolean isNull = valueMeta.isNull(value);
+      if (isNull(row) || isNull) {
+        return isNull(row) && isNull;
+      }
+      return valueMatches(row, value);
+    }
+
+    abstract int valueHashCode(Object value) throws HopValueException;
+
+    abstract boolean valueMatches(int row, Object value) throws HopValueException;
+  }
+
+  private abstract static class LongColumn extends KeyColumn {
+    protected long[] values;
+
+    LongColumn(IValueMeta valueMeta) {
+      super(valueMeta);
+      this.values = new long[0];
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      super.ensureCapacity(capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    abstract long toLong(Object value) throws HopValueException;
+
+    @Override
+    void setValue(int row, Object value) throws HopValueException {
+      values[row] = toLong(value);
+    }
+
+    @Override
+    int valueHashCode(Object value) throws HopValueException {
+      return Long.hashCode(toLong(value));
+    }
+
+    @Override
+    boolean valueMatches(int row, Object value) throws HopValueException {
+      return values[row] == toLong(value);
+    }
+  }
+
+  private static final class IntegerColumn extends LongColumn {
+    IntegerColumn(IValueMeta valueMeta) {
+      super(valueMeta);
+    }
+
+    @Override
+    long toLong(Object value) throws HopValueException {
+      return valueMeta.getInteger(value);
+    }
+
+    @Override
+    Object getValue(int row) {
+      return values[row];
+    }
+  }
+
+  private static final class NumberColumn extends LongColumn {
+    NumberColumn(IValueMeta valueMeta) {
+      super(valueMeta);
+    }
+
+    @Override
+    long toLong(Object value) throws HopValueException {
+      return Double.doubleToLongBits(valueMeta.getNumber(value));
+    }
+
+    @Override
+    Object getValue(int row) {
+      return Double.longBitsToDouble(values[row]);
+    }
+  }
+
+  private static final class DateColumn extends LongColumn {
+    DateColumn(IValueMeta valueMeta) {
+      super(valueMeta);
+    }
+
+    @Override
+    long toLong(Object value) throws HopValueException {
+      return valueMeta.getDate(value).getTime();
+    }
+
+    @Override
+    Object getValue(int row) {
+      return new java.util.Date(values[row]);
+    }
+  }
+
+  private static final class BooleanColumn extends KeyColumn {
+    private long[] trueValues;
+
+    BooleanColumn(IValueMeta valueMeta) {
+      super(valueMeta);
+      this.trueValues = new long[0];
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      super.ensureCapacity(capacity);
+      trueValues = Arrays.copyOf(trueValues, (capacity + 63) >>> 6);
+    }
+
+    private boolean getBoolean(int row) {
+      return (trueValues[row >>> 6] & (1L << row)) != 0;
+    }
+
+    @Override
+    void setValue(int row, Object value) throws HopValueException {
+      if (valueMeta.getBoolean(value)) {
+        trueValues[row >>> 6] |= 1L << row;
+      } else {
+        trueValues[row >>> 6] &= ~(1L << row);
+      }
+    }
+
+    @Override
+    Object getValue(int row) {
+      return getBoolean(row);
+    }
+
+    @Override
+    int valueHashCode(Object value) throws HopValueException {
+      return Boolean.hashCode(valueMeta.getBoolean(value));
+    }
+
+    @Override
+    boolean valueMatches(int row, Object value) throws HopValueException {
+      return getBoolean(row) == valueMeta.getBoolean(value);
+    }
+  }
+
+  /** Strings are stored one after the other in a single character array */
+  private static final class StringColumn extends KeyColumn {
+    private char[] pool;
+    private int poolSize;
+    private int[] offsets;
+    private int[] lengths;
+
+    StringColumn(IValueMeta valueMeta) {
+      super(valueMeta);
+      this.pool = new char[1024];
+      this.offsets = new int[0];
+      this.lengths = new int[0];
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      super.ensureCapacity(capacity);
+      offsets = Arrays.copyOf(offsets, capacity);
+      lengths = Arrays.copyOf(lengths, capacity);
+    }
+
+    @Override
+    void setValue(int row, Object value) throws HopValueException {
+      String string = valueMeta.getString(value);
+      int length = string.length();
+
+      // Replacing a value with one that fits re-uses the space
+      //
+      if (lengths[row] >= length) {
+        string.getChars(0, length, pool, offsets[row]);
+        lengths[row] = length;
+        return;
+      }
+
+      if (poolSize + length > pool.length) {
+        long newLength = Math.max((long) poolSize + length, pool.length + (pool.length >> 1));
+        if (newLength > Integer.MAX_VALUE - 8) {
+          newLength = Integer.MAX_VALUE - 8;
+          if (poolSize + length > newLength) {
+            throw new HopValueException(
+                "Too much string data for field '" + valueMeta.getName() + "' in the hash index");
+          }
+        }
+        pool = Arrays.copyOf(pool, (int) newLength);
+      }
+      string.getChars(0, length, pool, poolSize);
+      offsets[row] = poolSize;
+      lengths[row] = length;
+      poolSize += length;
+    }
+
+    @Override
+    Object getValue(int row) {
+      return new String(pool, offsets[row], lengths[row]);
+    }
+
+    @Override
+    int valueHashCode(Object value) throws HopValueException {
+      return valueMeta.getString(value).hashCode();
+    }
+
+    @Override
+    boolean valueMatches(int row, Object value) throws HopValueException {
+      String string = valueMeta.getString(value);
+      int length = lengths[row];
+      if (string.length() != length) {
+        return false;
+      }
+      int offset = offsets[row];
+      for (int i = 0; i < length; i++) {
+        if (pool[offset + i] != string.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /** Any other type or storage type is kept as is */
+  private static final class ObjectColumn extends Column {
+    private Object[] values;
+
+    ObjectColumn(IValueMeta valueMeta) {
+      super(valueMeta);
+      this.values = new Object[0];
+    }
+
+    @Override
+    void ensureCapacity(int capacity) {
+      super.ensureCapacity(capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void set(int row, Object value) {
+      values[row] = value;
+    }
+
+    @Override
+    Object get(int row) {
+      return values[row];
+    }
+
+    @Override
+    void setValue(int row, Object value) {
+      values[row] = value;
+    }
+
+    @Override
+    Object getValue(int row) {
+      return values[row];
+    }
+  }
+}
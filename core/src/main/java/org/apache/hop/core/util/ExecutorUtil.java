@@ -19,12 +19,14 @@ package org.apache.hop.core.util;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class ExecutorUtil {
   public static final String SIMPLE_NAME = ExecutorUtil.class.getSimpleName();
   private static final AtomicInteger threadNum = new AtomicInteger(1);
   private static final ExecutorService executor = init();
+  private static final ThreadFactory virtualThreadFactory = initVirtualThreadFactory();
 
   private ExecutorUtil() {}
 
@@ -40,7 +42,43 @@ public class ExecutorUtil {
     return executorService;
   }
 
+  /**
+   * Look up Thread.ofVirtual().factory() through reflection so that we keep compiling and running
+   * on Java versions without virtual threads.
+   */
+  private static ThreadFactory initVirtualThreadFactory() {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      return (ThreadFactory)
+          Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
   public static ExecutorService getExecutor() {
     return executor;
   }
+
+  /**
+   * @return true if the running Java version supports virtual threads (Java 21 or later)
+   */
+  public static boolean isVirtualThreadsSupported() {
+    return virtualThreadFactory != null;
+  }
+
+  /**
+   * Create a new, not yet started thread. This is a virtual thread if requested and supported by
+   * the running Java version, otherwise a regular platform thread.
+   *
+   * @param runnable The code to run in the thread
+   * @param virtual true if a virtual thread is preferred
+   * @return The new thread
+   */
+  public static Thread newThread(Runnable runnable, boolean virtual) {
+    if (virtual && virtualThreadFactory != null) {
+      return virtualThreadFactory.newThread(runnable);
+    }
+    return new Thread(runnable);
+  }
 }
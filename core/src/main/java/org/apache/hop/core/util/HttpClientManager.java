@@ -93,6 +93,7 @@ public class HttpClientManager {
     private int socketTimeout;
     private HttpHost proxy;
     private boolean ignoreSsl;
+    private int maxConnectionsPerRoute;
 
     public HttpClientBuilderFacade setConnectionTimeout(int connectionTimeout) {
       this.connectionTimeout = connectionTimeout;
@@ -136,7 +137,27 @@ public class HttpClientManager {
       this.ignoreSsl = ignoreSsl;
     }
 
+    /**
+     * Give the client a connection pool of its own instead of the shared one. The pool is shut down
+     * when the client is closed.
+     *
+     * @param maxConnectionsPerRoute The maximum number of connections to a single host
+     */
+    public HttpClientBuilderFacade setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+      this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+      return this;
+    }
+
     public void ignoreSsl(HttpClientBuilder httpClientBuilder) {
+      SSLConnectionSocketFactory sslsf = createTrustingSslSocketFactory();
+
+      BasicHttpClientConnectionManager connectionManager =
+          new BasicHttpClientConnectionManager(createSocketFactoryRegistry(sslsf));
+
+      httpClientBuilder.setSSLSocketFactory(sslsf).setConnectionManager(connectionManager);
+    }
+
+    private SSLConnectionSocketFactory createTrustingSslSocketFactory() {
       TrustStrategy acceptingTrustStrategy = (cert, authType) -> true;
       SSLContext sslContext;
       try {
@@ -145,19 +166,30 @@ public class HttpClientManager {
         throw new RuntimeException(e);
       }
 
-      SSLConnectionSocketFactory sslsf =
-          new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
-
-      Registry<ConnectionSocketFactory> socketFactoryRegistry =
-          RegistryBuilder.<ConnectionSocketFactory>create()
-              .register("https", sslsf)
-              .register("http", new PlainConnectionSocketFactory())
-              .build();
+      return new SSLConnectionSocketFactory(sslContext, NoopHostnameVerifier.INSTANCE);
+    }
 
-      BasicHttpClientConnectionManager connectionManager =
-          new BasicHttpClientConnectionManager(socketFactoryRegistry);
+    private Registry<ConnectionSocketFactory> createSocketFactoryRegistry(
+        SSLConnectionSocketFactory sslsf) {
+      return RegistryBuilder.<ConnectionSocketFactory>create()
+          .register("https", sslsf)
+          .register("http", new PlainConnectionSocketFactory())
+          .build();
+    }
 
-      httpClientBuilder.setSSLSocketFactory(sslsf).setConnectionManager(connectionManager);
+    private void setOwnConnectionPool(HttpClientBuilder httpClientBuilder) {
+      PoolingHttpClientConnectionManager connectionManager;
+      if (ignoreSsl) {
+        SSLConnectionSocketFactory sslsf = createTrustingSslSocketFactory();
+        connectionManager =
+            new PoolingHttpClientConnectionManager(createSocketFactoryRegistry(sslsf));
+        httpClientBuilder.setSSLSocketFactory(sslsf);
+      } else {
+        connectionManager = new PoolingHttpClientConnectionManager();
+      }
+      connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+      connectionManager.setMaxTotal(Math.max(TOTAL_CONNECTIONS, maxConnectionsPerRoute));
+      httpClientBuilder.setConnectionManager(connectionManager);
     }
 
     public CloseableHttpClient build() {
@@ -182,7 +214,9 @@ public class HttpClientManager {
       if (redirectStrategy != null) {
         httpClientBuilder.setRedirectStrategy(redirectStrategy);
       }
-      if (ignoreSsl) {
+      if (maxConnectionsPerRoute > 0) {
+        setOwnConnectionPool(httpClientBuilder);
+      } else if (ignoreSsl) {
         ignoreSsl(httpClientBuilder);
       }
 
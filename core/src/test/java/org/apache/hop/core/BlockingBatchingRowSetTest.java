@@ -117,4 +117,63 @@ public class BlockingBatchingRowSetTest {
     assertNotNull(r);
     assertArrayEquals(rows.get(2), r);
   }
+
+  /** Batch functionality test. */
+  @Test
+  public void testBatches() {
+    BlockingBatchingRowSet set = new BlockingBatchingRowSet(10);
+
+    IRowMeta rm = createRowMetaInterface();
+
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      rows.add(new Object[] {Long.valueOf(i)});
+    }
+
+    // 2 buffers of 5 rows: the first buffer is handed over, 2 rows wait in the second one
+    //
+    assertEquals(7, set.putRows(rm, rows, 0));
+    assertEquals(5, set.size());
+
+    List<Object[]> batch = set.getRows(10);
+    assertEquals(5, batch.size());
+    assertArrayEquals(rows.get(0), batch.get(0));
+    assertArrayEquals(rows.get(4), batch.get(4));
+
+    set.setDone();
+    batch = set.getRows(10);
+    assertEquals(2, batch.size());
+    assertArrayEquals(rows.get(5), batch.get(0));
+    assertArrayEquals(rows.get(6), batch.get(1));
+  }
+
+  /** A batch which doesn't fit only fills the free buffers. */
+  @Test
+  public void testBatchIntoFullRowSet() {
+    BlockingBatchingRowSet set = new BlockingBatchingRowSet(10);
+
+    IRowMeta rm = createRowMetaInterface();
+
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      rows.add(new Object[] {Long.valueOf(i)});
+    }
+
+    // Both buffers of 5 rows are handed over, there is no room for the last 2 rows
+    //
+    assertEquals(10, set.putRows(rm, rows, 0));
+    assertEquals(10, set.size());
+    assertEquals(0, set.putRows(rm, rows, 10));
+
+    // Once a buffer is read, the rest of the batch fits
+    //
+    assertEquals(5, set.getRows(10).size());
+    assertEquals(2, set.putRows(rm, rows, 10));
+
+    set.setDone();
+    assertArrayEquals(rows.get(5), set.getRows(10).get(0));
+    List<Object[]> batch = set.getRows(10);
+    assertEquals(2, batch.size());
+    assertArrayEquals(rows.get(11), batch.get(1));
+  }
 }
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.apache.hop.core.Condition.Function;
+import static org.apache.hop.core.Condition.Operator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.ValueMetaAndData;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class CompiledConditionTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaInteger("age"));
+    rowMeta.addValueMeta(new ValueMetaNumber("rate"));
+    rowMeta.addValueMeta(new ValueMetaString("code"));
+    rowMeta.addValueMeta(new ValueMetaString("codes"));
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows() {
+    List<Object[]> rows = new ArrayList<>();
+    rows.add(new Object[] {"abc", 31L, 2.5, "x", "x;y;z"});
+    rows.add(new Object[] {"aXc", 30L, 30.0, "b", "a;b"});
+    rows.add(new Object[] {"xyz", 5L, 7.25, "y", "q"});
+    rows.add(new Object[] {"", 0L, -1.0, "", ""});
+    rows.add(new Object[] {null, null, null, null, null});
+    rows.add(new Object[] {"bcabc", -31L, 31.0, "z", null});
+    return rows;
+  }
+
+  private static ValueMetaAndData string(String value) {
+    return new ValueMetaAndData(new ValueMetaString("constant"), value);
+  }
+
+  private static ValueMetaAndData integer(long value) {
+    return new ValueMetaAndData(new ValueMetaInteger("constant"), value);
+  }
+
+  private static ValueMetaAndData number(double value) {
+    return new ValueMetaAndData(new ValueMetaNumber("constant"), value);
+  }
+
+  private List<Condition> createAtomicConditions() throws HopException {
+    List<Condition> conditions = new ArrayList<>();
+    conditions.add(new Condition("name", Function.EQUAL, null, string("abc")));
+    conditions.add(new Condition("name", Function.NOT_EQUAL, null, string("abc")));
+    conditions.add(new Condition("age", Function.LARGER, null, integer(30)));
+    conditions.add(new Condition("age", Function.LARGER_EQUAL, null, integer(30)));
+    conditions.add(new Condition("age", Function.SMALLER, null, integer(30)));
+    conditions.add(new Condition("age", Function.SMALLER_EQUAL, null, integer(30)));
+    conditions.add(new Condition("age", Function.EQUAL, null, string("31")));
+    conditions.add(new Condition("age", Function.EQUAL, null, number(30.0)));
+    conditions.add(new Condition("rate", Function.SMALLER, null, integer(5)));
+    conditions.add(new Condition("rate", Function.LARGER_EQUAL, "age", null));
+    conditions.add(new Condition("age", Function.EQUAL, "rate", null));
+    conditions.add(new Condition("name", Function.REGEXP, null, string("a.c")));
+    conditions.add(new Condition("name", Function.LIKE, null, string("a%c")));
+    conditions.add(new Condition("name", Function.LIKE, null, string("?yz")));
+    conditions.add(new Condition("name", Function.REGEXP, "code", null));
+    conditions.add(new Condition("code", Function.IN_LIST, null, string("x;y;z")));
+    conditions.add(new Condition("code", Function.IN_LIST, "codes", null));
+    conditions.add(new Condition("name", Function.CONTAINS, null, string("bc")));
+    conditions.add(new Condition("name", Function.STARTS_WITH, null, string("a")));
+    conditions.add(new Condition("name", Function.ENDS_WITH, null, string("c")));
+    conditions.add(new Condition("codes", Function.ENDS_WITH, "code", null));
+    conditions.add(new Condition("name", Function.NULL, null, null));
+    conditions.add(new Condition("name", Function.NOT_NULL, null, null));
+    conditions.add(new Condition(true, "age", Function.LARGER, null, integer(30)));
+    conditions.add(new Condition(true, "name", Function.TRUE, null, null));
+    conditions.add(new Condition(true, "missing", Function.NULL, null, null));
+    return conditions;
+  }
+
+  private void assertSameEvaluation(Condition condition) throws HopException {
+    IRowMeta rowMeta = createRowMeta();
+    CompiledCondition compiled = condition.compile(rowMeta);
+    for (Object[] row : createRows()) {
+      assertEquals(
+          condition + " for " + rowMeta.getString(row),
+          condition.evaluate(rowMeta, row),
+          compiled.evaluate(row));
+    }
+  }
+
+  @Test
+  public void testAtomicConditions() throws Exception {
+    for (Condition condition : createAtomicConditions()) {
+      assertSameEvaluation(condition);
+    }
+  }
+
+  @Test
+  public void testCompositeConditions() throws Exception {
+    List<Condition> atomics = createAtomicConditions();
+    Operator[] operators = {Operator.AND, Operator.OR, Operator.AND_NOT, Operator.OR_NOT};
+    for (int i = 0; i < atomics.size() - 1; i++) {
+      for (Operator operator : operators) {
+        Condition composite = new Condition();
+        composite.addCondition(new Condition(atomics.get(i)));
+        Condition right = new Condition(atomics.get(i + 1));
+        right.setOperator(operator);
+        composite.addCondition(right);
+        Condition xor = new Condition(atomics.get((i + 5) % atomics.size()));
+        xor.setOperator(Operator.XOR);
+        composite.addCondition(xor);
+        assertSameEvaluation(composite);
+
+        composite.setNegated(true);
+        assertSameEvaluation(composite);
+      }
+    }
+  }
+
+  @Test
+  public void testCompileForRowLayout() throws Exception {
+    IRowMeta rowMeta1 = new RowMeta();
+    rowMeta1.addValueMeta(new ValueMetaNumber("name1"));
+    rowMeta1.addValueMeta(new ValueMetaNumber("name2"));
+
+    IRowMeta rowMeta2 = new RowMeta();
+    rowMeta2.addValueMeta(new ValueMetaNumber("name2"));
+    rowMeta2.addValueMeta(new ValueMetaNumber("name1"));
+
+    Condition condition = new Condition("name1", Function.LARGER, null, number(1.5));
+    CompiledCondition compiled1 = condition.compile(rowMeta1);
+    CompiledCondition compiled2 = condition.compile(rowMeta2);
+
+    assertTrue(compiled1.evaluate(new Object[] {2.0, 1.0}));
+    assertFalse(compiled2.evaluate(new Object[] {2.0, 1.0}));
+    assertTrue(compiled2.evaluate(new Object[] {1.0, 2.0}));
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testInvalidRegularExpression() throws Exception {
+    Condition condition = new Condition("name", Function.REGEXP, null, string("[abc"));
+    condition.compile(createRowMeta()).evaluate(new Object[] {"abc", 1L, 1.0, "x", "x"});
+  }
+}
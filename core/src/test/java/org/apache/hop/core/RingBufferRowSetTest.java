@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/** Test class for the basic functionality of the lock-free ring buffer row set. */
+public class RingBufferRowSetTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rm = new RowMeta();
+    rm.addValueMeta(new ValueMetaInteger("ROWNR"));
+    return rm;
+  }
+
+  @Test
+  public void testBasicCreation() {
+    IRowSet set = new RingBufferRowSet(10);
+
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+  }
+
+  @Test
+  public void testCapacityAndOrder() {
+    IRowSet set = new RingBufferRowSet(3);
+    IRowMeta rm = createRowMeta();
+
+    assertTrue(set.putRow(rm, new Object[] {1L}));
+    assertTrue(set.putRow(rm, new Object[] {2L}));
+    assertTrue(set.putRow(rm, new Object[] {3L}));
+    assertEquals(3, set.size());
+
+    // The buffer is full: a put times out
+    //
+    assertFalse(set.putRowWait(rm, new Object[] {4L}, 1, TimeUnit.MILLISECONDS));
+    assertEquals(3, set.size());
+
+    assertEquals(1L, set.getRow()[0]);
+    assertTrue(set.putRow(rm, new Object[] {4L}));
+    assertEquals(2L, set.getRow()[0]);
+    assertEquals(3L, set.getRowImmediate()[0]);
+    assertEquals(4L, set.getRowWait(1, TimeUnit.MILLISECONDS)[0]);
+    assertEquals(0, set.size());
+    assertNull(set.getRowWait(1, TimeUnit.MILLISECONDS));
+    assertEquals(rm, set.getRowMeta());
+  }
+
+  @Test
+  public void testBatches() {
+    IRowSet set = new RingBufferRowSet(4);
+    IRowMeta rm = createRowMeta();
+
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 6; i++) {
+      rows.add(new Object[] {i});
+    }
+
+    // Only 4 rows fit
+    //
+    assertEquals(4, set.putRows(rm, rows, 0));
+    assertEquals(4, set.size());
+
+    List<Object[]> batch = set.getRows(3);
+    assertEquals(3, batch.size());
+    assertEquals(0L, batch.get(0)[0]);
+    assertEquals(2L, batch.get(2)[0]);
+
+    assertEquals(2, set.putRows(rm, rows, 4));
+    batch = set.getRows(10);
+    assertEquals(3, batch.size());
+    assertEquals(3L, batch.get(0)[0]);
+    assertEquals(5L, batch.get(2)[0]);
+    assertTrue(set.getRows(10).isEmpty());
+  }
+
+  @Test
+  public void testDoneAndClear() {
+    IRowSet set = new RingBufferRowSet(4);
+    IRowMeta rm = createRowMeta();
+
+    set.putRow(rm, new Object[] {1L});
+    set.setDone();
+    assertTrue(set.isDone());
+
+    // Rows written before done are still delivered
+    //
+    assertEquals(1L, set.getRow()[0]);
+    assertNull(set.getRow());
+
+    set.putRow(rm, new Object[] {2L});
+    set.clear();
+    assertFalse(set.isDone());
+    assertEquals(0, set.size());
+    assertNull(set.getRowImmediate());
+  }
+
+  @Test
+  public void testProducerConsumerThreads() throws Exception {
+    final IRowSet set = new RingBufferRowSet(16);
+    final IRowMeta rm = createRowMeta();
+    final long nrRows = 200000L;
+
+    Thread producer =
+        new Thread(
+            () -> {
+              for (long i = 0; i < nrRows; i++) {
+                Object[] row = new Object[] {i};
+                while (!set.putRow(rm, row)) {
+                  // Keep trying
+                }
+              }
+              set.setDone();
+            });
+    producer.start();
+
+    long expected = 0;
+    Object[] row = set.getRow();
+    while (row != null || !set.isDone() || set.size() > 0) {
+      if (row != null) {
+        assertEquals(expected++, ((Long) row[0]).longValue());
+      }
+      row = set.getRow();
+    }
+    producer.join();
+
+    assertEquals(nrRows, expected);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEnvironment;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class RowSetNotifierTest {
+  @ClassRule public static RestoreHopEnvironment env = new RestoreHopEnvironment();
+
+  @Test
+  public void testAwaitTimesOutWithoutSignal() {
+    RowSetNotifier notifier = new RowSetNotifier();
+    long sequence = notifier.getSequence();
+    assertFalse(notifier.await(sequence, 5, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testSignalBeforeAwaitIsNotLost() {
+    RowSetNotifier notifier = new RowSetNotifier();
+    long sequence = notifier.getSequence();
+    notifier.signal();
+    assertTrue(notifier.await(sequence, 0, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void testRowSetsSignal() {
+    IRowMeta rm = new RowMeta();
+    rm.addValueMeta(new ValueMetaInteger("ROWNR"));
+
+    IRowSet[] rowSets = {
+      new BlockingRowSet(10), new BlockingBatchingRowSet(2), new RingBufferRowSet(10)
+    };
+    for (IRowSet rowSet : rowSets) {
+      RowSetNotifier notifier = new RowSetNotifier();
+      rowSet.setNotifier(notifier);
+
+      long sequence = notifier.getSequence();
+      rowSet.putRow(rm, new Object[] {1L});
+      rowSet.putRow(rm, new Object[] {2L});
+      assertNotEquals(sequence, notifier.getSequence());
+
+      sequence = notifier.getSequence();
+      rowSet.setDone();
+      assertNotEquals(sequence, notifier.getSequence());
+
+      // No more signals after the notifier is removed
+      //
+      rowSet.setNotifier(null);
+      sequence = notifier.getSequence();
+      rowSet.clear();
+      rowSet.putRow(rm, new Object[] {3L});
+      assertEquals(sequence, notifier.getSequence());
+    }
+  }
+
+  @Test
+  public void testWakeUpWaitingThread() throws Exception {
+    final IRowMeta rm = new RowMeta();
+    rm.addValueMeta(new ValueMetaInteger("ROWNR"));
+    final IRowSet rowSet = new BlockingRowSet(10);
+    final RowSetNotifier notifier = new RowSetNotifier();
+    rowSet.setNotifier(notifier);
+
+    long sequence = notifier.getSequence();
+    Thread producer =
+        new Thread(
+            () -> {
+              try {
+                Thread.sleep(20);
+              } catch (InterruptedException e) {
+                // Ignore
+              }
+              rowSet.putRow(rm, new Object[] {1L});
+            });
+    producer.start();
+
+    assertTrue(notifier.await(sequence, 10, TimeUnit.SECONDS));
+    assertEquals(1L, rowSet.getRowImmediate()[0]);
+    producer.join();
+  }
+}
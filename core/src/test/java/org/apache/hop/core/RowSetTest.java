@@ -20,6 +20,8 @@ package org.apache.hop.core;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowMeta;
@@ -158,6 +160,36 @@ public class RowSetTest {
      **********************************************************************/
   }
 
+  /** Batch functionality test. */
+  @Test
+  public void testBatches() {
+    IRowSet set = new BlockingRowSet(3);
+
+    IRowMeta rm = createRowMetaInterface();
+
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 1; i <= 5; i++) {
+      rows.add(new Object[] {i});
+    }
+
+    // The rowset can only hold 3 rows
+    //
+    assertEquals(3, set.putRows(rm, rows, 0));
+    assertEquals(3, set.size());
+
+    List<Object[]> batch = set.getRows(2);
+    assertEquals(2, batch.size());
+    assertEquals(1L, batch.get(0)[0]);
+    assertEquals(2L, batch.get(1)[0]);
+
+    assertEquals(2, set.putRows(rm, rows, 3));
+    batch = set.getRows(10);
+    assertEquals(3, batch.size());
+    assertEquals(3L, batch.get(0)[0]);
+    assertEquals(5L, batch.get(2)[0]);
+    assertTrue(set.getRows(10).isEmpty());
+  }
+
   /** Names test. Just for completeness. */
   @Test
   public void testNames() {
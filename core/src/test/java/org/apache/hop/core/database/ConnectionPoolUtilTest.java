@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+import org.apache.commons.dbcp.DelegatingConnection;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ConnectionPoolUtilTest {
+  private static final String URL = "jdbc:pooltest:db";
+  private static final String NAME = "pooled";
+
+  private static TestDriver driver;
+
+  @BeforeClass
+  public static void registerDriver() throws SQLException {
+    driver = new TestDriver();
+    DriverManager.registerDriver(driver);
+  }
+
+  @AfterClass
+  public static void deregisterDriver() throws SQLException {
+    DriverManager.deregisterDriver(driver);
+  }
+
+  @Before
+  public void setUp() {
+    driver.opened.clear();
+  }
+
+  @After
+  public void tearDown() {
+    ConnectionPoolUtil.closeAll();
+  }
+
+  private Connection getConnection(int maximumSize, String validationQuery) throws Exception {
+    return ConnectionPoolUtil.getConnection(
+        null, NAME, URL, new Properties(), maximumSize, 0, validationQuery, () -> {});
+  }
+
+  private static Connection physical(Connection connection) {
+    return ((DelegatingConnection) connection).getInnermostDelegate();
+  }
+
+  @Test
+  public void testConnectionIsReused() throws Exception {
+    Connection first = getConnection(2, null);
+    Connection physical = physical(first);
+    first.close();
+    assertEquals(0, ConnectionPoolUtil.getNumActive(NAME));
+    assertEquals(1, ConnectionPoolUtil.getNumIdle(NAME));
+
+    Connection second = getConnection(2, null);
+    assertSame(physical, physical(second));
+    assertEquals(1, driver.opened.size());
+    second.close();
+    verify(physical, never()).close();
+
+    ConnectionPoolUtil.closeAll();
+    verify(physical).close();
+  }
+
+  @Test
+  public void testPoolGrowsButKeepsMaximumSize() throws Exception {
+    List<Connection> connections = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      connections.add(getConnection(2, null));
+    }
+    assertEquals(3, driver.opened.size());
+    assertEquals(3, ConnectionPoolUtil.getNumActive(NAME));
+    assertNotSame(physical(connections.get(0)), physical(connections.get(1)));
+
+    for (Connection connection : connections) {
+      connection.close();
+    }
+    assertEquals(0, ConnectionPoolUtil.getNumActive(NAME));
+    assertEquals(2, ConnectionPoolUtil.getNumIdle(NAME));
+  }
+
+  @Test
+  public void testUncommittedWorkIsRolledBack() throws Exception {
+    Connection connection = getConnection(2, null);
+    Connection physical = physical(connection);
+    connection.setAutoCommit(false);
+    when(physical.getAutoCommit()).thenReturn(false);
+    connection.close();
+
+    verify(physical).rollback();
+    verify(physical).setAutoCommit(true);
+  }
+
+  @Test
+  public void testConnectionIsValidated() throws Exception {
+    Connection connection = getConnection(2, "SELECT 1");
+    Connection physical = physical(connection);
+    connection.close();
+
+    // The connection is broken: it's replaced by a new one
+    //
+    when(physical.createStatement()).thenThrow(new SQLException("Connection reset"));
+    Connection replacement = getConnection(2, "SELECT 1");
+    assertNotSame(physical, physical(replacement));
+    assertEquals(2, driver.opened.size());
+    replacement.close();
+  }
+
+  @Test
+  public void testChangedSettingsReplacePool() throws Exception {
+    Properties properties = new Properties();
+    properties.put("password", "old");
+    Connection first =
+        ConnectionPoolUtil.getConnection(null, NAME, URL, properties, 2, 0, null, () -> {});
+    Connection physical = physical(first);
+    first.close();
+
+    // The password of the database connection changed: a new pool is used
+    //
+    properties.put("password", "new");
+    Connection second =
+        ConnectionPoolUtil.getConnection(null, NAME, URL, properties, 2, 0, null, () -> {});
+    assertNotSame(physical, physical(second));
+    verify(physical, never()).close();
+    assertEquals(1, ConnectionPoolUtil.getNumActive(NAME));
+    assertEquals(1, ConnectionPoolUtil.getNumIdle(NAME));
+
+    // The old pool is closed by the eviction check
+    //
+    ConnectionPoolUtil.evictStalePools();
+    verify(physical).close();
+    assertEquals(0, ConnectionPoolUtil.getNumIdle(NAME));
+
+    // A pool with connections in use is only closed once they're returned
+    //
+    Connection inUse = physical(second);
+    Connection third = getConnection(3, null);
+    ConnectionPoolUtil.evictStalePools();
+    verify(inUse, never()).close();
+    second.close();
+    ConnectionPoolUtil.evictStalePools();
+    verify(inUse).close();
+    assertEquals(1, ConnectionPoolUtil.getNumActive(NAME));
+    third.close();
+    assertEquals(1, ConnectionPoolUtil.getNumIdle(NAME));
+  }
+
+  @Test
+  public void testSameNameOtherDatabase() throws Exception {
+    // Two database connections with the same name keep a pool each
+    //
+    for (int i = 0; i < 3; i++) {
+      ConnectionPoolUtil.getConnection(null, NAME, URL, new Properties(), 2, 0, null, () -> {})
+          .close();
+      ConnectionPoolUtil.getConnection(
+              null, NAME, URL + "2", new Properties(), 2, 0, null, () -> {})
+          .close();
+    }
+    assertEquals(2, driver.opened.size());
+    assertEquals(2, ConnectionPoolUtil.getNumIdle(NAME));
+    for (Connection connection : driver.opened) {
+      verify(connection, never()).close();
+    }
+  }
+
+  @Test
+  public void testDriverIsLoadedOnce() throws Exception {
+    int[] loads = new int[1];
+    for (int i = 0; i < 3; i++) {
+      ConnectionPoolUtil.getConnection(
+              null, NAME, URL, new Properties(), 2, 0, null, () -> loads[0]++)
+          .close();
+    }
+    assertEquals(1, loads[0]);
+  }
+
+  @Test
+  public void testDriverLoadingErrorIsReported() throws Exception {
+    try {
+      ConnectionPoolUtil.getConnection(
+          null,
+          NAME,
+          URL,
+          new Properties(),
+          2,
+          0,
+          null,
+          () -> {
+            throw new HopDatabaseException("No driver");
+          });
+      fail("The driver loading error should be reported");
+    } catch (HopDatabaseException e) {
+      assertEquals(0, ConnectionPoolUtil.getNumIdle(NAME));
+    }
+  }
+
+  /** Hands out mocked connections for the test URL */
+  public static class TestDriver implements Driver {
+    private final List<Connection> opened = new ArrayList<>();
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+      if (!acceptsURL(url)) {
+        return null;
+      }
+      Connection connection = mock(Connection.class);
+      Statement statement = mock(Statement.class);
+      ResultSet resultSet = mock(ResultSet.class);
+      when(connection.getAutoCommit()).thenReturn(true);
+      when(connection.createStatement()).thenReturn(statement);
+      when(statement.executeQuery("SELECT 1")).thenReturn(resultSet);
+      when(resultSet.next()).thenReturn(true);
+      synchronized (opened) {
+        opened.add(connection);
+      }
+      return connection;
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+      return url != null && url.startsWith("jdbc:pooltest:");
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+      return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+      return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+      return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+      return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+      throw new SQLFeatureNotSupportedException();
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import org.apache.hop.core.exception.HopDatabaseException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResultSetRowReaderTest {
+
+  private IRowMeta rowMeta;
+  private ResultSet resultSet;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("total"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    rowMeta.addValueMeta(new ValueMetaDate("changed"));
+    rowMeta.addValueMeta(new ValueMetaTimestamp("created"));
+
+    resultSet = mock(ResultSet.class);
+  }
+
+  @Test
+  public void testReadRow() throws Exception {
+    Timestamp timestamp = new Timestamp(1234567890L);
+    when(resultSet.getLong(1)).thenReturn(42L);
+    when(resultSet.getString(2)).thenReturn("Hop");
+    when(resultSet.getDouble(3)).thenReturn(1.5);
+    when(resultSet.getBigDecimal(4)).thenReturn(new BigDecimal("12.34"));
+    when(resultSet.getBoolean(5)).thenReturn(true);
+    when(resultSet.getTimestamp(6)).thenReturn(timestamp);
+    when(resultSet.getTimestamp(7)).thenReturn(timestamp);
+
+    ResultSetRowReader reader = new ResultSetRowReader(new ConcreteBaseDatabaseMeta(), rowMeta);
+    Object[] row = reader.readRow(resultSet);
+
+    assertTrue(row.length >= rowMeta.size());
+    assertEquals(42L, row[0]);
+    assertEquals("Hop", row[1]);
+    assertEquals(1.5, row[2]);
+    assertEquals(new BigDecimal("12.34"), row[3]);
+    assertEquals(Boolean.TRUE, row[4]);
+    assertEquals(timestamp, row[5]);
+    assertEquals(timestamp, row[6]);
+  }
+
+  @Test
+  public void testReadNulls() throws Exception {
+    when(resultSet.wasNull()).thenReturn(true);
+
+    ResultSetRowReader reader = new ResultSetRowReader(new ConcreteBaseDatabaseMeta(), rowMeta);
+    Object[] row = reader.readRow(resultSet);
+
+    for (int i = 0; i < rowMeta.size(); i++) {
+      assertNull(row[i]);
+    }
+  }
+
+  @Test
+  public void testReadBinaryStrings() throws Exception {
+    IValueMeta valueMeta = rowMeta.getValueMeta(1);
+    valueMeta.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    byte[] bytes = new byte[] {'H', 'o', 'p'};
+    when(resultSet.getBytes(2)).thenReturn(bytes);
+
+    ResultSetRowReader reader = new ResultSetRowReader(new ConcreteBaseDatabaseMeta(), rowMeta);
+
+    assertEquals(bytes, reader.readRow(resultSet)[1]);
+    verify(resultSet, never()).getString(2);
+  }
+
+  @Test
+  public void testDatabaseReadingItsOwnWay() throws Exception {
+    IDatabase iDatabase =
+        new ConcreteBaseDatabaseMeta() {
+          @Override
+          public Object getValueFromResultSet(ResultSet rs, IValueMeta val, int i) {
+            return val.getName() + i;
+          }
+        };
+
+    Object[] row = new ResultSetRowReader(iDatabase, rowMeta).readRow(resultSet);
+
+    assertEquals("id0", row[0]);
+    assertEquals("created6", row[6]);
+  }
+
+  @Test
+  public void testValueTypeReadingItsOwnWay() throws Exception {
+    IRowMeta customRowMeta = new RowMeta();
+    customRowMeta.addValueMeta(
+        new ValueMetaString("custom") {
+          @Override
+          public Object getValueFromResultSet(IDatabase iDatabase, ResultSet rs, int index) {
+            return "custom value";
+          }
+        });
+
+    Object[] row =
+        new ResultSetRowReader(new ConcreteBaseDatabaseMeta(), customRowMeta).readRow(resultSet);
+
+    assertEquals("custom value", row[0]);
+  }
+
+  @Test
+  public void testIsReading() {
+    IDatabase iDatabase = new ConcreteBaseDatabaseMeta();
+    ResultSetRowReader reader = new ResultSetRowReader(iDatabase, rowMeta);
+
+    assertTrue(reader.isReading(iDatabase, rowMeta));
+    assertTrue(reader.isReading(iDatabase, rowMeta.clone()));
+    assertFalse(reader.isReading(new ConcreteBaseDatabaseMeta(), rowMeta));
+
+    IRowMeta otherRowMeta = rowMeta.clone();
+    otherRowMeta.getValueMeta(1).setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    assertFalse(reader.isReading(iDatabase, otherRowMeta));
+
+    otherRowMeta = rowMeta.clone();
+    otherRowMeta.removeValueMeta(0);
+    assertFalse(reader.isReading(iDatabase, otherRowMeta));
+  }
+
+  @Test(expected = HopDatabaseException.class)
+  public void testReadError() throws Exception {
+    when(resultSet.getString(2)).thenThrow(new SQLException("read error"));
+
+    new ResultSetRowReader(new ConcreteBaseDatabaseMeta(), rowMeta).readRow(resultSet);
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.hash;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Test;
+
+/** Test class for the basic functionality of CompositeKeyHashIndex. */
+public class CompositeKeyHashIndexTest {
+
+  private IRowMeta createKeyMeta() {
+    IRowMeta keyMeta = new RowMeta();
+    keyMeta.addValueMeta(new ValueMetaString("code"));
+    keyMeta.addValueMeta(new ValueMetaInteger("id"));
+    keyMeta.addValueMeta(new ValueMetaNumber("rate"));
+    keyMeta.addValueMeta(new ValueMetaDate("date"));
+    keyMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    return keyMeta;
+  }
+
+  private IRowMeta createValueMeta() {
+    IRowMeta valueMeta = new RowMeta();
+    valueMeta.addValueMeta(new ValueMetaString("name"));
+    valueMeta.addValueMeta(new ValueMetaInteger("count"));
+    valueMeta.addValueMeta(new ValueMetaNumber("amount"));
+    valueMeta.addValueMeta(new ValueMetaBoolean("active"));
+    valueMeta.addValueMeta(new ValueMetaDate("updated"));
+    valueMeta.addValueMeta(new ValueMetaBigNumber("total"));
+    return valueMeta;
+  }
+
+  private Object[] createKey(int i) {
+    return new Object[] {
+      "code" + (i % 100), (long) i, i / 4.0, new Date(1000L * i), i % 2 == 0,
+    };
+  }
+
+  private Object[] createValue(int i) {
+    return new Object[] {
+      "name" + i, (long) i * 3, i * 1.5, i % 3 == 0, new Date(5000L * i), BigDecimal.valueOf(i),
+    };
+  }
+
+  @Test
+  public void testIsSupportedKey() {
+    assertTrue(CompositeKeyHashIndex.isSupportedKey(createKeyMeta()));
+    assertFalse(CompositeKeyHashIndex.isSupportedKey(new RowMeta()));
+
+    IRowMeta keyMeta = createKeyMeta();
+    keyMeta.addValueMeta(new ValueMetaBigNumber("big"));
+    assertFalse(CompositeKeyHashIndex.isSupportedKey(keyMeta));
+
+    keyMeta = createKeyMeta();
+    keyMeta.getValueMeta(0).setCaseInsensitive(true);
+    assertFalse(CompositeKeyHashIndex.isSupportedKey(keyMeta));
+
+    keyMeta = createKeyMeta();
+    keyMeta.getValueMeta(0).setIgnoreWhitespace(true);
+    assertFalse(CompositeKeyHashIndex.isSupportedKey(keyMeta));
+
+    keyMeta = createKeyMeta();
+    keyMeta.getValueMeta(1).setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    assertFalse(CompositeKeyHashIndex.isSupportedKey(keyMeta));
+  }
+
+  @Test
+  public void testPutAndGet() throws HopValueException {
+    CompositeKeyHashIndex index = new CompositeKeyHashIndex(createKeyMeta(), createValueMeta());
+    int nrRows = 10000;
+    for (int i = 0; i < nrRows; i++) {
+      index.put(createKey(i), createValue(i));
+    }
+    assertEquals(nrRows, index.getSize());
+
+    for (int i = 0; i < nrRows; i++) {
+      assertArrayEquals(createValue(i), index.get(createKey(i)));
+    }
+    assertNull(index.get(createKey(nrRows)));
+
+    // Only part of the key matches
+    //
+    Object[] key = createKey(5);
+    key[4] = !(Boolean) key[4];
+    assertNull(index.get(key));
+  }
+
+  @Test
+  public void testReplaceValues() throws HopValueException {
+    CompositeKeyHashIndex index = new CompositeKeyHashIndex(createKeyMeta(), createValueMeta());
+    index.put(createKey(1), createValue(1));
+    index.put(createKey(2), createValue(2));
+    index.put(createKey(1), createValue(123456));
+
+    assertEquals(2, index.getSize());
+    assertArrayEquals(createValue(123456), index.get(createKey(1)));
+    assertArrayEquals(createValue(2), index.get(createKey(2)));
+
+    // A shorter string re-uses the space of the previous one
+    //
+    Object[] value = createValue(3);
+    index.put(createKey(2), value);
+    assertArrayEquals(value, index.get(createKey(2)));
+  }
+
+  @Test
+  public void testNullValues() throws HopValueException {
+    CompositeKeyHashIndex index = new CompositeKeyHashIndex(createKeyMeta(), createValueMeta());
+    Object[] key = new Object[5];
+    Object[] value = new Object[6];
+    index.put(key, value);
+    index.put(createKey(1), createValue(1));
+
+    // Null keys match each other
+    //
+    assertArrayEquals(value, index.get(new Object[5]));
+    assertArrayEquals(createValue(1), index.get(createKey(1)));
+
+    key = createKey(1);
+    key[0] = null;
+    assertNull(index.get(key));
+  }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class ExecutorUtilTest {
+
+  @Test
+  public void testPlatformThread() throws Exception {
+    AtomicInteger counter = new AtomicInteger();
+    Thread thread = ExecutorUtil.newThread(counter::incrementAndGet, false);
+    assertFalse(thread.isAlive());
+    thread.start();
+    thread.join();
+    assertEquals(1, counter.get());
+  }
+
+  @Test
+  public void testVirtualThreadOrFallback() throws Exception {
+    AtomicInteger counter = new AtomicInteger();
+
+    // On Java versions without virtual threads we get a regular thread
+    //
+    Thread thread = ExecutorUtil.newThread(counter::incrementAndGet, true);
+    thread.setName("virtual test thread");
+    thread.start();
+    thread.join();
+    assertEquals(1, counter.get());
+    assertEquals("virtual test thread", thread.getName());
+  }
+}
@@ -1069,6 +1069,25 @@ public abstract class AbstractMeta
   @Override
   public abstract String getModifiedUser();
 
+  /**
+   * Copy the filename and the attributes of the given metadata. The listeners which a clone shares
+   * with the original are replaced by listeners of its own.
+   *
+   * @param meta The metadata this is a copy of
+   */
+  protected void copyCommon(AbstractMeta meta) {
+    filename = meta.filename;
+    attributesMap = new HashMap<>();
+    for (Map.Entry<String, Map<String, String>> attribute : meta.attributesMap.entrySet()) {
+      Map<String, String> value = attribute.getValue();
+      attributesMap.put(attribute.getKey(), value == null ? null : new HashMap<>(value));
+    }
+    nameChangedListeners = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    filenameChangedListeners = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    contentChangedListeners = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    currentDirectoryChangedListeners = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  }
+
   public void clear() {
     setName(null);
     setFilename(null);
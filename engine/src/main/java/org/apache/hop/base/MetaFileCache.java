@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.base;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.workflow.WorkflowMeta;
+
+/**
+ * A process wide cache of parsed pipeline and workflow files. Transforms and actions which load the
+ * same file over and over, like the Mapping, Pipeline Executor, Meta Inject and Workflow Executor
+ * transforms and the Pipeline and Workflow actions, get a copy of the metadata parsed earlier as
+ * long as the file wasn't modified.
+ *
+ * <p>The cache is disabled by default. Set variable {@link Const#HOP_METADATA_FILE_CACHE_SIZE} to
+ * the maximum number of files to keep in memory to enable it. The least recently used file is
+ * removed first. The metadata provider is part of the key but changes to the metadata objects it
+ * holds (a modified database connection for example) are not detected.
+ *
+ * <p>The parsed metadata is never handed out: every caller gets its own copy which it can modify.
+ */
+public class MetaFileCache {
+  private static final MetaFileCache instance = new MetaFileCache();
+
+  private static final String TYPE_PIPELINE = "pipeline";
+  private static final String TYPE_WORKFLOW = "workflow";
+
+  private final Map<Key, Entry> entries;
+  private volatile int maxSize;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong loads = new AtomicLong();
+
+  MetaFileCache() {
+    entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > maxSize;
+          }
+        };
+  }
+
+  public static MetaFileCache getInstance() {
+    return instance;
+  }
+
+  /** Loads a pipeline or workflow from its file. */
+  @FunctionalInterface
+  private interface ILoader<T> {
+    T load() throws HopException;
+  }
+
+  /**
+   * Load the pipeline metadata from a file, or copy it from the cache.
+   *
+   * @param filename The resolved filename of the pipeline
+   * @param metadataProvider The metadata provider to reference
+   * @param variables The variables to read the cache size from and to load the pipeline with
+   * @return The pipeline metadata, a copy which is not shared with anyone else
+   * @throws HopException In case the file can't be loaded
+   */
+  public PipelineMeta loadPipelineMeta(
+      String filename, IHopMetadataProvider metadataProvider, IVariables variables)
+      throws HopException {
+    PipelineMeta template =
+        getTemplate(
+            TYPE_PIPELINE,
+            filename,
+            metadataProvider,
+            variables,
+            () -> new PipelineMeta(filename, metadataProvider, variables));
+    return template == null
+        ? new PipelineMeta(filename, metadataProvider, variables)
+        : template.copy();
+  }
+
+  /**
+   * Load the workflow metadata from a file, or copy it from the cache.
+   *
+   * @param filename The resolved filename of the workflow
+   * @param metadataProvider The metadata provider to reference
+   * @param variables The variables to read the cache size from and to load the workflow with
+   * @return The workflow metadata, a copy which is not shared with anyone else
+   * @throws HopException In case the file can't be loaded
+   */
+  public WorkflowMeta loadWorkflowMeta(
+      String filename, IHopMetadataProvider metadataProvider, IVariables variables)
+      throws HopException {
+    WorkflowMeta template =
+        getTemplate(
+            TYPE_WORKFLOW,
+            filename,
+            metadataProvider,
+            variables,
+            () -> new WorkflowMeta(variables, filename, metadataProvider));
+    return template == null
+        ? new WorkflowMeta(variables, filename, metadataProvider)
+        : template.copy();
+  }
+
+  /**
+   * Look up the parsed file, parse it if it isn't cached yet or if it was modified.
+   *
+   * @return The cached metadata or null if the file should be loaded without the cache
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T getTemplate(
+      String type,
+      String filename,
+      IHopMetadataProvider metadataProvider,
+      IVariables variables,
+      ILoader<T> loader)
+      throws HopException {
+    maxSize = getCacheSize(variables);
+    if (maxSize <= 0) {
+      clear();
+      return null;
+    }
+
+    String uri;
+    long lastModified;
+    try {
+      FileObject fileObject = HopVfs.getFileObject(filename);
+      if (!fileObject.exists()) {
+        // Let the regular loading report the problem
+        return null;
+      }
+      uri = fileObject.getName().getURI();
+      lastModified = fileObject.getContent().getLastModifiedTime();
+    } catch (Exception e) {
+      // Without a modification time we can't tell if the cached file is still valid
+      return null;
+    }
+
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.computeIfAbsent(new Key(type, uri, metadataProvider), key -> new Entry());
+    }
+
+    // Only callers of the same file wait for each other while it's parsed
+    //
+    synchronized (entry) {
+      if (entry.template == null || entry.lastModified != lastModified) {
+        entry.template = loader.load();
+        entry.lastModified = lastModified;
+        loads.incrementAndGet();
+      } else {
+        hits.incrementAndGet();
+      }
+      return (T) entry.template;
+    }
+  }
+
+  private static int getCacheSize(IVariables variables) {
+    String size = null;
+    if (variables != null) {
+      size = variables.getVariable(Const.HOP_METADATA_FILE_CACHE_SIZE);
+    }
+    if (size == null) {
+      size = System.getProperty(Const.HOP_METADATA_FILE_CACHE_SIZE);
+    }
+    return Const.toInt(size, 0);
+  }
+
+  /** Remove all files from the cache. */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /**
+   * @return The number of files in the cache
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * @return The number of times a file was copied from the cache instead of parsed
+   */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /**
+   * @return The number of times a file was parsed and stored in the cache
+   */
+  public long getLoads() {
+    return loads.get();
+  }
+
+  /** The type of metadata, the file and the metadata provider it was loaded with. */
+  private static final class Key {
+    private final String type;
+    private final String uri;
+    private final IHopMetadataProvider metadataProvider;
+
+    private Key(String type, String uri, IHopMetadataProvider metadataProvider) {
+      this.type = type;
+      this.uri = uri;
+      this.metadataProvider = metadataProvider;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return type.equals(key.type)
+          && uri.equals(key.uri)
+          && metadataProvider == key.metadataProvider;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * type.hashCode() + uri.hashCode())
+          + System.identityHashCode(metadataProvider);
+    }
+  }
+
+  /** A parsed file and the modification time of the file when it was parsed. */
+  private static final class Entry {
+    private long lastModified;
+    private Object template;
+  }
+}
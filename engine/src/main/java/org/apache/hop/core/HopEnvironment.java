@@ -28,6 +28,7 @@ import org.apache.hop.core.auth.AuthenticationProviderPluginType;
 import org.apache.hop.core.compress.CompressionPluginType;
 import org.apache.hop.core.config.HopConfig;
 import org.apache.hop.core.config.plugin.ConfigPluginType;
+import org.apache.hop.core.database.ConnectionPoolUtil;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopPluginException;
 import org.apache.hop.core.extension.ExtensionPointHandler;
@@ -196,7 +197,11 @@ public class HopEnvironment {
   }
 
   // Shutdown the Hop environment programmatically
-  public static void shutdown() {}
+  public static void shutdown() {
+    // Close the connections which are kept open in the database connection pools
+    //
+    ConnectionPoolUtil.closeAll();
+  }
 
   /**
    * Checks if the Hop environment has been initialized.
@@ -0,0 +1,417 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.spill;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+import java.util.zip.Deflater;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.util.ExecutorUtil;
+import org.apache.hop.core.util.Utils;
+import org.apache.hop.core.vfs.HopVfs;
+import org.xerial.snappy.Snappy;
+
+/**
+ * A temporary file to which a transform writes ("spills") rows which don't fit in memory. All
+ * spilling transforms share this file format:
+ *
+ * <p>The file is a sequence of blocks. Every block starts with a header: the number of rows in the
+ * block (int), the uncompressed size of the block (int), the stored size of the block (int) and the
+ * codec of the block (byte, see {@link #CODEC_NONE}, {@link #CODEC_SNAPPY} and {@link
+ * #CODEC_DEFLATE}). The stored bytes follow. Uncompressed, a block holds its rows one after the
+ * other, written with {@link IRowMeta#writeData(DataOutputStream, Object[])}. If the file has keys,
+ * every row is preceded by the length (int) and the bytes of its key.
+ *
+ * <p>Blocks are compressed and written to disk in the background, while the transform fills the
+ * next block. Read the rows back with a {@link SpillFileReader}.
+ */
+public class SpillFile implements AutoCloseable {
+  /** The size of a block of rows before it's compressed and written to disk */
+  public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+  public static final byte CODEC_NONE = 0;
+  public static final byte CODEC_SNAPPY = 1;
+  public static final byte CODEC_DEFLATE = 2;
+
+  /** The size of the header in front of every block */
+  static final int BLOCK_HEADER_SIZE = 13;
+
+  private static final boolean SNAPPY_AVAILABLE = isSnappyAvailable();
+
+  /** Used to spread the files over the temporary directories */
+  private static final AtomicInteger nextDirectoryIndex = new AtomicInteger();
+
+  private final IRowMeta rowMeta;
+  private final FileObject file;
+  private final boolean compressed;
+  private final boolean withKeys;
+  private final LongConsumer bytesSpilledListener;
+  private final int blockSize;
+
+  private DataOutputStream outputStream;
+  private Block block;
+  private Block spareBlock;
+  private Future<?> pendingWrite;
+
+  private long nrRows;
+  private volatile long bytesWritten;
+
+  /**
+   * Create a new temporary file to spill rows to.
+   *
+   * @param rowMeta The layout of the rows
+   * @param prefix The prefix of the name of the temporary file
+   * @param directories The directory to create the file in. This can be a comma separated list of
+   *     directories, for example on different disks: the files are then spread over them.
+   * @param compressed true if the blocks of rows should be compressed
+   * @param withKeys true if every row is preceded by a key, see {@link #write(byte[], Object[])}
+   * @param bytesSpilledListener Receives the number of bytes written to disk, for every block. Can
+   *     be null.
+   * @throws HopException In case the file can't be created
+   */
+  public SpillFile(
+      IRowMeta rowMeta,
+      String prefix,
+      String directories,
+      boolean compressed,
+      boolean withKeys,
+      LongConsumer bytesSpilledListener)
+      throws HopException {
+    this(
+        rowMeta,
+        prefix,
+        directories,
+        compressed,
+        withKeys,
+        bytesSpilledListener,
+        DEFAULT_BLOCK_SIZE);
+  }
+
+  SpillFile(
+      IRowMeta rowMeta,
+      String prefix,
+      String directories,
+      boolean compressed,
+      boolean withKeys,
+      LongConsumer bytesSpilledListener,
+      int blockSize)
+      throws HopException {
+    this.rowMeta = rowMeta;
+    this.compressed = compressed;
+    this.withKeys = withKeys;
+    this.bytesSpilledListener = bytesSpilledListener;
+    this.blockSize = blockSize;
+    this.file = HopVfs.createTempFile(prefix, ".tmp", getNextDirectory(directories));
+    try {
+      this.outputStream =
+          new DataOutputStream(new BufferedOutputStream(HopVfs.getOutputStream(file, false)));
+    } catch (IOException e) {
+      throw new HopException("Unable to create temporary file " + file, e);
+    }
+    this.block = new Block(blockSize);
+  }
+
+  /**
+   * Pick the directory to create the next temporary file in. The directories of a list are used in
+   * turn.
+   *
+   * @param directories A directory or a comma separated list of directories
+   * @return The directory to use
+   */
+  static String getNextDirectory(String directories) {
+    List<String> list = new ArrayList<>();
+    if (directories != null) {
+      for (String directory : directories.split(",")) {
+        if (!Utils.isEmpty(directory.trim())) {
+          list.add(directory.trim());
+        }
+      }
+    }
+    if (list.isEmpty()) {
+      return System.getProperty("java.io.tmpdir");
+    }
+    int index = Math.floorMod(nextDirectoryIndex.getAndIncrement(), list.size());
+    return list.get(index);
+  }
+
+  /**
+   * Append a row to the file.
+   *
+   * @param row The row to write
+   * @throws HopException In case the row can't be written
+   */
+  public void write(Object[] row) throws HopException {
+    write(null, row);
+  }
+
+  /**
+   * Append a row preceded by a key to the file. This is for example the normalized sort key of the
+   * row so that it doesn't need to be calculated again when the row is read back.
+   *
+   * @param key The key of the row, only written if the file has keys
+   * @param row The row to write
+   * @throws HopException In case the row can't be written
+   */
+  public void write(byte[] key, Object[] row) throws HopException {
+    if (outputStream == null) {
+      throw new HopException("Temporary file " + file + " is no longer open for writing");
+    }
+    try {
+      if (withKeys) {
+        block.data.writeInt(key.length);
+        block.data.write(key);
+      }
+      rowMeta.writeData(block.data, row);
+    } catch (IOException e) {
+      throw new HopException("Unable to write a row to temporary file " + file, e);
+    }
+    block.nrRows++;
+    nrRows++;
+
+    if (block.buffer.size() >= blockSize) {
+      flushBlock();
+    }
+  }
+
+  /** Hand the current block over to be compressed and written in the background. */
+  private void flushBlock() throws HopException {
+    if (block.nrRows == 0) {
+      return;
+    }
+    waitForPendingWrite();
+
+    Block full = block;
+    block = spareBlock != null ? spareBlock : new Block(blockSize);
+    spareBlock = null;
+    pendingWrite =
+        ExecutorUtil.getExecutor()
+            .submit(
+                () -> {
+                  writeBlock(full);
+                  full.reset();
+                  spareBlock = full;
+                  return null;
+                });
+  }
+
+  private void waitForPendingWrite() throws HopException {
+    if (pendingWrite == null) {
+      return;
+    }
+    try {
+      pendingWrite.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while writing to temporary file " + file, e);
+    } catch (ExecutionException e) {
+      throw new HopException("Unable to write to temporary file " + file, e.getCause());
+    } finally {
+      pendingWrite = null;
+    }
+  }
+
+  private void writeBlock(Block full) throws IOException {
+    byte[] raw = full.buffer.getBuffer();
+    int rawLength = full.buffer.size();
+
+    byte codec = CODEC_NONE;
+    byte[] stored = raw;
+    int storedLength = rawLength;
+    if (compressed) {
+      int compressedLength;
+      if (SNAPPY_AVAILABLE) {
+        full.ensureCompressedCapacity(Snappy.maxCompressedLength(rawLength));
+        compressedLength = Snappy.compress(raw, 0, rawLength, full.compressed, 0);
+        codec = CODEC_SNAPPY;
+      } else {
+        full.ensureCompressedCapacity(rawLength + 64);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+          deflater.setInput(raw, 0, rawLength);
+          deflater.finish();
+          compressedLength = deflater.deflate(full.compressed);
+          if (!deflater.finished()) {
+            compressedLength = rawLength;
+          }
+        } finally {
+          deflater.end();
+        }
+        codec = CODEC_DEFLATE;
+      }
+      if (compressedLength < rawLength) {
+        stored = full.compressed;
+        storedLength = compressedLength;
+      } else {
+        codec = CODEC_NONE;
+      }
+    }
+
+    outputStream.writeInt(full.nrRows);
+    outputStream.writeInt(rawLength);
+    outputStream.writeInt(storedLength);
+    outputStream.writeByte(codec);
+    outputStream.write(stored, 0, storedLength);
+
+    long size = BLOCK_HEADER_SIZE + (long) storedLength;
+    bytesWritten += size;
+    if (bytesSpilledListener != null) {
+      bytesSpilledListener.accept(size);
+    }
+  }
+
+  /**
+   * Write the last block and close the file for writing. The rows can be read back after this.
+   *
+   * @throws HopException In case the rows can't be written
+   */
+  public void finishWriting() throws HopException {
+    if (outputStream == null) {
+      return;
+    }
+    try {
+      flushBlock();
+      waitForPendingWrite();
+    } finally {
+      try {
+        outputStream.close();
+      } catch (IOException e) {
+        throw new HopException("Unable to close temporary file " + file, e);
+      } finally {
+        outputStream = null;
+        block = null;
+        spareBlock = null;
+      }
+    }
+  }
+
+  /**
+   * Open the file to read back the rows. Writing is finished first if needed. The file can be read
+   * more than once.
+   *
+   * @return A reader for the rows in the file
+   * @throws HopException In case the file can't be opened
+   */
+  public SpillFileReader openReader() throws HopException {
+    finishWriting();
+    try {
+      return new SpillFileReader(rowMeta, HopVfs.getInputStream(file), nrRows, withKeys);
+    } catch (IOException e) {
+      throw new HopException("Unable to read temporary file " + file, e);
+    }
+  }
+
+  /** Stop writing if needed and delete the file. */
+  @Override
+  public void close() {
+    try {
+      finishWriting();
+    } catch (HopException e) {
+      // We're removing the file anyway
+    }
+    try {
+      file.delete();
+    } catch (IOException e) {
+      // Nothing we can do about it, it's a temporary file
+    }
+  }
+
+  private static boolean isSnappyAvailable() {
+    try {
+      Snappy.maxCompressedLength(1);
+      return true;
+    } catch (Exception | LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * @return The layout of the rows in the file
+   */
+  public IRowMeta getRowMeta() {
+    return rowMeta;
+  }
+
+  /**
+   * @return The temporary file
+   */
+  public FileObject getFile() {
+    return file;
+  }
+
+  /**
+   * @return The number of rows written
+   */
+  public long getNrRows() {
+    return nrRows;
+  }
+
+  /**
+   * @return The number of bytes written to disk so far
+   */
+  public long getBytesWritten() {
+    return bytesWritten;
+  }
+
+  /** A block of rows in memory which is filled before it's written to disk as a whole. */
+  private static class Block {
+    private final BlockBuffer buffer;
+    private final DataOutputStream data;
+    private byte[] compressed;
+    private int nrRows;
+
+    private Block(int blockSize) {
+      // Leave room for the last row which makes the block exceed its size
+      //
+      buffer = new BlockBuffer(blockSize + blockSize / 4);
+      data = new DataOutputStream(buffer);
+      compressed = new byte[0];
+    }
+
+    private void ensureCompressedCapacity(int size) {
+      if (compressed.length < size) {
+        compressed = new byte[size];
+      }
+    }
+
+    private void reset() {
+      buffer.reset();
+      nrRows = 0;
+    }
+  }
+
+  /** Gives access to the bytes written, without copying them. */
+  private static class BlockBuffer extends ByteArrayOutputStream {
+    private BlockBuffer(int size) {
+      super(size);
+    }
+
+    private byte[] getBuffer() {
+      return buf;
+    }
+  }
+}
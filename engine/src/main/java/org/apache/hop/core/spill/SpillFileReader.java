@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.spill;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Reads back the rows of a {@link SpillFile}, one block at a time.
+ *
+ * <pre>
+ *   try (SpillFileReader reader = spillFile.openReader()) {
+ *     while (reader.next()) {
+ *       Object[] row = reader.getRow();
+ *       ...
+ *     }
+ *   }
+ * </pre>
+ */
+public class SpillFileReader implements Closeable {
+  private final IRowMeta rowMeta;
+  private final DataInputStream inputStream;
+  private final boolean withKeys;
+  private long remaining;
+
+  private byte[] stored = new byte[0];
+  private byte[] raw = new byte[0];
+  private DataInputStream blockStream;
+  private int remainingInBlock;
+
+  private byte[] key;
+  private Object[] row;
+
+  /**
+   * @param rowMeta The layout of the rows in the file
+   * @param inputStream The stream to read the file from
+   * @param nrRows The number of rows in the file
+   * @param withKeys true if every row is preceded by a key
+   */
+  public SpillFileReader(IRowMeta rowMeta, InputStream inputStream, long nrRows, boolean withKeys) {
+    this.rowMeta = rowMeta;
+    this.inputStream = new DataInputStream(new BufferedInputStream(inputStream));
+    this.remaining = nrRows;
+    this.withKeys = withKeys;
+  }
+
+  /**
+   * Read the next row.
+   *
+   * @return false if the end of the file was reached
+   * @throws HopException In case the row can't be read
+   */
+  public boolean next() throws HopException {
+    if (remaining <= 0) {
+      key = null;
+      row = null;
+      return false;
+    }
+    try {
+      if (remainingInBlock == 0) {
+        readBlock();
+      }
+      if (withKeys) {
+        key = new byte[blockStream.readInt()];
+        blockStream.readFully(key);
+      }
+      row = rowMeta.readData(blockStream);
+    } catch (IOException e) {
+      throw new HopException("Error reading back rows from a temporary file", e);
+    }
+    remainingInBlock--;
+    remaining--;
+    return true;
+  }
+
+  private void readBlock() throws IOException {
+    int nrRows = inputStream.readInt();
+    int rawLength = inputStream.readInt();
+    int storedLength = inputStream.readInt();
+    byte codec = inputStream.readByte();
+
+    if (stored.length < storedLength) {
+      stored = new byte[storedLength];
+    }
+    inputStream.readFully(stored, 0, storedLength);
+
+    byte[] data;
+    switch (codec) {
+      case SpillFile.CODEC_NONE:
+        data = stored;
+        break;
+      case SpillFile.CODEC_SNAPPY:
+        ensureRawCapacity(rawLength);
+        Snappy.uncompress(stored, 0, storedLength, raw, 0);
+        data = raw;
+        break;
+      case SpillFile.CODEC_DEFLATE:
+        ensureRawCapacity(rawLength);
+        inflate(storedLength, rawLength);
+        data = raw;
+        break;
+      default:
+        throw new IOException("Unknown compression codec " + codec + " in temporary file");
+    }
+    blockStream = new DataInputStream(new ByteArrayInputStream(data, 0, rawLength));
+    remainingInBlock = nrRows;
+  }
+
+  private void ensureRawCapacity(int rawLength) {
+    if (raw.length < rawLength) {
+      raw = new byte[rawLength];
+    }
+  }
+
+  private void inflate(int storedLength, int rawLength) throws IOException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(stored, 0, storedLength);
+      int length = inflater.inflate(raw, 0, rawLength);
+      if (length != rawLength) {
+        throw new IOException("Unexpected size of a block in a temporary file: " + length);
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt block in temporary file", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * @return The key of the current row or null if the file has no keys
+   */
+  public byte[] getKey() {
+    return key;
+  }
+
+  /**
+   * @return The current row or null if the end of the file was reached
+   */
+  public Object[] getRow() {
+    return row;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+}
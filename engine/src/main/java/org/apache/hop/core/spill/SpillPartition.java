@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.spill;
+
+import java.util.function.LongConsumer;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * A temporary file with the input rows of one hash partition which didn't fit in memory. The rows
+ * are kept in the order in which they arrived so that handling them later gives the same result as
+ * handling them in memory.
+ *
+ * @see SpillPartitions
+ */
+public class SpillPartition extends SpillFile {
+  private final int level;
+
+  /**
+   * Create a new temporary file to spill rows to.
+   *
+   * @param rowMeta The layout of the rows
+   * @param prefix The prefix of the temporary file
+   * @param directory The directory to create the temporary file in
+   * @param compressed true to compress the rows
+   * @param level The hashing level to use when the rows of this partition are handled
+   * @param bytesSpilledListener Receives the number of bytes written to disk
+   */
+  public SpillPartition(
+      IRowMeta rowMeta,
+      String prefix,
+      String directory,
+      boolean compressed,
+      int level,
+      LongConsumer bytesSpilledListener)
+      throws HopException {
+    super(rowMeta, prefix, directory, compressed, false, bytesSpilledListener);
+    this.level = level;
+  }
+
+  /**
+   * @return The hashing level to use when the rows of this partition are handled
+   */
+  public int getLevel() {
+    return level;
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.spill;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * Spills the rows of a hash table which doesn't fit in memory to disk, one hash partition at a
+ * time. Once the hash table is full, the partition of a new key is spilled: keys of that partition
+ * which are already in memory stay there, the rows of new keys of the partition are written to the
+ * partition file. That way all the rows of a key are handled in the same place and in the same
+ * order.
+ *
+ * <p>After a pass over the rows the spilled partitions are handled one at a time with {@link
+ * #hasPendingPartitions()} and {@link #nextPartition()}. The rows of a partition which doesn't fit
+ * in memory either are spilled again, on the next hashing level.
+ */
+public class SpillPartitions implements AutoCloseable {
+
+  /** The number of partitions the keys are hashed into */
+  public static final int NR_OF_PARTITIONS = 16;
+
+  /** Stop re-partitioning spilled rows after this many levels and handle them in memory */
+  public static final int MAX_LEVEL = 8;
+
+  private final IRowMeta rowMeta;
+  private final String prefix;
+  private final String directory;
+  private final boolean compressed;
+  private final LongConsumer bytesSpilledListener;
+  private final IntConsumer partitionSpilledListener;
+
+  /** The partitions spilled during the current pass, null as long as nothing was spilled */
+  private SpillPartition[] partitions;
+
+  /** The spilled partitions which are still to be handled */
+  private final Deque<SpillPartition> pendingPartitions;
+
+  /** The hashing level of the rows currently being handled */
+  private int level;
+
+  /**
+   * @param rowMeta The layout of the rows
+   * @param prefix The prefix of the temporary files
+   * @param directory The directory to create the temporary files in
+   * @param compressed true to compress the rows
+   * @param bytesSpilledListener Receives the number of bytes written to disk
+   * @param partitionSpilledListener Receives the number of a partition when it is spilled
+   */
+  public SpillPartitions(
+      IRowMeta rowMeta,
+      String prefix,
+      String directory,
+      boolean compressed,
+      LongConsumer bytesSpilledListener,
+      IntConsumer partitionSpilledListener) {
+    this.rowMeta = rowMeta;
+    this.prefix = prefix;
+    this.directory = directory;
+    this.compressed = compressed;
+    this.bytesSpilledListener = bytesSpilledListener;
+    this.partitionSpilledListener = partitionSpilledListener;
+    this.pendingPartitions = new ArrayDeque<>();
+  }
+
+  /**
+   * Pick the partition of a key. Every level mixes the hash code differently so that the keys of a
+   * spilled partition are spread over all partitions when they are spilled again.
+   *
+   * @param hashCode The hash code of the key
+   * @param level The hashing level
+   * @return The partition number, 0 up to {@link #NR_OF_PARTITIONS}
+   */
+  public static int getPartition(int hashCode, int level) {
+    int h = hashCode + level * 0x9e3779b9;
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h & (NR_OF_PARTITIONS - 1);
+  }
+
+  /**
+   * Spill the row of a new key to disk if the key doesn't fit in memory.
+   *
+   * @param hashCode The hash code of the key
+   * @param row The row
+   * @param memoryFull true if the hash table can't take a new key
+   * @return true if the row was written to disk, false if the key needs to be kept in memory
+   * @throws HopException In case the row can't be written
+   */
+  public boolean spillRow(int hashCode, Object[] row, boolean memoryFull) throws HopException {
+    if (partitions == null && !memoryFull) {
+      return false;
+    }
+    int partitionNr = getPartition(hashCode, level);
+    SpillPartition partition = partitions == null ? null : partitions[partitionNr];
+    if (partition == null) {
+      if (!memoryFull || level >= MAX_LEVEL) {
+        return false;
+      }
+      if (partitions == null) {
+        partitions = new SpillPartition[NR_OF_PARTITIONS];
+      }
+      partition =
+          new SpillPartition(
+              rowMeta, prefix, directory, compressed, level + 1, bytesSpilledListener);
+      partitions[partitionNr] = partition;
+      partitionSpilledListener.accept(partitionNr);
+    }
+    partition.write(row);
+    return true;
+  }
+
+  /**
+   * Finish writing the partitions spilled during the last pass over the rows and queue them.
+   *
+   * @return true if there is a spilled partition left to handle
+   * @throws HopException In case a partition can't be written
+   */
+  public boolean hasPendingPartitions() throws HopException {
+    if (partitions != null) {
+      for (SpillPartition partition : partitions) {
+        if (partition != null) {
+          partition.finishWriting();
+          pendingPartitions.push(partition);
+        }
+      }
+      partitions = null;
+    }
+    if (pendingPartitions.isEmpty()) {
+      level = 0;
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Take the next spilled partition to handle. The rows which are spilled while handling it are
+   * hashed on the next level. The caller closes the partition when it's done.
+   *
+   * @return The next partition
+   */
+  public SpillPartition nextPartition() {
+    SpillPartition partition = pendingPartitions.pop();
+    level = partition.getLevel();
+    return partition;
+  }
+
+  /**
+   * @return The hashing level of the rows currently being handled
+   */
+  public int getLevel() {
+    return level;
+  }
+
+  /** Remove the temporary files of all the partitions which weren't handled */
+  @Override
+  public void close() {
+    if (partitions != null) {
+      for (SpillPartition partition : partitions) {
+        if (partition != null) {
+          partition.close();
+        }
+      }
+      partitions = null;
+    }
+    while (!pendingPartitions.isEmpty()) {
+      pendingPartitions.pop().close();
+    }
+    level = 0;
+  }
+}
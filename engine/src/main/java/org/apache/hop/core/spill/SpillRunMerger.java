@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.spill;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * Merges sorted runs of spilled rows into one sorted stream of rows using a loser tree (tournament
+ * tree). Getting the next row takes log2(k) comparisons for k runs. When the runs contain
+ * normalized sort keys the keys are compared as unsigned bytes, otherwise the rows are compared
+ * with {@link IRowMeta}.
+ *
+ * <p>Rows with equal keys are returned in the order of their runs so the merge is stable.
+ */
+public class SpillRunMerger {
+  /** Marks a node which was not played yet while building the tree. It beats every run. */
+  private static final int NOT_PLAYED = -1;
+
+  private final SpillFileReader[] runs;
+  private final IRowMeta rowMeta;
+  private final int[] fieldNrs;
+  private final boolean withKeys;
+
+  /** tree[0] is the index of the winning run, the other nodes hold the loser of their match */
+  private final int[] tree;
+
+  /**
+   * @param runs The runs to merge, positioned before their first row
+   * @param rowMeta The layout of the rows, used to compare rows if there are no keys
+   * @param fieldNrs The indexes of the key fields
+   * @param withKeys true if the runs contain normalized sort keys
+   * @throws HopException in case the first row of a run can't be read
+   */
+  public SpillRunMerger(
+      List<SpillFileReader> runs, IRowMeta rowMeta, int[] fieldNrs, boolean withKeys)
+      throws HopException {
+    this.runs = runs.toArray(new SpillFileReader[0]);
+    this.rowMeta = rowMeta;
+    this.fieldNrs = fieldNrs;
+    this.withKeys = withKeys;
+    this.tree = new int[Math.max(1, this.runs.length)];
+
+    for (SpillFileReader run : this.runs) {
+      run.next();
+    }
+    Arrays.fill(tree, NOT_PLAYED);
+    for (int i = this.runs.length - 1; i >= 0; i--) {
+      replay(i);
+    }
+  }
+
+  /**
+   * @return the next row in sort order or null if all runs are exhausted
+   * @throws HopException in case a row can't be read or compared
+   */
+  public Object[] next() throws HopException {
+    if (runs.length == 0) {
+      return null;
+    }
+    int winner = tree[0];
+    Object[] row = runs[winner].getRow();
+    if (row != null) {
+      runs[winner].next();
+      replay(winner);
+    }
+    return row;
+  }
+
+  /** Play the matches from the leaf of the given run up to the root. */
+  private void replay(int run) throws HopValueException {
+    int winner = run;
+    for (int node = (run + runs.length) / 2; node > 0; node /= 2) {
+      if (beats(tree[node], winner)) {
+        int loser = winner;
+        winner = tree[node];
+        tree[node] = loser;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  /**
+   * @return true if the current row of run1 comes before the current row of run2
+   */
+  private boolean beats(int run1, int run2) throws HopValueException {
+    if (run1 == NOT_PLAYED) {
+      return true;
+    }
+    if (run2 == NOT_PLAYED) {
+      return false;
+    }
+    Object[] row1 = runs[run1].getRow();
+    Object[] row2 = runs[run2].getRow();
+    if (row1 == null || row2 == null) {
+      // An exhausted run loses from everything
+      //
+      return row2 == null && (row1 != null || run1 < run2);
+    }
+    int cmp;
+    if (withKeys) {
+      cmp = Arrays.compareUnsigned(runs[run1].getKey(), runs[run2].getKey());
+    } else {
+      cmp = rowMeta.compare(row1, row2, fieldNrs);
+    }
+    return cmp < 0 || (cmp == 0 && run1 < run2);
+  }
+}
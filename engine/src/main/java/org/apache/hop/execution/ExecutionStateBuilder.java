@@ -118,6 +118,7 @@ public final class ExecutionStateBuilder {
         addMetric(componentMetrics, engineMetrics, component, Pipeline.METRIC_UPDATED);
         addMetric(componentMetrics, engineMetrics, component, Pipeline.METRIC_BUFFER_IN);
         addMetric(componentMetrics, engineMetrics, component, Pipeline.METRIC_BUFFER_OUT);
+        addMetric(componentMetrics, engineMetrics, component, Pipeline.METRIC_SPILLED);
 
         builder.addMetrics(componentMetrics);
       }
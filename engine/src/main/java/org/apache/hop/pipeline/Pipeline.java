@@ -54,6 +54,7 @@ import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.QueueRowSet;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.RingBufferRowSet;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.exception.HopException;
@@ -82,6 +83,7 @@ import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.RowBuffer;
 import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.core.util.EnvUtil;
+import org.apache.hop.core.util.ExecutorUtil;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.core.variables.IVariables;
 import org.apache.hop.core.variables.Variables;
@@ -141,6 +143,7 @@ public abstract class Pipeline
   public static final String METRIC_NAME_BUFFER_OUT = "buffer_out";
   public static final String METRIC_NAME_FLUSH_BUFFER = "flush_buffer";
   public static final String METRIC_NAME_INIT = "init";
+  public static final String METRIC_NAME_SPILLED = "spilled";
 
   /** The package name, used for internationalization of messages. */
   private static final Class<?> PKG = Pipeline.class; // For Translator
@@ -359,6 +362,15 @@ public abstract class Pipeline
 
   protected int rowSetSize;
 
+  /** Whether hops between a single producer and a single consumer copy use lock-free row sets. */
+  protected boolean ringBufferRowSetsEnabled;
+
+  /** Whether the transform copies are initialized and executed on virtual threads. */
+  protected boolean virtualThreadsEnabled;
+
+  /** The number of worker threads to run the transforms on, 0 to use a thread per transform copy */
+  protected int workerPoolSize;
+
   /** Whether the feedback is shown. */
   protected boolean feedbackShown;
 
@@ -704,6 +716,10 @@ public abstract class Pipeline
                         System.getProperty(Const.HOP_BATCHING_ROWSET));
                 if (batchingRowSet != null && batchingRowSet.booleanValue()) {
                   rowSet = new BlockingBatchingRowSet(rowSetSize);
+                } else if (ringBufferRowSetsEnabled && dispatchType == TYPE_DISP_1_1) {
+                  // Exactly one writing and one reading thread: no need for locking
+                  //
+                  rowSet = new RingBufferRowSet(rowSetSize);
                 } else {
                   rowSet = new BlockingRowSet(rowSetSize);
                 }
@@ -978,6 +994,10 @@ public abstract class Pipeline
               PKG, "Pipeline.Log.InitialisingTransforms", String.valueOf(transforms.size())));
     }
 
+    if (virtualThreadsEnabled && !ExecutorUtil.isVirtualThreadsSupported()) {
+      log.logBasic(BaseMessages.getString(PKG, "Pipeline.Log.VirtualThreadsNotSupported"));
+    }
+
     TransformInitThread[] initThreads = new TransformInitThread[transforms.size()];
     Thread[] threads = new Thread[transforms.size()];
 
@@ -994,7 +1014,7 @@ public abstract class Pipeline
 
       // Put it in a separate thread!
       //
-      threads[i] = new Thread(initThreads[i]);
+      threads[i] = ExecutorUtil.newThread(initThreads[i], virtualThreadsEnabled);
       threads[i].setName(
           "init of " + sid.transformName + "." + sid.copy + " (" + threads[i].getName() + ")");
 
@@ -1253,12 +1273,25 @@ public abstract class Pipeline
     switch (pipelineMeta.getPipelineType()) {
       case Normal:
 
+        // Run the transforms on a pool of worker threads if we're asked to.
+        //
+        TransformScheduler scheduler = null;
+        if (workerPoolSize > 0) {
+          scheduler = new TransformScheduler(this, getName(), workerPoolSize, rowSetSize);
+        }
+
         // Now start all the threads...
         //
         for (final TransformMetaDataCombi combi : transforms) {
           RunThread runThread = new RunThread(combi);
-          Thread thread = new Thread(runThread);
-          thread.setName(getName() + " - " + combi.transformName);
+          Thread thread = null;
+          // Transforms which block on something else than their row sets keep a thread of their own
+          //
+          boolean ownThread = scheduler == null || combi.meta.requiresDedicatedThread();
+          if (ownThread) {
+            thread = ExecutorUtil.newThread(runThread, virtualThreadsEnabled);
+            thread.setName(getName() + " - " + combi.transformName);
+          }
           ExtensionPointHandler.callExtensionPoint(
               log, this, HopExtensionPoint.TransformBeforeStart.id, combi);
           // Call an extension point at the end of the transform
@@ -1274,7 +1307,14 @@ public abstract class Pipeline
                 }
               });
 
-          thread.start();
+          if (ownThread) {
+            thread.start();
+          } else {
+            scheduler.addTransform(combi, runThread);
+          }
+        }
+        if (scheduler != null) {
+          scheduler.start();
         }
         break;
 
@@ -3276,6 +3316,13 @@ public abstract class Pipeline
           "The number of times a buffer flush occurred on a ",
           "100",
           true);
+  public static final IEngineMetric METRIC_SPILLED =
+      new EngineMetric(
+          METRIC_NAME_SPILLED,
+          "Spilled bytes",
+          "The number of bytes written to temporary files because the rows didn't fit in memory",
+          "110",
+          true);
 
   @Override
   public EngineMetrics getEngineMetrics() {
@@ -3329,6 +3376,10 @@ public abstract class Pipeline
               outputBufferSize += rowSet.size();
             }
             metrics.setComponentMetric(combi.transform, METRIC_BUFFER_OUT, outputBufferSize);
+            long bytesSpilled = combi.transform.getBytesSpilled();
+            if (bytesSpilled > 0) {
+              metrics.setComponentMetric(combi.transform, METRIC_SPILLED, bytesSpilled);
+            }
 
             TransformStatus transformStatus = new TransformStatus(combi.transform);
             metrics.setComponentSpeed(combi.transform, transformStatus.getSpeed());
@@ -3504,6 +3555,55 @@ public abstract class Pipeline
     this.rowSetSize = rowSetSize;
   }
 
+  /**
+   * Gets ringBufferRowSetsEnabled
+   *
+   * @return true if lock-free row sets are used for hops between single transform copies
+   */
+  public boolean isRingBufferRowSetsEnabled() {
+    return ringBufferRowSetsEnabled;
+  }
+
+  /**
+   * @param ringBufferRowSetsEnabled The ringBufferRowSetsEnabled to set
+   */
+  public void setRingBufferRowSetsEnabled(boolean ringBufferRowSetsEnabled) {
+    this.ringBufferRowSetsEnabled = ringBufferRowSetsEnabled;
+  }
+
+  /**
+   * Gets virtualThreadsEnabled
+   *
+   * @return true if the transform copies are initialized and executed on virtual threads
+   */
+  public boolean isVirtualThreadsEnabled() {
+    return virtualThreadsEnabled;
+  }
+
+  /**
+   * @param virtualThreadsEnabled The virtualThreadsEnabled to set
+   */
+  public void setVirtualThreadsEnabled(boolean virtualThreadsEnabled) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+  }
+
+  /**
+   * Gets workerPoolSize
+   *
+   * @return the number of worker threads to run the transforms on, 0 if every transform copy runs
+   *     in its own thread
+   */
+  public int getWorkerPoolSize() {
+    return workerPoolSize;
+  }
+
+  /**
+   * @param workerPoolSize The workerPoolSize to set
+   */
+  public void setWorkerPoolSize(int workerPoolSize) {
+    this.workerPoolSize = workerPoolSize;
+  }
+
   /**
    * Gets feedbackShown
    *
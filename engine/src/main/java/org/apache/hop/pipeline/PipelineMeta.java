@@ -26,6 +26,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -312,6 +313,47 @@ public class PipelineMeta extends AbstractMeta
     }
   }
 
+  /**
+   * Make a copy of the pipeline meta-data object which can be changed without affecting this one.
+   * Unlike {@link #realClone(boolean)} the copy keeps the filename, the pipeline information and
+   * the attributes, and its hops and error handling point to the copied transforms.
+   *
+   * @return The copy
+   * @throws HopException In case the pipeline can't be cloned
+   */
+  public PipelineMeta copy() throws HopException {
+    PipelineMeta copy = (PipelineMeta) realClone(true);
+    if (copy == null) {
+      throw new HopException("Unable to copy the metadata of pipeline " + getFilename());
+    }
+    copy.copyCommon(this);
+    copy.info = new PipelineMetaInfo(info);
+    copy.pipelineStatus = pipelineStatus;
+
+    // The cloned hops and error handling still reference the original transforms
+    //
+    Map<TransformMeta, TransformMeta> copiedTransforms = new IdentityHashMap<>();
+    for (int i = 0; i < nrTransforms(); i++) {
+      copiedTransforms.put(getTransform(i), copy.getTransform(i));
+    }
+    for (PipelineHopMeta hop : copy.hops) {
+      hop.setFromTransform(
+          copiedTransforms.getOrDefault(hop.getFromTransform(), hop.getFromTransform()));
+      hop.setToTransform(copiedTransforms.getOrDefault(hop.getToTransform(), hop.getToTransform()));
+    }
+    for (TransformMeta transformMeta : copy.transforms) {
+      TransformErrorMeta errorMeta = transformMeta.getTransformErrorMeta();
+      if (errorMeta != null) {
+        errorMeta.setSourceTransform(transformMeta);
+        errorMeta.setTargetTransform(
+            copiedTransforms.getOrDefault(
+                errorMeta.getTargetTransform(), errorMeta.getTargetTransform()));
+      }
+    }
+    copy.clearChanged();
+    return copy;
+  }
+
   @Override
   protected String getExtension() {
     return PIPELINE_EXTENSION;
@@ -50,6 +50,15 @@ public class PipelineMetaInfo extends AbstractMetaInfo {
     this.pipelineType = PipelineMeta.PipelineType.Normal;
   }
 
+  public PipelineMetaInfo(PipelineMetaInfo info) {
+    super(info);
+    this.pipelineVersion = info.pipelineVersion;
+    this.capturingTransformPerformanceSnapShots = info.capturingTransformPerformanceSnapShots;
+    this.transformPerformanceCapturingDelay = info.transformPerformanceCapturingDelay;
+    this.transformPerformanceCapturingSizeLimit = info.transformPerformanceCapturingSizeLimit;
+    this.pipelineType = info.pipelineType;
+  }
+
   /**
    * Gets pipelineVersion
    *
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.transform.ITransform;
+import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.RunThread;
+import org.apache.hop.pipeline.transform.TransformMetaDataCombi;
+
+/**
+ * Runs the transform copies of a pipeline on a fixed size work-stealing pool instead of on a thread
+ * per transform copy. A transform gets a turn on the pool when one of its input row sets has rows
+ * (or is done) and all of its output row sets have room. During a turn processRow() is called until
+ * the transform can't make progress anymore or until it had its share of calls.
+ *
+ * <p>After a turn the neighbours of the transform are given a turn if they can make progress now. A
+ * watchdog checks all transforms every {@link #CHECK_INTERVAL_MS} ms to pick up changes which
+ * didn't come from a neighbour, like a pipeline being stopped or resumed.
+ *
+ * <p>Every pipeline gets a pool of its own, so a sub-pipeline never waits for workers which are
+ * taken by the transforms of its parent. Waits of a transform on its row sets are announced to the
+ * pool so it can start an extra worker while a transform is blocked. Transforms which wait for
+ * something else, like a sub-pipeline, other transforms or a remote call, or which need to stay on
+ * one thread, are not run on the pool: see {@link ITransformMeta#requiresDedicatedThread()}.
+ */
+public class TransformScheduler {
+  /** The maximum number of processRow() calls in one turn */
+  private static final int PROCESS_ROW_CALLS_PER_TURN = 1000;
+
+  /** The interval of the watchdog which gives all runnable transforms a turn */
+  private static final long CHECK_INTERVAL_MS = 50L;
+
+  private static final ScheduledExecutorService watchdog =
+      Executors.newSingleThreadScheduledExecutor(
+          r -> {
+            Thread thread = new Thread(r, "Hop transform scheduler watchdog");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final IPipelineEngine<?> pipeline;
+  private final ForkJoinPool pool;
+  private final AtomicInteger threadNr;
+  private final int rowSetSize;
+  private final List<TransformTask> tasks;
+  private final AtomicInteger nrActive;
+  private volatile ScheduledFuture<?> watchdogFuture;
+
+  /**
+   * @param pipeline The pipeline to run the transforms of
+   * @param name The name to give the worker threads
+   * @param poolSize The number of worker threads
+   * @param rowSetSize The capacity of the row sets between the transforms
+   */
+  public TransformScheduler(
+      IPipelineEngine<?> pipeline, String name, int poolSize, int rowSetSize) {
+    this.pipeline = pipeline;
+    this.threadNr = new AtomicInteger(1);
+    this.pool =
+        new ForkJoinPool(
+            poolSize,
+            forkJoinPool -> {
+              ForkJoinWorkerThread thread =
+                  ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+              thread.setName(name + " - worker " + threadNr.getAndIncrement());
+              return thread;
+            },
+            null,
+            true);
+    this.rowSetSize = rowSetSize;
+    this.tasks = new ArrayList<>();
+    this.nrActive = new AtomicInteger(0);
+  }
+
+  /**
+   * Add a transform copy to run. All transforms need to be added before the scheduler is started.
+   *
+   * @param combi The transform copy
+   * @param runThread Handles the start, errors and end of the transform
+   */
+  public void addTransform(TransformMetaDataCombi combi, RunThread runThread) {
+    tasks.add(new TransformTask(combi.transform, runThread));
+  }
+
+  /** Flag all transforms as running and give the ones which can make progress a turn. */
+  public void start() {
+    // Look up which transform writes to and reads from which row set
+    //
+    Map<IRowSet, TransformTask> producers = new IdentityHashMap<>();
+    Map<IRowSet, TransformTask> consumers = new IdentityHashMap<>();
+    for (TransformTask task : tasks) {
+      task.inputRowSets = new ArrayList<>(task.transform.getInputRowSets());
+      task.outputRowSets = new ArrayList<>(task.transform.getOutputRowSets());
+      task.inputRowSets.forEach(rowSet -> consumers.put(rowSet, task));
+      task.outputRowSets.forEach(rowSet -> producers.put(rowSet, task));
+    }
+    for (TransformTask task : tasks) {
+      for (IRowSet rowSet : task.inputRowSets) {
+        addNeighbour(task, producers.get(rowSet));
+      }
+      for (IRowSet rowSet : task.outputRowSets) {
+        addNeighbour(task, consumers.get(rowSet));
+      }
+    }
+
+    nrActive.set(tasks.size());
+    if (tasks.isEmpty()) {
+      pool.shutdown();
+      return;
+    }
+    for (TransformTask task : tasks) {
+      task.runThread.startRunning();
+    }
+    for (TransformTask task : tasks) {
+      schedule(task);
+    }
+    if (nrActive.get() > 0) {
+      watchdogFuture =
+          watchdog.scheduleWithFixedDelay(
+              this::scheduleAll, CHECK_INTERVAL_MS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+      // All transforms might have finished before the watchdog was scheduled
+      //
+      if (nrActive.get() == 0) {
+        watchdogFuture.cancel(false);
+      }
+    }
+  }
+
+  private static void addNeighbour(TransformTask task, TransformTask neighbour) {
+    if (neighbour != null && neighbour != task && !task.neighbours.contains(neighbour)) {
+      task.neighbours.add(neighbour);
+    }
+  }
+
+  private void scheduleAll() {
+    for (TransformTask task : tasks) {
+      schedule(task);
+    }
+  }
+
+  private void schedule(TransformTask task) {
+    if (!task.finished && task.isRunnable() && task.scheduled.compareAndSet(false, true)) {
+      pool.execute(task);
+    }
+  }
+
+  private void transformFinished() {
+    if (nrActive.decrementAndGet() == 0) {
+      ScheduledFuture<?> future = watchdogFuture;
+      if (future != null) {
+        future.cancel(false);
+      }
+
+      // The last turn ends after this, the workers stop once the pool is idle
+      //
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * @return the number of transform copies which didn't finish yet
+   */
+  public int getNrActive() {
+    return nrActive.get();
+  }
+
+  private class TransformTask implements Runnable {
+    private final ITransform transform;
+    private final RunThread runThread;
+    private final List<TransformTask> neighbours;
+    private final AtomicBoolean scheduled;
+    private volatile boolean finished;
+    private List<IRowSet> inputRowSets;
+    private List<IRowSet> outputRowSets;
+
+    TransformTask(ITransform transform, RunThread runThread) {
+      this.transform = transform;
+      this.runThread = runThread;
+      this.neighbours = new ArrayList<>();
+      this.scheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * A transform can make progress when it has rows to read or is done reading, and when it has
+     * room to write rows. A stopped transform is always runnable so that it can clean up.
+     */
+    boolean isRunnable() {
+      if (transform.isStopped() || pipeline.isStopped()) {
+        return true;
+      }
+      if (transform.isPaused()) {
+        return false;
+      }
+      if (!inputRowSets.isEmpty()) {
+        boolean allDone = true;
+        boolean hasRows = false;
+        for (IRowSet rowSet : inputRowSets) {
+          if (rowSet.size() > 0) {
+            hasRows = true;
+            break;
+          }
+          allDone &= rowSet.isDone();
+        }
+        if (!hasRows && !allDone) {
+          return false;
+        }
+      }
+      for (IRowSet rowSet : outputRowSets) {
+        if (rowSet.size() >= rowSetSize && !rowSet.isDone()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public void run() {
+      try {
+        int calls = 0;
+        while (!finished && calls++ < PROCESS_ROW_CALLS_PER_TURN && isRunnable()) {
+          if (transform.isStopped() || !transform.processRow() || transform.isStopped()) {
+            finished = true;
+          }
+        }
+      } catch (Throwable t) {
+        runThread.handleError(t);
+        finished = true;
+      }
+
+      if (finished) {
+        try {
+          runThread.finishRunning();
+        } finally {
+          transformFinished();
+        }
+      }
+
+      // Check again after we gave up our turn: a neighbour might have tried to schedule us while we
+      // were still running.
+      //
+      scheduled.set(false);
+      schedule(this);
+      for (TransformTask neighbour : neighbours) {
+        schedule(neighbour);
+      }
+    }
+  }
+}
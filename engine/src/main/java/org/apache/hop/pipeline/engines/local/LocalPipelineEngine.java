@@ -131,6 +131,17 @@ public class LocalPipelineEngine extends Pipeline implements IPipelineEngine<Pip
     setSafeModeEnabled(config.isSafeModeEnabled());
     setSortingTransformsTopologically(config.isSortingTransformsTopologically());
     setGatheringMetrics(config.isGatheringMetrics());
+    setRingBufferRowSetsEnabled(config.isRingBufferRowSets());
+    setVirtualThreadsEnabled(config.isVirtualThreads());
+    int workerPoolSize = 0;
+    if (config.isWorkerPool()) {
+      int nrProcessors = Runtime.getRuntime().availableProcessors();
+      workerPoolSize = Const.toInt(resolve(config.getWorkerPoolSize()), nrProcessors);
+      if (workerPoolSize <= 0) {
+        workerPoolSize = nrProcessors;
+      }
+    }
+    setWorkerPoolSize(workerPoolSize);
     setFeedbackShown(config.isFeedbackShown());
     setFeedbackSize(Const.toInt(resolve(config.getFeedbackSize()), Const.ROWS_UPDATE));
 
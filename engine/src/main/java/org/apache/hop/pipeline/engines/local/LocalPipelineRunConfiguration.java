@@ -143,6 +143,58 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   @HopMetadataProperty(key = "transactional")
   protected boolean transactional;
 
+  /** Use lock-free row sets for hops between a single producer copy and a single consumer copy. */
+  @GuiWidgetElement(
+      id = "ringBufferRowSets",
+      order = "110",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RingBufferRowSets.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.RingBufferRowSets.ToolTip")
+  @HopMetadataProperty(key = "ring_buffer_rowsets")
+  protected boolean ringBufferRowSets;
+
+  /** Run the transform threads on virtual threads when the Java runtime supports it. */
+  @GuiWidgetElement(
+      id = "virtualThreads",
+      order = "120",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreads.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.VirtualThreads.ToolTip")
+  @HopMetadataProperty(key = "virtual_threads")
+  protected boolean virtualThreads;
+
+  /** Run the transforms on a fixed size pool of worker threads instead of a thread per copy. */
+  @GuiWidgetElement(
+      id = "workerPool",
+      order = "130",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.CHECKBOX,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.WorkerPool.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.WorkerPool.ToolTip")
+  @HopMetadataProperty(key = "worker_pool")
+  protected boolean workerPool;
+
+  /** The number of worker threads, empty to use the number of processors. */
+  @GuiWidgetElement(
+      id = "workerPoolSize",
+      order = "140",
+      parentId = PipelineRunConfiguration.GUI_PLUGIN_ELEMENT_PARENT_ID,
+      type = GuiElementType.TEXT,
+      label =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.WorkerPoolSize.Label",
+      toolTip =
+          "i18n:org.apache.hop.ui.pipeline.config:PipelineRunConfigurationDialog.WorkerPoolSize.ToolTip")
+  @HopMetadataProperty(key = "worker_pool_size")
+  protected String workerPoolSize;
+
   public enum SampleType {
     None,
     First,
@@ -173,6 +225,10 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
     this.sampleTypeInGui = config.sampleTypeInGui;
     this.sampleSize = config.sampleSize;
     this.transactional = config.transactional;
+    this.ringBufferRowSets = config.ringBufferRowSets;
+    this.virtualThreads = config.virtualThreads;
+    this.workerPool = config.workerPool;
+    this.workerPoolSize = config.workerPoolSize;
   }
 
   @Override
@@ -347,4 +403,68 @@ public class LocalPipelineRunConfiguration extends EmptyPipelineRunConfiguration
   public void setTransactional(boolean transactional) {
     this.transactional = transactional;
   }
+
+  /**
+   * Gets ringBufferRowSets
+   *
+   * @return value of ringBufferRowSets
+   */
+  public boolean isRingBufferRowSets() {
+    return ringBufferRowSets;
+  }
+
+  /**
+   * @param ringBufferRowSets The ringBufferRowSets to set
+   */
+  public void setRingBufferRowSets(boolean ringBufferRowSets) {
+    this.ringBufferRowSets = ringBufferRowSets;
+  }
+
+  /**
+   * Gets virtualThreads
+   *
+   * @return value of virtualThreads
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * @param virtualThreads The virtualThreads to set
+   */
+  public void setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  /**
+   * Gets workerPool
+   *
+   * @return value of workerPool
+   */
+  public boolean isWorkerPool() {
+    return workerPool;
+  }
+
+  /**
+   * @param workerPool The workerPool to set
+   */
+  public void setWorkerPool(boolean workerPool) {
+    this.workerPool = workerPool;
+  }
+
+  /**
+   * Gets workerPoolSize
+   *
+   * @return value of workerPoolSize
+   */
+  public String getWorkerPoolSize() {
+    return workerPoolSize;
+  }
+
+  /**
+   * @param workerPoolSize The workerPoolSize to set
+   */
+  public void setWorkerPoolSize(String workerPoolSize) {
+    this.workerPoolSize = workerPoolSize;
+  }
 }
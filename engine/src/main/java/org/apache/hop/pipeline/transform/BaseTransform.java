@@ -34,14 +34,18 @@ import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.IExtensionData;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.ResultFile;
+import org.apache.hop.core.RowSetNotifier;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopRowException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -179,6 +183,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   /** Number of lines rejected to an error handling transform */
   private long linesRejected;
 
+  /** Number of bytes written to temporary files */
+  private long bytesSpilled;
+
   private boolean distributed;
 
   private IRowDistribution rowDistribution;
@@ -200,7 +207,25 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   /** the rowsets on the output, size() == nr of target transforms */
   private List<IRowSet> outputRowSets;
 
-  private DynamicWaitTimes.SingleStreamStatus waitingTime;
+  /** Signalled by the input row sets when rows arrive or when they are done */
+  private final RowSetNotifier inputNotifier = new RowSetNotifier();
+
+  /** The maximum time in ms to wait for a signal of the input row sets, -1 if not yet known */
+  private long inputWaitTime = -1L;
+
+  /**
+   * Used to wake up the transform thread when the transform is resumed or stopped. This is not a
+   * monitor so that a paused virtual thread doesn't pin its carrier thread.
+   */
+  private final ReentrantLock pauseLock = new ReentrantLock();
+
+  private final Condition resumed = pauseLock.newCondition();
+
+  /** Tells the waits on the row sets to give up because the transform was stopped */
+  private final BooleanSupplier stopCheck = this::isStopped;
+
+  /** Like stopCheck but the rows are still written when the transform is stopped safely */
+  private final BooleanSupplier hardStopCheck = () -> isStopped() && !isSafeStopped();
 
   private final ReadWriteLock outputRowSetsLock = new ReentrantReadWriteLock();
 
@@ -298,12 +323,6 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   private int upperBufferBoundary;
 
-  /**
-   * The lower buffer size boundary after which we manage the thread priority a little bit to
-   * prevent excessive locking
-   */
-  private int lowerBufferBoundary;
-
   /** maximum number of errors to allow */
   private Long maxErrors = -1L;
 
@@ -391,6 +410,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       linesUpdated = 0L;
       linesSkipped = 0L;
       linesRejected = 0L;
+      bytesSpilled = 0L;
       linesInput = 0L;
       linesOutput = 0L;
     }
@@ -434,10 +454,8 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     if (pipeline != null) {
       upperBufferBoundary = (int) (pipeline.getRowSetSize() * 0.99);
-      lowerBufferBoundary = (int) (pipeline.getRowSetSize() * 0.01);
     } else {
       upperBufferBoundary = 100;
-      lowerBufferBoundary = 10;
     }
 
     setInternalVariables();
@@ -867,6 +885,32 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
   }
 
+  /**
+   * Get the number of bytes written to temporary files because the rows didn't fit in memory
+   *
+   * @see {@link #addBytesSpilled(long)}
+   * @return the number of bytes written to temporary files
+   */
+  @Override
+  public long getBytesSpilled() {
+    synchronized (statusCountersLock) {
+      return bytesSpilled;
+    }
+  }
+
+  /**
+   * Adds to the number of bytes written to temporary files. This can be passed to a {@link
+   * org.apache.hop.core.spill.SpillFile} as the listener for the bytes it writes.
+   *
+   * @param bytes the number of bytes written
+   * @see {@link #getBytesSpilled()}
+   */
+  public void addBytesSpilled(long bytes) {
+    synchronized (statusCountersLock) {
+      bytesSpilled += bytes;
+    }
+  }
+
   /**
    * @return the number of lines skipped
    * @see {@link #setLinesSkipped(long)}, {@link #incrementLinesSkipped()}
@@ -988,6 +1032,41 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   @Override
   public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    verifyFieldNamesAndTypes(rowMeta);
+    getRowHandler().putRow(rowMeta, row);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  /**
+   * putRows is used to copy a batch of rows to the output rowset(s). The pause and stop checks and
+   * the locking of the output rowsets happen once for the whole batch instead of once per row. Row
+   * listeners are still called for every row.
+   *
+   * @param rowMeta The row metadata of all the rows in the batch
+   * @param rows The rows to put to the destination rowset(s).
+   * @throws HopTransformException
+   */
+  @Override
+  public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    if (rows == null || rows.isEmpty()) {
+      return;
+    }
+    verifyFieldNamesAndTypes(rowMeta);
+    getRowHandler().putRows(rowMeta, rows);
+
+    // This transform is not reading data, only writing
+    //
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+  }
+
+  private void verifyFieldNamesAndTypes(IRowMeta rowMeta) throws HopTransformException {
     if (rowMeta != null) {
       if (!allowEmptyFieldNamesAndTypes) {
         // check row meta for empty field name (BACKLOG-18004)
@@ -1005,26 +1084,118 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         }
       }
     }
-    getRowHandler().putRow(rowMeta, row);
+  }
 
-    // This transform is not reading data, only writing
+  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    if (!waitToPutRows()) {
+      return;
+    }
+
+    // call all row listeners...
     //
-    if (firstRowReadDate == null) {
-      firstRowReadDate = new Date();
+    for (IRowListener listener : rowListeners) {
+      listener.rowWrittenEvent(rowMeta, row);
+    }
+
+    // Keep adding to terminator_rows buffer...
+    //
+    if (terminator && terminatorRows != null) {
+      try {
+        terminatorRows.add(rowMeta.cloneRow(row));
+      } catch (HopValueException e) {
+        throw new HopTransformException(
+            "Unable to clone row while adding rows to the terminator rows.", e);
+      }
+    }
+
+    outputRowSetsLock.readLock().lock();
+    try {
+      if (outputRowSets.isEmpty()) {
+        // No more output rowsets!
+        // Still update the nr of lines written.
+        //
+        incrementLinesWritten();
+
+        return; // we're done here!
+      }
+
+      putRowToOutputRowSets(rowMeta, row);
+    } finally {
+      outputRowSetsLock.readLock().unlock();
     }
   }
 
-  private void handlePutRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
-    // Are we pausing the transform? If so, stall forever...
+  private void handlePutRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    if (!waitToPutRows()) {
+      return;
+    }
+
+    // call all row listeners...
     //
-    while (paused.get() && !stopped.get()) {
+    if (!rowListeners.isEmpty()) {
+      for (Object[] row : rows) {
+        for (IRowListener listener : rowListeners) {
+          listener.rowWrittenEvent(rowMeta, row);
+        }
+      }
+    }
+
+    // Keep adding to terminator_rows buffer...
+    //
+    if (terminator && terminatorRows != null) {
       try {
-        Thread.sleep(1);
-      } catch (InterruptedException e) {
-        throw new HopTransformException(e);
+        for (Object[] row : rows) {
+          terminatorRows.add(rowMeta.cloneRow(row));
+        }
+      } catch (HopValueException e) {
+        throw new HopTransformException(
+            "Unable to clone row while adding rows to the terminator rows.", e);
       }
     }
 
+    outputRowSetsLock.readLock().lock();
+    try {
+      if (outputRowSets.isEmpty()) {
+        // No more output rowsets!
+        // Still update the nr of lines written.
+        //
+        synchronized (statusCountersLock) {
+          linesWritten += rows.size();
+        }
+
+        return; // we're done here!
+      }
+
+      // The common case: a single target without partitioning, hand over the batch in one go.
+      //
+      if (repartitioning == TransformPartitioningMeta.PARTITIONING_METHOD_NONE
+          && outputRowSets.size() == 1
+          && (!distributed || rowDistribution == null)) {
+        int written = putRowsToRowSet(outputRowSets.get(0), rowMeta, rows);
+        synchronized (statusCountersLock) {
+          linesWritten += written;
+        }
+        return;
+      }
+
+      for (Object[] row : rows) {
+        putRowToOutputRowSets(rowMeta, row);
+      }
+    } finally {
+      outputRowSetsLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Wait while the transform is paused and until the pipeline is running.
+   *
+   * @return false if the transform was stopped and no rows should be written anymore.
+   */
+  private boolean waitToPutRows() throws HopTransformException {
+    // Are we pausing the transform? If so, stall until we're resumed or stopped...
+    //
+    waitWhilePaused();
+
     // Right after the pause loop we have to check if this thread is stopped or
     // not.
     //
@@ -1033,7 +1204,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         logDebug(BaseMessages.getString(PKG, "BaseTransform.Log.StopPuttingARow"));
       }
       stopAll();
-      return;
+      return false;
     }
 
     // Have all threads started?
@@ -1056,57 +1227,29 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       }
       this.checkPipelineRunning = true;
     }
+    return true;
+  }
 
-    // call all row listeners...
+  private void putRowToOutputRowSets(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+    // Repartitioning happens when the current transform is not partitioned, but the next one is.
+    // That means we need to look up the partitioning information in the next transform..
+    // If there are multiple transforms, we need to look at the first (they should be all the
+    // same)
     //
-    for (IRowListener listener : rowListeners) {
-      listener.rowWrittenEvent(rowMeta, row);
-    }
+    switch (repartitioning) {
+      case TransformPartitioningMeta.PARTITIONING_METHOD_NONE:
+        noPartitioning(rowMeta, row);
+        break;
 
-    // Keep adding to terminator_rows buffer...
-    //
-    if (terminator && terminatorRows != null) {
-      try {
-        terminatorRows.add(rowMeta.cloneRow(row));
-      } catch (HopValueException e) {
+      case TransformPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
+        specialPartitioning(rowMeta, row);
+        break;
+      case TransformPartitioningMeta.PARTITIONING_METHOD_MIRROR:
+        mirrorPartitioning(rowMeta, row);
+        break;
+      default:
         throw new HopTransformException(
-            "Unable to clone row while adding rows to the terminator rows.", e);
-      }
-    }
-
-    outputRowSetsLock.readLock().lock();
-    try {
-      if (outputRowSets.isEmpty()) {
-        // No more output rowsets!
-        // Still update the nr of lines written.
-        //
-        incrementLinesWritten();
-
-        return; // we're done here!
-      }
-
-      // Repartitioning happens when the current transform is not partitioned, but the next one is.
-      // That means we need to look up the partitioning information in the next transform..
-      // If there are multiple transforms, we need to look at the first (they should be all the
-      // same)
-      //
-      switch (repartitioning) {
-        case TransformPartitioningMeta.PARTITIONING_METHOD_NONE:
-          noPartitioning(rowMeta, row);
-          break;
-
-        case TransformPartitioningMeta.PARTITIONING_METHOD_SPECIAL:
-          specialPartitioning(rowMeta, row);
-          break;
-        case TransformPartitioningMeta.PARTITIONING_METHOD_MIRROR:
-          mirrorPartitioning(rowMeta, row);
-          break;
-        default:
-          throw new HopTransformException(
-              "Internal error: invalid repartitioning type: " + repartitioning);
-      }
-    } finally {
-      outputRowSetsLock.readLock().unlock();
+            "Internal error: invalid repartitioning type: " + repartitioning);
     }
   }
 
@@ -1271,11 +1414,31 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       toBeSent = metaFromRs;
     }
 
-    while (!rs.putRow(toBeSent, row)) {
-      if (isStopped() && !safeStopped.get()) {
-        return;
-      }
+    RowSetWaits.putRow(rs, toBeSent, row, hardStopCheck);
+  }
+
+  /**
+   * Put a batch of rows in a row set, waiting for room if needed.
+   *
+   * @return the number of rows handed over, less than the size of the batch if the transform was
+   *     stopped
+   */
+  private int putRowsToRowSet(IRowSet rs, IRowMeta rowMeta, List<Object[]> rows) {
+    IRowMeta toBeSent;
+    IRowMeta metaFromRs = rs.getRowMeta();
+    if (metaFromRs == null) {
+      // IRowSet is not initialised so far
+      toBeSent = rowMeta.clone();
+    } else {
+      // use the existing
+      toBeSent = metaFromRs;
+    }
+
+    int offset = rs.putRows(toBeSent, rows, 0);
+    if (offset < rows.size()) {
+      offset = RowSetWaits.putRows(rs, toBeSent, rows, offset, hardStopCheck);
     }
+    return offset;
   }
 
   /**
@@ -1300,15 +1463,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   public void handlePutRowTo(IRowMeta rowMeta, Object[] row, IRowSet rowSet)
       throws HopTransformException {
 
-    // Are we pausing the transform? If so, stall forever...
+    // Are we pausing the transform? If so, stall until we're resumed or stopped...
     //
-    while (paused.get() && !stopped.get()) {
-      try {
-        Thread.sleep(1);
-      } catch (InterruptedException e) {
-        throw new HopTransformException(e);
-      }
-    }
+    waitWhilePaused();
 
     // Do not call the row listeners for targeted rows.
     // It can cause rows with varying layouts to arrive at the same listener without a way to keep
@@ -1334,11 +1491,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
     // Don't distribute or anything, only go to this rowset!
     //
-    while (!rowSet.putRow(rowMeta, row)) {
-      if (isStopped()) {
-        break;
-      }
-    }
+    RowSetWaits.putRow(rowSet, rowMeta, row, stopCheck);
     incrementLinesWritten();
   }
 
@@ -1408,11 +1561,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
 
     if (errorRowSet != null) {
-      while (!errorRowSet.putRow(errorRowMeta, errorRowData)) {
-        if (isStopped()) {
-          break;
-        }
-      }
+      RowSetWaits.putRow(errorRowSet, errorRowMeta, errorRowData, stopCheck);
       incrementLinesRejected();
     }
 
@@ -1527,29 +1676,171 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     return row;
   }
 
-  private Object[] handleGetRow() throws HopException {
+  /**
+   * Get a batch of rows from the input rowsets. With a single input rowset the rows which are
+   * available are taken in one go, pause and stop checks and the row counters are handled once per
+   * batch. With multiple input rowsets the rows are read one by one.
+   *
+   * @param maxRows The maximum number of rows to return
+   * @return a non-empty list of rows or null if there are no more rows.
+   */
+  @Override
+  public List<Object[]> getRows(int maxRows) throws HopException {
+    List<Object[]> rows = getRowHandler().getRows(maxRows);
 
-    // Are we pausing the transform? If so, stall forever...
-    //
-    while (paused.get() && !stopped.get()) {
-      try {
-        Thread.sleep(100);
-      } catch (InterruptedException e) {
-        throw new HopTransformException(e);
+    if (firstRowReadDate == null) {
+      firstRowReadDate = new Date();
+    }
+
+    return rows;
+  }
+
+  private List<Object[]> handleGetRows(int maxRows) throws HopException {
+    IRowSet inputRowSet = null;
+    inputRowSetsLock.readLock().lock();
+    try {
+      if (inputRowSets.size() == 1) {
+        inputRowSet = inputRowSets.get(0);
       }
+    } finally {
+      inputRowSetsLock.readLock().unlock();
     }
 
+    if (inputRowSet == null || maxRows <= 1) {
+      // Let the row by row logic switch between the input row sets
+      //
+      Object[] row = handleGetRow();
+      if (row == null) {
+        return null;
+      }
+      List<Object[]> rows = new ArrayList<>(1);
+      rows.add(row);
+      return rows;
+    }
+
+    if (!waitToGetRows()) {
+      return null;
+    }
+
+    List<Object[]> rows = inputRowSet.getRows(maxRows);
+    while (rows.isEmpty()) {
+      if (isStopped()) {
+        return null;
+      }
+      boolean done = inputRowSet.isDone();
+      rows = inputRowSet.getRows(maxRows);
+      if (rows.isEmpty() && done) {
+        inputRowSetsLock.writeLock().lock();
+        try {
+          removeRowSetFromInputRowSets(inputRowSet);
+        } finally {
+          inputRowSetsLock.writeLock().unlock();
+        }
+        return null; // We're completely done.
+      }
+    }
+
+    obtainInputRowMeta(rows.get(0), inputRowSet);
+    synchronized (statusCountersLock) {
+      linesRead += rows.size();
+    }
+
+    if (pipeline.isSafeModeEnabled()) {
+      pipelineMeta.checkRowMixingStatically(this, transformMeta, null);
+    }
+
+    if (!rowListeners.isEmpty()) {
+      for (Object[] row : rows) {
+        for (IRowListener listener : rowListeners) {
+          listener.rowReadEvent(inputRowMeta, row);
+        }
+      }
+    }
+
+    // Check the rejection rates etc. as well.
+    verifyRejectionRates();
+
+    return rows;
+  }
+
+  /**
+   * Wait while the transform is paused and until the pipeline is running.
+   *
+   * @return false if the transform was stopped and no rows should be read anymore.
+   */
+  private boolean waitToGetRows() throws HopTransformException {
+    // Are we pausing the transform? If so, stall until we're resumed or stopped...
+    //
+    waitWhilePaused();
+
     if (stopped.get()) {
       if (log.isDebug()) {
         logDebug(BaseMessages.getString(PKG, "BaseTransform.Log.StopLookingForMoreRows"));
       }
       stopAll();
-      return null;
+      return false;
     }
 
     // Small startup check
     //
     waitUntilPipelineIsStarted();
+    return true;
+  }
+
+  /**
+   * Park the transform thread while the transform is paused. Resuming or stopping the transform
+   * wakes it up again.
+   */
+  private void waitWhilePaused() throws HopTransformException {
+    if (!paused.get()) {
+      return;
+    }
+    pauseLock.lock();
+    try {
+      while (paused.get() && !stopped.get()) {
+        // Check again once in a while in case the paused flag was changed directly
+        //
+        resumed.await(1, TimeUnit.SECONDS);
+      }
+    } catch (InterruptedException e) {
+      throw new HopTransformException(e);
+    } finally {
+      pauseLock.unlock();
+    }
+  }
+
+  /** Wake up the transform thread if it is waiting for input rows or is paused. */
+  private void wakeUp() {
+    inputNotifier.signal();
+    pauseLock.lock();
+    try {
+      resumed.signalAll();
+    } finally {
+      pauseLock.unlock();
+    }
+  }
+
+  /**
+   * @return the maximum time in ms to wait for a signal from the input row sets before checking
+   *     them again.
+   */
+  private long getInputWaitTime() {
+    int waitTime =
+        Const.toInt(EnvUtil.getSystemProperty(Const.HOP_DEFAULT_BUFFER_POLLING_WAITTIME), 20);
+    if (pipeline.getPipelineRunConfiguration().getEngineRunConfiguration()
+        instanceof LocalPipelineRunConfiguration) {
+      LocalPipelineRunConfiguration runconfig =
+          (LocalPipelineRunConfiguration)
+              pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+      waitTime = Const.toInt(runconfig.getWaitTime(), waitTime);
+    }
+    return waitTime;
+  }
+
+  private Object[] handleGetRow() throws HopException {
+    if (!waitToGetRows()) {
+      return null;
+    }
 
     IRowSet inputRowSet = null;
     Object[] row = null;
@@ -1584,97 +1875,80 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         inputRowSet = currentInputStream();
       }
 
-      // To reduce stress on the locking system we are going to allow
-      // The buffer to grow beyond "a few" entries.
-      // We'll only do that if the previous transform has not ended...
-
-      if (!inputRowSet.isDone() && inputRowSet.size() <= lowerBufferBoundary && !isStopped()) {
-        try {
-          Thread.sleep(0, 1);
-        } catch (InterruptedException e) {
-          // Ignore sleep interruption exception
-        }
-      }
-
       // See if this transform is receiving partitioned data...
       // In that case it might be the case that one input row set is receiving
-      // all data and
-      // the other rowsets nothing. (repartitioning on the same key would do
-      // that)
+      // all data and the other rowsets nothing. (repartitioning on the same key would do that)
       //
-      // We never guaranteed that the input rows would be read one by one
-      // alternatively.
+      // We never guaranteed that the input rows would be read one by one alternatively.
       // So in THIS particular case it is safe to just read 100 rows from one
       // rowset, then switch to another etc.
-      // We can use timeouts to switch from one to another...
       //
-      if (waitingTime == null) {
-        Integer waitTime =
-            Const.toInt(EnvUtil.getSystemProperty(Const.HOP_DEFAULT_BUFFER_POLLING_WAITTIME), 20);
-        ;
-        if (pipeline.getPipelineRunConfiguration().getEngineRunConfiguration()
-            instanceof LocalPipelineRunConfiguration) {
-          LocalPipelineRunConfiguration runconfig =
-              (LocalPipelineRunConfiguration)
-                  pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
-          waitTime = Const.toInt(runconfig.getWaitTime(), waitTime);
+      // When none of the input row sets has a row for us we park until one of them signals that
+      // rows arrived or that it is done. Row sets which can't signal are simply checked again
+      // after the configured wait time.
+      //
+      if (inputWaitTime < 0) {
+        inputWaitTime = getInputWaitTime();
+        for (IRowSet rowSet : inputRowSets) {
+          rowSet.setNotifier(inputNotifier);
         }
-        waitingTime = DynamicWaitTimes.build(inputRowSets, this::getCurrentInputRowSetNr, waitTime);
       }
+      long sequence = inputNotifier.getSequence();
+      int nrEmptyRowSets = 0;
       while (row == null && !isStopped()) {
-        // Get a row from the input in row set ...
-        // Timeout immediately if nothing is there to read.
-        // We will then switch to the next row set to read from...
+        // Get a row from the input in row set without waiting.
+        // If nothing is there to read we switch to the next row set to read from...
         //
-        row = inputRowSet.getRowWait(waitingTime.get(), TimeUnit.MILLISECONDS);
-        boolean timeout = false;
+        row = inputRowSet.getRowWait(0, TimeUnit.MILLISECONDS);
         if (row != null) {
           obtainInputRowMeta(row, inputRowSet);
           incrementLinesRead();
           blockPointer++;
-          waitingTime.reset();
-        } else {
+        } else if (inputRowSet.isDone()) {
           // Try once more...
           // If row is still empty and the row set is done, we remove the row
-          // set from
-          // the input stream and move on to the next one...
+          // set from the input stream and move on to the next one...
           //
-          if (inputRowSet.isDone()) {
-            row = inputRowSet.getRowWait(1, TimeUnit.MILLISECONDS);
-            if (row == null) {
-
-              // Must release the read lock before acquisition of the write lock to prevent
-              // deadlocks.
-              inputRowSetsLock.readLock().unlock();
-
-              // Another thread might acquire the write lock before we do,
-              // and invalidate the data we have just read.
-              //
-              // This is actually fine, until we only want to remove the current rowSet - ArrayList
-              // ignores non-existing
-              // elements when removing.
-              inputRowSetsLock.writeLock().lock();
-              try {
-                removeRowSetFromInputRowSets(inputRowSet);
-                if (inputRowSets.isEmpty()) {
-                  return null; // We're completely done.
-                }
-              } finally {
-                inputRowSetsLock.readLock().lock(); // downgrade to read lock
-                inputRowSetsLock.writeLock().unlock();
+          row = inputRowSet.getRowWait(0, TimeUnit.MILLISECONDS);
+          if (row == null) {
+
+            // Must release the read lock before acquisition of the write lock to prevent
+            // deadlocks.
+            inputRowSetsLock.readLock().unlock();
+
+            // Another thread might acquire the write lock before we do,
+            // and invalidate the data we have just read.
+            //
+            // This is actually fine, until we only want to remove the current rowSet - ArrayList
+            // ignores non-existing
+            // elements when removing.
+            inputRowSetsLock.writeLock().lock();
+            try {
+              removeRowSetFromInputRowSets(inputRowSet);
+              if (inputRowSets.isEmpty()) {
+                return null; // We're completely done.
               }
-            } else {
-              obtainInputRowMeta(row, inputRowSet);
-              incrementLinesRead();
+            } finally {
+              inputRowSetsLock.readLock().lock(); // downgrade to read lock
+              inputRowSetsLock.writeLock().unlock();
             }
           } else {
-            timeout = true;
+            obtainInputRowMeta(row, inputRowSet);
+            incrementLinesRead();
           }
           nextInputStream();
           inputRowSet = currentInputStream();
-          // only change delay time when input stream don't switch.
-          // else switch active stream and reset min delay time
-          waitingTime.adjust(timeout, inputRowSet);
+        } else {
+          nextInputStream();
+          inputRowSet = currentInputStream();
+
+          // Nothing to read on any of the input row sets: wait for a signal
+          //
+          if (++nrEmptyRowSets >= inputRowSets.size()) {
+            RowSetWaits.await(inputNotifier, sequence, inputWaitTime);
+            sequence = inputNotifier.getSequence();
+            nrEmptyRowSets = 0;
+          }
         }
       }
 
@@ -1916,15 +2190,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   }
 
   public Object[] handleGetRowFrom(IRowSet rowSet) throws HopTransformException {
-    // Are we pausing the transform? If so, stall forever...
+    // Are we pausing the transform? If so, stall until we're resumed or stopped...
     //
-    while (paused.get() && !stopped.get()) {
-      try {
-        Thread.sleep(10);
-      } catch (InterruptedException e) {
-        throw new HopTransformException(e);
-      }
-    }
+    waitWhilePaused();
 
     // Have all threads started?
     // Are we running yet? If not, wait a bit until all threads have been
@@ -1941,23 +2209,11 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     }
     Object[] rowData = null;
 
-    // To reduce stress on the locking system we are going to allow
-    // The buffer to grow beyond "a few" entries.
-    // We'll only do that if the previous transform has not ended...
-
-    if (!rowSet.isDone() && rowSet.size() <= lowerBufferBoundary && !isStopped()) {
-      try {
-        Thread.sleep(0, 1);
-      } catch (InterruptedException e) {
-        // Ignore sleep interruption exception
-      }
-    }
-
     // Grab a row... If nothing received after a timeout, try again.
     //
     rowData = rowSet.getRow();
-    while (rowData == null && !rowSet.isDone() && !stopped.get()) {
-      rowData = rowSet.getRow();
+    if (rowData == null && !rowSet.isDone() && !stopped.get()) {
+      rowData = RowSetWaits.getRow(rowSet, stopCheck);
     }
 
     // Still nothing: no more rows to be had?
@@ -1982,20 +2238,6 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       //
       rowData = rowSet.getRow();
       if (rowData == null) {
-        Integer waitTime = 20;
-        if (pipeline.getPipelineRunConfiguration().getEngineRunConfiguration()
-            instanceof LocalPipelineRunConfiguration) {
-          LocalPipelineRunConfiguration runconfig =
-              (LocalPipelineRunConfiguration)
-                  pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
-          waitTime = Integer.parseInt(runconfig.getWaitTime());
-        }
-        if (waitTime == null) waitTime = 20;
-
-        if (waitingTime == null) {
-          waitingTime =
-              DynamicWaitTimes.build(inputRowSets, this::getCurrentInputRowSetNr, waitTime);
-        }
         // Must release the read lock before acquisition of the write lock to prevent deadlocks.
         //
         // But #handleGetRowFrom() can be called either from outside or from handleGetRow().
@@ -2357,6 +2599,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
           }
           if (rowSet != null) {
             inputRowSets.add(rowSet);
+            rowSet.setNotifier(inputNotifier);
             if (log.isDetailed()) {
               logDetailed(
                   BaseMessages.getString(
@@ -2662,6 +2905,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   @Override
   public void stopAll() {
     stopped.set(true);
+    wakeUp();
     pipeline.stopAll();
   }
 
@@ -2703,6 +2947,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
   @Override
   public void setStopped(boolean stopped) {
     this.stopped.set(stopped);
+    if (stopped) {
+      wakeUp();
+    }
   }
 
   @Override
@@ -2752,6 +2999,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   public void setPaused(boolean paused) {
     this.paused.set(paused);
+    if (!paused) {
+      wakeUp();
+    }
   }
 
   /**
@@ -2761,6 +3011,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
    */
   public void setPaused(AtomicBoolean paused) {
     this.paused = paused;
+    wakeUp();
   }
 
   /**
@@ -2998,6 +3249,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     inputRowSetsLock.writeLock().lock();
     try {
       inputRowSets.add(rowSet);
+      rowSet.setNotifier(inputNotifier);
     } finally {
       inputRowSetsLock.writeLock().unlock();
     }
@@ -3005,7 +3257,7 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
 
   private void removeRowSetFromInputRowSets(IRowSet rowSet) {
     inputRowSets.remove(rowSet);
-    waitingTime.remove(rowSet);
+    rowSet.setNotifier(null);
     if (currentInputRowSetNr > 0) {
       currentInputRowSetNr--;
     }
@@ -3054,6 +3306,9 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
     inputRowSetsLock.writeLock().lock();
     try {
       this.inputRowSets = inputRowSets;
+      for (IRowSet rowSet : inputRowSets) {
+        rowSet.setNotifier(inputNotifier);
+      }
     } finally {
       inputRowSetsLock.writeLock().unlock();
     }
@@ -3303,6 +3558,22 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
         && (lines % getPipeline().getFeedbackSize()) == 0;
   }
 
+  /**
+   * Check feedback for transforms which process rows in batches: the line counter can skip over the
+   * feedback size boundary in one batch.
+   *
+   * @param previousLines the number of lines before the batch was processed
+   * @param lines the number of lines after the batch was processed
+   * @return true if feedback should be given for this batch
+   */
+  protected boolean checkFeedback(long previousLines, long lines) {
+    if (!getPipeline().isFeedbackShown() || lines <= 0) {
+      return false;
+    }
+    int feedbackSize = getPipeline().getFeedbackSize();
+    return feedbackSize > 0 && (lines / feedbackSize) > (previousLines / feedbackSize);
+  }
+
   /**
    * @return the rowMeta
    */
@@ -3834,11 +4105,21 @@ public class BaseTransform<Meta extends ITransformMeta, Data extends ITransformD
       return handleGetRow();
     }
 
+    @Override
+    public List<Object[]> getRows(int maxRows) throws HopException {
+      return handleGetRows(maxRows);
+    }
+
     @Override
     public void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException {
       handlePutRow(rowMeta, row);
     }
 
+    @Override
+    public void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+      handlePutRows(rowMeta, rows);
+    }
+
     @Override
     public void putError(
         IRowMeta rowMeta,
@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transform;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -38,6 +40,32 @@ public interface IRowHandler {
 
   void putRow(IRowMeta rowMeta, Object[] row) throws HopTransformException;
 
+  /**
+   * Get a batch of rows. By default this reads a single row with {@link #getRow()}.
+   *
+   * @param maxRows The maximum number of rows to return
+   * @return a non-empty list of rows or null if there are no more rows.
+   */
+  default List<Object[]> getRows(int maxRows) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>(1);
+    rows.add(row);
+    return rows;
+  }
+
+  /**
+   * Put a batch of rows. By default the rows are passed one by one to {@link #putRow(IRowMeta,
+   * Object[])}.
+   */
+  default void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopTransformException {
+    for (Object[] row : rows) {
+      putRow(rowMeta, row);
+    }
+  }
+
   void putError(
       IRowMeta rowMeta,
       Object[] row,
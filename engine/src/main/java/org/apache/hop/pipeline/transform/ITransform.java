@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transform;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -207,6 +208,13 @@ public interface ITransform extends IVariables, IHasLogChannel, IEngineComponent
   @Override
   long getLinesRejected();
 
+  /**
+   * @return The number of bytes written to temporary files because the rows didn't fit in memory
+   */
+  default long getBytesSpilled() {
+    return 0L;
+  }
+
   /**
    * Put a row on the destination rowsets.
    *
@@ -219,6 +227,36 @@ public interface ITransform extends IVariables, IHasLogChannel, IEngineComponent
    */
   Object[] getRow() throws HopException;
 
+  /**
+   * Put a batch of rows on the destination rowsets. By default the rows are passed one by one to
+   * {@link #putRow(IRowMeta, Object[])}.
+   *
+   * @param rowMeta The description of the rows
+   * @param rows The rows to send to the destination transforms
+   */
+  default void putRows(IRowMeta rowMeta, List<Object[]> rows) throws HopException {
+    for (Object[] row : rows) {
+      putRow(rowMeta, row);
+    }
+  }
+
+  /**
+   * Get a batch of rows from the source transform(s). By default a single row is read with {@link
+   * #getRow()}.
+   *
+   * @param maxRows The maximum number of rows to return
+   * @return a non-empty list of rows or null if there are no more rows.
+   */
+  default List<Object[]> getRows(int maxRows) throws HopException {
+    Object[] row = getRow();
+    if (row == null) {
+      return null;
+    }
+    List<Object[]> rows = new ArrayList<>(1);
+    rows.add(row);
+    return rows;
+  }
+
   /** Signal output done to destination transforms */
   void setOutputDone();
 
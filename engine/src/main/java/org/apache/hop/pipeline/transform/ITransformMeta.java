@@ -474,6 +474,18 @@ public interface ITransformMeta {
     return false;
   }
 
+  /**
+   * True if the transform waits for something else than its row sets, like a sub-pipeline, other
+   * transforms, a database or a remote service, or if it needs to run on the same thread all the
+   * time. When the transforms of a pipeline run on a pool of worker threads, such a transform gets
+   * a thread of its own instead so that it can't hold up the workers.
+   *
+   * @return True if the transform needs a thread of its own, false otherwise
+   */
+  default boolean requiresDedicatedThread() {
+    return false;
+  }
+
   /**
    * True if the transform passes it's result data straight to the servlet output. See exposing Hop
    * data over a web service
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.RowSetNotifier;
+import org.apache.hop.core.row.IRowMeta;
+
+/**
+ * The blocking waits of a transform on its row sets. When the transform runs in a worker pool the
+ * wait is announced to the pool with {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}
+ * so that it can start an extra worker while the transform is blocked. On a regular thread this
+ * simply waits.
+ */
+final class RowSetWaits {
+
+  private RowSetWaits() {}
+
+  /**
+   * Put a row in a row set, waiting until there is room.
+   *
+   * @return false if the transform was stopped before the row could be put
+   */
+  static boolean putRow(IRowSet rowSet, IRowMeta rowMeta, Object[] row, BooleanSupplier stopped) {
+    if (rowSet.putRowWait(rowMeta, row, 0, TimeUnit.MILLISECONDS)) {
+      return true;
+    }
+    PutRowBlocker blocker = new PutRowBlocker(rowSet, rowMeta, row, stopped);
+    managedBlock(blocker);
+    return blocker.put;
+  }
+
+  /**
+   * Put the rows from the given offset onwards in a row set, waiting until there is room for all of
+   * them.
+   *
+   * @return the index after the last row that was put, less than the number of rows if the
+   *     transform was stopped before all rows could be put
+   */
+  static int putRows(
+      IRowSet rowSet, IRowMeta rowMeta, List<Object[]> rows, int offset, BooleanSupplier stopped) {
+    PutRowsBlocker blocker = new PutRowsBlocker(rowSet, rowMeta, rows, offset, stopped);
+    managedBlock(blocker);
+    return blocker.offset;
+  }
+
+  /**
+   * Wait for a row from a row set.
+   *
+   * @return the row or null if the row set is done or the transform was stopped
+   */
+  static Object[] getRow(IRowSet rowSet, BooleanSupplier stopped) {
+    GetRowBlocker blocker = new GetRowBlocker(rowSet, stopped);
+    managedBlock(blocker);
+    return blocker.row;
+  }
+
+  /**
+   * Wait until the notifier is signalled after the given sequence number was obtained, or until the
+   * timeout expires.
+   */
+  static void await(RowSetNotifier notifier, long sequence, long timeoutMillis) {
+    managedBlock(
+        new ForkJoinPool.ManagedBlocker() {
+          @Override
+          public boolean block() {
+            notifier.await(sequence, timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+          }
+
+          @Override
+          public boolean isReleasable() {
+            return notifier.getSequence() != sequence;
+          }
+        });
+  }
+
+  private static void managedBlock(ForkJoinPool.ManagedBlocker blocker) {
+    try {
+      ForkJoinPool.managedBlock(blocker);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static final class PutRowBlocker implements ForkJoinPool.ManagedBlocker {
+    private final IRowSet rowSet;
+    private final IRowMeta rowMeta;
+    private final Object[] row;
+    private final BooleanSupplier stopped;
+    private boolean put;
+
+    PutRowBlocker(IRowSet rowSet, IRowMeta rowMeta, Object[] row, BooleanSupplier stopped) {
+      this.rowSet = rowSet;
+      this.rowMeta = rowMeta;
+      this.row = row;
+      this.stopped = stopped;
+    }
+
+    @Override
+    public boolean block() {
+      put = rowSet.putRow(rowMeta, row);
+      return isReleasable();
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return put || stopped.getAsBoolean();
+    }
+  }
+
+  private static final class PutRowsBlocker implements ForkJoinPool.ManagedBlocker {
+    private final IRowSet rowSet;
+    private final IRowMeta rowMeta;
+    private final List<Object[]> rows;
+    private final BooleanSupplier stopped;
+    private int offset;
+
+    PutRowsBlocker(
+        IRowSet rowSet,
+        IRowMeta rowMeta,
+        List<Object[]> rows,
+        int offset,
+        BooleanSupplier stopped) {
+      this.rowSet = rowSet;
+      this.rowMeta = rowMeta;
+      this.rows = rows;
+      this.offset = offset;
+      this.stopped = stopped;
+    }
+
+    @Override
+    public boolean block() {
+      offset += rowSet.putRows(rowMeta, rows, offset);
+      return isReleasable();
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return offset >= rows.size() || stopped.getAsBoolean();
+    }
+  }
+
+  private static final class GetRowBlocker implements ForkJoinPool.ManagedBlocker {
+    private final IRowSet rowSet;
+    private final BooleanSupplier stopped;
+    private Object[] row;
+
+    GetRowBlocker(IRowSet rowSet, BooleanSupplier stopped) {
+      this.rowSet = rowSet;
+      this.stopped = stopped;
+    }
+
+    @Override
+    public boolean block() {
+      row = rowSet.getRow();
+      return isReleasable();
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return row != null || rowSet.isDone() || stopped.getAsBoolean();
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform.utils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.exception.HopException;
+
+/**
+ * Keeps a number of requests of a transform in flight on a pool of threads of its own. The results
+ * are handed back on the transform thread, either in the order the requests were submitted or in
+ * the order they complete.
+ *
+ * @param <T> The result of a request
+ */
+public class RequestsInFlight<T> {
+
+  /** Writes the result of a request on the transform thread */
+  @FunctionalInterface
+  public interface IResultWriter<T> {
+    /**
+     * @param result The result of a request
+     * @return false to stop handing out results, true to continue
+     */
+    boolean write(T result) throws HopException;
+  }
+
+  private final int maxRequests;
+  private final boolean keepingOrder;
+  private final ExecutorService executorService;
+
+  /** The requests in flight in submission order */
+  private final Deque<Future<T>> pendingRequests;
+
+  /** The requests in flight in completion order */
+  private final CompletionService<T> completionService;
+
+  private int nrPendingRequests;
+
+  /**
+   * @param threadName The name of the request threads, a thread number is appended
+   * @param maxRequests The maximum number of requests in flight
+   * @param keepingOrder true to hand back the results in submission order
+   */
+  public RequestsInFlight(String threadName, int maxRequests, boolean keepingOrder) {
+    this.maxRequests = maxRequests;
+    this.keepingOrder = keepingOrder;
+    AtomicInteger threadNr = new AtomicInteger();
+    this.executorService =
+        Executors.newFixedThreadPool(
+            maxRequests,
+            runnable -> {
+              Thread thread = new Thread(runnable, threadName + threadNr.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.pendingRequests = new ArrayDeque<>();
+    this.completionService =
+        keepingOrder ? null : new ExecutorCompletionService<>(executorService);
+  }
+
+  /**
+   * Send a request without waiting for its result. When the maximum number of requests is in
+   * flight this waits for results until there's room again. All the results which already came in
+   * are written as well.
+   *
+   * @param request The request
+   * @param writer Writes the results
+   * @return false if the writer asked to stop
+   */
+  public boolean submit(Callable<T> request, IResultWriter<T> writer) throws HopException {
+    if (keepingOrder) {
+      pendingRequests.add(executorService.submit(request));
+    } else {
+      completionService.submit(request);
+    }
+    nrPendingRequests++;
+
+    while (nrPendingRequests >= maxRequests) {
+      if (!writer.write(take())) {
+        return false;
+      }
+    }
+
+    // Write the results which already came in without waiting for the others
+    //
+    T result = poll();
+    while (result != null) {
+      if (!writer.write(result)) {
+        return false;
+      }
+      result = poll();
+    }
+    return true;
+  }
+
+  /**
+   * Wait for the requests which are still in flight and write their results.
+   *
+   * @param writer Writes the results
+   * @return false if the writer asked to stop
+   */
+  public boolean writePending(IResultWriter<T> writer) throws HopException {
+    while (nrPendingRequests > 0) {
+      if (!writer.write(take())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return The number of requests which were submitted and whose result wasn't handed out yet
+   */
+  public int getNrPendingRequests() {
+    return nrPendingRequests;
+  }
+
+  /** Stop the request threads, the results of the requests still in flight are dropped. */
+  public void shutdown() {
+    executorService.shutdownNow();
+    pendingRequests.clear();
+    nrPendingRequests = 0;
+  }
+
+  /** Wait for the next result. */
+  private T take() throws HopException {
+    Future<T> future;
+    if (keepingOrder) {
+      future = pendingRequests.poll();
+    } else {
+      try {
+        future = completionService.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new HopException("Interrupted while waiting for the result of a request", e);
+      }
+    }
+    nrPendingRequests--;
+    return getResult(future);
+  }
+
+  /** Get the next result if it already came in, null otherwise. */
+  private T poll() throws HopException {
+    Future<T> future;
+    if (keepingOrder) {
+      future = pendingRequests.peek();
+      if (future == null || !future.isDone()) {
+        return null;
+      }
+      pendingRequests.poll();
+    } else {
+      future = completionService.poll();
+      if (future == null) {
+        return null;
+      }
+    }
+    nrPendingRequests--;
+    return getResult(future);
+  }
+
+  private T getResult(Future<T> future) throws HopException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new HopException("Interrupted while waiting for the result of a request", e);
+    } catch (ExecutionException e) {
+      throw new HopException(e.getCause());
+    }
+  }
+}
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang.StringUtils;
@@ -282,6 +283,40 @@ public class WorkflowMeta extends AbstractMeta
     }
   }
 
+  /**
+   * Make a copy of the workflow meta-data object which can be changed without affecting this one.
+   * Unlike {@link #realClone(boolean)} the copy keeps the filename, the workflow information and
+   * the attributes, and its hops point to the copied actions.
+   *
+   * @return The copy
+   * @throws HopException In case the workflow can't be cloned
+   */
+  public WorkflowMeta copy() throws HopException {
+    WorkflowMeta copy = (WorkflowMeta) realClone(true);
+    if (copy == null) {
+      throw new HopException("Unable to copy the metadata of workflow " + getFilename());
+    }
+    copy.copyCommon(this);
+    copy.info = new WorkflowMetaInfo(info);
+    copy.workflowVersion = workflowVersion;
+    copy.workflowStatus = workflowStatus;
+
+    // The cloned hops still reference the original actions
+    //
+    Map<ActionMeta, ActionMeta> copiedActions = new IdentityHashMap<>();
+    for (int i = 0; i < nrActions(); i++) {
+      ActionMeta action = copy.getAction(i);
+      action.setParentWorkflowMeta(copy);
+      copiedActions.put(getAction(i), action);
+    }
+    for (WorkflowHopMeta hop : copy.workflowHops) {
+      hop.setFromAction(copiedActions.getOrDefault(hop.getFromAction(), hop.getFromAction()));
+      hop.setToAction(copiedActions.getOrDefault(hop.getToAction(), hop.getToAction()));
+    }
+    copy.clearChanged();
+    return copy;
+  }
+
   @Override
   protected String getExtension() {
     return WORKFLOW_EXTENSION;
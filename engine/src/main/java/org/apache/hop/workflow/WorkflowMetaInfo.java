@@ -20,4 +20,13 @@ package org.apache.hop.workflow;
 
 import org.apache.hop.pipeline.AbstractMetaInfo;
 
-public class WorkflowMetaInfo extends AbstractMetaInfo {}
+public class WorkflowMetaInfo extends AbstractMetaInfo {
+
+  public WorkflowMetaInfo() {
+    super();
+  }
+
+  public WorkflowMetaInfo(WorkflowMetaInfo info) {
+    super(info);
+  }
+}
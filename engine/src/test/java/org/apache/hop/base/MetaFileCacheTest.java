@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.NotePadMeta;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.core.xml.XmlHandler;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.metadata.api.IHopMetadataProvider;
+import org.apache.hop.metadata.serializer.memory.MemoryMetadataProvider;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.transform.TransformErrorMeta;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.dummy.DummyMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.apache.hop.workflow.WorkflowHopMeta;
+import org.apache.hop.workflow.WorkflowMeta;
+import org.apache.hop.workflow.action.ActionMeta;
+import org.apache.hop.workflow.actions.dummy.ActionDummy;
+import org.apache.hop.workflow.actions.start.ActionStart;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MetaFileCacheTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private IHopMetadataProvider metadataProvider;
+  private IVariables variables;
+  private MetaFileCache cache;
+
+  @Before
+  public void setUp() {
+    metadataProvider = new MemoryMetadataProvider();
+    variables = new Variables();
+    variables.setVariable(Const.HOP_METADATA_FILE_CACHE_SIZE, "10");
+    cache = new MetaFileCache();
+  }
+
+  private String writePipeline() throws Exception {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("cached");
+    pipelineMeta.getInfo().setDescription("A cached pipeline");
+    pipelineMeta.getInfo().setPipelineVersion("1.2");
+    pipelineMeta.getInfo().setPipelineType(PipelineMeta.PipelineType.SingleThreaded);
+    pipelineMeta.addParameterDefinition("PARAM", "default", "A parameter");
+    pipelineMeta.setAttribute("group", "key", "value");
+    pipelineMeta.addNote(new NotePadMeta("A note", 10, 20, 100, 50));
+    TransformMeta injector = new TransformMeta("Injector", new InjectorMeta());
+    TransformMeta dummy = new TransformMeta("Dummy", new DummyMeta());
+    TransformMeta errors = new TransformMeta("Errors", new DummyMeta());
+    pipelineMeta.addTransform(injector);
+    pipelineMeta.addTransform(dummy);
+    pipelineMeta.addTransform(errors);
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, dummy));
+    pipelineMeta.addPipelineHop(new PipelineHopMeta(dummy, errors));
+    TransformErrorMeta errorMeta = new TransformErrorMeta(dummy, errors);
+    errorMeta.setEnabled(true);
+    dummy.setTransformErrorMeta(errorMeta);
+    return write("cached.hpl", pipelineMeta.getXml(variables));
+  }
+
+  private String writeWorkflow() throws Exception {
+    WorkflowMeta workflowMeta = new WorkflowMeta();
+    workflowMeta.setName("cached");
+    workflowMeta.setDescription("A cached workflow");
+    workflowMeta.setWorkflowVersion("3.4");
+    workflowMeta.addParameterDefinition("PARAM", "default", "A parameter");
+    workflowMeta.setAttribute("group", "key", "value");
+    workflowMeta.addNote(new NotePadMeta("A note", 10, 20, 100, 50));
+    ActionMeta start = new ActionMeta(new ActionStart("Start"));
+    ActionMeta dummy = new ActionMeta(new ActionDummy("Dummy"));
+    workflowMeta.addAction(start);
+    workflowMeta.addAction(dummy);
+    workflowMeta.addWorkflowHop(new WorkflowHopMeta(start, dummy));
+    return write("cached.hwf", workflowMeta.getXml(variables));
+  }
+
+  private String write(String name, String xml) throws Exception {
+    File file = new File(temporaryFolder.getRoot(), name);
+    Files.write(
+        file.toPath(),
+        (XmlHandler.getXmlHeader(Const.XML_ENCODING) + xml).getBytes(StandardCharsets.UTF_8));
+    return file.getAbsolutePath();
+  }
+
+  @Test
+  public void testDisabledByDefault() throws Exception {
+    String filename = writePipeline();
+    Variables noCache = new Variables();
+    cache.loadPipelineMeta(filename, metadataProvider, noCache);
+    cache.loadPipelineMeta(filename, metadataProvider, noCache);
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getLoads());
+    assertEquals(0, cache.getHits());
+  }
+
+  @Test
+  public void testPipelineCopies() throws Exception {
+    String filename = writePipeline();
+    PipelineMeta first = cache.loadPipelineMeta(filename, metadataProvider, variables);
+    PipelineMeta second = cache.loadPipelineMeta(filename, metadataProvider, variables);
+    assertEquals(1, cache.getLoads());
+    assertEquals(1, cache.getHits());
+    assertNotSame(first, second);
+
+    assertEquals("cached", second.getName());
+    assertEquals(filename, second.getFilename());
+    assertEquals("A cached pipeline", second.getInfo().getDescription());
+    assertEquals(3, second.nrTransforms());
+    assertEquals(2, second.nrPipelineHops());
+
+    // Everything references the transforms of the copy
+    //
+    for (PipelineHopMeta hop : second.getPipelineHops()) {
+      assertSame(second.findTransform(hop.getFromTransform().getName()), hop.getFromTransform());
+      assertSame(second.findTransform(hop.getToTransform().getName()), hop.getToTransform());
+      assertNotSame(first.findTransform(hop.getToTransform().getName()), hop.getToTransform());
+    }
+    TransformMeta dummy = second.findTransform("Dummy");
+    assertSame(second, dummy.getParentPipelineMeta());
+    assertSame(dummy, dummy.getTransformErrorMeta().getSourceTransform());
+    assertSame(second.findTransform("Errors"), dummy.getTransformErrorMeta().getTargetTransform());
+
+    // Changing one copy doesn't change the others
+    //
+    second.setName("changed");
+    second.removeTransform(2);
+    PipelineMeta third = cache.loadPipelineMeta(filename, metadataProvider, variables);
+    assertEquals("cached", third.getName());
+    assertEquals(3, third.nrTransforms());
+  }
+
+  @Test
+  public void testWorkflowCopies() throws Exception {
+    String filename = writeWorkflow();
+    WorkflowMeta first = cache.loadWorkflowMeta(filename, metadataProvider, variables);
+    WorkflowMeta second = cache.loadWorkflowMeta(filename, metadataProvider, variables);
+    assertEquals(1, cache.getLoads());
+    assertEquals(1, cache.getHits());
+    assertNotSame(first, second);
+
+    assertEquals("cached", second.getName());
+    assertEquals(filename, second.getFilename());
+    assertEquals(2, second.nrActions());
+    WorkflowHopMeta hop = second.getWorkflowHop(0);
+    assertSame(second.findAction("Start"), hop.getFromAction());
+    assertSame(second.findAction("Dummy"), hop.getToAction());
+    assertSame(second, hop.getToAction().getParentWorkflowMeta());
+  }
+
+  @Test
+  public void testPipelineCopyMatchesFile() throws Exception {
+    String filename = writePipeline();
+    cache.loadPipelineMeta(filename, metadataProvider, variables);
+    PipelineMeta copy = cache.loadPipelineMeta(filename, metadataProvider, variables);
+    assertEquals(1, cache.getHits());
+
+    PipelineMeta parsed = new PipelineMeta(filename, metadataProvider, variables);
+    assertEquals(parsed.getXml(variables), copy.getXml(variables));
+  }
+
+  @Test
+  public void testWorkflowCopyMatchesFile() throws Exception {
+    String filename = writeWorkflow();
+    cache.loadWorkflowMeta(filename, metadataProvider, variables);
+    WorkflowMeta copy = cache.loadWorkflowMeta(filename, metadataProvider, variables);
+    assertEquals(1, cache.getHits());
+
+    WorkflowMeta parsed = new WorkflowMeta(variables, filename, metadataProvider);
+    assertEquals(parsed.getXml(variables), copy.getXml(variables));
+  }
+
+  @Test
+  public void testModifiedFileIsReloaded() throws Exception {
+    String filename = writePipeline();
+    cache.loadPipelineMeta(filename, metadataProvider, variables);
+    new File(filename).setLastModified(System.currentTimeMillis() - 60000);
+    cache.loadPipelineMeta(filename, metadataProvider, variables);
+    assertEquals(2, cache.getLoads());
+    assertEquals(0, cache.getHits());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedFileIsRemoved() throws Exception {
+    variables.setVariable(Const.HOP_METADATA_FILE_CACHE_SIZE, "1");
+    String pipelineFilename = writePipeline();
+    String workflowFilename = writeWorkflow();
+    cache.loadPipelineMeta(pipelineFilename, metadataProvider, variables);
+    cache.loadWorkflowMeta(workflowFilename, metadataProvider, variables);
+    assertEquals(1, cache.size());
+    cache.loadPipelineMeta(pipelineFilename, metadataProvider, variables);
+    assertEquals(3, cache.getLoads());
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.spill;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpillFileTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private IRowMeta rowMeta;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaString("name"));
+  }
+
+  private static Object[] row(long id) {
+    return new Object[] {id, id % 7 == 0 ? null : "name of row " + id};
+  }
+
+  private void testWriteAndRead(boolean compressed, boolean withKeys) throws Exception {
+    AtomicLong spilled = new AtomicLong();
+    String directory = temporaryFolder.getRoot().getAbsolutePath();
+
+    // Use small blocks to get many of them
+    //
+    try (SpillFile spillFile =
+        new SpillFile(
+            rowMeta, "spill", directory, compressed, withKeys, spilled::addAndGet, 1000)) {
+      for (long id = 0; id < 10000; id++) {
+        spillFile.write(withKeys ? new byte[] {(byte) id} : null, row(id));
+      }
+      spillFile.finishWriting();
+
+      assertEquals(10000, spillFile.getNrRows());
+      assertEquals(spillFile.getBytesWritten(), spilled.get());
+      assertEquals(spilled.get(), new File(spillFile.getFile().getName().getPath()).length());
+
+      // The file can be read more than once
+      //
+      for (int pass = 0; pass < 2; pass++) {
+        try (SpillFileReader reader = spillFile.openReader()) {
+          for (long id = 0; id < 10000; id++) {
+            assertTrue(reader.next());
+            assertArrayEquals(row(id), reader.getRow());
+            if (withKeys) {
+              assertArrayEquals(new byte[] {(byte) id}, reader.getKey());
+            } else {
+              assertNull(reader.getKey());
+            }
+          }
+          assertFalse(reader.next());
+          assertNull(reader.getRow());
+        }
+      }
+    }
+    assertEquals(0, temporaryFolder.getRoot().list().length);
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    testWriteAndRead(false, false);
+  }
+
+  @Test
+  public void testWriteAndReadCompressed() throws Exception {
+    testWriteAndRead(true, false);
+  }
+
+  @Test
+  public void testWriteAndReadWithKeys() throws Exception {
+    testWriteAndRead(true, true);
+  }
+
+  @Test
+  public void testCompressionSavesSpace() throws Exception {
+    String directory = temporaryFolder.getRoot().getAbsolutePath();
+    try (SpillFile plain = new SpillFile(rowMeta, "spill", directory, false, false, null);
+        SpillFile compressed = new SpillFile(rowMeta, "spill", directory, true, false, null)) {
+      for (long id = 0; id < 10000; id++) {
+        plain.write(row(id));
+        compressed.write(row(id));
+      }
+      plain.finishWriting();
+      compressed.finishWriting();
+      assertTrue(compressed.getBytesWritten() < plain.getBytesWritten() / 2);
+    }
+  }
+
+  @Test
+  public void testEmptyFile() throws Exception {
+    String directory = temporaryFolder.getRoot().getAbsolutePath();
+    try (SpillFile spillFile = new SpillFile(rowMeta, "spill", directory, true, false, null);
+        SpillFileReader reader = spillFile.openReader()) {
+      assertEquals(0, spillFile.getBytesWritten());
+      assertFalse(reader.next());
+    }
+  }
+
+  @Test
+  public void testDirectoriesAreUsedInTurn() {
+    String first = SpillFile.getNextDirectory("/disk1, /disk2,,/disk3");
+    String second = SpillFile.getNextDirectory("/disk1, /disk2,,/disk3");
+    String third = SpillFile.getNextDirectory("/disk1, /disk2,,/disk3");
+    String fourth = SpillFile.getNextDirectory("/disk1, /disk2,,/disk3");
+
+    assertEquals(3, Set.of(first, second, third).size());
+    assertEquals(first, fourth);
+    assertEquals("/single", SpillFile.getNextDirectory("/single"));
+    assertEquals(System.getProperty("java.io.tmpdir"), SpillFile.getNextDirectory(null));
+  }
+}
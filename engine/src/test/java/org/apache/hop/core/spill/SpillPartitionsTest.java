@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.core.spill;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpillPartitionsTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private IRowMeta rowMeta;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("key"));
+  }
+
+  private SpillPartitions createPartitions(List<Integer> spilled) {
+    return new SpillPartitions(
+        rowMeta,
+        "spill",
+        temporaryFolder.getRoot().getAbsolutePath(),
+        false,
+        bytes -> {},
+        spilled::add);
+  }
+
+  @Test
+  public void testGetPartition() {
+    // The keys of one partition are spread over all partitions on the next level
+    //
+    int[] counts = new int[SpillPartitions.NR_OF_PARTITIONS];
+    for (int hashCode = 0; hashCode < 16000; hashCode++) {
+      if (SpillPartitions.getPartition(hashCode, 0) == 0) {
+        counts[SpillPartitions.getPartition(hashCode, 1)]++;
+      }
+    }
+    for (int count : counts) {
+      assertTrue(count > 0);
+    }
+  }
+
+  @Test
+  public void testNothingSpilledWhileMemoryIsAvailable() throws Exception {
+    List<Integer> spilled = new ArrayList<>();
+    try (SpillPartitions partitions = createPartitions(spilled)) {
+      for (int key = 0; key < 100; key++) {
+        assertFalse(partitions.spillRow(key, new Object[] {(long) key}, false));
+      }
+      assertFalse(partitions.hasPendingPartitions());
+      assertTrue(spilled.isEmpty());
+    }
+  }
+
+  @Test
+  public void testSpillAndHandlePartitions() throws Exception {
+    List<Integer> spilled = new ArrayList<>();
+    try (SpillPartitions partitions = createPartitions(spilled)) {
+      // Once memory is full the rows of all new keys are spilled
+      //
+      for (int key = 0; key < 100; key++) {
+        assertTrue(partitions.spillRow(key, new Object[] {(long) key}, true));
+      }
+      assertEquals(SpillPartitions.NR_OF_PARTITIONS, spilled.size());
+
+      // Keys of a spilled partition keep on going to disk when memory is available again
+      //
+      assertTrue(partitions.spillRow(0, new Object[] {0L}, false));
+
+      long nrRows = 0;
+      while (partitions.hasPendingPartitions()) {
+        try (SpillPartition partition = partitions.nextPartition()) {
+          assertEquals(1, partition.getLevel());
+          assertEquals(1, partitions.getLevel());
+
+          // All the rows of a partition have the same hash partition
+          //
+          int partitionNr = -1;
+          try (SpillFileReader reader = partition.openReader()) {
+            while (reader.next()) {
+              int key = ((Long) reader.getRow()[0]).intValue();
+              if (partitionNr < 0) {
+                partitionNr = SpillPartitions.getPartition(key, 0);
+              }
+              assertEquals(partitionNr, SpillPartitions.getPartition(key, 0));
+              nrRows++;
+            }
+          }
+        }
+      }
+      assertEquals(101, nrRows);
+      assertEquals(0, partitions.getLevel());
+    }
+  }
+
+  @Test
+  public void testSpillSpilledPartitions() throws Exception {
+    List<Integer> spilled = new ArrayList<>();
+    try (SpillPartitions partitions = createPartitions(spilled)) {
+      assertTrue(partitions.spillRow(0, new Object[] {0L}, true));
+      assertTrue(partitions.hasPendingPartitions());
+
+      // While handling a partition its rows are spilled on the next level
+      //
+      int level = 0;
+      while (partitions.hasPendingPartitions()) {
+        try (SpillPartition partition = partitions.nextPartition()) {
+          level = partition.getLevel();
+          assertEquals(
+              partition.getLevel() < SpillPartitions.MAX_LEVEL,
+              partitions.spillRow(0, new Object[] {0L}, true));
+        }
+      }
+      assertEquals(SpillPartitions.MAX_LEVEL, level);
+      assertEquals(SpillPartitions.MAX_LEVEL, spilled.size());
+    }
+  }
+
+  @Test
+  public void testCloseRemovesPendingPartitions() throws Exception {
+    try (SpillPartitions partitions = createPartitions(new ArrayList<>())) {
+      for (int key = 0; key < 10; key++) {
+        partitions.spillRow(key, new Object[] {(long) key}, true);
+      }
+      assertTrue(partitions.hasPendingPartitions());
+      partitions.close();
+      assertFalse(partitions.hasPendingPartitions());
+    }
+    assertArrayEquals(new String[0], temporaryFolder.getRoot().list());
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.core.spill;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpillRunMergerTest {
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private IRowMeta rowMeta;
+  private List<SpillFile> runs;
+  private List<SpillFileReader> readers;
+
+  @Before
+  public void setUp() {
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("run"));
+    runs = new ArrayList<>();
+    readers = new ArrayList<>();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    for (SpillFileReader reader : readers) {
+      reader.close();
+    }
+    for (SpillFile run : runs) {
+      run.close();
+    }
+  }
+
+  /** Write a run with the given keys, the second field is the number of the run */
+  private void addRun(boolean withKeys, long... keys) throws Exception {
+    SpillFile run =
+        new SpillFile(
+            rowMeta, "run", temporaryFolder.getRoot().getAbsolutePath(), false, withKeys, null);
+    for (long key : keys) {
+      Object[] row = new Object[] {key, (long) runs.size()};
+      run.write(withKeys ? new byte[] {(byte) key} : null, row);
+    }
+    run.finishWriting();
+    runs.add(run);
+    readers.add(run.openReader());
+  }
+
+  private void testMerge(boolean withKeys) throws Exception {
+    addRun(withKeys, 1, 4, 4, 9);
+    addRun(withKeys);
+    addRun(withKeys, 2, 4, 8);
+    addRun(withKeys, 0, 3, 4, 10, 11);
+
+    SpillRunMerger merger = new SpillRunMerger(readers, rowMeta, new int[] {0}, withKeys);
+
+    // Rows with equal keys come in the order of their runs
+    //
+    long[][] expected = {
+      {0, 3}, {1, 0}, {2, 2}, {3, 3}, {4, 0}, {4, 0}, {4, 2}, {4, 3}, {8, 2}, {9, 0}, {10, 3},
+      {11, 3}
+    };
+    for (long[] row : expected) {
+      Object[] merged = merger.next();
+      assertEquals(row[0], merged[0]);
+      assertEquals(row[1], merged[1]);
+    }
+    assertNull(merger.next());
+    assertNull(merger.next());
+  }
+
+  @Test
+  public void testMergeRows() throws Exception {
+    testMerge(false);
+  }
+
+  @Test
+  public void testMergeKeys() throws Exception {
+    testMerge(true);
+  }
+
+  @Test
+  public void testNoRuns() throws Exception {
+    assertNull(new SpillRunMerger(readers, rowMeta, new int[] {0}, false).next());
+  }
+
+  @Test
+  public void testEmptyRuns() throws Exception {
+    addRun(false);
+    addRun(false);
+    assertNull(new SpillRunMerger(readers, rowMeta, new int[] {0}, false).next());
+  }
+}
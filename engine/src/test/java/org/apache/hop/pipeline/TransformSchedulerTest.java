@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
+import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.BaseTransformData;
+import org.apache.hop.pipeline.transform.BaseTransformMeta;
+import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/** Runs pipelines on a worker pool of a single thread. */
+public class TransformSchedulerTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  /** The threads the transforms ran on, by pipeline and transform name */
+  private static final Map<String, String> threads = new ConcurrentHashMap<>();
+
+  /** The rows read by the sub-pipelines */
+  private static final AtomicLong subPipelineRows = new AtomicLong();
+
+  /** Counted down when a generator sent all of its rows */
+  private static volatile CountDownLatch generated;
+
+  @Before
+  public void setUp() {
+    threads.clear();
+    subPipelineRows.set(0L);
+    generated = new CountDownLatch(1);
+  }
+
+  private static PipelineMeta createPipelineMeta(String name) {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName(name);
+    return pipelineMeta;
+  }
+
+  private static TransformMeta addTransform(
+      PipelineMeta pipelineMeta, String name, Mode mode, int nrRows, TransformMeta previous) {
+    SchedulerTestMeta meta = new SchedulerTestMeta();
+    meta.mode = mode;
+    meta.nrRows = nrRows;
+    TransformMeta transformMeta = new TransformMeta(name, name, meta);
+    pipelineMeta.addTransform(transformMeta);
+    if (previous != null) {
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(previous, transformMeta));
+    }
+    return transformMeta;
+  }
+
+  private static PipelineMeta createSubPipelineMeta() {
+    PipelineMeta pipelineMeta = createPipelineMeta("child");
+    TransformMeta generate = addTransform(pipelineMeta, "generate", Mode.GENERATE, 100, null);
+    addTransform(pipelineMeta, "count", Mode.COUNT, 0, generate);
+    return pipelineMeta;
+  }
+
+  private static void useWorkerPool(LocalPipelineEngine pipeline) {
+    LocalPipelineRunConfiguration config =
+        (LocalPipelineRunConfiguration)
+            pipeline.getPipelineRunConfiguration().getEngineRunConfiguration();
+    config.setWorkerPool(true);
+    config.setWorkerPoolSize("1");
+    config.setRowSetSize("10");
+  }
+
+  private static LocalPipelineEngine run(PipelineMeta pipelineMeta) throws HopException {
+    LocalPipelineEngine pipeline = new LocalPipelineEngine(pipelineMeta);
+    useWorkerPool(pipeline);
+    pipeline.execute();
+    pipeline.waitUntilFinished();
+    assertEquals(0, pipeline.getErrors());
+    return pipeline;
+  }
+
+  /**
+   * The only worker of the parent pipeline waits for a sub-pipeline which runs on the same pool
+   * size. The sub-pipeline has workers of its own so it doesn't wait for the parent.
+   */
+  @Test(timeout = 30000)
+  public void testSubPipelineWhileAllWorkersAreBusy() throws Exception {
+    PipelineMeta pipelineMeta = createPipelineMeta("parent");
+    TransformMeta generate = addTransform(pipelineMeta, "generate", Mode.GENERATE, 5, null);
+    TransformMeta sub = addTransform(pipelineMeta, "sub", Mode.SUB_PIPELINE, 0, generate);
+    addTransform(pipelineMeta, "count", Mode.COUNT, 0, sub);
+
+    LocalPipelineEngine pipeline = run(pipelineMeta);
+
+    assertEquals(5L, pipeline.getTransform("count", 0).getLinesRead());
+    assertEquals(500L, subPipelineRows.get());
+    assertTrue(threads.get("parent/sub").startsWith("parent - worker "));
+    assertTrue(threads.get("child/generate").startsWith("child - worker "));
+    assertTrue(threads.get("child/count").startsWith("child - worker "));
+  }
+
+  /**
+   * A transform which waits for another transform of the same pipeline runs on a thread of its own.
+   * On the worker it would keep the transform it waits for from running.
+   */
+  @Test(timeout = 30000)
+  public void testDedicatedThread() throws Exception {
+    PipelineMeta pipelineMeta = createPipelineMeta("blocking");
+    TransformMeta wait = addTransform(pipelineMeta, "wait", Mode.WAIT, 0, null);
+    ((SchedulerTestMeta) wait.getTransform()).dedicated = true;
+    addTransform(pipelineMeta, "waited", Mode.COUNT, 0, wait);
+    TransformMeta generate = addTransform(pipelineMeta, "generate", Mode.GENERATE, 1000, null);
+    addTransform(pipelineMeta, "count", Mode.COUNT, 0, generate);
+
+    LocalPipelineEngine pipeline = run(pipelineMeta);
+
+    assertEquals(1000L, pipeline.getTransform("count", 0).getLinesRead());
+    assertEquals(1L, pipeline.getTransform("waited", 0).getLinesRead());
+    assertEquals("blocking - wait", threads.get("blocking/wait"));
+    assertTrue(threads.get("blocking/generate").startsWith("blocking - worker "));
+    assertTrue(threads.get("blocking/waited").startsWith("blocking - worker "));
+  }
+
+  public enum Mode {
+    /** Sends nrRows rows */
+    GENERATE,
+    /** Runs a sub-pipeline for every row */
+    SUB_PIPELINE,
+    /** Sends one row once a generator sent all of its rows */
+    WAIT,
+    /** Reads all rows */
+    COUNT
+  }
+
+  public static class SchedulerTestMeta
+      extends BaseTransformMeta<SchedulerTestTransform, SchedulerTestData> {
+    private Mode mode;
+    private int nrRows;
+    private boolean dedicated;
+
+    @Override
+    public boolean requiresDedicatedThread() {
+      return dedicated;
+    }
+  }
+
+  public static class SchedulerTestData extends BaseTransformData implements ITransformData {
+    private IRowMeta rowMeta;
+    private long nrRows;
+  }
+
+  public static class SchedulerTestTransform
+      extends BaseTransform<SchedulerTestMeta, SchedulerTestData> {
+
+    public SchedulerTestTransform(
+        TransformMeta transformMeta,
+        SchedulerTestMeta meta,
+        SchedulerTestData data,
+        int copyNr,
+        PipelineMeta pipelineMeta,
+        Pipeline pipeline) {
+      super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
+    }
+
+    @Override
+    public boolean processRow() throws HopException {
+      threads.putIfAbsent(
+          getPipeline().getName() + "/" + getTransformName(), Thread.currentThread().getName());
+
+      switch (meta.mode) {
+        case GENERATE:
+          if (data.rowMeta == null) {
+            data.rowMeta = new RowMeta();
+            data.rowMeta.addValueMeta(new ValueMetaInteger("id"));
+          }
+          if (data.nrRows < meta.nrRows) {
+            putRow(data.rowMeta, new Object[] {data.nrRows++});
+            return true;
+          }
+          generated.countDown();
+          setOutputDone();
+          return false;
+
+        case WAIT:
+          try {
+            if (!generated.await(10, TimeUnit.SECONDS)) {
+              throw new HopException("The generator didn't get a turn");
+            }
+          } catch (InterruptedException e) {
+            throw new HopException(e);
+          }
+          IRowMeta rowMeta = new RowMeta();
+          rowMeta.addValueMeta(new ValueMetaInteger("id"));
+          putRow(rowMeta, new Object[] {0L});
+          setOutputDone();
+          return false;
+
+        case SUB_PIPELINE:
+          Object[] row = getRow();
+          if (row == null) {
+            setOutputDone();
+            return false;
+          }
+          LocalPipelineEngine subPipeline =
+              new LocalPipelineEngine(createSubPipelineMeta(), this, this);
+          useWorkerPool(subPipeline);
+          subPipeline.execute();
+          subPipeline.waitUntilFinished();
+          if (subPipeline.getErrors() > 0) {
+            throw new HopException("The sub-pipeline failed");
+          }
+          subPipelineRows.addAndGet(subPipeline.getTransform("count", 0).getLinesRead());
+          putRow(getInputRowMeta(), row);
+          return true;
+
+        default:
+          if (getRow() == null) {
+            setOutputDone();
+            return false;
+          }
+          return true;
+      }
+    }
+  }
+}
@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transform;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -32,6 +33,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -243,6 +245,51 @@ public class BaseTransformTest {
     assertFalse(meta1 == meta2);
   }
 
+  @Test
+  public void putRowsCountsOnlyRowsHandedOver() throws Exception {
+    IRowSet rowSet = new BlockingRowSet(3);
+
+    when(mockHelper.pipeline.isRunning()).thenReturn(true);
+    BaseTransform<ITransformMeta, ITransformData> baseTransform =
+        new BaseTransform(
+            mockHelper.transformMeta,
+            mockHelper.iTransformMeta,
+            mockHelper.iTransformData,
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    baseTransform.setStopped(false);
+    baseTransform.setRepartitioning(TransformPartitioningMeta.PARTITIONING_METHOD_NONE);
+    baseTransform.setOutputRowSets(Arrays.asList(rowSet));
+
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("integer"));
+    List<Object[]> rows = new ArrayList<>();
+    for (long i = 0; i < 5; i++) {
+      rows.add(new Object[] {i});
+    }
+
+    // The row set only has room for 3 rows: stop the transform while it waits for the others
+    //
+    Thread writer =
+        new Thread(
+            () -> {
+              try {
+                baseTransform.putRows(rowMeta, rows);
+              } catch (HopException e) {
+                fail(e.getMessage());
+              }
+            });
+    writer.start();
+    while (rowSet.size() < 3) {
+      Thread.sleep(1);
+    }
+    baseTransform.setStopped(true);
+    writer.join();
+
+    assertEquals(3, baseTransform.getLinesWritten());
+  }
+
   @Test
   public void getRowWithRowHandler() throws HopException {
     BaseTransform baseTransform =
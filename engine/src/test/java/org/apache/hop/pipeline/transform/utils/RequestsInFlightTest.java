@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transform.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.hop.core.exception.HopException;
+import org.junit.After;
+import org.junit.Test;
+
+public class RequestsInFlightTest {
+
+  private RequestsInFlight<Integer> requests;
+
+  @After
+  public void tearDown() {
+    if (requests != null) {
+      requests.shutdown();
+    }
+  }
+
+  @Test
+  public void testResultsInSubmissionOrder() throws Exception {
+    requests = new RequestsInFlight<>("test ", 4, true);
+    List<Integer> results = new ArrayList<>();
+
+    // Later requests complete first
+    //
+    for (int i = 0; i < 20; i++) {
+      int nr = i;
+      assertTrue(
+          requests.submit(
+              () -> {
+                Thread.sleep((20 - nr) % 4);
+                return nr;
+              },
+              results::add));
+      assertTrue(requests.getNrPendingRequests() < 4);
+    }
+    assertTrue(requests.writePending(results::add));
+
+    assertEquals(0, requests.getNrPendingRequests());
+    assertEquals(20, results.size());
+    for (int i = 0; i < 20; i++) {
+      assertEquals(Integer.valueOf(i), results.get(i));
+    }
+  }
+
+  @Test
+  public void testResultsInCompletionOrder() throws Exception {
+    requests = new RequestsInFlight<>("test ", 2, false);
+    List<Integer> results = new ArrayList<>();
+
+    // The first request is held until the result of the second one was written
+    //
+    CountDownLatch written = new CountDownLatch(1);
+    RequestsInFlight.IResultWriter<Integer> writer =
+        result -> {
+          results.add(result);
+          written.countDown();
+          return true;
+        };
+    requests.submit(
+        () -> {
+          written.await(30, TimeUnit.SECONDS);
+          return 0;
+        },
+        writer);
+    requests.submit(() -> 1, writer);
+    assertTrue(requests.writePending(writer));
+
+    assertEquals(List.of(1, 0), results);
+  }
+
+  @Test
+  public void testWriterStops() throws Exception {
+    requests = new RequestsInFlight<>("test ", 1, true);
+    List<Integer> results = new ArrayList<>();
+
+    assertTrue(requests.submit(() -> 0, results::add));
+    assertFalse(
+        requests.submit(
+            () -> 1,
+            result -> {
+              results.add(result);
+              return false;
+            }));
+    assertEquals(List.of(0, 1), results);
+  }
+
+  @Test(expected = HopException.class)
+  public void testFailedRequest() throws Exception {
+    requests = new RequestsInFlight<>("test ", 2, true);
+    requests.submit(
+        () -> {
+          throw new IllegalStateException("failed");
+        },
+        result -> true);
+    requests.writePending(result -> true);
+  }
+}
@@ -17,7 +17,9 @@
 
 package org.apache.hop.pipeline.transforms.mock;
 
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -28,9 +30,11 @@ import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.logging.HopLogStore;
 import org.apache.hop.core.logging.ILogChannel;
 import org.apache.hop.core.logging.ILogChannelFactory;
@@ -39,11 +43,16 @@ import org.apache.hop.core.logging.ILoggingObject;
 import org.apache.hop.core.logging.LogChannel;
 import org.apache.hop.core.logging.LogLevel;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.engines.local.LocalPipelineEngine;
+import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.ITransformData;
 import org.apache.hop.pipeline.transform.ITransformMeta;
+import org.apache.hop.pipeline.transform.RowAdapter;
 import org.apache.hop.pipeline.transform.TransformMeta;
 import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
@@ -88,6 +97,17 @@ public class TransformMockHelper<Meta extends ITransformMeta, Data extends ITran
         };
     when(rowSet.getRowWait(anyLong(), any(TimeUnit.class))).thenAnswer(answer);
     when(rowSet.getRow()).thenAnswer(answer);
+    when(rowSet.getRowImmediate()).thenAnswer(answer);
+    when(rowSet.getRows(anyInt()))
+        .thenAnswer(
+            invocation -> {
+              int maxRows = invocation.getArgument(0);
+              List<Object[]> batch = new ArrayList<>();
+              while (batch.size() < maxRows && index.get() < rows.size()) {
+                batch.add(rows.get(index.getAndIncrement()));
+              }
+              return batch;
+            });
     when(rowSet.isDone()).thenAnswer((Answer<Boolean>) invocation -> index.get() >= rows.size());
 
     IRowMeta rowMeta = mock(IRowMeta.class);
@@ -96,6 +116,95 @@ public class TransformMockHelper<Meta extends ITransformMeta, Data extends ITran
     return rowSet;
   }
 
+  /**
+   * Let the transforms log to the mocked log channel and let them see a running pipeline. This is
+   * needed to run a transform with {@link #processRows(BaseTransform, IRowMeta, List)}.
+   */
+  public void initRunningPipeline() {
+    when(logChannelFactory.create(any(), any(ILoggingObject.class))).thenReturn(iLogChannel);
+    when(pipeline.isRunning()).thenReturn(true);
+  }
+
+  /**
+   * Feed the given rows to a transform.
+   *
+   * @param transform The transform, created with the mocks of this helper
+   * @param rowMeta The layout of the rows
+   * @param rows The input rows
+   */
+  public void setInputRows(BaseTransform<?, ?> transform, IRowMeta rowMeta, List<Object[]> rows) {
+    IRowSet inputRowSet = getMockInputRowSet(rows);
+    when(inputRowSet.getRowMeta()).thenReturn(rowMeta);
+    transform.addRowSetToInputRowSets(inputRowSet);
+    transform.setInputRowMeta(rowMeta);
+  }
+
+  /**
+   * Run an initialized transform until it's done and dispose of it.
+   *
+   * @param transform The transform
+   * @return The rows written by the transform, in the order in which they were written
+   */
+  public List<Object[]> runTransform(BaseTransform<?, ?> transform) throws HopException {
+    List<Object[]> output = Collections.synchronizedList(new ArrayList<>());
+    transform.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) {
+            output.add(row);
+          }
+        });
+
+    while (transform.processRow()) {
+      // keep going
+    }
+    transform.dispose();
+    return output;
+  }
+
+  /**
+   * Feed the given rows to a transform, initialize and run it until it's done.
+   *
+   * @param transform The transform, created with the mocks of this helper
+   * @param rowMeta The layout of the rows
+   * @param rows The input rows
+   * @return The rows written by the transform, in the order in which they were written
+   */
+  public List<Object[]> processRows(
+      BaseTransform<?, ?> transform, IRowMeta rowMeta, List<Object[]> rows) throws HopException {
+    setInputRows(transform, rowMeta, rows);
+    assertTrue(transform.init());
+    return runTransform(transform);
+  }
+
+  /**
+   * @return The layout of the rows of {@link #createKeyRows(int, int, long)}: a String key and an
+   *     Integer id
+   */
+  public static IRowMeta createKeyRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    return rowMeta;
+  }
+
+  /**
+   * Create rows with a random key and the row number as id.
+   *
+   * @param nrRows The number of rows
+   * @param nrKeys The number of distinct keys to pick from
+   * @param seed The seed of the random keys
+   * @return The rows
+   */
+  public static List<Object[]> createKeyRows(int nrRows, int nrKeys, long seed) {
+    Random random = new Random(seed);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < nrRows; i++) {
+      rows.add(new Object[] {"key" + random.nextInt(nrKeys), (long) i});
+    }
+    return rows;
+  }
+
   public static List<Object[]> asList(Object[]... objects) {
     List<Object[]> result = new ArrayList<>();
     Collections.addAll(result, objects);
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.base.AbstractMeta;
+import org.apache.hop.base.MetaFileCache;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.Result;
 import org.apache.hop.core.annotations.Action;
@@ -634,14 +635,16 @@ public class Repeat extends ActionBase implements IAction, Cloneable {
   private PipelineMeta loadPipeline(
       String realFilename, IHopMetadataProvider metadataProvider, IVariables variables)
       throws HopException {
-    PipelineMeta pipelineMeta = new PipelineMeta(realFilename, metadataProvider, variables);
+    PipelineMeta pipelineMeta =
+        MetaFileCache.getInstance().loadPipelineMeta(realFilename, metadataProvider, variables);
     return pipelineMeta;
   }
 
   private WorkflowMeta loadWorkflow(
       String realFilename, IHopMetadataProvider metadataProvider, IVariables variables)
       throws HopException {
-    WorkflowMeta workflowMeta = new WorkflowMeta(variables, realFilename, metadataProvider);
+    WorkflowMeta workflowMeta =
+        MetaFileCache.getInstance().loadWorkflowMeta(realFilename, metadataProvider, variables);
     return workflowMeta;
   }
 
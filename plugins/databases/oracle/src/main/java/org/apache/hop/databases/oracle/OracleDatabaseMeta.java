@@ -62,6 +62,17 @@ public class OracleDatabaseMeta extends BaseDatabaseMeta implements IDatabase {
     return false;
   }
 
+  /**
+   * The Oracle driver fetches 10 rows at a time by default, which makes reading large results
+   * needlessly slow.
+   *
+   * @return The number of rows to fetch at once
+   */
+  @Override
+  public int getPreferredFetchSize() {
+    return 500;
+  }
+
   /**
    * @see IDatabase#getLimitClause(int)
    */
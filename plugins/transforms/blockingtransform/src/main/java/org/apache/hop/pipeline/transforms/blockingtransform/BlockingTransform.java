@@ -17,22 +17,10 @@
 
 package org.apache.hop.pipeline.transforms.blockingtransform;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.SocketTimeoutException;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
-import org.apache.commons.vfs2.FileObject;
-import org.apache.commons.vfs2.FileSystemException;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
-import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.spill.SpillFile;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -72,37 +60,23 @@ public class BlockingTransform extends BaseTransform<BlockingTransformMeta, Bloc
             && data.buffer.size() > 0) // No more records: join from disk
     ) {
       // Then write them to disk...
-      DataOutputStream dos;
-      GZIPOutputStream gzos;
-      int p;
-
       try {
-        FileObject fileObject =
-            HopVfs.createTempFile(meta.getPrefix(), ".tmp", resolve(meta.getDirectory()));
-
-        data.files.add(fileObject); // Remember the files!
-        OutputStream outputStream = HopVfs.getOutputStream(fileObject, false);
-        if (meta.isCompressFiles()) {
-          gzos = new GZIPOutputStream(new BufferedOutputStream(outputStream));
-          dos = new DataOutputStream(gzos);
-        } else {
-          dos = new DataOutputStream(outputStream);
-          gzos = null;
-        }
-
-        // How many records do we have?
-        dos.writeInt(data.buffer.size());
-
-        for (p = 0; p < data.buffer.size(); p++) {
+        SpillFile spillFile =
+            new SpillFile(
+                rowMeta,
+                meta.getPrefix(),
+                resolve(meta.getDirectory()),
+                meta.isCompressFiles(),
+                false,
+                this::addBytesSpilled);
+
+        data.files.add(spillFile); // Remember the files!
+
+        for (Object[] row : data.buffer) {
           // Just write the data, nothing else
-          rowMeta.writeData(dos, data.buffer.get(p));
-        }
-        // Close temp-file
-        dos.close(); // close data stream
-        if (gzos != null) {
-          gzos.close(); // close gzip stream
+          spillFile.write(row);
         }
-        outputStream.close(); // close file stream
+        spillFile.finishWriting();
       } catch (Exception e) {
         logError("Error processing tmp-file: " + e.toString());
         return false;
@@ -115,136 +89,68 @@ public class BlockingTransform extends BaseTransform<BlockingTransformMeta, Bloc
   }
 
   private Object[] getBuffer() {
-    Object[] retval;
-
-    // Open all files at once and read one row from each file...
-    if (data.files.size() > 0 && (data.dis.size() == 0 || data.fis.size() == 0)) {
-      if (log.isBasic()) {
-        logBasic(BaseMessages.getString(PKG, "BlockingTransform.Log.Openfiles"));
-      }
-
-      try {
-        FileObject fileObject = data.files.get(0);
-        String filename = HopVfs.getFilename(fileObject);
-        if (log.isDetailed()) {
-          logDetailed(
-              BaseMessages.getString(PKG, "BlockingTransform.Log.Openfilename1")
-                  + filename
-                  + BaseMessages.getString(PKG, "BlockingTransform.Log.Openfilename2"));
-        }
-        InputStream fi = HopVfs.getInputStream(fileObject);
-        DataInputStream di;
-        data.fis.add(fi);
-        if (meta.isCompressFiles()) {
-          GZIPInputStream gzfi = new GZIPInputStream(new BufferedInputStream(fi));
-          di = new DataInputStream(gzfi);
-          data.gzis.add(gzfi);
-        } else {
-          di = new DataInputStream(fi);
-        }
-        data.dis.add(di);
-
-        // How long is the buffer?
-        int buffersize = di.readInt();
-
-        if (log.isDetailed()) {
-          logDetailed(
-              BaseMessages.getString(PKG, "BlockingTransform.Log.BufferSize1")
-                  + filename
-                  + BaseMessages.getString(PKG, "BlockingTransform.Log.BufferSize2")
-                  + buffersize
-                  + " "
-                  + BaseMessages.getString(PKG, "BlockingTransform.Log.BufferSize3"));
-        }
-
-        if (buffersize > 0) {
-          // Read a row from temp-file
-          data.rowbuffer.add(data.outputRowMeta.readData(di));
-        }
-      } catch (Exception e) {
-        logError(
-            BaseMessages.getString(PKG, "BlockingTransformMeta.ErrorReadingFile") + e.toString());
-        logError(Const.getStackTracker(e));
+    if (data.files.isEmpty()) {
+      if (data.buffer.isEmpty()) {
+        return null;
       }
+      return data.buffer.remove(0);
     }
 
-    if (data.files.size() == 0) {
-      if (data.buffer.size() > 0) {
-        retval = data.buffer.get(0);
-        data.buffer.remove(0);
-      } else {
-        retval = null;
-      }
-    } else {
-      if (data.rowbuffer.size() == 0) {
-        retval = null;
-      } else {
-        retval = data.rowbuffer.get(0);
-
-        data.rowbuffer.remove(0);
-
-        // now get another
-        FileObject file = data.files.get(0);
-        DataInputStream di = data.dis.get(0);
-        InputStream fi = data.fis.get(0);
-        GZIPInputStream gzfi = (meta.isCompressFiles()) ? data.gzis.get(0) : null;
-
-        try {
-          data.rowbuffer.add(0, data.outputRowMeta.readData(di));
-        } catch (SocketTimeoutException e) {
-          logError(
-              BaseMessages.getString(PKG, "System.Log.UnexpectedError") + " : " + e.toString());
-          logError(Const.getStackTracker(e));
-          setErrors(1);
-          stopAll();
-        } catch (HopFileException fe) {
-          // empty file or EOF mostly
-          try {
-            di.close();
-            fi.close();
-            if (gzfi != null) {
-              gzfi.close();
-            }
-            file.delete();
-          } catch (IOException e) {
-            logError(
-                BaseMessages.getString(PKG, "BlockingTransformMeta.UnableDeleteFile")
-                    + file.toString());
-            setErrors(1);
-            stopAll();
-            return null;
+    // Read the files one after the other, removing them once they're read
+    try {
+      while (!data.files.isEmpty()) {
+        SpillFile spillFile = data.files.get(0);
+        if (data.reader == null) {
+          if (log.isBasic()) {
+            logBasic(BaseMessages.getString(PKG, "BlockingTransform.Log.Openfiles"));
           }
-
-          data.files.remove(0);
-          data.dis.remove(0);
-          data.fis.remove(0);
-          if (gzfi != null) {
-            data.gzis.remove(0);
+          if (log.isDetailed()) {
+            String filename = HopVfs.getFilename(spillFile.getFile());
+            logDetailed(
+                BaseMessages.getString(PKG, "BlockingTransform.Log.Openfilename1")
+                    + filename
+                    + BaseMessages.getString(PKG, "BlockingTransform.Log.Openfilename2"));
+            logDetailed(
+                BaseMessages.getString(PKG, "BlockingTransform.Log.BufferSize1")
+                    + filename
+                    + BaseMessages.getString(PKG, "BlockingTransform.Log.BufferSize2")
+                    + spillFile.getNrRows()
+                    + " "
+                    + BaseMessages.getString(PKG, "BlockingTransform.Log.BufferSize3"));
           }
+          data.reader = spillFile.openReader();
         }
+
+        if (data.reader.next()) {
+          return data.reader.getRow();
+        }
+
+        BaseTransform.closeQuietly(data.reader);
+        data.reader = null;
+        spillFile.close();
+        data.files.remove(0);
       }
+    } catch (HopException e) {
+      logError(
+          BaseMessages.getString(PKG, "BlockingTransformMeta.ErrorReadingFile") + e.toString());
+      logError(Const.getStackTracker(e));
+      setErrors(1);
+      stopAll();
     }
-    return retval;
+    return null;
   }
 
   @Override
   public void dispose() {
-    if ((data.dis != null) && (data.dis.size() > 0)) {
-      for (DataInputStream is : data.dis) {
-        BaseTransform.closeQuietly(is);
-      }
+    if (data.reader != null) {
+      BaseTransform.closeQuietly(data.reader);
+      data.reader = null;
     }
     // remove temp files
-    for (int f = 0; f < data.files.size(); f++) {
-      FileObject fileToDelete = data.files.get(f);
-      try {
-        if (fileToDelete != null && fileToDelete.exists()) {
-          fileToDelete.delete();
-        }
-      } catch (FileSystemException e) {
-        logError(e.getLocalizedMessage(), e);
-      }
+    for (SpillFile spillFile : data.files) {
+      spillFile.close();
     }
+    data.files.clear();
     super.dispose();
   }
 
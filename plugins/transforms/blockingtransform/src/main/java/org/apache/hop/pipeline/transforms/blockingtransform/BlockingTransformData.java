@@ -17,23 +17,21 @@
 
 package org.apache.hop.pipeline.transforms.blockingtransform;
 
-import java.io.DataInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.spill.SpillFile;
+import org.apache.hop.core.spill.SpillFileReader;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
 public class BlockingTransformData extends BaseTransformData implements ITransformData {
-  public List<FileObject> files;
+  public List<SpillFile> files;
   public List<Object[]> buffer;
-  public List<InputStream> fis;
-  public List<GZIPInputStream> gzis;
-  public List<DataInputStream> dis;
-  public List<Object[]> rowbuffer;
+
+  /** Reads the first of the files */
+  public SpillFileReader reader;
 
   public IRowMeta outputRowMeta;
 
@@ -45,9 +43,5 @@ public class BlockingTransformData extends BaseTransformData implements ITransfo
 
     buffer = new ArrayList<>(BlockingTransformMeta.CACHE_SIZE);
     files = new ArrayList<>();
-    fis = new ArrayList<>();
-    dis = new ArrayList<>();
-    gzis = new ArrayList<>();
-    rowbuffer = new ArrayList<>();
   }
 }
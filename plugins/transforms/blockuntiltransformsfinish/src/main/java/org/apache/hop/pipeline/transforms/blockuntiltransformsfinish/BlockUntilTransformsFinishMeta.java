@@ -142,4 +142,9 @@ public class BlockUntilTransformsFinishMeta
   public void setBlockingTransforms(List<BlockingTransform> blockingTransforms) {
     this.blockingTransforms = blockingTransforms;
   }
+
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
 }
@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.calculator;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
+import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileNotFoundException;
 import org.apache.hop.core.exception.HopTransformException;
@@ -61,12 +62,13 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
   @Override
   public boolean processRow() throws HopException {
 
-    Object[] r = getRow(); // get row, set busy!
-    if (r == null) { // no more input to be expected...
+    List<Object[]> rows = getRows(Const.ROWS_IN_BATCH); // get rows, set busy!
+    if (rows == null) { // no more input to be expected...
       setOutputDone();
       data.clearValuesMetaMapping();
       return false;
     }
+    long previousLinesRead = getLinesRead() - rows.size();
 
     if (first) {
       first = false;
@@ -162,32 +164,39 @@ public class Calculator extends BaseTransform<CalculatorMeta, CalculatorData> {
       }
     }
 
-    if (log.isRowLevel()) {
-      logRowlevel(
-          BaseMessages.getString(PKG, "Calculator.Log.ReadRow")
-              + getLinesRead()
-              + " : "
-              + getInputRowMeta().getString(r));
-    }
-
+    List<Object[]> outputRows = new ArrayList<>(rows.size());
     try {
-      Object[] row = calcFields(getInputRowMeta(), r);
-      putRow(data.getOutputRowMeta(), row); // copy row to possible alternate rowset(s).
+      for (Object[] r : rows) {
+        if (log.isRowLevel()) {
+          logRowlevel(
+              BaseMessages.getString(PKG, "Calculator.Log.ReadRow")
+                  + getLinesRead()
+                  + " : "
+                  + getInputRowMeta().getString(r));
+        }
+
+        try {
+          outputRows.add(calcFields(getInputRowMeta(), r));
+        } catch (HopFileNotFoundException e) {
+          if (meta.isFailIfNoFile()) {
+            logError(
+                BaseMessages.getString(PKG, "Calculator.Log.NoFile") + " : " + e.getFilepath());
+            setErrors(getErrors() + 1);
+            putRows(data.getOutputRowMeta(), outputRows);
+            return false;
+          }
+        }
+      }
+      putRows(data.getOutputRowMeta(), outputRows); // copy rows to possible alternate rowset(s).
 
       if (log.isRowLevel()) {
-        logRowlevel("Wrote row #" + getLinesWritten() + " : " + getInputRowMeta().getString(r));
+        logRowlevel("Wrote " + outputRows.size() + " rows, total " + getLinesWritten());
       }
-      if (checkFeedback(getLinesRead())) {
+      if (checkFeedback(previousLinesRead, getLinesRead())) {
         if (log.isBasic()) {
           logBasic(BaseMessages.getString(PKG, "Calculator.Log.Linenr", "" + getLinesRead()));
         }
       }
-    } catch (HopFileNotFoundException e) {
-      if (meta.isFailIfNoFile()) {
-        logError(BaseMessages.getString(PKG, "Calculator.Log.NoFile") + " : " + e.getFilepath());
-        setErrors(getErrors() + 1);
-        return false;
-      }
     } catch (HopException e) {
       logError(
           BaseMessages.getString(
@@ -187,13 +187,15 @@ public class CalculatorUnitTest {
     try {
       calculator.addRowListener(
           new RowAdapter() {
+            private final String[] expected = {"2014-01-01 00:00:10", "2014-11-01 00:00:20"};
+            private int rowNr = 0;
+
             @Override
             public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
                 throws HopTransformException {
               try {
                 assertEquals(
-                    new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2014-01-01 00:00:10"),
-                    row[2]);
+                    new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse(expected[rowNr++]), row[2]);
               } catch (ParseException pe) {
                 throw new HopTransformException(pe);
               }
@@ -248,10 +250,13 @@ public class CalculatorUnitTest {
     try {
       calculator.addRowListener(
           new RowAdapter() {
+            private final String[] expected = {"123456", null};
+            private int rowNr = 0;
+
             @Override
             public void rowWrittenEvent(IRowMeta rowMeta, Object[] row)
                 throws HopTransformException {
-              assertEquals("123456", row[2]);
+              assertEquals(expected[rowNr++], row[2]);
             }
           });
       calculator.processRow();
@@ -700,6 +700,11 @@ public class CombinationLookupMeta
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   protected IRowMeta getDatabaseTableFields(Database db, String schemaName, String tableName)
       throws HopDatabaseException {
     // First try without connecting to the database... (can be S L O W)
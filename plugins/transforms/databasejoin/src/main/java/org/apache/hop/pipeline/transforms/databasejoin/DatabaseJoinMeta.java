@@ -574,6 +574,11 @@ public class DatabaseJoinMeta extends BaseTransformMeta<DatabaseJoin, DatabaseJo
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   public List<ParameterField> getParameters() {
     return parameters;
   }
@@ -486,6 +486,11 @@ public class DatabaseLookupMeta extends BaseTransformMeta<DatabaseLookup, Databa
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   @Override
   public RowMeta getRowMeta(IVariables variables, ITransformData transformData) {
     return (RowMeta) ((DatabaseLookupData) transformData).returnMeta;
@@ -493,4 +493,9 @@ public class DBProcMeta extends BaseTransformMeta<DBProc, DBProcData> {
   public void setAutoCommit(boolean autoCommit) {
     this.autoCommit = autoCommit;
   }
+
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
 }
@@ -190,4 +190,9 @@ public class DelayMeta extends BaseTransformMeta<Delay, DelayData> {
     }
     remarks.add(cr);
   }
+
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
 }
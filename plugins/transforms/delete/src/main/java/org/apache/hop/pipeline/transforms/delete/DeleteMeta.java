@@ -469,4 +469,9 @@ public class DeleteMeta extends BaseTransformMeta<Delete, DeleteData> {
   public boolean supportsErrorHandling() {
     return true;
   }
+
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
 }
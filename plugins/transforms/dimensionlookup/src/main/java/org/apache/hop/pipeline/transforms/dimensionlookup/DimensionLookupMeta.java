@@ -175,6 +175,11 @@ public class DimensionLookupMeta extends BaseTransformMeta<DimensionLookup, Dime
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   @Override
   public DimensionLookupMeta clone() {
     return new DimensionLookupMeta(this);
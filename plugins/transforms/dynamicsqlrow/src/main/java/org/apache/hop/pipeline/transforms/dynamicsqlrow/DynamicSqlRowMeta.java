@@ -439,4 +439,9 @@ public class DynamicSqlRowMeta extends BaseTransformMeta<DynamicSqlRow, DynamicS
   public boolean supportsErrorHandling() {
     return true;
   }
+
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
 }
@@ -360,6 +360,11 @@ public class ExecSqlRowMeta extends BaseTransformMeta<ExecSqlRow, ExecSqlRowData
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   /**
    * Gets metadataProvider
    *
@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.filterrows;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
@@ -47,7 +48,7 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
 
   private synchronized boolean keepRow(IRowMeta rowMeta, Object[] row) throws HopException {
     try {
-      return meta.getCondition().evaluate(rowMeta, row);
+      return data.condition.evaluate(row);
     } catch (Exception e) {
       String message =
           BaseMessages.getString(
@@ -63,11 +64,13 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
 
   @Override
   public boolean processRow() throws HopException {
-    Object[] r = getRow(); // Get next usable row from input rowset(s)!
-    if (r == null) {
+    List<Object[]> rows =
+        getRows(Const.ROWS_IN_BATCH); // Get next usable rows from input rowset(s)!
+    if (rows == null) {
       setOutputDone();
       return false;
     }
+    long previousLinesRead = getLinesRead() - rows.size();
 
     if (first) {
       first = false;
@@ -78,6 +81,10 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
       // if filter refers to non-existing fields, throw exception
       checkNonExistingFields();
 
+      // Resolve the field positions and the constant values of the condition only once
+      //
+      data.condition = meta.getCondition().compile(getInputRowMeta());
+
       // Cache the position of the IRowSet for the output.
       //
       if (data.chosesTargetTransforms) {
@@ -118,38 +125,44 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
       }
     }
 
-    boolean keep = keepRow(getInputRowMeta(), r); // Keep this row?
     if (!data.chosesTargetTransforms) {
-      if (keep) {
-        putRow(data.outputRowMeta, r); // copy row to output rowset(s)
+      List<Object[]> keptRows = new ArrayList<>(rows.size());
+      for (Object[] r : rows) {
+        if (keepRow(getInputRowMeta(), r)) { // Keep this row?
+          keptRows.add(r);
+        }
       }
+      putRows(data.outputRowMeta, keptRows); // copy rows to output rowset(s)
     } else {
-      if (keep) {
-        if (data.trueRowSet != null) {
-          if (log.isRowLevel()) {
-            logRowlevel(
-                "Sending row to true  :"
-                    + data.trueTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
+      for (Object[] r : rows) {
+        boolean keep = keepRow(getInputRowMeta(), r); // Keep this row?
+        if (keep) {
+          if (data.trueRowSet != null) {
+            if (log.isRowLevel()) {
+              logRowlevel(
+                  "Sending row to true  :"
+                      + data.trueTransformName
+                      + " : "
+                      + getInputRowMeta().getString(r));
+            }
+            putRowTo(data.outputRowMeta, r, data.trueRowSet);
           }
-          putRowTo(data.outputRowMeta, r, data.trueRowSet);
-        }
-      } else {
-        if (data.falseRowSet != null) {
-          if (log.isRowLevel()) {
-            logRowlevel(
-                "Sending row to false :"
-                    + data.falseTransformName
-                    + " : "
-                    + getInputRowMeta().getString(r));
+        } else {
+          if (data.falseRowSet != null) {
+            if (log.isRowLevel()) {
+              logRowlevel(
+                  "Sending row to false :"
+                      + data.falseTransformName
+                      + " : "
+                      + getInputRowMeta().getString(r));
+            }
+            putRowTo(data.outputRowMeta, r, data.falseRowSet);
           }
-          putRowTo(data.outputRowMeta, r, data.falseRowSet);
         }
       }
     }
 
-    if (checkFeedback(getLinesRead())) {
+    if (checkFeedback(previousLinesRead, getLinesRead())) {
       if (log.isBasic()) {
         logBasic(BaseMessages.getString(PKG, "FilterRows.Log.LineNumber") + getLinesRead());
       }
@@ -162,10 +175,6 @@ public class FilterRows extends BaseTransform<FilterRowsMeta, FilterRowsData> {
   public boolean init() {
 
     if (super.init()) {
-      // could it be a better idea to have a clone on the condition in data and do this on the first
-      // row?
-      meta.getCondition().clearFieldPositions();
-
       List<IStream> targetStreams = meta.getTransformIOMeta().getTargetStreams();
       data.trueTransformName = targetStreams.get(0).getTransformName();
       data.falseTransformName = targetStreams.get(1).getTransformName();
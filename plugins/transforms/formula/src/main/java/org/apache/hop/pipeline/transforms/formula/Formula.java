@@ -31,6 +31,7 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.formula.util.CompiledFormula;
 import org.apache.hop.pipeline.transforms.formula.util.FormulaParser;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.CellValue;
@@ -112,6 +113,22 @@ public class Formula extends BaseTransform<FormulaMeta, FormulaData> {
           data.replaceIndex[j] = -1;
         }
       }
+
+      // Parse the formulas once, they are evaluated directly on the rows where possible
+      //
+      data.compiledFormulas = new CompiledFormula[meta.getFormulas().size()];
+      for (int j = 0; j < meta.getFormulas().size(); j++) {
+        FormulaMetaFunction fn = meta.getFormulas().get(j);
+        FormulaParser parser =
+            new FormulaParser(fn, data.outputRowMeta, null, sheetRow, variables, replaceMap);
+        data.compiledFormulas[j] = CompiledFormula.compile(parser, data.outputRowMeta, workBook);
+        if (data.compiledFormulas[j] == null && isDetailed()) {
+          logDetailed(
+              "Formula '"
+                  + fn.getFormula()
+                  + "' can't be compiled, it is evaluated with a spreadsheet for every row");
+        }
+      }
     }
 
     int tempIndex = getInputRowMeta().size();
@@ -120,22 +137,14 @@ public class Formula extends BaseTransform<FormulaMeta, FormulaData> {
       logRowlevel("Read row #" + getLinesRead() + " : " + Arrays.toString(r));
     }
 
-    if (sheetRow != null) {
-      workSheet.removeRow(sheetRow);
-    }
-    sheetRow = workSheet.createRow(0);
-
     Object[] outputRowData = RowDataUtil.resizeArray(r, data.outputRowMeta.size());
     Object outputValue = null;
 
     for (int i = 0; i < meta.getFormulas().size(); i++) {
 
       FormulaMetaFunction formula = meta.getFormulas().get(i);
-      FormulaParser parser =
-          new FormulaParser(
-              formula, data.outputRowMeta, outputRowData, sheetRow, variables, replaceMap);
       try {
-        CellValue cellValue = parser.getFormulaValue();
+        CellValue cellValue = evaluate(i, formula, outputRowData);
         CellType cellType = cellValue.getCellType();
 
         int outputValueType = formula.getValueType();
@@ -210,6 +219,35 @@ public class Formula extends BaseTransform<FormulaMeta, FormulaData> {
     return true;
   }
 
+  private CellValue evaluate(int index, FormulaMetaFunction formula, Object[] outputRowData)
+      throws HopException {
+    CompiledFormula compiledFormula = data.compiledFormulas[index];
+    if (compiledFormula != null) {
+      try {
+        return compiledFormula.evaluate(outputRowData);
+      } catch (RuntimeException e) {
+        // A function which needs a real spreadsheet: evaluate this formula with one from now on
+        data.compiledFormulas[index] = null;
+        if (isDetailed()) {
+          logDetailed(
+              "Formula '"
+                  + formula.getFormula()
+                  + "' is evaluated with a spreadsheet for every row: "
+                  + e.getMessage());
+        }
+      }
+    }
+
+    if (sheetRow != null) {
+      workSheet.removeRow(sheetRow);
+    }
+    sheetRow = workSheet.createRow(0);
+    FormulaParser parser =
+        new FormulaParser(
+            formula, data.outputRowMeta, outputRowData, sheetRow, variables, replaceMap);
+    return parser.getFormulaValue();
+  }
+
   /**
    * This is the base transform that forms that basis for all transforms. You can derive from this
    * class to implement your own transforms.
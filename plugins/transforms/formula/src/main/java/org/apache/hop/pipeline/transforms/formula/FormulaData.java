@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.formula;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transforms.formula.util.CompiledFormula;
 
 public class FormulaData extends BaseTransformData implements ITransformData {
 
@@ -37,6 +38,9 @@ public class FormulaData extends BaseTransformData implements ITransformData {
   public int[] returnType;
   public int[] replaceIndex;
 
+  /** The formulas parsed once, null for formulas which are evaluated with a spreadsheet */
+  public CompiledFormula[] compiledFormulas;
+
   public FormulaData() {
     super();
   }
@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.formula.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.WorkbookEvaluator;
+import org.apache.poi.ss.formula.eval.AreaEval;
+import org.apache.poi.ss.formula.eval.BlankEval;
+import org.apache.poi.ss.formula.eval.BoolEval;
+import org.apache.poi.ss.formula.eval.ConcatEval;
+import org.apache.poi.ss.formula.eval.ErrorEval;
+import org.apache.poi.ss.formula.eval.FunctionEval;
+import org.apache.poi.ss.formula.eval.MissingArgEval;
+import org.apache.poi.ss.formula.eval.NotImplementedException;
+import org.apache.poi.ss.formula.eval.NumberEval;
+import org.apache.poi.ss.formula.eval.PercentEval;
+import org.apache.poi.ss.formula.eval.RefEvalBase;
+import org.apache.poi.ss.formula.eval.RelationalOperationEval;
+import org.apache.poi.ss.formula.eval.StringEval;
+import org.apache.poi.ss.formula.eval.TwoOperandNumericOperation;
+import org.apache.poi.ss.formula.eval.UnaryMinusEval;
+import org.apache.poi.ss.formula.eval.UnaryPlusEval;
+import org.apache.poi.ss.formula.eval.ValueEval;
+import org.apache.poi.ss.formula.function.FunctionMetadataRegistry;
+import org.apache.poi.ss.formula.functions.Function;
+import org.apache.poi.ss.formula.ptg.AbstractFunctionPtg;
+import org.apache.poi.ss.formula.ptg.AddPtg;
+import org.apache.poi.ss.formula.ptg.AttrPtg;
+import org.apache.poi.ss.formula.ptg.BoolPtg;
+import org.apache.poi.ss.formula.ptg.ConcatPtg;
+import org.apache.poi.ss.formula.ptg.ControlPtg;
+import org.apache.poi.ss.formula.ptg.DividePtg;
+import org.apache.poi.ss.formula.ptg.EqualPtg;
+import org.apache.poi.ss.formula.ptg.ErrPtg;
+import org.apache.poi.ss.formula.ptg.GreaterEqualPtg;
+import org.apache.poi.ss.formula.ptg.GreaterThanPtg;
+import org.apache.poi.ss.formula.ptg.IntPtg;
+import org.apache.poi.ss.formula.ptg.LessEqualPtg;
+import org.apache.poi.ss.formula.ptg.LessThanPtg;
+import org.apache.poi.ss.formula.ptg.MissingArgPtg;
+import org.apache.poi.ss.formula.ptg.MultiplyPtg;
+import org.apache.poi.ss.formula.ptg.NotEqualPtg;
+import org.apache.poi.ss.formula.ptg.NumberPtg;
+import org.apache.poi.ss.formula.ptg.OperationPtg;
+import org.apache.poi.ss.formula.ptg.PercentPtg;
+import org.apache.poi.ss.formula.ptg.PowerPtg;
+import org.apache.poi.ss.formula.ptg.Ptg;
+import org.apache.poi.ss.formula.ptg.RefPtg;
+import org.apache.poi.ss.formula.ptg.StringPtg;
+import org.apache.poi.ss.formula.ptg.SubtractPtg;
+import org.apache.poi.ss.formula.ptg.UnaryMinusPtg;
+import org.apache.poi.ss.formula.ptg.UnaryPlusPtg;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * A formula which is parsed once and then evaluated directly on the values of the rows. The formula
+ * is parsed into the same tokens a spreadsheet evaluates, and the operators and functions are
+ * evaluated with the same implementations, so the results are the same. Only the spreadsheet cells
+ * which held the field values for every row are no longer needed.
+ *
+ * <p>Formulas using tokens which need a real spreadsheet, like cell ranges, names, external
+ * functions or functions which look at the cells around a reference, can't be compiled and are
+ * still evaluated with a spreadsheet row.
+ *
+ * <p>The jumps of IF and CHOOSE are ignored: all the operands are evaluated and the function picks
+ * the result, which gives the same value as a spreadsheet skipping the unused operands.
+ */
+public class CompiledFormula {
+
+  private static final Map<Class<? extends Ptg>, Function> OPERATORS = new HashMap<>();
+
+  static {
+    OPERATORS.put(AddPtg.class, TwoOperandNumericOperation.AddEval);
+    OPERATORS.put(SubtractPtg.class, TwoOperandNumericOperation.SubtractEval);
+    OPERATORS.put(MultiplyPtg.class, TwoOperandNumericOperation.MultiplyEval);
+    OPERATORS.put(DividePtg.class, TwoOperandNumericOperation.DivideEval);
+    OPERATORS.put(PowerPtg.class, TwoOperandNumericOperation.PowerEval);
+    OPERATORS.put(ConcatPtg.class, ConcatEval.instance);
+    OPERATORS.put(EqualPtg.class, RelationalOperationEval.EqualEval);
+    OPERATORS.put(NotEqualPtg.class, RelationalOperationEval.NotEqualEval);
+    OPERATORS.put(LessThanPtg.class, RelationalOperationEval.LessThanEval);
+    OPERATORS.put(LessEqualPtg.class, RelationalOperationEval.LessEqualEval);
+    OPERATORS.put(GreaterThanPtg.class, RelationalOperationEval.GreaterThanEval);
+    OPERATORS.put(GreaterEqualPtg.class, RelationalOperationEval.GreaterEqualEval);
+    OPERATORS.put(UnaryPlusPtg.class, UnaryPlusEval.instance);
+    OPERATORS.put(UnaryMinusPtg.class, UnaryMinusEval.instance);
+    OPERATORS.put(PercentPtg.class, PercentEval.instance);
+  }
+
+  /**
+   * The functions which turn a reference into a range of cells, like OFFSET or the lookup
+   * functions. There are no other cells than the fields, so these need a spreadsheet.
+   */
+  private static final Set<Integer> RANGE_FUNCTIONS = new HashSet<>();
+
+  static {
+    for (String name :
+        new String[] {
+          "OFFSET", "INDEX", "LOOKUP", "VLOOKUP", "HLOOKUP", "MATCH", "SUMIF", "COUNTIF", "RANK",
+          "SUMPRODUCT", "DAVERAGE", "DCOUNT", "DCOUNTA", "DGET", "DMAX", "DMIN", "DPRODUCT",
+          "DSTDEV", "DSTDEVP", "DSUM", "DVAR", "DVARP"
+        }) {
+      int index = FunctionMetadataRegistry.lookupIndexByName(name);
+      if (index >= 0) {
+        RANGE_FUNCTIONS.add(index);
+      }
+    }
+  }
+
+  /** One token of the formula in reverse polish notation */
+  private static class Step {
+    /** A constant value, or null */
+    private final ValueEval constant;
+
+    /** The column of the referenced field, or -1 */
+    private final int column;
+
+    /** The operator or function to apply to the operands on the stack, or null */
+    private final Function function;
+
+    private final int nrOperands;
+
+    private Step(ValueEval constant, int column, Function function, int nrOperands) {
+      this.constant = constant;
+      this.column = column;
+      this.function = function;
+      this.nrOperands = nrOperands;
+    }
+  }
+
+  /** A reference to the spreadsheet cell which would hold the value of a field */
+  private static class FieldRefEval extends RefEvalBase {
+    private final ValueEval value;
+
+    private FieldRefEval(int column, ValueEval value) {
+      super(0, 0, 0, column);
+      this.value = value;
+    }
+
+    @Override
+    public ValueEval getInnermostSheetValue(int sheetIndex) {
+      return value;
+    }
+
+    @Override
+    public AreaEval offset(
+        int relFirstRowIx, int relLastRowIx, int relFirstColIx, int relLastColIx) {
+      // Formulas with functions which use a range of cells are never compiled
+      throw new IllegalStateException("A field reference has no range of cells");
+    }
+  }
+
+  private final Step[] steps;
+  private final int maxStackSize;
+  private final IRowMeta rowMeta;
+
+  /** The index of the field in the row for every column */
+  private final int[] fieldIndexes;
+
+  /** The column of the cell which would hold the formula */
+  private final int formulaColumn;
+
+  private CompiledFormula(
+      Step[] steps, int maxStackSize, IRowMeta rowMeta, int[] fieldIndexes, int formulaColumn) {
+    this.steps = steps;
+    this.maxStackSize = maxStackSize;
+    this.rowMeta = rowMeta;
+    this.fieldIndexes = fieldIndexes;
+    this.formulaColumn = formulaColumn;
+  }
+
+  /**
+   * Compile a formula.
+   *
+   * @param parser The parser of the formula, providing the formula with cell references
+   * @param rowMeta The layout of the rows the formula is evaluated on
+   * @param workbook The workbook used to parse the formula
+   * @return The compiled formula or null if the formula can only be evaluated with a spreadsheet
+   */
+  public static CompiledFormula compile(
+      FormulaParser parser, IRowMeta rowMeta, XSSFWorkbook workbook) {
+    List<String> fieldNames = parser.getFormulaFieldList();
+    int[] fieldIndexes = new int[fieldNames.size()];
+    for (int i = 0; i < fieldIndexes.length; i++) {
+      fieldIndexes[i] = rowMeta.indexOfValue(fieldNames.get(i));
+      if (fieldIndexes[i] < 0) {
+        return null;
+      }
+    }
+
+    Ptg[] ptgs;
+    try {
+      ptgs =
+          org.apache.poi.ss.formula.FormulaParser.parse(
+              parser.getParsedFormula(),
+              XSSFEvaluationWorkbook.create(workbook),
+              FormulaType.CELL,
+              0);
+    } catch (RuntimeException e) {
+      // Report the error when evaluating the formula, like before
+      return null;
+    }
+
+    List<Step> steps = new ArrayList<>(ptgs.length);
+    int stackSize = 0;
+    int maxStackSize = 0;
+    for (Ptg ptg : ptgs) {
+      Step step = compileToken(ptg, fieldIndexes.length);
+      if (step == null) {
+        if (ptg instanceof ControlPtg) {
+          // Parentheses, spaces and the jumps of IF and CHOOSE: evaluate all the operands
+          continue;
+        }
+        return null;
+      }
+      if (step.function != null) {
+        if (stackSize < step.nrOperands) {
+          return null;
+        }
+        stackSize -= step.nrOperands;
+      }
+      stackSize++;
+      maxStackSize = Math.max(maxStackSize, stackSize);
+      steps.add(step);
+    }
+    if (stackSize != 1) {
+      return null;
+    }
+
+    return new CompiledFormula(
+        steps.toArray(new Step[0]), maxStackSize, rowMeta, fieldIndexes, fieldIndexes.length);
+  }
+
+  private static Step compileToken(Ptg ptg, int nrColumns) {
+    if (ptg instanceof AttrPtg && ((AttrPtg) ptg).isSum()) {
+      return new Step(
+          null, -1, FunctionEval.getBasicFunction(FunctionMetadataRegistry.FUNCTION_INDEX_SUM), 1);
+    }
+    if (ptg instanceof IntPtg) {
+      return new Step(new NumberEval(((IntPtg) ptg).getValue()), -1, null, 0);
+    }
+    if (ptg instanceof NumberPtg) {
+      return new Step(new NumberEval(((NumberPtg) ptg).getValue()), -1, null, 0);
+    }
+    if (ptg instanceof StringPtg) {
+      return new Step(new StringEval(((StringPtg) ptg).getValue()), -1, null, 0);
+    }
+    if (ptg instanceof BoolPtg) {
+      return new Step(BoolEval.valueOf(((BoolPtg) ptg).getValue()), -1, null, 0);
+    }
+    if (ptg instanceof ErrPtg) {
+      return new Step(ErrorEval.valueOf(((ErrPtg) ptg).getErrorCode()), -1, null, 0);
+    }
+    if (ptg instanceof MissingArgPtg) {
+      return new Step(MissingArgEval.instance, -1, null, 0);
+    }
+    if (ptg instanceof RefPtg) {
+      RefPtg refPtg = (RefPtg) ptg;
+      if (refPtg.getRow() != 0 || refPtg.getColumn() >= nrColumns) {
+        // Only the cells holding the field values can be referenced
+        return null;
+      }
+      return new Step(null, refPtg.getColumn(), null, 0);
+    }
+    if (ptg instanceof AbstractFunctionPtg) {
+      AbstractFunctionPtg functionPtg = (AbstractFunctionPtg) ptg;
+      if (RANGE_FUNCTIONS.contains((int) functionPtg.getFunctionIndex())) {
+        return null;
+      }
+      Function function;
+      try {
+        function = FunctionEval.getBasicFunction(functionPtg.getFunctionIndex());
+      } catch (NotImplementedException e) {
+        return null;
+      }
+      if (function == null) {
+        // INDIRECT and external functions need the workbook
+        return null;
+      }
+      return new Step(null, -1, function, functionPtg.getNumberOfOperands());
+    }
+    Function operator = OPERATORS.get(ptg.getClass());
+    if (operator != null) {
+      return new Step(null, -1, operator, ((OperationPtg) ptg).getNumberOfOperands());
+    }
+    return null;
+  }
+
+  /**
+   * Evaluate the formula on a row.
+   *
+   * @param row The row
+   * @return The value of the formula, as a spreadsheet would calculate it
+   * @throws HopValueException In case a field value can't be converted
+   */
+  public CellValue evaluate(Object[] row) throws HopValueException {
+    ValueEval[] stack = new ValueEval[maxStackSize];
+    int stackSize = 0;
+    for (Step step : steps) {
+      if (step.constant != null) {
+        stack[stackSize++] = step.constant;
+      } else if (step.column >= 0) {
+        stack[stackSize++] =
+            new FieldRefEval(step.column, getFieldValue(row, fieldIndexes[step.column]));
+      } else {
+        ValueEval[] operands = new ValueEval[step.nrOperands];
+        stackSize -= step.nrOperands;
+        System.arraycopy(stack, stackSize, operands, 0, step.nrOperands);
+        stack[stackSize++] = step.function.evaluate(operands, 0, formulaColumn);
+      }
+    }
+
+    ValueEval result = WorkbookEvaluator.dereferenceResult(stack[0], 0, formulaColumn);
+    if (result instanceof NumberEval) {
+      return new CellValue(((NumberEval) result).getNumberValue());
+    }
+    if (result instanceof BoolEval) {
+      return CellValue.valueOf(((BoolEval) result).getBooleanValue());
+    }
+    if (result instanceof StringEval) {
+      return new CellValue(((StringEval) result).getStringValue());
+    }
+    if (result instanceof ErrorEval) {
+      return CellValue.getError(((ErrorEval) result).getErrorCode());
+    }
+    throw new IllegalStateException("Unexpected formula result " + result.getClass().getName());
+  }
+
+  /** Get the value of a field the way it would be stored in a spreadsheet cell. */
+  private ValueEval getFieldValue(Object[] row, int index) throws HopValueException {
+    if (row[index] == null) {
+      return BlankEval.instance;
+    }
+    IValueMeta valueMeta = rowMeta.getValueMeta(index);
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_BOOLEAN:
+        return BoolEval.valueOf(valueMeta.getBoolean(row[index]));
+      case IValueMeta.TYPE_DATE:
+      case IValueMeta.TYPE_TIMESTAMP:
+        return new NumberEval(DateUtil.getExcelDate(valueMeta.getDate(row[index]), false));
+      case IValueMeta.TYPE_INTEGER:
+        return new NumberEval(valueMeta.getInteger(row[index]));
+      case IValueMeta.TYPE_NUMBER:
+        return new NumberEval(valueMeta.getNumber(row[index]));
+      default:
+        String string = valueMeta.getString(row[index]);
+        if (string == null) {
+          return BlankEval.instance;
+        }
+        if (string.length() > SpreadsheetVersion.EXCEL2007.getMaxTextLength()) {
+          // A spreadsheet cell can't hold this value
+          throw new HopValueException(
+              "The value of field '" + valueMeta.getName() + "' is too long for a spreadsheet cell");
+        }
+        return new StringEval(string);
+    }
+  }
+}
@@ -91,18 +91,37 @@ public class FormulaParser {
     return theFields;
   }
 
-  public CellValue getFormulaValue() throws HopValueException {
+  /**
+   * @return The names of the fields used in the formula, in order of appearance. Field number i is
+   *     found in column i of the spreadsheet row.
+   */
+  public List<String> getFormulaFieldList() {
+    return formulaFieldList;
+  }
+
+  /**
+   * @return The formula with the field references replaced by references to the spreadsheet cells
+   *     holding the field values
+   */
+  public String getParsedFormula() {
     String parsedFormula = formula;
     int fieldIndex = 65;
-    int colIndex = 0;
     for (String formulaField : formulaFieldList) {
       char s = (char) fieldIndex;
+      parsedFormula = parsedFormula.replaceAll("\\[" + formulaField + "\\]", s + "1");
+      fieldIndex++;
+    }
+    return parsedFormula;
+  }
+
+  public CellValue getFormulaValue() throws HopValueException {
+    String parsedFormula = getParsedFormula();
+    int colIndex = 0;
+    for (String formulaField : formulaFieldList) {
       Cell cell = sheetRow.createCell(colIndex);
 
       int fieldPosition = rowMeta.indexOfValue(formulaField);
 
-      parsedFormula = parsedFormula.replaceAll("\\[" + formulaField + "\\]", s + "1");
-
       IValueMeta fieldMeta = rowMeta.getValueMeta(fieldPosition);
       if (dataRow[fieldPosition] != null) {
         if (fieldMeta.isBoolean()) {
@@ -124,7 +143,6 @@ public class FormulaParser {
         cell.setBlank();
       }
 
-      fieldIndex++;
       colIndex++;
     }
 
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.formula.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.HashMap;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBigNumber;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.core.variables.Variables;
+import org.apache.hop.pipeline.transforms.formula.FormulaMetaFunction;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Compiled formulas need to give the same results as the spreadsheet they replace. */
+public class CompiledFormulaTest {
+
+  private IVariables variables;
+  private XSSFWorkbook workbook;
+  private XSSFSheet sheet;
+  private Row sheetRow;
+  private IRowMeta rowMeta;
+  private Object[] row;
+
+  @Before
+  public void setUp() {
+    variables = new Variables();
+    workbook = new XSSFWorkbook();
+    sheet = workbook.createSheet();
+    sheetRow = sheet.createRow(0);
+
+    rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("int"));
+    rowMeta.addValueMeta(new ValueMetaNumber("num"));
+    rowMeta.addValueMeta(new ValueMetaString("first"));
+    rowMeta.addValueMeta(new ValueMetaString("last"));
+    rowMeta.addValueMeta(new ValueMetaDate("date"));
+    rowMeta.addValueMeta(new ValueMetaBigNumber("big"));
+    rowMeta.addValueMeta(new ValueMetaBoolean("flag"));
+    rowMeta.addValueMeta(new ValueMetaString("nothing"));
+    rowMeta.addValueMeta(new ValueMetaInteger("nullInt"));
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.clear();
+    calendar.set(2023, Calendar.MARCH, 14, 15, 9, 26);
+    row =
+        new Object[] {
+          5L,
+          2.5,
+          "foo",
+          "bar",
+          calendar.getTime(),
+          new BigDecimal("12.50"),
+          Boolean.TRUE,
+          null,
+          null
+        };
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    workbook.close();
+  }
+
+  private FormulaParser createParser(String formula, Object[] dataRow) {
+    FormulaMetaFunction function = new FormulaMetaFunction();
+    function.setFieldName("result");
+    function.setFormula(formula);
+    return new FormulaParser(function, rowMeta, dataRow, sheetRow, variables, new HashMap<>());
+  }
+
+  private CompiledFormula compile(String formula) {
+    return CompiledFormula.compile(createParser(formula, null), rowMeta, workbook);
+  }
+
+  /** Evaluate the formula on a fresh spreadsheet row, the way the transform falls back to. */
+  private CellValue evaluateWithSpreadsheet(String formula) throws HopValueException {
+    sheet.removeRow(sheetRow);
+    sheetRow = sheet.createRow(0);
+    return createParser(formula, row).getFormulaValue();
+  }
+
+  private void assertSameResult(String formula) throws HopValueException {
+    CompiledFormula compiledFormula = compile(formula);
+    assertNotNull("Formula " + formula + " should compile", compiledFormula);
+
+    CellValue expected = evaluateWithSpreadsheet(formula);
+    CellValue actual = compiledFormula.evaluate(row);
+    assertEquals(formula, expected.getCellType(), actual.getCellType());
+    assertEquals(formula, expected.formatAsString(), actual.formatAsString());
+  }
+
+  @Test
+  public void testArithmetic() throws Exception {
+    assertSameResult("[int]*[num]/2");
+    assertSameResult("[int]-[num]+1");
+    assertSameResult("[int]^2");
+    assertSameResult("-[num]%");
+    assertSameResult("ROUND([num],0)");
+    assertSameResult("[int]/0");
+  }
+
+  @Test
+  public void testIfWithoutElse() throws Exception {
+    assertSameResult("IF([int]>3,\"big\")");
+    assertSameResult("IF([int]>10,\"big\")");
+  }
+
+  @Test
+  public void testNestedIf() throws Exception {
+    assertSameResult("IF([int]>10,\"large\",IF([int]>3,\"medium\",\"small\"))");
+    assertSameResult("IF([int]>1,IF([num]>3,\"a\",\"b\"),\"c\")");
+    assertSameResult("IF([flag],[first],[last])");
+  }
+
+  @Test
+  public void testChoose() throws Exception {
+    assertSameResult("CHOOSE(2,[first],[last],\"other\")");
+    assertSameResult("CHOOSE([int]-3,[first],[last],\"other\")");
+    assertSameResult("CHOOSE(5,[first],[last])");
+  }
+
+  @Test
+  public void testSum() throws Exception {
+    // A sum of a single operand is an attribute token, not a function call
+    assertSameResult("SUM([int])");
+    assertSameResult("SUM([int],[num],3)");
+  }
+
+  @Test
+  public void testNullValues() throws Exception {
+    assertSameResult("[nothing]&\"x\"");
+    assertSameResult("ISBLANK([nothing])");
+    assertSameResult("[nullInt]+1");
+    assertSameResult("IF([nullInt]=0,\"zero\",\"other\")");
+    assertSameResult("LEN([nothing])");
+  }
+
+  @Test
+  public void testStrings() throws Exception {
+    assertSameResult("[first]&\"-\"&[last]");
+    assertSameResult("CONCATENATE([first],[int])");
+    assertSameResult("UPPER([first])");
+    assertSameResult("[first]=\"FOO\"");
+    assertSameResult("LEFT([last],2)");
+  }
+
+  @Test
+  public void testDates() throws Exception {
+    assertSameResult("YEAR([date])");
+    assertSameResult("DAY([date])");
+    assertSameResult("HOUR([date])");
+    assertSameResult("[date]+1");
+    assertSameResult("[date]>DATE(2023,1,1)");
+  }
+
+  @Test
+  public void testBigNumber() throws Exception {
+    assertSameResult("[big]*2");
+    assertSameResult("[big]&\"\"");
+    assertSameResult("LEN([big])");
+  }
+
+  @Test
+  public void testBooleans() throws Exception {
+    assertSameResult("AND([flag],[int]>1)");
+    assertSameResult("NOT([flag])");
+  }
+
+  @Test
+  public void testCellPosition() throws Exception {
+    assertSameResult("COLUMN()");
+    assertSameResult("ROW()");
+  }
+
+  @Test
+  public void testFallback() throws Exception {
+    // Functions looking at the cells around a reference need a spreadsheet
+    assertNull(compile("OFFSET([int],0,1)"));
+    assertNull(compile("VLOOKUP([int],[int],1)"));
+    assertNull(compile("INDEX([int],1,1)"));
+    assertNull(compile("SUMIF([int],\">1\")"));
+
+    // Cell ranges and fields which aren't in the row
+    assertNull(compile("SUM(A1:B1)"));
+    assertNull(compile("[unknown]+1"));
+
+    // The spreadsheet still evaluates these
+    assertEquals(CellType.NUMERIC, evaluateWithSpreadsheet("OFFSET([int],0,0)").getCellType());
+  }
+}
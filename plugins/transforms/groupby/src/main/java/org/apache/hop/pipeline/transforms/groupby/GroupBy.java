@@ -17,25 +17,19 @@
 
 package org.apache.hop.pipeline.transforms.groupby;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.StringJoiner;
 import java.util.TreeSet;
 import org.apache.commons.math3.stat.descriptive.rank.Percentile;
-import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
-import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopPluginException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
@@ -48,8 +42,12 @@ import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNone;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.spill.SpillFile;
+import org.apache.hop.core.spill.SpillFileReader;
+import org.apache.hop.core.spill.SpillPartition;
+import org.apache.hop.core.spill.SpillPartitions;
+import org.apache.hop.core.spill.SpillRunMerger;
 import org.apache.hop.core.util.Utils;
-import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -197,6 +195,10 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
       data.groupAggMeta.addRowMeta(data.aggMeta);
     }
 
+    if (meta.isHashAggregation()) {
+      return processHashRow(r);
+    }
+
     if (r == null) { // no more input to be expected... (or none received in the first place)
       handleLastOfGroup();
       setOutputDone();
@@ -218,9 +220,7 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
 
     if (!sameGroup(data.previous, r)) {
       if (meta.isPassAllRows()) {
-        // Not the same group: close output (if any)
-        closeOutput();
-        // Get all rows from the buffer!
+        // Not the same group: get all rows from the buffer!
         data.groupResult = getAggregateResult();
         Object[] row = getRowFromBuffer();
 
@@ -263,6 +263,242 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
     return true;
   }
 
+  /** Aggregate a row in the hash table: the rows of a group don't need to be consecutive. */
+  private boolean processHashRow(Object[] r) throws HopException {
+    if (r == null) { // no more input to be expected... (or none received in the first place)
+      handleLastOfHashGroups();
+      setOutputDone();
+      return false;
+    }
+
+    first = false;
+    data.newBatch = false;
+
+    addToHashAggregate(r);
+
+    if (checkFeedback(getLinesRead()) && log.isBasic()) {
+      logBasic(BaseMessages.getString(PKG, "GroupBy.LineNumber") + getLinesRead());
+    }
+
+    return true;
+  }
+
+  /**
+   * Used for junits in GroupByHashAggregationTest
+   *
+   * @param r the row to aggregate
+   * @throws HopException
+   */
+  void addToHashAggregate(Object[] r) throws HopException {
+    Object[] groupData = new Object[data.groupnrs.length];
+    for (int i = 0; i < data.groupnrs.length; i++) {
+      groupData[i] = r[data.groupnrs[i]];
+    }
+    GroupByData.HashEntry entry = data.getHashEntry(groupData);
+
+    GroupByData.GroupState state = data.map.get(entry);
+    if (state == null) {
+      if (data.maxGroupsInMemory > 0 && spillRow(entry, r)) {
+        return;
+      }
+
+      // Create a new group aggregate, the counters of the group are its own
+      //
+      data.counts = new long[data.subjectnrs.length];
+      newAggregate(r);
+
+      state = new GroupByData.GroupState();
+      state.agg = data.agg;
+      state.counts = data.counts;
+      state.mean = data.mean;
+      data.map.put(entry, state);
+    } else {
+      activate(state);
+    }
+
+    calcAggregate(r);
+
+    // The distinct values are only allocated when they're needed
+    //
+    state.distinctObjs = data.distinctObjs;
+  }
+
+  /** Make the aggregation state of a group the current one. */
+  private void activate(GroupByData.GroupState state) {
+    data.agg = state.agg;
+    data.counts = state.counts;
+    data.mean = state.mean;
+    data.distinctObjs = state.distinctObjs;
+  }
+
+  /**
+   * Spill the row of a new group to disk if the group doesn't fit in memory. Once the hash table is
+   * full the partition of the new group is spilled, see {@link SpillPartitions}.
+   *
+   * @param entry The new group
+   * @param r The row
+   * @return true if the row was written to disk
+   */
+  private boolean spillRow(GroupByData.HashEntry entry, Object[] r) throws HopException {
+    boolean memoryFull = data.map.size() >= data.maxGroupsInMemory;
+    if (data.spillPartitions == null) {
+      if (!memoryFull) {
+        return false;
+      }
+      data.spillPartitions =
+          new SpillPartitions(
+              data.inputRowMeta,
+              resolve(Const.NVL(meta.getPrefix(), "grp")),
+              resolve(Const.NVL(meta.getDirectory(), "${java.io.tmpdir}")),
+              false,
+              this::addBytesSpilled,
+              partitionNr -> {
+                if (log.isDetailed()) {
+                  logDetailed(
+                      BaseMessages.getString(
+                          PKG, "GroupBy.Log.SpillingPartition", partitionNr, data.map.size()));
+                }
+              });
+    }
+    return data.spillPartitions.spillRow(entry.hashCode(), r, memoryFull);
+  }
+
+  /** Write out all the groups of the hash table, aggregating the spilled rows as well. */
+  private void handleLastOfHashGroups() throws HopException {
+    // If groups were spilled and the output needs to be sorted, every pass over the hash table
+    // writes a sorted run of results to disk. The runs are merged at the end.
+    //
+    boolean writeRuns = meta.isSortedOutput() && data.spillPartitions != null;
+    if (writeRuns) {
+      data.sortedRuns = new ArrayList<>();
+    }
+
+    long nrGroups = writeHashGroups(writeRuns);
+
+    // Then aggregate the rows of the groups which didn't fit in memory, one partition at a time.
+    // The rows of a partition which doesn't fit in memory either are spilled again.
+    //
+    while (data.spillPartitions != null
+        && data.spillPartitions.hasPendingPartitions()
+        && !isStopped()) {
+      try (SpillPartition partition = data.spillPartitions.nextPartition()) {
+        if (log.isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(
+                  PKG, "GroupBy.Log.AggregatingSpilledRows", partition.getNrRows()));
+        }
+        try (SpillFileReader reader = partition.openReader()) {
+          while (reader.next()) {
+            addToHashAggregate(reader.getRow());
+          }
+        } catch (IOException e) {
+          throw new HopException(e);
+        }
+      }
+      nrGroups += writeHashGroups(writeRuns);
+    }
+    if (data.spillPartitions != null) {
+      data.spillPartitions.close();
+      data.spillPartitions = null;
+    }
+
+    if (writeRuns) {
+      mergeSortedRuns();
+    }
+
+    // What if we always need to give back one row?
+    //
+    if (nrGroups == 0 && meta.isAlwaysGivingBackOneRow()) {
+      data.counts = new long[data.subjectnrs.length];
+      newAggregate(null);
+      putRow(data.groupAggMeta, buildResult(null));
+    }
+  }
+
+  /**
+   * Write out the groups in the hash table and clear it.
+   *
+   * @param writeRun true to write the results to a new sorted run instead of passing them on
+   * @return the number of groups written
+   */
+  private long writeHashGroups(boolean writeRun) throws HopException {
+    List<Map.Entry<GroupByData.HashEntry, GroupByData.GroupState>> entries =
+        new ArrayList<>(data.map.entrySet());
+    if (meta.isSortedOutput()) {
+      entries.sort(
+          (one, two) -> {
+            try {
+              return data.groupMeta.compare(
+                  one.getKey().getGroupData(), two.getKey().getGroupData());
+            } catch (HopValueException e) {
+              throw new RuntimeException(e);
+            }
+          });
+    }
+
+    SpillFile run = null;
+    if (writeRun && !entries.isEmpty()) {
+      run =
+          new SpillFile(
+              data.groupAggMeta,
+              resolve(Const.NVL(meta.getPrefix(), "grp")),
+              resolve(Const.NVL(meta.getDirectory(), "${java.io.tmpdir}")),
+              true,
+              false,
+              this::addBytesSpilled);
+      data.sortedRuns.add(run);
+    }
+
+    for (Map.Entry<GroupByData.HashEntry, GroupByData.GroupState> mapEntry : entries) {
+      activate(mapEntry.getValue());
+      Object[] groupData = mapEntry.getKey().getGroupData();
+      Object[] result = RowDataUtil.allocateRowData(data.groupnrs.length);
+      System.arraycopy(groupData, 0, result, 0, groupData.length);
+      result = RowDataUtil.addRowData(result, data.groupnrs.length, getAggregateResult());
+
+      if (run != null) {
+        run.write(result);
+      } else {
+        putRow(data.groupAggMeta, result);
+      }
+    }
+    if (run != null) {
+      run.finishWriting();
+    }
+
+    long nrGroups = data.map.size();
+    data.map = new HashMap<>();
+    return nrGroups;
+  }
+
+  /** Merge the sorted runs of results on the group fields and pass the rows on. */
+  private void mergeSortedRuns() throws HopException {
+    int[] groupIndexes = new int[data.groupnrs.length];
+    for (int i = 0; i < groupIndexes.length; i++) {
+      groupIndexes[i] = i;
+    }
+    List<SpillFileReader> readers = new ArrayList<>();
+    try {
+      for (SpillFile run : data.sortedRuns) {
+        readers.add(run.openReader());
+      }
+      SpillRunMerger merger = new SpillRunMerger(readers, data.groupAggMeta, groupIndexes, false);
+      Object[] row = merger.next();
+      while (row != null && !isStopped()) {
+        putRow(data.groupAggMeta, row);
+        row = merger.next();
+      }
+    } finally {
+      for (SpillFileReader reader : readers) {
+        closeQuietly(reader);
+      }
+      for (SpillFile run : data.sortedRuns) {
+        run.close();
+      }
+      data.sortedRuns = null;
+    }
+  }
+
   private void handleLastOfGroup() throws HopException {
     if (meta.isPassAllRows()) {
       // ALL ROWS
@@ -822,109 +1058,53 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
   }
 
   // Method is defined as package-protected in order to be accessible by unit tests
-  void addToBuffer(Object[] row) throws HopFileException {
+  void addToBuffer(Object[] row) throws HopException {
     data.bufferList.add(row);
-    if (data.bufferList.size() > 5000 && data.rowsOnFile == 0) {
-      String pathToTmp = resolve(getMeta().getDirectory());
-      try {
-        File ioFile = new File(pathToTmp);
-        if (!ioFile.exists()) {
-          // try to resolve as Apache VFS file
-          pathToTmp = retrieveVfsPath(pathToTmp);
-        }
-        data.tempFile = File.createTempFile(getMeta().getPrefix(), ".tmp", new File(pathToTmp));
-        data.fosToTempFile = new FileOutputStream(data.tempFile);
-        data.dosToTempFile = new DataOutputStream(data.fosToTempFile);
-        data.firstRead = true;
-      } catch (IOException e) {
-        throw new HopFileException(
-            BaseMessages.getString(PKG, "GroupBy.Exception.UnableToCreateTemporaryFile"), e);
+    if (data.bufferList.size() > 5000) {
+      if (data.spillFile == null) {
+        data.spillFile =
+            new SpillFile(
+                data.inputRowMeta,
+                getMeta().getPrefix(),
+                resolve(getMeta().getDirectory()),
+                false,
+                false,
+                this::addBytesSpilled);
       }
       // OK, save the oldest rows to disk!
-      Object[] oldest = data.bufferList.get(0);
-      data.inputRowMeta.writeData(data.dosToTempFile, oldest);
-      data.bufferList.remove(0);
-      data.rowsOnFile++;
+      for (Object[] oldest : data.bufferList) {
+        data.spillFile.write(oldest);
+      }
+      data.bufferList.clear();
     }
   }
 
-  // Method is defined as public in order to be accessible by unit tests
-  public String retrieveVfsPath(String pathToTmp) throws HopFileException {
-    FileObject vfsFile = HopVfs.getFileObject(pathToTmp);
-    String path = vfsFile.getName().getPath();
-    return path;
-  }
-
-  private Object[] getRowFromBuffer() throws HopFileException {
-    if (data.rowsOnFile > 0) {
-      if (data.firstRead) {
-        // Open the inputstream first...
-        try {
-          data.fisToTmpFile = new FileInputStream(data.tempFile);
-          data.disToTmpFile = new DataInputStream(data.fisToTmpFile);
-          data.firstRead = false;
-        } catch (IOException e) {
-          throw new HopFileException(
-              BaseMessages.getString(PKG, "GroupBy.Exception.UnableToReadBackRowFromTemporaryFile"),
-              e);
-        }
+  private Object[] getRowFromBuffer() throws HopException {
+    if (data.spillFile != null) {
+      if (data.spillFileReader == null) {
+        data.spillFileReader = data.spillFile.openReader();
       }
-
       // Read one row from the file!
-      Object[] row;
-      try {
-        row = data.inputRowMeta.readData(data.disToTmpFile);
-      } catch (SocketTimeoutException e) {
-        throw new HopFileException(e); // Shouldn't happen on files
+      if (data.spillFileReader.next()) {
+        return data.spillFileReader.getRow();
       }
-      data.rowsOnFile--;
-
-      return row;
+    }
+    if (!data.bufferList.isEmpty()) {
+      return data.bufferList.remove(0);
     } else {
-      if (data.bufferList.size() > 0) {
-        Object[] row = data.bufferList.get(0);
-        data.bufferList.remove(0);
-        return row;
-      } else {
-        return null; // Nothing left!
-      }
+      return null; // Nothing left!
     }
   }
 
-  private void closeOutput() throws HopFileException {
-    try {
-      if (data.dosToTempFile != null) {
-        data.dosToTempFile.close();
-        data.dosToTempFile = null;
-      }
-      if (data.fosToTempFile != null) {
-        data.fosToTempFile.close();
-        data.fosToTempFile = null;
-      }
-      data.firstRead = true;
-    } catch (IOException e) {
-      throw new HopFileException(
-          BaseMessages.getString(
-              PKG, "GroupBy.Exception.UnableToCloseInputStream", data.tempFile.getPath()),
-          e);
+  /** Close and remove the temporary file of the group, if any */
+  private void closeInput() {
+    if (data.spillFileReader != null) {
+      closeQuietly(data.spillFileReader);
+      data.spillFileReader = null;
     }
-  }
-
-  private void closeInput() throws HopFileException {
-    try {
-      if (data.fisToTmpFile != null) {
-        data.fisToTmpFile.close();
-        data.fisToTmpFile = null;
-      }
-      if (data.disToTmpFile != null) {
-        data.disToTmpFile.close();
-        data.disToTmpFile = null;
-      }
-    } catch (IOException e) {
-      throw new HopFileException(
-          BaseMessages.getString(
-              PKG, "GroupBy.Exception.UnableToCloseInputStream", data.tempFile.getPath()),
-          e);
+    if (data.spillFile != null) {
+      data.spillFile.close();
+      data.spillFile = null;
     }
   }
 
@@ -934,7 +1114,14 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
     if (super.init()) {
       data.bufferList = new ArrayList<>();
 
-      data.rowsOnFile = 0;
+      if (meta.isHashAggregation()) {
+        if (meta.isPassAllRows()) {
+          logError(BaseMessages.getString(PKG, "GroupBy.Log.HashAggregationAllRows"));
+          return false;
+        }
+        data.map = new HashMap<>();
+        data.maxGroupsInMemory = Const.toInt(resolve(meta.getMaxGroupsInMemory()), 0);
+      }
 
       return true;
     }
@@ -943,30 +1130,19 @@ public class GroupBy extends BaseTransform<GroupByMeta, GroupByData> {
 
   @Override
   public void dispose() {
-
-    if (data.tempFile != null) {
-      try {
-        closeInput();
-        closeOutput();
-      } catch (HopFileException e) {
-        log.logError(e.getLocalizedMessage());
-      }
-
-      boolean tempFileDeleted = data.tempFile.delete();
-
-      if (!tempFileDeleted && log.isDetailed()) {
-        log.logDetailed(
-            BaseMessages.getString(
-                PKG, "GroupBy.Exception.UnableToDeleteTemporaryFile", data.tempFile.getPath()));
-      }
-    }
+    closeInput();
+    data.clearHashAggregation();
 
     super.dispose();
   }
 
   @Override
   public void batchComplete() throws HopException {
-    handleLastOfGroup();
+    if (meta.isHashAggregation()) {
+      handleLastOfHashGroups();
+    } else {
+      handleLastOfGroup();
+    }
     data.newBatch = true;
   }
 
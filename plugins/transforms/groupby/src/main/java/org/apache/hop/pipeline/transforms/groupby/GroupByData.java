@@ -17,16 +17,16 @@
 
 package org.apache.hop.pipeline.transforms.groupby;
 
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Set;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.spill.SpillFile;
+import org.apache.hop.core.spill.SpillFileReader;
+import org.apache.hop.core.spill.SpillPartitions;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -53,18 +53,10 @@ public class GroupByData extends BaseTransformData implements ITransformData {
 
   public ArrayList<Object[]> bufferList;
 
-  public File tempFile;
+  /** The oldest rows of the current group when passing all rows, if there are a lot of them */
+  public SpillFile spillFile;
 
-  public FileOutputStream fosToTempFile;
-
-  public DataOutputStream dosToTempFile;
-
-  public int rowsOnFile;
-
-  public boolean firstRead;
-
-  public FileInputStream fisToTmpFile;
-  public DataInputStream disToTmpFile;
+  public SpillFileReader spillFileReader;
 
   public Object[] groupResult;
 
@@ -92,9 +84,94 @@ public class GroupByData extends BaseTransformData implements ITransformData {
 
   public boolean newBatch;
 
+  /** The groups aggregated in memory when aggregating with a hash table */
+  public HashMap<HashEntry, GroupState> map;
+
+  /** The maximum number of groups to keep in memory, 0 or less means there is no limit */
+  public int maxGroupsInMemory;
+
+  /** The partitions spilled to disk while aggregating, null as long as nothing was spilled */
+  public SpillPartitions spillPartitions;
+
+  /** The sorted runs of result rows to merge if the output is sorted and groups were spilled */
+  public List<SpillFile> sortedRuns;
+
   public GroupByData() {
     super();
 
     previous = null;
   }
+
+  public HashEntry getHashEntry(Object[] groupData) {
+    return new HashEntry(groupData);
+  }
+
+  /** Method responsible for clearing out the hash table and the temporary files */
+  public void clearHashAggregation() {
+    map = new HashMap<>();
+    if (spillPartitions != null) {
+      spillPartitions.close();
+      spillPartitions = null;
+    }
+    if (sortedRuns != null) {
+      for (SpillFile run : sortedRuns) {
+        run.close();
+      }
+      sortedRuns = null;
+    }
+  }
+
+  /** The key of a group in the hash table: the values of the group fields. */
+  public class HashEntry {
+    private final Object[] groupData;
+
+    public HashEntry(Object[] groupData) {
+      this.groupData = groupData;
+    }
+
+    public Object[] getGroupData() {
+      return groupData;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      HashEntry entry = (HashEntry) obj;
+
+      try {
+        return groupMeta.compare(groupData, entry.groupData) == 0;
+      } catch (HopValueException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      try {
+        return groupMeta.hashCode(getHashValue());
+      } catch (HopValueException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    private Object[] getHashValue() throws HopValueException {
+      Object[] groupDataHash = new Object[groupMeta.size()];
+      for (int i = 0; i < groupMeta.size(); i++) {
+        IValueMeta valueMeta = groupMeta.getValueMeta(i);
+        groupDataHash[i] = valueMeta.convertToNormalStorageType(groupData[i]);
+      }
+      return groupDataHash;
+    }
+  }
+
+  /**
+   * The aggregation state of one group in the hash table. While a row of the group is aggregated
+   * this state is the current one: {@link #agg}, {@link #counts}, {@link #mean} and {@link
+   * #distinctObjs} refer to it.
+   */
+  public static class GroupState {
+    public Object[] agg;
+    public long[] counts;
+    public double[] mean;
+    public Set<Object>[] distinctObjs;
+  }
 }
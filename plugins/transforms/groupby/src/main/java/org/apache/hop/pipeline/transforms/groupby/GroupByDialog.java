@@ -84,6 +84,16 @@ public class GroupByDialog extends BaseTransformDialog implements ITransformDial
 
   private Button wAlwaysAddResult;
 
+  private Button wHashAggregation;
+
+  private Label wlSortedOutput;
+
+  private Button wSortedOutput;
+
+  private Label wlMaxGroupsInMemory;
+
+  private TextVar wMaxGroupsInMemory;
+
   private GroupByMeta input;
 
   private boolean backupAllRows;
@@ -289,12 +299,91 @@ public class GroupByDialog extends BaseTransformDialog implements ITransformDial
           }
         });
 
+    // Aggregate in a hash table, the input doesn't need to be sorted
+    //
+    Label wlHashAggregation = new Label(shell, SWT.RIGHT);
+    wlHashAggregation.setText(BaseMessages.getString(PKG, "GroupByDialog.HashAggregation.Label"));
+    wlHashAggregation.setToolTipText(
+        BaseMessages.getString(PKG, "GroupByDialog.HashAggregation.ToolTip"));
+    PropsUi.setLook(wlHashAggregation);
+    FormData fdlHashAggregation = new FormData();
+    fdlHashAggregation.left = new FormAttachment(0, 0);
+    fdlHashAggregation.top = new FormAttachment(wAlwaysAddResult, margin);
+    fdlHashAggregation.right = new FormAttachment(middle, -margin);
+    wlHashAggregation.setLayoutData(fdlHashAggregation);
+    wHashAggregation = new Button(shell, SWT.CHECK);
+    wHashAggregation.setToolTipText(
+        BaseMessages.getString(PKG, "GroupByDialog.HashAggregation.ToolTip"));
+    PropsUi.setLook(wHashAggregation);
+    FormData fdHashAggregation = new FormData();
+    fdHashAggregation.left = new FormAttachment(middle, 0);
+    fdHashAggregation.top = new FormAttachment(wlHashAggregation, 0, SWT.CENTER);
+    fdHashAggregation.right = new FormAttachment(100, 0);
+    wHashAggregation.setLayoutData(fdHashAggregation);
+    wHashAggregation.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+            setFlags();
+          }
+        });
+
+    // Sort the groups when aggregating in a hash table
+    //
+    wlSortedOutput = new Label(shell, SWT.RIGHT);
+    wlSortedOutput.setText(BaseMessages.getString(PKG, "GroupByDialog.SortedOutput.Label"));
+    PropsUi.setLook(wlSortedOutput);
+    FormData fdlSortedOutput = new FormData();
+    fdlSortedOutput.left = new FormAttachment(0, 0);
+    fdlSortedOutput.top = new FormAttachment(wHashAggregation, margin);
+    fdlSortedOutput.right = new FormAttachment(middle, -margin);
+    wlSortedOutput.setLayoutData(fdlSortedOutput);
+    wSortedOutput = new Button(shell, SWT.CHECK);
+    PropsUi.setLook(wSortedOutput);
+    FormData fdSortedOutput = new FormData();
+    fdSortedOutput.left = new FormAttachment(middle, 0);
+    fdSortedOutput.top = new FormAttachment(wlSortedOutput, 0, SWT.CENTER);
+    fdSortedOutput.right = new FormAttachment(100, 0);
+    wSortedOutput.setLayoutData(fdSortedOutput);
+    wSortedOutput.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+
+    // The maximum number of groups in memory when aggregating in a hash table
+    //
+    wlMaxGroupsInMemory = new Label(shell, SWT.RIGHT);
+    wlMaxGroupsInMemory.setText(
+        BaseMessages.getString(PKG, "GroupByDialog.MaxGroupsInMemory.Label"));
+    wlMaxGroupsInMemory.setToolTipText(
+        BaseMessages.getString(PKG, "GroupByDialog.MaxGroupsInMemory.ToolTip"));
+    PropsUi.setLook(wlMaxGroupsInMemory);
+    FormData fdlMaxGroupsInMemory = new FormData();
+    fdlMaxGroupsInMemory.left = new FormAttachment(0, 0);
+    fdlMaxGroupsInMemory.top = new FormAttachment(wSortedOutput, margin);
+    fdlMaxGroupsInMemory.right = new FormAttachment(middle, -margin);
+    wlMaxGroupsInMemory.setLayoutData(fdlMaxGroupsInMemory);
+    wMaxGroupsInMemory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMaxGroupsInMemory.setToolTipText(
+        BaseMessages.getString(PKG, "GroupByDialog.MaxGroupsInMemory.ToolTip"));
+    PropsUi.setLook(wMaxGroupsInMemory);
+    wMaxGroupsInMemory.addModifyListener(lsMod);
+    FormData fdMaxGroupsInMemory = new FormData();
+    fdMaxGroupsInMemory.left = new FormAttachment(middle, 0);
+    fdMaxGroupsInMemory.top = new FormAttachment(wlMaxGroupsInMemory, 0, SWT.CENTER);
+    fdMaxGroupsInMemory.right = new FormAttachment(100, 0);
+    wMaxGroupsInMemory.setLayoutData(fdMaxGroupsInMemory);
+
     Label wlGroup = new Label(shell, SWT.NONE);
     wlGroup.setText(BaseMessages.getString(PKG, "GroupByDialog.Group.Label"));
     PropsUi.setLook(wlGroup);
     FormData fdlGroup = new FormData();
     fdlGroup.left = new FormAttachment(0, 0);
-    fdlGroup.top = new FormAttachment(wAlwaysAddResult, margin);
+    fdlGroup.top = new FormAttachment(wMaxGroupsInMemory, margin);
     wlGroup.setLayoutData(fdlGroup);
 
     int nrKeyCols = 1;
@@ -452,11 +541,19 @@ public class GroupByDialog extends BaseTransformDialog implements ITransformDial
   }
 
   public void setFlags() {
-    wlSortDir.setEnabled(wAllRows.getSelection());
-    wbSortDir.setEnabled(wAllRows.getSelection());
-    wSortDir.setEnabled(wAllRows.getSelection());
-    wlPrefix.setEnabled(wAllRows.getSelection());
-    wPrefix.setEnabled(wAllRows.getSelection());
+    // The temporary files are used to pass all rows or to spill groups of the hash table
+    //
+    boolean hashAggregation = wHashAggregation.getSelection();
+    boolean temporaryFiles = wAllRows.getSelection() || hashAggregation;
+    wlSortDir.setEnabled(temporaryFiles);
+    wbSortDir.setEnabled(temporaryFiles);
+    wSortDir.setEnabled(temporaryFiles);
+    wlPrefix.setEnabled(temporaryFiles);
+    wPrefix.setEnabled(temporaryFiles);
+    wlSortedOutput.setEnabled(hashAggregation);
+    wSortedOutput.setEnabled(hashAggregation);
+    wlMaxGroupsInMemory.setEnabled(hashAggregation);
+    wMaxGroupsInMemory.setEnabled(hashAggregation);
     wlAddLineNr.setEnabled(wAllRows.getSelection());
     wAddLineNr.setEnabled(wAllRows.getSelection());
 
@@ -481,6 +578,9 @@ public class GroupByDialog extends BaseTransformDialog implements ITransformDial
       wLineNrField.setText(input.getLineNrInGroupField());
     }
     wAlwaysAddResult.setSelection(input.isAlwaysGivingBackOneRow());
+    wHashAggregation.setSelection(input.isHashAggregation());
+    wSortedOutput.setSelection(input.isSortedOutput());
+    wMaxGroupsInMemory.setText(Const.NVL(input.getMaxGroupsInMemory(), ""));
 
     if (input.getGroupingFields() != null) {
       for (int i = 0; i < input.getGroupingFields().size(); i++) {
@@ -532,6 +632,9 @@ public class GroupByDialog extends BaseTransformDialog implements ITransformDial
     input.setLineNrInGroupField(wLineNrField.getText());
     input.setAlwaysGivingBackOneRow(wAlwaysAddResult.getSelection());
     input.setPassAllRows(wAllRows.getSelection());
+    input.setHashAggregation(wHashAggregation.getSelection());
+    input.setSortedOutput(wSortedOutput.getSelection());
+    input.setMaxGroupsInMemory(wMaxGroupsInMemory.getText());
 
     input.getGroupingFields().clear();
     for (int i = 0; i < sizegroup; i++) {
@@ -552,7 +655,10 @@ public class GroupByDialog extends BaseTransformDialog implements ITransformDial
 
     transformName = wTransformName.getText();
 
+    // The input doesn't need to be sorted when aggregating in a hash table
+    //
     if (sizegroup > 0
+        && !input.isHashAggregation()
         && "Y".equalsIgnoreCase(props.getCustomParameter(STRING_SORT_WARNING_PARAMETER, "Y"))) {
       MessageDialogWithToggle md =
           new MessageDialogWithToggle(
@@ -117,6 +117,30 @@ public class GroupByMeta extends BaseTransformMeta<GroupBy, GroupByData> {
       injectionKeyDescription = "GroupByMeta.Injection.ALWAYS_GIVE_ROW")
   private boolean alwaysGivingBackOneRow;
 
+  /** Aggregate the groups in a hash table so that the input doesn't need to be sorted */
+  @HopMetadataProperty(
+      key = "hash_aggregation",
+      injectionKey = "HASH_AGGREGATION",
+      injectionKeyDescription = "GroupByMeta.Injection.HASH_AGGREGATION")
+  private boolean hashAggregation;
+
+  /**
+   * The maximum number of groups to keep in memory when aggregating with a hash table. The rows of
+   * the other groups are spilled to disk and aggregated afterwards. Empty or 0 means no limit.
+   */
+  @HopMetadataProperty(
+      key = "max_groups_in_memory",
+      injectionKey = "MAX_GROUPS_IN_MEMORY",
+      injectionKeyDescription = "GroupByMeta.Injection.MAX_GROUPS_IN_MEMORY")
+  private String maxGroupsInMemory;
+
+  /** Sort the groups on the group fields when aggregating with a hash table */
+  @HopMetadataProperty(
+      key = "sorted_output",
+      injectionKey = "SORTED_OUTPUT",
+      injectionKeyDescription = "GroupByMeta.Injection.SORTED_OUTPUT")
+  private boolean sortedOutput;
+
   public GroupByMeta() {
     super(); // allocate BaseTransformMeta
     groupingFields = new ArrayList<>();
@@ -372,6 +396,15 @@ public class GroupByMeta extends BaseTransformMeta<GroupBy, GroupByData> {
               transformMeta);
       remarks.add(cr);
     }
+
+    if (hashAggregation && passAllRows) {
+      cr =
+          new CheckResult(
+              ICheckResult.TYPE_RESULT_ERROR,
+              BaseMessages.getString(PKG, "GroupByMeta.CheckResult.HashAggregationAllRows"),
+              transformMeta);
+      remarks.add(cr);
+    }
   }
 
   /**
@@ -444,6 +477,51 @@ public class GroupByMeta extends BaseTransformMeta<GroupBy, GroupByData> {
     this.alwaysGivingBackOneRow = alwaysGivingBackOneRow;
   }
 
+  /**
+   * @return true if the groups are aggregated in a hash table and the input doesn't need to be
+   *     sorted
+   */
+  public boolean isHashAggregation() {
+    return hashAggregation;
+  }
+
+  /**
+   * @param hashAggregation true to aggregate the groups in a hash table
+   */
+  public void setHashAggregation(boolean hashAggregation) {
+    this.hashAggregation = hashAggregation;
+  }
+
+  /**
+   * @return The maximum number of groups to keep in memory when aggregating with a hash table
+   */
+  public String getMaxGroupsInMemory() {
+    return maxGroupsInMemory;
+  }
+
+  /**
+   * @param maxGroupsInMemory The maximum number of groups to keep in memory when aggregating with a
+   *     hash table
+   */
+  public void setMaxGroupsInMemory(String maxGroupsInMemory) {
+    this.maxGroupsInMemory = maxGroupsInMemory;
+  }
+
+  /**
+   * @return true if the groups are sorted on the group fields when aggregating with a hash table
+   */
+  public boolean isSortedOutput() {
+    return sortedOutput;
+  }
+
+  /**
+   * @param sortedOutput true to sort the groups on the group fields when aggregating with a hash
+   *     table
+   */
+  public void setSortedOutput(boolean sortedOutput) {
+    this.sortedOutput = sortedOutput;
+  }
+
   @Override
   public PipelineMeta.PipelineType[] getSupportedPipelineTypes() {
     return new PipelineMeta.PipelineType[] {PipelineMeta.PipelineType.Normal};
@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.groupby;
+
+import static org.apache.hop.pipeline.transforms.mock.TransformMockHelper.createKeyRowMeta;
+import static org.apache.hop.pipeline.transforms.mock.TransformMockHelper.createKeyRows;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GroupByHashAggregationTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private TransformMockHelper<GroupByMeta, GroupByData> mockHelper;
+
+  @Before
+  public void setUp() {
+    mockHelper = new TransformMockHelper<>("Group by", GroupByMeta.class, GroupByData.class);
+    mockHelper.initRunningPipeline();
+  }
+
+  @After
+  public void cleanUp() {
+    mockHelper.cleanUp();
+  }
+
+  private List<Object[]> createRows(int nrRows, int nrGroups) {
+    return createKeyRows(nrRows, nrGroups, 7L);
+  }
+
+  private static Aggregation aggregation(String field, int type) {
+    return new Aggregation(field, "id", Aggregation.getTypeDescLongFromCode(type), null);
+  }
+
+  private GroupByMeta createMeta(boolean hashAggregation, String maxGroupsInMemory) {
+    GroupByMeta meta = new GroupByMeta();
+    meta.setDefault();
+    meta.getGroupingFields().add(new GroupingField("key"));
+    meta.getAggregations().add(aggregation("sum", Aggregation.TYPE_GROUP_SUM));
+    meta.getAggregations().add(aggregation("count", Aggregation.TYPE_GROUP_COUNT_ALL));
+    meta.getAggregations().add(aggregation("distinct", Aggregation.TYPE_GROUP_COUNT_DISTINCT));
+    meta.getAggregations().add(aggregation("first", Aggregation.TYPE_GROUP_FIRST_INCL_NULL));
+    meta.getAggregations().add(aggregation("last", Aggregation.TYPE_GROUP_LAST));
+    meta.getAggregations().add(aggregation("list", Aggregation.TYPE_GROUP_CONCAT_COMMA));
+    meta.getAggregations().add(aggregation("median", Aggregation.TYPE_GROUP_MEDIAN));
+    meta.getAggregations().add(aggregation("stddev", Aggregation.TYPE_GROUP_STANDARD_DEVIATION));
+    meta.setHashAggregation(hashAggregation);
+    meta.setMaxGroupsInMemory(maxGroupsInMemory);
+    meta.setDirectory(tempFolder.getRoot().getAbsolutePath());
+    return meta;
+  }
+
+  private List<Object[]> groupBy(GroupByMeta meta, List<Object[]> rows) throws HopException {
+    GroupBy groupBy =
+        new GroupBy(
+            mockHelper.transformMeta,
+            meta,
+            new GroupByData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+
+    List<Object[]> output = new ArrayList<>();
+    for (Object[] row : mockHelper.processRows(groupBy, createKeyRowMeta(), rows)) {
+      output.add(Arrays.copyOf(row, 1 + meta.getAggregations().size()));
+    }
+
+    // All the temporary files are removed
+    //
+    assertEquals(0, tempFolder.getRoot().list().length);
+    return output;
+  }
+
+  /** Group the rows the classic way: sorted on the key, keeping the order of the rows in a group */
+  private Map<String, Object[]> groupSorted(List<Object[]> rows) throws HopException {
+    List<Object[]> sorted = new ArrayList<>(rows);
+    sorted.sort(Comparator.comparing(row -> (String) row[0]));
+
+    Map<String, Object[]> groups = new HashMap<>();
+    for (Object[] row : groupBy(createMeta(false, null), sorted)) {
+      assertNull(groups.put((String) row[0], row));
+    }
+    return groups;
+  }
+
+  private void assertSameGroups(Map<String, Object[]> expected, List<Object[]> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (Object[] row : actual) {
+      assertArrayEquals(Arrays.toString(row), expected.get((String) row[0]), row);
+    }
+  }
+
+  private void assertSortedOnKey(List<Object[]> rows) {
+    for (int i = 1; i < rows.size(); i++) {
+      assertTrue(((String) rows.get(i - 1)[0]).compareTo((String) rows.get(i)[0]) < 0);
+    }
+  }
+
+  @Test
+  public void testUnsortedInput() throws Exception {
+    List<Object[]> rows = createRows(2000, 200);
+    Map<String, Object[]> expected = groupSorted(rows);
+    assertEquals(200, expected.size());
+
+    assertSameGroups(expected, groupBy(createMeta(true, null), rows));
+  }
+
+  @Test
+  public void testSpillToDisk() throws Exception {
+    List<Object[]> rows = createRows(5000, 1000);
+    Map<String, Object[]> expected = groupSorted(rows);
+
+    assertSameGroups(expected, groupBy(createMeta(true, "100"), rows));
+
+    // The spilled partitions don't fit in memory either and are spilled again
+    //
+    assertSameGroups(expected, groupBy(createMeta(true, "10"), rows));
+  }
+
+  @Test
+  public void testSortedOutput() throws Exception {
+    List<Object[]> rows = createRows(5000, 1000);
+    Map<String, Object[]> expected = groupSorted(rows);
+
+    for (String maxGroupsInMemory : new String[] {null, "100"}) {
+      GroupByMeta meta = createMeta(true, maxGroupsInMemory);
+      meta.setSortedOutput(true);
+      List<Object[]> output = groupBy(meta, rows);
+      assertSameGroups(expected, output);
+      assertSortedOnKey(output);
+    }
+  }
+
+  @Test
+  public void testAlwaysGiveBackOneRow() throws Exception {
+    GroupByMeta meta = createMeta(true, null);
+    meta.setAlwaysGivingBackOneRow(true);
+    List<Object[]> output = groupBy(meta, new ArrayList<>());
+    assertEquals(1, output.size());
+    assertNull(output.get(0)[0]);
+    assertEquals(0L, output.get(0)[2]);
+  }
+
+  @Test
+  public void testAllRowsNotPossible() {
+    GroupByMeta meta = createMeta(true, null);
+    meta.setPassAllRows(true);
+    GroupBy groupBy =
+        new GroupBy(
+            mockHelper.transformMeta,
+            meta,
+            new GroupByData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    assertFalse(groupBy.init());
+  }
+}
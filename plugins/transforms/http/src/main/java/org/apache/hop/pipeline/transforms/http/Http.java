@@ -18,11 +18,13 @@
 package org.apache.hop.pipeline.transforms.http;
 
 import com.google.common.annotations.VisibleForTesting;
+import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import org.apache.commons.lang.StringUtils;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
@@ -38,6 +40,7 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.utils.RequestsInFlight;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
@@ -70,52 +73,88 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
+  /** The outcome of the request for one input row */
+  static class Response {
+    private final Object[] inputRow;
+    private final Object[] outputRow;
+    private final HopException exception;
+
+    Response(Object[] inputRow, Object[] outputRow, HopException exception) {
+      this.inputRow = inputRow;
+      this.outputRow = outputRow;
+      this.exception = exception;
+    }
+  }
+
   private Object[] execHttp(IRowMeta rowMeta, Object[] row) throws HopException {
     if (first) {
       first = false;
-      data.argnrs = new int[meta.getArgumentField().length];
-
-      for (int i = 0; i < meta.getArgumentField().length; i++) {
-        data.argnrs[i] = rowMeta.indexOfValue(meta.getArgumentField()[i]);
-        if (data.argnrs[i] < 0) {
-          logError(
-              BaseMessages.getString(PKG, "HTTP.Log.ErrorFindingField")
-                  + meta.getArgumentField()[i]
-                  + "]");
-          throw new HopTransformException(
-              BaseMessages.getString(
-                  PKG, "HTTP.Exception.CouldnotFindField", meta.getArgumentField()[i]));
-        }
-      }
+      lookupArgumentFields(rowMeta);
     }
 
     return callHttpService(rowMeta, row);
   }
 
+  private void lookupArgumentFields(IRowMeta rowMeta) throws HopTransformException {
+    data.argnrs = new int[meta.getArgumentField().length];
+
+    for (int i = 0; i < meta.getArgumentField().length; i++) {
+      data.argnrs[i] = rowMeta.indexOfValue(meta.getArgumentField()[i]);
+      if (data.argnrs[i] < 0) {
+        logError(
+            BaseMessages.getString(PKG, "HTTP.Log.ErrorFindingField")
+                + meta.getArgumentField()[i]
+                + "]");
+        throw new HopTransformException(
+            BaseMessages.getString(
+                PKG, "HTTP.Exception.CouldnotFindField", meta.getArgumentField()[i]));
+      }
+    }
+  }
+
   @VisibleForTesting
   Object[] callHttpService(IRowMeta rowMeta, Object[] rowData) throws HopException {
-    HttpClientManager.HttpClientBuilderFacade clientBuilder =
-        HttpClientManager.getInstance().createBuilder();
+    return executeRequest(rowMeta, rowData, createRequest(rowMeta, rowData));
+  }
 
-    if (data.realConnectionTimeout > -1) {
-      clientBuilder.setConnectionTimeout(data.realConnectionTimeout);
-    }
-    if (data.realSocketTimeout > -1) {
-      clientBuilder.setSocketTimeout(data.realSocketTimeout);
-    }
-    if (StringUtils.isNotBlank(data.realHttpLogin)) {
-      clientBuilder.setCredentials(data.realHttpLogin, data.realHttpPassword);
-    }
-    if (StringUtils.isNotBlank(data.realProxyHost)) {
-      clientBuilder.setProxy(data.realProxyHost, data.realProxyPort);
-    }
-    if (meta.isIgnoreSsl()) {
-      clientBuilder.ignoreSsl(true);
-    }
+  /**
+   * The client is created once and used for all the requests of this transform copy so that the
+   * connections are kept open and re-used.
+   */
+  private CloseableHttpClient getHttpClient() {
+    if (data.httpClient == null) {
+      HttpClientManager.HttpClientBuilderFacade clientBuilder =
+          HttpClientManager.getInstance().createBuilder();
+
+      if (data.realConnectionTimeout > -1) {
+        clientBuilder.setConnectionTimeout(data.realConnectionTimeout);
+      }
+      if (data.realSocketTimeout > -1) {
+        clientBuilder.setSocketTimeout(data.realSocketTimeout);
+      }
+      if (StringUtils.isNotBlank(data.realHttpLogin)) {
+        clientBuilder.setCredentials(data.realHttpLogin, data.realHttpPassword);
+      }
+      if (StringUtils.isNotBlank(data.realProxyHost)) {
+        clientBuilder.setProxy(data.realProxyHost, data.realProxyPort);
+      }
+      if (meta.isIgnoreSsl()) {
+        clientBuilder.ignoreSsl(true);
+      }
+      if (data.maxConnectionsPerHost > 0) {
+        clientBuilder.setMaxConnectionsPerRoute(data.maxConnectionsPerHost);
+      }
 
-    CloseableHttpClient httpClient = clientBuilder.build();
+      data.httpClient = clientBuilder.build();
 
-    // Prepare Http get
+      // Only a client with a connection pool of its own can be closed
+      data.closeHttpClient = data.maxConnectionsPerHost > 0 || meta.isIgnoreSsl();
+    }
+    return data.httpClient;
+  }
+
+  /** Build the request for a row, this is done on the transform thread. */
+  private HttpGet createRequest(IRowMeta rowMeta, Object[] rowData) throws HopException {
     URI uri = null;
     try {
       URIBuilder uriBuilder = constructUrlBuilder(rowMeta, rowData);
@@ -139,7 +178,20 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
           }
         }
       }
+      return method;
+    } catch (Exception e) {
+      throw new HopException(BaseMessages.getString(PKG, "HTTP.Log.UnableGetResult", uri), e);
+    }
+  }
 
+  /**
+   * Execute the request of a row and add the results to it. This doesn't convert any values of the
+   * row so that requests can be executed in parallel.
+   */
+  private Object[] executeRequest(IRowMeta rowMeta, Object[] rowData, HttpGet method)
+      throws HopException {
+    URI uri = method.getURI();
+    try {
       Object[] newRow = null;
       if (rowData != null) {
         newRow = rowData.clone();
@@ -166,8 +218,7 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
         HttpClientContext localContext = HttpClientContext.create();
         localContext.setAuthCache(authCache);
 
-        httpResponse = httpClient.execute(target, method, localContext);
-
+        httpResponse = getHttpClient().execute(target, method, localContext);
         // calculate the responseTime
         long responseTime = System.currentTimeMillis() - startTime;
         if (log.isDetailed()) {
@@ -300,7 +351,10 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
 
     boolean firstWithoutPreviousTransforms = first && data.withoutPreviousTransforms;
     if (r == null && !firstWithoutPreviousTransforms) {
-      setOutputDone();
+      if (data.requestsInFlight == null
+          || data.requestsInFlight.writePending(this::writeResponse)) {
+        setOutputDone();
+      }
       return false;
     }
 
@@ -360,6 +414,10 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
       }
     } // end if first
 
+    if (data.requestsInFlight != null && !data.withoutPreviousTransforms) {
+      return processRowInParallel(r);
+    }
+
     try {
       Object[] outputRowData = execHttp(data.inputRowMeta, r); // add new values to the row
       putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
@@ -370,25 +428,78 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
         }
       }
     } catch (HopException e) {
-      boolean sendToErrorRow = false;
-      String errorMessage = null;
+      return handleError(r, e);
+    }
 
-      if (getTransformMeta().isDoingErrorHandling()) {
-        sendToErrorRow = true;
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "HTTP.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
-        return false;
+    return true;
+  }
+
+  /**
+   * Send the request of a row without waiting for the response, keeping up to the configured number
+   * of requests in flight. The responses are written in input or completion order.
+   */
+  private boolean processRowInParallel(Object[] r) throws HopException {
+    if (first) {
+      first = false;
+      lookupArgumentFields(data.inputRowMeta);
+      getHttpClient();
+    }
+
+    return data.requestsInFlight.submit(createRequestTask(r), this::writeResponse);
+  }
+
+  private Callable<Response> createRequestTask(Object[] r) {
+    HttpGet method;
+    try {
+      method = createRequest(data.inputRowMeta, r);
+    } catch (HopException e) {
+      return () -> new Response(r, null, e);
+    }
+    return () -> {
+      try {
+        return new Response(r, executeRequest(data.inputRowMeta, r, method), null);
+      } catch (HopException e) {
+        return new Response(r, null, e);
       }
-      if (sendToErrorRow) {
-        // Simply add this row to the error row
-        putError(data.inputRowMeta, r, 1, errorMessage, null, "HTTP001");
+    };
+  }
+
+  private boolean writeResponse(Response response) throws HopException {
+    if (response.exception != null) {
+      return handleError(response.inputRow, response.exception);
+    }
+    try {
+      putRow(data.outputRowMeta, response.outputRow);
+
+      if (checkFeedback(getLinesRead())) {
+        if (isDetailed()) {
+          logDetailed(BaseMessages.getString(PKG, "HTTP.LineNumber") + getLinesRead());
+        }
       }
+    } catch (HopException e) {
+      return handleError(response.inputRow, e);
     }
+    return true;
+  }
 
+  private boolean handleError(Object[] r, HopException e) throws HopException {
+    boolean sendToErrorRow = false;
+    String errorMessage = null;
+
+    if (getTransformMeta().isDoingErrorHandling()) {
+      sendToErrorRow = true;
+      errorMessage = e.toString();
+    } else {
+      logError(BaseMessages.getString(PKG, "HTTP.ErrorInTransformRunning") + e.getMessage());
+      setErrors(1);
+      stopAll();
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+    if (sendToErrorRow) {
+      // Simply add this row to the error row
+      putError(data.inputRowMeta, r, 1, errorMessage, null, "HTTP001");
+    }
     return true;
   }
 
@@ -408,8 +519,62 @@ public class Http extends BaseTransform<HttpMeta, HttpData> {
       data.withoutPreviousTransforms =
           getPipelineMeta().getPrevTransforms(getTransformMeta()).length == 0;
 
+      data.parallelRequests = Math.max(1, Const.toInt(resolve(meta.getParallelRequests()), 1));
+      data.maxConnectionsPerHost =
+          Const.toInt(
+              resolve(meta.getMaxConnectionsPerHost()),
+              data.parallelRequests > 1 ? data.parallelRequests : 0);
+
+      if (data.parallelRequests > 1) {
+        // The request threads share one client: without a pooled connection per thread they would
+        // fight over a single connection.
+        //
+        if (data.maxConnectionsPerHost < data.parallelRequests) {
+          logBasic(
+              BaseMessages.getString(
+                  PKG,
+                  "HTTP.Log.MaxConnectionsPerHostRaised",
+                  data.maxConnectionsPerHost,
+                  data.parallelRequests));
+          data.maxConnectionsPerHost = data.parallelRequests;
+        }
+
+        data.requestsInFlight =
+            new RequestsInFlight<>(
+                getTransformName() + " request ",
+                data.parallelRequests,
+                meta.isKeepingInputOrder());
+        if (isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(
+                  PKG,
+                  "HTTP.Log.ParallelRequests",
+                  data.parallelRequests,
+                  data.maxConnectionsPerHost));
+        }
+      }
+
       return true;
     }
     return false;
   }
+
+  @Override
+  public void dispose() {
+    if (data.requestsInFlight != null) {
+      data.requestsInFlight.shutdown();
+      data.requestsInFlight = null;
+    }
+    if (data.httpClient != null) {
+      if (data.closeHttpClient) {
+        try {
+          data.httpClient.close();
+        } catch (IOException e) {
+          logError(BaseMessages.getString(PKG, "HTTP.Log.UnableToCloseClient"), e);
+        }
+      }
+      data.httpClient = null;
+    }
+    super.dispose();
+  }
 }
@@ -20,7 +20,9 @@ package org.apache.hop.pipeline.transforms.http;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transform.utils.RequestsInFlight;
 import org.apache.http.NameValuePair;
+import org.apache.http.impl.client.CloseableHttpClient;
 
 public class HttpData extends BaseTransformData implements ITransformData {
   public int[] argnrs;
@@ -40,6 +42,18 @@ public class HttpData extends BaseTransformData implements ITransformData {
   public int realConnectionTimeout;
   public boolean withoutPreviousTransforms;
 
+  /** The client used for all the requests of this transform copy */
+  public CloseableHttpClient httpClient;
+
+  /** Close the client when the transform is done, it doesn't use the shared connection pool */
+  public boolean closeHttpClient;
+
+  public int parallelRequests;
+  public int maxConnectionsPerHost;
+
+  /** Runs the requests when more than one request is kept in flight */
+  public RequestsInFlight<Http.Response> requestsInFlight;
+
   /** Default constructor. */
   public HttpData() {
     super();
@@ -48,5 +62,6 @@ public class HttpData extends BaseTransformData implements ITransformData {
     realProxyPort = 8080;
     realHttpLogin = null;
     realHttpPassword = null;
+    parallelRequests = 1;
   }
 }
@@ -113,6 +113,12 @@ public class HttpDialog extends BaseTransformDialog implements ITransformDialog
 
   private TextVar wCloseIdleConnectionsTime;
 
+  private TextVar wParallelRequests;
+
+  private TextVar wMaxConnectionsPerHost;
+
+  private Button wKeepInputOrder;
+
   public HttpDialog(
       Shell parent, IVariables variables, Object in, PipelineMeta pipelineMeta, String sname) {
     super(parent, variables, (BaseTransformMeta) in, pipelineMeta, sname);
@@ -174,6 +180,9 @@ public class HttpDialog extends BaseTransformDialog implements ITransformDialog
     setupConnectionTimeoutLine(lsMod, gSettings);
     setupSocketTimeoutLine(lsMod, gSettings);
     setupCloseWaitTimeLine(lsMod, gSettings);
+    setupParallelRequestsLine(lsMod, gSettings);
+    setupMaxConnectionsPerHostLine(lsMod, gSettings);
+    setupKeepInputOrderLine(gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -671,6 +680,84 @@ public class HttpDialog extends BaseTransformDialog implements ITransformDialog
     wCloseIdleConnectionsTime.setLayoutData(fdCloseIdleConnectionsTime);
   }
 
+  private void setupParallelRequestsLine(ModifyListener lsMod, Group gSettings) {
+    int margin = props.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlParallelRequests = new Label(gSettings, SWT.RIGHT);
+    wlParallelRequests.setText(BaseMessages.getString(PKG, "HTTPDialog.ParallelRequests.Label"));
+    PropsUi.setLook(wlParallelRequests);
+    FormData fdlParallelRequests = new FormData();
+    fdlParallelRequests.top = new FormAttachment(wCloseIdleConnectionsTime, margin);
+    fdlParallelRequests.left = new FormAttachment(0, 0);
+    fdlParallelRequests.right = new FormAttachment(middle, -margin);
+    wlParallelRequests.setLayoutData(fdlParallelRequests);
+    wParallelRequests = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wParallelRequests.addModifyListener(lsMod);
+    wParallelRequests.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPDialog.ParallelRequests.Tooltip"));
+    PropsUi.setLook(wParallelRequests);
+    FormData fdParallelRequests = new FormData();
+    fdParallelRequests.top = new FormAttachment(wCloseIdleConnectionsTime, margin);
+    fdParallelRequests.left = new FormAttachment(middle, 0);
+    fdParallelRequests.right = new FormAttachment(100, 0);
+    wParallelRequests.setLayoutData(fdParallelRequests);
+  }
+
+  private void setupMaxConnectionsPerHostLine(ModifyListener lsMod, Group gSettings) {
+    int margin = props.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlMaxConnectionsPerHost = new Label(gSettings, SWT.RIGHT);
+    wlMaxConnectionsPerHost.setText(
+        BaseMessages.getString(PKG, "HTTPDialog.MaxConnectionsPerHost.Label"));
+    PropsUi.setLook(wlMaxConnectionsPerHost);
+    FormData fdlMaxConnectionsPerHost = new FormData();
+    fdlMaxConnectionsPerHost.top = new FormAttachment(wParallelRequests, margin);
+    fdlMaxConnectionsPerHost.left = new FormAttachment(0, 0);
+    fdlMaxConnectionsPerHost.right = new FormAttachment(middle, -margin);
+    wlMaxConnectionsPerHost.setLayoutData(fdlMaxConnectionsPerHost);
+    wMaxConnectionsPerHost = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMaxConnectionsPerHost.addModifyListener(lsMod);
+    wMaxConnectionsPerHost.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPDialog.MaxConnectionsPerHost.Tooltip"));
+    PropsUi.setLook(wMaxConnectionsPerHost);
+    FormData fdMaxConnectionsPerHost = new FormData();
+    fdMaxConnectionsPerHost.top = new FormAttachment(wParallelRequests, margin);
+    fdMaxConnectionsPerHost.left = new FormAttachment(middle, 0);
+    fdMaxConnectionsPerHost.right = new FormAttachment(100, 0);
+    wMaxConnectionsPerHost.setLayoutData(fdMaxConnectionsPerHost);
+  }
+
+  private void setupKeepInputOrderLine(Group gSettings) {
+    int margin = props.getMargin();
+    int middle = props.getMiddlePct();
+    Label wlKeepInputOrder = new Label(gSettings, SWT.RIGHT);
+    wlKeepInputOrder.setText(BaseMessages.getString(PKG, "HTTPDialog.KeepInputOrder.Label"));
+    wlKeepInputOrder.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPDialog.KeepInputOrder.Tooltip"));
+    PropsUi.setLook(wlKeepInputOrder);
+    FormData fdlKeepInputOrder = new FormData();
+    fdlKeepInputOrder.top = new FormAttachment(wMaxConnectionsPerHost, margin);
+    fdlKeepInputOrder.left = new FormAttachment(0, 0);
+    fdlKeepInputOrder.right = new FormAttachment(middle, -margin);
+    wlKeepInputOrder.setLayoutData(fdlKeepInputOrder);
+    wKeepInputOrder = new Button(gSettings, SWT.CHECK);
+    wKeepInputOrder.setToolTipText(
+        BaseMessages.getString(PKG, "HTTPDialog.KeepInputOrder.Tooltip"));
+    PropsUi.setLook(wKeepInputOrder);
+    FormData fdKeepInputOrder = new FormData();
+    fdKeepInputOrder.left = new FormAttachment(middle, 0);
+    fdKeepInputOrder.top = new FormAttachment(wlKeepInputOrder, 0, SWT.CENTER);
+    fdKeepInputOrder.right = new FormAttachment(100, 0);
+    wKeepInputOrder.setLayoutData(fdKeepInputOrder);
+    wKeepInputOrder.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+  }
+
   private void setupSocketTimeoutLine(ModifyListener lsMod, Group gSettings) {
     int margin = props.getMargin();
     int middle = props.getMiddlePct();
@@ -1000,6 +1087,9 @@ public class HttpDialog extends BaseTransformDialog implements ITransformDialog
     wSocketTimeOut.setText(Const.NVL(input.getSocketTimeout(), ""));
     wConnectionTimeOut.setText(Const.NVL(input.getConnectionTimeout(), ""));
     wCloseIdleConnectionsTime.setText(Const.NVL(input.getCloseIdleConnectionsTime(), ""));
+    wParallelRequests.setText(Const.NVL(input.getParallelRequests(), ""));
+    wMaxConnectionsPerHost.setText(Const.NVL(input.getMaxConnectionsPerHost(), ""));
+    wKeepInputOrder.setSelection(input.isKeepingInputOrder());
 
     wUrl.setText(Const.NVL(input.getUrl(), ""));
     wUrlInField.setSelection(input.isUrlInField());
@@ -1091,6 +1181,9 @@ public class HttpDialog extends BaseTransformDialog implements ITransformDialog
     input.setSocketTimeout(wSocketTimeOut.getText());
     input.setConnectionTimeout(wConnectionTimeOut.getText());
     input.setCloseIdleConnectionsTime(wCloseIdleConnectionsTime.getText());
+    input.setParallelRequests(wParallelRequests.getText());
+    input.setMaxConnectionsPerHost(wMaxConnectionsPerHost.getText());
+    input.setKeepingInputOrder(wKeepInputOrder.getSelection());
 
     transformName = wTransformName.getText(); // return value
 
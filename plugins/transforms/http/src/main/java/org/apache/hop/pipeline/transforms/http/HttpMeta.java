@@ -59,10 +59,22 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
   // the time to wait till a connection is closed (milliseconds)? -1 is no not close.
   public static final int DEFAULT_CLOSE_CONNECTIONS_TIME = -1;
 
+  // the number of requests in flight at the same time, 1 is one request after the other
+  public static final int DEFAULT_PARALLEL_REQUESTS = 1;
+
   private String socketTimeout;
   private String connectionTimeout;
   private String closeIdleConnectionsTime;
 
+  /** The number of requests to keep in flight at the same time */
+  private String parallelRequests;
+
+  /** The maximum number of pooled connections to a single host, by default parallelRequests */
+  private String maxConnectionsPerHost;
+
+  /** Emit the rows in the order they came in rather than in the order the requests completed */
+  private boolean keepingInputOrder;
+
   /** URL / service to be called */
   private String url;
 
@@ -131,6 +143,49 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     this.closeIdleConnectionsTime = closeIdleConnectionsTime;
   }
 
+  /**
+   * @return The number of requests to keep in flight at the same time
+   */
+  public String getParallelRequests() {
+    return parallelRequests;
+  }
+
+  /**
+   * @param parallelRequests The number of requests to keep in flight at the same time
+   */
+  public void setParallelRequests(String parallelRequests) {
+    this.parallelRequests = parallelRequests;
+  }
+
+  /**
+   * @return The maximum number of pooled connections to a single host
+   */
+  public String getMaxConnectionsPerHost() {
+    return maxConnectionsPerHost;
+  }
+
+  /**
+   * @param maxConnectionsPerHost The maximum number of pooled connections to a single host
+   */
+  public void setMaxConnectionsPerHost(String maxConnectionsPerHost) {
+    this.maxConnectionsPerHost = maxConnectionsPerHost;
+  }
+
+  /**
+   * @return true if the rows are written in the order they came in, false if they are written in
+   *     the order the requests completed
+   */
+  public boolean isKeepingInputOrder() {
+    return keepingInputOrder;
+  }
+
+  /**
+   * @param keepingInputOrder true to write the rows in the order they came in
+   */
+  public void setKeepingInputOrder(boolean keepingInputOrder) {
+    this.keepingInputOrder = keepingInputOrder;
+  }
+
   /**
    * @return Returns the socketTimeout.
    */
@@ -293,6 +348,9 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     socketTimeout = String.valueOf(DEFAULT_SOCKET_TIMEOUT);
     connectionTimeout = String.valueOf(DEFAULT_CONNECTION_TIMEOUT);
     closeIdleConnectionsTime = String.valueOf(DEFAULT_CLOSE_CONNECTIONS_TIME);
+    parallelRequests = String.valueOf(DEFAULT_PARALLEL_REQUESTS);
+    maxConnectionsPerHost = "";
+    keepingInputOrder = true;
     int i;
     int nrargs;
     int nrquery;
@@ -370,6 +428,9 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     retval.append("    " + XmlHandler.addTagValue("connectionTimeout", connectionTimeout));
     retval.append(
         "    " + XmlHandler.addTagValue("closeIdleConnectionsTime", closeIdleConnectionsTime));
+    retval.append("    " + XmlHandler.addTagValue("parallelRequests", parallelRequests));
+    retval.append("    " + XmlHandler.addTagValue("maxConnectionsPerHost", maxConnectionsPerHost));
+    retval.append("    " + XmlHandler.addTagValue("keepInputOrder", keepingInputOrder));
 
     retval.append("    <lookup>").append(Const.CR);
 
@@ -419,6 +480,10 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
       socketTimeout = XmlHandler.getTagValue(transformNode, "socketTimeout");
       connectionTimeout = XmlHandler.getTagValue(transformNode, "connectionTimeout");
       closeIdleConnectionsTime = XmlHandler.getTagValue(transformNode, "closeIdleConnectionsTime");
+      parallelRequests = XmlHandler.getTagValue(transformNode, "parallelRequests");
+      maxConnectionsPerHost = XmlHandler.getTagValue(transformNode, "maxConnectionsPerHost");
+      keepingInputOrder =
+          !"N".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "keepInputOrder"));
 
       Node lookup = XmlHandler.getSubNode(transformNode, "lookup");
       nrargs = XmlHandler.countNodes(lookup, "arg");
@@ -517,6 +582,11 @@ public class HttpMeta extends BaseTransformMeta<Http, HttpData> {
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   /**
    * @return the encoding
    */
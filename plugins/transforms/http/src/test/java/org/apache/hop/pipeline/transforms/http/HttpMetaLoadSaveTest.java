@@ -55,6 +55,9 @@ public class HttpMetaLoadSaveTest {
             "socketTimeout",
             "connectionTimeout",
             "closeIdleConnectionsTime",
+            "parallelRequests",
+            "maxConnectionsPerHost",
+            "keepingInputOrder",
             "argumentField",
             "argumentParameter",
             "headerField",
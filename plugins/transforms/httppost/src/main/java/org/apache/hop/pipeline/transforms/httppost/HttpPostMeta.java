@@ -376,6 +376,11 @@ public class HttpPostMeta extends BaseTransformMeta<HttpPost, HttpPostData> {
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   /**
    * ISetter
    *
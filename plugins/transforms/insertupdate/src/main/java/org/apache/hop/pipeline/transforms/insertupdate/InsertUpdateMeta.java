@@ -691,6 +691,11 @@ public class InsertUpdateMeta extends BaseTransformMeta<InsertUpdate, InsertUpda
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   @Override
   public RowMeta getRowMeta(IVariables variables, ITransformData transformData) {
     return (RowMeta) ((InsertUpdateData) transformData).insertRowMeta;
@@ -858,6 +858,11 @@ public class ScriptValuesMeta extends BaseTransformMeta<ScriptValues, ScriptValu
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   /**
    * @return the replace
    */
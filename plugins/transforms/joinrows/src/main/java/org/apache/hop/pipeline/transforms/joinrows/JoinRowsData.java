@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.util.List;
+import org.apache.hop.core.CompiledCondition;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -52,6 +53,9 @@ public class JoinRowsData extends BaseTransformData implements ITransformData {
 
   public IRowMeta outputRowMeta;
 
+  /** The join condition, compiled for the output row layout */
+  public CompiledCondition condition;
+
   public JoinRowsData() {
     super();
   }
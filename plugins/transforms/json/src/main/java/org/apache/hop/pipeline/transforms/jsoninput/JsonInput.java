@@ -18,7 +18,6 @@
 package org.apache.hop.pipeline.transforms.jsoninput;
 
 import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.BitSet;
 import org.apache.commons.lang.NotImplementedException;
@@ -44,6 +43,7 @@ import org.apache.hop.pipeline.transforms.jsoninput.exception.JsonInputException
 import org.apache.hop.pipeline.transforms.jsoninput.reader.FastJsonReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.InputsReader;
 import org.apache.hop.pipeline.transforms.jsoninput.reader.RowOutputConverter;
+import org.apache.hop.pipeline.transforms.jsoninput.reader.StreamingJsonReader;
 
 /**
  * Read Json files, parse them and convert them to rows and writes these to one or more output
@@ -255,8 +255,11 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
   }
 
   private void parseNextInputToRowSet(InputStream input) throws HopException {
+    boolean reading = false;
     try {
       data.readerRowSet = data.reader.parse(input);
+      // A streaming reader closes the input once all rows are read
+      reading = data.streaming;
     } catch (HopException ke) {
       logInputError(ke);
       throw new JsonInputException(ke);
@@ -264,7 +267,9 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       logInputError(e);
       throw new JsonInputException(e);
     } finally {
-      closeQuietly(input);
+      if (!reading) {
+        closeQuietly(input);
+      }
     }
   }
 
@@ -330,17 +335,11 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     Object[] rawReaderRow = null;
     while ((rawReaderRow = data.readerRowSet.getRow()) == null) {
       if (data.inputs.hasNext() && data.readerRowSet.isDone()) {
-        try (InputStream nextIn = data.inputs.next()) {
-
-          if (nextIn != null) {
-            parseNextInputToRowSet(nextIn);
-          } else {
-            parseNextInputToRowSet(new ByteArrayInputStream(EMPTY_JSON));
-          }
-
-        } catch (IOException e) {
-          logError(BaseMessages.getString(PKG, "JsonInput.Log.UnexpectedError", e.toString()), e);
-          incrementErrors();
+        InputStream nextIn = data.inputs.next();
+        if (nextIn != null) {
+          parseNextInputToRowSet(nextIn);
+        } else {
+          parseNextInputToRowSet(new ByteArrayInputStream(EMPTY_JSON));
         }
       } else {
         if (isDetailed()) {
@@ -454,7 +453,15 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
       inputFields[i] = field;
     }
     // Instead of putting in the meta.inputFields, we put in our json path resolved input fields
-    data.reader = new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), log);
+    data.streaming = meta.isStreaming() && StreamingJsonReader.isSupported(inputFields);
+    if (data.streaming) {
+      data.reader = new StreamingJsonReader(inputFields, log);
+    } else {
+      if (meta.isStreaming()) {
+        logBasic(BaseMessages.getString(PKG, "JsonInput.Log.StreamingNotSupported"));
+      }
+      data.reader = new FastJsonReader(inputFields, meta.isDefaultPathLeafToNull(), log);
+    }
     data.reader.setIgnoreMissingPath(meta.isIgnoreMissingPath());
   }
 
@@ -463,6 +470,10 @@ public class JsonInput extends BaseFileInputTransform<JsonInputMeta, JsonInputDa
     if (data.file != null) {
       closeQuietly(data.file);
     }
+    if (data.readerRowSet != null) {
+      // Close the input of a streaming reader which didn't read all rows
+      data.readerRowSet.clear();
+    }
     data.inputs = null;
     data.reader = null;
     data.readerRowSet = null;
@@ -48,6 +48,10 @@ public class JsonInputData extends BaseFileInputTransformData implements ITransf
 
   public Iterator<InputStream> inputs;
   public IJsonReader reader;
+
+  /** True if the reader keeps reading the input while rows are retrieved from its row set */
+  public boolean streaming;
+
   public IRowSet readerRowSet;
   public BitSet repeatedFields;
 
@@ -251,6 +251,10 @@ public class JsonInputMeta
 
   private boolean defaultPathLeafToNull;
 
+  /** Flag : read the records of the input one at a time instead of parsing the whole document */
+  @Injection(name = "STREAMING")
+  private boolean streaming;
+
   public JsonInputMeta() {
     additionalOutputFields = new AdditionalFileOutputFields();
     inputFiles = new InputFiles();
@@ -555,6 +559,20 @@ public class JsonInputMeta
     return ignoreMissingPath;
   }
 
+  /**
+   * @return true if the records of the input are read one at a time with a pull parser
+   */
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /**
+   * @param streaming true to read the records of the input one at a time with a pull parser
+   */
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
   public void setIgnoreMissingPath(boolean ignoreMissingPath) {
     this.ignoreMissingPath = ignoreMissingPath;
   }
@@ -614,6 +632,7 @@ public class JsonInputMeta
     retval.append("    " + XmlHandler.addTagValue("doNotFailIfNoFile", doNotFailIfNoFile));
     retval.append("    " + XmlHandler.addTagValue("ignoreMissingPath", ignoreMissingPath));
     retval.append("    " + XmlHandler.addTagValue("defaultPathLeafToNull", defaultPathLeafToNull));
+    retval.append("    " + XmlHandler.addTagValue("streaming", streaming));
     retval.append("    ").append(XmlHandler.addTagValue("rownum_field", rowNumberField));
 
     retval.append("    <file>").append(Const.CR);
@@ -685,6 +704,7 @@ public class JsonInputMeta
       ignoreMissingPath =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "ignoreMissingPath"));
       defaultPathLeafToNull = getDefaultPathLeafToNull(transformNode);
+      streaming = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "streaming"));
       doNotFailIfNoFile =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "doNotFailIfNoFile"));
       includeRowNumber = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "rownum"));
@@ -772,6 +792,7 @@ public class JsonInputMeta
     isIgnoreEmptyFile = false;
     ignoreMissingPath = true;
     defaultPathLeafToNull = true;
+    streaming = false;
     doNotFailIfNoFile = true;
     includeFilename = false;
     filenameField = "";
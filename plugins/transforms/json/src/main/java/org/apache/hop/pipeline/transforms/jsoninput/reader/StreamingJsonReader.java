@@ -0,0 +1,626 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import net.minidev.json.JSONArray;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.SingleRowRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputMeta;
+
+/**
+ * Reads JSON with a pull parser and produces a row as soon as a record is read, instead of parsing
+ * the whole document first. Memory use is proportional to one record, not to the document.
+ *
+ * <p>Only a subset of JSONPath is supported: all paths need to iterate over the same records with
+ * <code>[*]</code> or a simple filter like <code>[?(@.type == 'book')]</code>, and select a child
+ * of the record with names and array indexes. For example <code>$.store.book[*].title</code> or
+ * <code>$[*].address.city</code>. Use {@link #isSupported(JsonInputField[])} to find out if the
+ * fields can be read with this reader.
+ */
+public class StreamingJsonReader implements IJsonReader {
+  private static final Class<?> PKG = JsonInputMeta.class; // For Translator
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private static final Pattern FILTER_PATTERN =
+      Pattern.compile(
+          "^\\s*@((?:\\.[^.\\[\\s=!<>]+|\\['[^']*'\\])+)\\s*(?:(==|!=|<=|>=|<|>)\\s*(.+?))?\\s*$");
+
+  private final ILogChannel log;
+  private boolean ignoreMissingPath;
+
+  private JsonInputField[] fields;
+  private Step[] recordSteps;
+  private Filter filter;
+  private Step[][] fieldSteps;
+
+  public StreamingJsonReader(JsonInputField[] fields, ILogChannel log) throws HopException {
+    this.log = log;
+    setFields(fields);
+  }
+
+  /**
+   * Check if all the paths of the fields can be read with a streaming reader.
+   *
+   * @param fields The input fields
+   * @return true if the paths of all fields are supported and iterate over the same records
+   */
+  public static boolean isSupported(JsonInputField[] fields) {
+    if (fields == null || fields.length == 0) {
+      return false;
+    }
+    String records = null;
+    for (JsonInputField field : fields) {
+      List<Step> steps = parsePath(field.getPath());
+      if (steps == null) {
+        return false;
+      }
+      int last = getLastIterationStep(steps);
+      if (last < 0) {
+        return false;
+      }
+      for (int i = 0; i < steps.size(); i++) {
+        Step step = steps.get(i);
+        if (i > last && step.type != StepType.NAME && step.type != StepType.INDEX) {
+          return false;
+        }
+        if (i < last && step.type == StepType.FILTER) {
+          return false;
+        }
+      }
+      String fieldRecords = steps.subList(0, last + 1).toString();
+      if (records != null && !records.equals(fieldRecords)) {
+        return false;
+      }
+      records = fieldRecords;
+    }
+    return true;
+  }
+
+  @Override
+  public void setFields(JsonInputField[] fields) throws HopException {
+    if (!isSupported(fields)) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "JsonReader.Error.Streaming.PathNotSupported"));
+    }
+    this.fields = fields;
+    this.fieldSteps = new Step[fields.length][];
+    for (int i = 0; i < fields.length; i++) {
+      List<Step> steps = parsePath(fields[i].getPath());
+      int last = getLastIterationStep(steps);
+      if (i == 0) {
+        recordSteps = steps.subList(0, last + 1).toArray(new Step[0]);
+        filter = recordSteps[last].filter;
+      }
+      fieldSteps[i] = steps.subList(last + 1, steps.size()).toArray(new Step[0]);
+    }
+  }
+
+  @Override
+  public boolean isIgnoreMissingPath() {
+    return ignoreMissingPath;
+  }
+
+  @Override
+  public void setIgnoreMissingPath(boolean value) {
+    this.ignoreMissingPath = value;
+  }
+
+  /**
+   * Start reading the input. The rows are read from the input while they're retrieved from the
+   * returned row set. The input is closed once all rows are read or when the row set is cleared.
+   *
+   * @param in The JSON input
+   * @return The row set producing the rows of the input
+   * @throws HopException In case the input can't be read
+   */
+  @Override
+  public IRowSet parse(InputStream in) throws HopException {
+    try {
+      return new StreamingRowSet(JSON_FACTORY.createParser(in));
+    } catch (IOException e) {
+      throw new HopException(e);
+    }
+  }
+
+  private static int getLastIterationStep(List<Step> steps) {
+    for (int i = steps.size() - 1; i >= 0; i--) {
+      if (steps.get(i).type == StepType.WILDCARD || steps.get(i).type == StepType.FILTER) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Parse the supported subset of JSONPath.
+   *
+   * @param path The JSON path
+   * @return The steps of the path or null if the path isn't supported.
+   */
+  static List<Step> parsePath(String path) {
+    if (path == null || !path.startsWith("$")) {
+      return null;
+    }
+    List<Step> steps = new ArrayList<>();
+    int i = 1;
+    while (i < path.length()) {
+      char c = path.charAt(i);
+      if (c == '.' && path.startsWith(".[", i)) {
+        // $.['store'] is the same as $['store']
+        i++;
+      } else if (c == '.') {
+        int end = i + 1;
+        while (end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '[') {
+          end++;
+        }
+        String name = path.substring(i + 1, end);
+        if (name.isEmpty()) {
+          // Deep scan
+          return null;
+        }
+        steps.add("*".equals(name) ? new Step(StepType.WILDCARD) : new Step(name));
+        i = end;
+      } else if (c == '[') {
+        int end = path.indexOf(']', i);
+        if (end < 0) {
+          return null;
+        }
+        String content = path.substring(i + 1, end).trim();
+        if (path.startsWith("[?(", i)) {
+          // The expression of the filter can contain ']' in a quoted name
+          end = path.indexOf(")]", i);
+          if (end < 0) {
+            return null;
+          }
+          Filter stepFilter = Filter.parse(path.substring(i + 3, end));
+          if (stepFilter == null) {
+            return null;
+          }
+          steps.add(new Step(stepFilter));
+          i = end + 2;
+          continue;
+        } else if ("*".equals(content)) {
+          steps.add(new Step(StepType.WILDCARD));
+        } else if (isQuoted(content)) {
+          steps.add(new Step(content.substring(1, content.length() - 1)));
+        } else if (!content.isEmpty() && content.chars().allMatch(Character::isDigit)) {
+          steps.add(new Step(Integer.parseInt(content)));
+        } else {
+          return null;
+        }
+        i = end + 1;
+      } else {
+        return null;
+      }
+    }
+    return steps;
+  }
+
+  private static boolean isQuoted(String string) {
+    return string.length() >= 2
+        && (string.charAt(0) == '\'' || string.charAt(0) == '"')
+        && string.charAt(string.length() - 1) == string.charAt(0)
+        && string.indexOf(string.charAt(0), 1) == string.length() - 1;
+  }
+
+  /**
+   * Select a value from a record.
+   *
+   * @param value The record
+   * @param steps The names and indexes to follow
+   * @return The value or null if it can't be found
+   */
+  private static Object select(Object value, Step[] steps) {
+    for (Step step : steps) {
+      if (step.type == StepType.NAME && value instanceof Map) {
+        value = ((Map<?, ?>) value).get(step.name);
+      } else if (step.type == StepType.INDEX
+          && value instanceof List
+          && step.index < ((List<?>) value).size()) {
+        value = ((List<?>) value).get(step.index);
+      } else {
+        return null;
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Read the current value of the parser the same way as the default JSON reader does: objects as
+   * maps, arrays as JSON arrays and numbers as integers, longs or doubles.
+   */
+  private static Object readValue(JsonParser parser) throws IOException {
+    switch (parser.currentToken()) {
+      case START_OBJECT:
+        Map<String, Object> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String name = parser.getCurrentName();
+          parser.nextToken();
+          map.put(name, readValue(parser));
+        }
+        return map;
+      case START_ARRAY:
+        JSONArray array = new JSONArray();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          array.add(readValue(parser));
+        }
+        return array;
+      case VALUE_STRING:
+        return parser.getText();
+      case VALUE_NUMBER_INT:
+        return parser.getNumberValue();
+      case VALUE_NUMBER_FLOAT:
+        return parser.getDoubleValue();
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      default:
+        return null;
+    }
+  }
+
+  private enum StepType {
+    NAME,
+    INDEX,
+    WILDCARD,
+    FILTER
+  }
+
+  /** One step in a JSON path */
+  static final class Step {
+    private final StepType type;
+    private final String name;
+    private final int index;
+    private final Filter filter;
+
+    private Step(StepType type) {
+      this.type = type;
+      this.name = null;
+      this.index = -1;
+      this.filter = null;
+    }
+
+    private Step(String name) {
+      this.type = StepType.NAME;
+      this.name = name;
+      this.index = -1;
+      this.filter = null;
+    }
+
+    private Step(int index) {
+      this.type = StepType.INDEX;
+      this.name = null;
+      this.index = index;
+      this.filter = null;
+    }
+
+    private Step(Filter filter) {
+      this.type = StepType.FILTER;
+      this.name = null;
+      this.index = -1;
+      this.filter = filter;
+    }
+
+    private boolean matchesName(String fieldName) {
+      return type == StepType.WILDCARD || (type == StepType.NAME && name.equals(fieldName));
+    }
+
+    private boolean matchesIndex(int arrayIndex) {
+      return type == StepType.WILDCARD || type == StepType.FILTER || index == arrayIndex;
+    }
+
+    @Override
+    public String toString() {
+      switch (type) {
+        case NAME:
+          return "['" + name + "']";
+        case INDEX:
+          return "[" + index + "]";
+        case FILTER:
+          return "[?(" + filter + ")]";
+        default:
+          return "[*]";
+      }
+    }
+  }
+
+  /** A filter comparing a child of the record with a constant, or checking that it exists */
+  static final class Filter {
+    private final String expression;
+    private final Step[] steps;
+    private final String operator;
+    private final Object constant;
+
+    private Filter(String expression, Step[] steps, String operator, Object constant) {
+      this.expression = expression;
+      this.steps = steps;
+      this.operator = operator;
+      this.constant = constant;
+    }
+
+    static Filter parse(String expression) {
+      Matcher matcher = FILTER_PATTERN.matcher(expression);
+      if (!matcher.matches()) {
+        return null;
+      }
+      List<Step> steps = parsePath("$" + matcher.group(1));
+      if (steps == null) {
+        return null;
+      }
+      String operator = matcher.group(2);
+      Object constant = null;
+      if (operator != null) {
+        String literal = matcher.group(3);
+        if (isQuoted(literal)) {
+          constant = literal.substring(1, literal.length() - 1);
+        } else if ("true".equals(literal) || "false".equals(literal)) {
+          constant = Boolean.valueOf(literal);
+        } else if (!"null".equals(literal)) {
+          try {
+            constant = new BigDecimal(literal);
+          } catch (NumberFormatException e) {
+            return null;
+          }
+        }
+      }
+      return new Filter(expression.trim(), steps.toArray(new Step[0]), operator, constant);
+    }
+
+    private boolean matches(Object record) {
+      Object value = select(record, steps);
+      if (operator == null) {
+        return value != null;
+      }
+      int compare;
+      if (value == null || constant == null) {
+        // Only null is equal to null
+        //
+        boolean equal = value == constant;
+        return "==".equals(operator) ? equal : "!=".equals(operator) && !equal;
+      } else if (value instanceof Number && constant instanceof BigDecimal) {
+        compare = new BigDecimal(value.toString()).compareTo((BigDecimal) constant);
+      } else if (value instanceof String && constant instanceof String) {
+        compare = ((String) value).compareTo((String) constant);
+      } else if (value instanceof Boolean && constant instanceof Boolean) {
+        compare = value.equals(constant) ? 0 : 1;
+        if (!"==".equals(operator) && !"!=".equals(operator)) {
+          return false;
+        }
+      } else {
+        // Different types are never equal
+        return "!=".equals(operator);
+      }
+      switch (operator) {
+        case "==":
+          return compare == 0;
+        case "!=":
+          return compare != 0;
+        case "<":
+          return compare < 0;
+        case "<=":
+          return compare <= 0;
+        case ">":
+          return compare > 0;
+        default:
+          return compare >= 0;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return expression;
+    }
+  }
+
+  /** The position in an object or array the records are read from */
+  private static final class Frame {
+    private final int step;
+    private final boolean object;
+    private int index = -1;
+
+    private Frame(int step, boolean object) {
+      this.step = step;
+      this.object = object;
+    }
+  }
+
+  /** Reads the next row from the parser when it is retrieved */
+  private class StreamingRowSet extends SingleRowRowSet {
+    private final JsonParser parser;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final boolean[] found = new boolean[fields.length];
+    private final boolean includeNulls =
+        "Y"
+            .equalsIgnoreCase(
+                System.getProperty(
+                    Const.HOP_JSON_INPUT_INCLUDE_NULLS, Const.JSON_INPUT_INCLUDE_NULLS));
+    private boolean started;
+    private boolean done;
+    private long nrRecords;
+
+    private StreamingRowSet(JsonParser parser) {
+      super();
+      this.parser = parser;
+    }
+
+    @Override
+    public Object[] getRow() {
+      if (done) {
+        return null;
+      }
+      try {
+        Object[] row;
+        do {
+          if (!nextRecord()) {
+            return finish();
+          }
+          Object record = readValue(parser);
+          if (filter != null && !filter.matches(record)) {
+            continue;
+          }
+          nrRecords++;
+          row = new Object[fields.length];
+          boolean allNulls = !includeNulls;
+          for (int i = 0; i < fields.length; i++) {
+            row[i] = select(record, fieldSteps[i]);
+            if (row[i] != null) {
+              found[i] = true;
+              allNulls = false;
+            }
+          }
+          if (!allNulls) {
+            return row;
+          }
+        } while (true);
+      } catch (IOException e) {
+        clear();
+        throw new RuntimeException(
+            BaseMessages.getString(PKG, "JsonReader.Error.Streaming.Parse", e.getMessage()), e);
+      }
+    }
+
+    /**
+     * Move the parser to the start of the next record.
+     *
+     * @return false if there are no more records
+     */
+    private boolean nextRecord() throws IOException {
+      while (true) {
+        Frame frame = frames.peek();
+        if (frame == null) {
+          if (started || parser.nextToken() == null) {
+            return false;
+          }
+          started = true;
+          if (enter(0)) {
+            return true;
+          }
+          continue;
+        }
+
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+          return false;
+        }
+        if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY) {
+          frames.pop();
+          continue;
+        }
+        Step step = recordSteps[frame.step];
+        boolean matches;
+        if (frame.object) {
+          String name = parser.getCurrentName();
+          parser.nextToken();
+          matches = step.matchesName(name);
+        } else {
+          frame.index++;
+          matches = step.matchesIndex(frame.index);
+        }
+        if (matches) {
+          if (enter(frame.step + 1)) {
+            return true;
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+
+    /**
+     * The parser is at the start of a value matching the steps before the given one.
+     *
+     * @return true if the value is a record
+     */
+    private boolean enter(int step) throws IOException {
+      if (step == recordSteps.length) {
+        return true;
+      }
+      StepType type = recordSteps[step].type;
+      JsonToken token = parser.currentToken();
+      if (token == JsonToken.START_OBJECT && (type == StepType.NAME || type == StepType.WILDCARD)) {
+        frames.push(new Frame(step, true));
+      } else if (token == JsonToken.START_ARRAY && type != StepType.NAME) {
+        frames.push(new Frame(step, false));
+      } else {
+        parser.skipChildren();
+      }
+      return false;
+    }
+
+    private Object[] finish() {
+      clear();
+      if (!ignoreMissingPath) {
+        for (int i = 0; i < fields.length; i++) {
+          if (!found[i]) {
+            throw new RuntimeException(
+                BaseMessages.getString(
+                    PKG, "JsonReader.Error.CanNotFindPath", fields[i].getPath()));
+          }
+        }
+      }
+      if (log.isDetailed()) {
+        log.logDetailed(BaseMessages.getString(PKG, "JsonInput.Log.NrRecords", nrRecords));
+      }
+      // Without any records a single empty row is returned, the same way as the default reader
+      //
+      return nrRecords == 0 ? new Object[fields.length] : null;
+    }
+
+    @Override
+    public int size() {
+      return done ? 0 : 1;
+    }
+
+    @Override
+    public boolean isDone() {
+      return done;
+    }
+
+    @Override
+    public void clear() {
+      done = true;
+      frames.clear();
+      try {
+        parser.close();
+      } catch (IOException e) {
+        log.logDebug(e.getMessage());
+      }
+    }
+  }
+}
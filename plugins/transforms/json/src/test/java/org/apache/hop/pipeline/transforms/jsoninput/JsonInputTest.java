@@ -311,6 +311,49 @@ public class JsonInputTest {
     Assert.assertEquals("lines written", 2, jsonInput.getLinesWritten());
   }
 
+  @Test
+  public void testStreamingDualExp() throws Exception {
+    JsonInputField isbn = new JsonInputField("isbn");
+    isbn.setPath("$.store.book[?(@.isbn)].isbn");
+    isbn.setType(IValueMeta.TYPE_STRING);
+    JsonInputField price = new JsonInputField("price");
+    price.setPath("$.store.book[?(@.isbn)].price");
+    price.setType(IValueMeta.TYPE_NUMBER);
+
+    JsonInputMeta meta = createSimpleMeta("json", isbn, price);
+    meta.setStreaming(true);
+    JsonInput jsonInput = createJsonInput("json", meta, new Object[] {getBasicTestJson()});
+    RowComparatorListener rowComparator =
+        new RowComparatorListener(
+            new Object[] {null, "0-553-21311-3", 8.99},
+            new Object[] {null, "0-395-19395-8", 22.99});
+    rowComparator.setComparator(0, null);
+    jsonInput.addRowListener(rowComparator);
+    processRows(jsonInput, 3);
+    Assert.assertEquals("error", 0, jsonInput.getErrors());
+    Assert.assertEquals("lines written", 2, jsonInput.getLinesWritten());
+  }
+
+  @Test
+  public void testStreamingRowLimit() throws Exception {
+    JsonInputField author = new JsonInputField("author");
+    author.setPath("$.store.book[*].author");
+    author.setType(IValueMeta.TYPE_STRING);
+
+    JsonInputMeta meta = createSimpleMeta("json", author);
+    meta.setStreaming(true);
+    meta.setRemoveSourceField(true);
+    meta.setRowLimit(2);
+    JsonInput jsonInput = createJsonInput("json", meta, new Object[] {getBasicTestJson()});
+    RowComparatorListener rowComparator =
+        new RowComparatorListener(new Object[] {"Nigel Rees"}, new Object[] {"Evelyn Waugh"});
+    jsonInput.addRowListener(rowComparator);
+    processRows(jsonInput, 5);
+    disposeJsonInput(jsonInput);
+    Assert.assertEquals("error", 0, jsonInput.getErrors());
+    Assert.assertEquals("lines written", 2, jsonInput.getLinesWritten());
+  }
+
   @Test
   public void testDualExpMismatchError() throws Exception {
     ByteArrayOutputStream out = new ByteArrayOutputStream();
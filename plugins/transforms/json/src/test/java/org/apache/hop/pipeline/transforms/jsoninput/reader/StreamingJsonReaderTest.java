@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.jsoninput.reader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.logging.ILogChannel;
+import org.apache.hop.pipeline.transforms.jsoninput.JsonInputField;
+import org.junit.Test;
+
+public class StreamingJsonReaderTest {
+  private static final String JSON =
+      "{\"store\": {\"name\": \"x\", \"book\": ["
+          + "{\"category\": \"reference\", \"author\": \"Nigel Rees\", \"price\": 8.95,"
+          + " \"tags\": [\"a\", \"b\"], \"info\": {\"pages\": 100}},"
+          + "{\"category\": \"fiction\", \"author\": \"Evelyn Waugh\", \"price\": 12,"
+          + " \"isbn\": \"0-553\"},"
+          + "{\"category\": \"fiction\", \"author\": \"Herman Melville\", \"price\": 8.99,"
+          + " \"isbn\": \"0-395\", \"tags\": [\"c\"]}"
+          + "], \"bicycle\": {\"color\": \"red\"}}}";
+
+  private ILogChannel logMock = mock(ILogChannel.class);
+
+  private static JsonInputField[] createFields(String... paths) {
+    JsonInputField[] fields = new JsonInputField[paths.length];
+    for (int i = 0; i < paths.length; i++) {
+      fields[i] = new JsonInputField("field" + i);
+      fields[i].setPath(paths[i]);
+    }
+    return fields;
+  }
+
+  private static List<Object[]> getRows(IRowSet rowSet) {
+    List<Object[]> rows = new ArrayList<>();
+    Object[] row;
+    while ((row = rowSet.getRow()) != null) {
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  private static InputStream toStream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void assertSameRows(String json, String... paths) throws HopException {
+    JsonInputField[] fields = createFields(paths);
+    assertTrue(StreamingJsonReader.isSupported(fields));
+
+    FastJsonReader fastReader = new FastJsonReader(fields, logMock);
+    fastReader.setIgnoreMissingPath(true);
+    List<Object[]> expected = getRows(fastReader.parse(toStream(json)));
+
+    StreamingJsonReader streamingReader = new StreamingJsonReader(fields, logMock);
+    streamingReader.setIgnoreMissingPath(true);
+    List<Object[]> rows = getRows(streamingReader.parse(toStream(json)));
+
+    assertEquals(expected.size(), rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals(expected.get(i).length, rows.get(i).length);
+      for (int j = 0; j < rows.get(i).length; j++) {
+        Object value = expected.get(i)[j];
+        // Objects and arrays are compared as JSON text
+        //
+        assertEquals(
+            value == null ? null : value.toString(),
+            rows.get(i)[j] == null ? null : rows.get(i)[j].toString());
+      }
+    }
+  }
+
+  @Test
+  public void testIsSupported() {
+    assertTrue(StreamingJsonReader.isSupported(createFields("$.store.book[*].author")));
+    assertTrue(StreamingJsonReader.isSupported(createFields("$[*]", "$[*].a['b'][0]")));
+    assertTrue(
+        StreamingJsonReader.isSupported(
+            createFields("$.store.book[?(@.price < 10)].author", "$.store.book[?(@.price < 10)]")));
+    assertTrue(StreamingJsonReader.isSupported(createFields("$.['store'].book[*].author")));
+
+    // Deep scan, no iteration, different records or iteration in the selected child
+    //
+    assertFalse(StreamingJsonReader.isSupported(createFields("$..book[*].author")));
+    assertFalse(StreamingJsonReader.isSupported(createFields("$.store.bicycle.color")));
+    assertFalse(
+        StreamingJsonReader.isSupported(
+            createFields("$.store.book[*].author", "$.store.bicycle[*].color")));
+    assertFalse(StreamingJsonReader.isSupported(createFields("$.store.book[0:2].author")));
+    assertFalse(StreamingJsonReader.isSupported(createFields("$.store.book[?(@.a =~ /x/)].b")));
+    assertFalse(StreamingJsonReader.isSupported(new JsonInputField[0]));
+  }
+
+  @Test
+  public void testSameRowsAsDefaultReader() throws HopException {
+    assertSameRows(JSON, "$.store.book[*].author", "$.store.book[*].price");
+    assertSameRows(JSON, "$.store.book[*].isbn", "$.store.book[*].category");
+    assertSameRows(JSON, "$.store.book[*].tags");
+    assertSameRows(JSON, "$.store.book[*].info", "$['store']['book'][*]['author']");
+    assertSameRows(JSON, "$.store.book[?(@.isbn)].author");
+    assertSameRows(JSON, "$.store.book[?(@.price < 10)].author");
+    assertSameRows(JSON, "$.store.book[?(@.category == 'fiction')].author");
+    assertSameRows(JSON, "$.store.book[?(@.category != 'fiction')].author");
+    assertSameRows(JSON, "$.store.book.*.author");
+    assertSameRows("[{\"a\": 1}, {\"a\": 2}, {\"b\": 3}]", "$[*].a", "$[*].b");
+    assertSameRows("[[1, 2], [3, 4]]", "$[*][1]");
+    assertSameRows(
+        "{\"a\": [{\"b\": [{\"c\": 1}, {\"c\": 2}]}, {\"b\": [{\"c\": 3}]}]}", "$.a[*].b[*].c");
+    assertSameRows("{\"a\": []}", "$.a[*].b");
+  }
+
+  @Test
+  public void testValueTypes() throws HopException {
+    StreamingJsonReader reader = new StreamingJsonReader(createFields("$[*]"), logMock);
+    reader.setIgnoreMissingPath(true);
+    List<Object[]> rows =
+        getRows(
+            reader.parse(
+                toStream("[\"a\", 1, 12345678901, 1.5, true, null, {\"x\": [1, \"y\"]}]")));
+
+    assertEquals(7, rows.size());
+    assertEquals("a", rows.get(0)[0]);
+    assertEquals(1, rows.get(1)[0]);
+    assertEquals(12345678901L, rows.get(2)[0]);
+    assertEquals(1.5, rows.get(3)[0]);
+    assertEquals(Boolean.TRUE, rows.get(4)[0]);
+    assertNull(rows.get(5)[0]);
+    assertEquals("{x=[1,\"y\"]}", rows.get(6)[0].toString());
+  }
+
+  @Test
+  public void testRowsAreReadWhileRetrieved() throws Exception {
+    AtomicBoolean closed = new AtomicBoolean();
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < 100000; i++) {
+      json.append(i == 0 ? "" : ",").append("{\"id\": ").append(i).append('}');
+    }
+    json.append(']');
+    InputStream in =
+        new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)) {
+          @Override
+          public void close() throws IOException {
+            closed.set(true);
+            super.close();
+          }
+        };
+
+    StreamingJsonReader reader = new StreamingJsonReader(createFields("$[*].id"), logMock);
+    IRowSet rowSet = reader.parse(in);
+    assertArrayEquals(new Object[] {0}, rowSet.getRow());
+    assertArrayEquals(new Object[] {1}, rowSet.getRow());
+    assertFalse(rowSet.isDone());
+    assertTrue(in.available() > 0);
+
+    // The input is closed when the rows are no longer needed
+    //
+    rowSet.clear();
+    assertTrue(rowSet.isDone());
+    assertTrue(closed.get());
+    assertNull(rowSet.getRow());
+  }
+
+  @Test
+  public void testNoRecords() throws HopException {
+    StreamingJsonReader reader = new StreamingJsonReader(createFields("$.a[*].b"), logMock);
+    reader.setIgnoreMissingPath(true);
+    List<Object[]> rows = getRows(reader.parse(toStream("{}")));
+    assertEquals(1, rows.size());
+    assertArrayEquals(new Object[1], rows.get(0));
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testMissingPath() throws HopException {
+    StreamingJsonReader reader =
+        new StreamingJsonReader(createFields("$[*].a", "$[*].missing"), logMock);
+    reader.setIgnoreMissingPath(false);
+    getRows(reader.parse(toStream("[{\"a\": 1}]")));
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testInvalidJson() throws HopException {
+    StreamingJsonReader reader = new StreamingJsonReader(createFields("$[*].a"), logMock);
+    getRows(reader.parse(toStream("[{\"a\": 1}, {\"a\": ]")));
+  }
+}
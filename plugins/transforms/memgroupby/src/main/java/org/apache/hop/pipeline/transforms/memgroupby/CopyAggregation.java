@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.HashEntry;
+
+/**
+ * Collects the partial aggregates of the copies of a Memory Group By transform. Every copy
+ * aggregates its share of the rows and hands over its groups when its input is done. The last copy
+ * to do so merges all the groups and writes the result.
+ */
+public class CopyAggregation {
+  private static final String EXTENSION_DATA_PREFIX = "MemoryGroupBy.CopyAggregation.";
+
+  /** The groups aggregated by one copy */
+  public static class Partial {
+    private final MemoryGroupByData data;
+    private final Map<HashEntry, Aggregate> map;
+
+    public Partial(MemoryGroupByData data, Map<HashEntry, Aggregate> map) {
+      this.data = data;
+      this.map = map;
+    }
+
+    /**
+     * @return The data of the copy, describing the layout of the groups
+     */
+    public MemoryGroupByData getData() {
+      return data;
+    }
+
+    /**
+     * @return The groups aggregated by the copy
+     */
+    public Map<HashEntry, Aggregate> getMap() {
+      return map;
+    }
+  }
+
+  private final int nrCopies;
+  private final List<Partial> partials;
+
+  public CopyAggregation(int nrCopies) {
+    this.nrCopies = nrCopies;
+    this.partials = new ArrayList<>(nrCopies);
+  }
+
+  /**
+   * Get the aggregation shared by the copies of a transform in a pipeline, creating it if needed.
+   *
+   * @param pipeline The pipeline the copies run in
+   * @param transformName The name of the transform
+   * @param nrCopies The number of copies of the transform
+   * @return The shared aggregation
+   */
+  public static CopyAggregation getInstance(
+      IPipelineEngine<?> pipeline, String transformName, int nrCopies) {
+    Map<String, Object> extensionDataMap = pipeline.getExtensionDataMap();
+    synchronized (extensionDataMap) {
+      return (CopyAggregation)
+          extensionDataMap.computeIfAbsent(
+              EXTENSION_DATA_PREFIX + transformName, key -> new CopyAggregation(nrCopies));
+    }
+  }
+
+  /**
+   * Hand over the groups of a copy.
+   *
+   * @param partial The groups aggregated by the copy
+   * @return All the partial aggregates if this was the last copy to hand over its groups, null
+   *     otherwise
+   */
+  public synchronized List<Partial> addPartial(Partial partial) {
+    partials.add(partial);
+    if (partials.size() < nrCopies) {
+      return null;
+    }
+    List<Partial> all = new ArrayList<>(partials);
+    partials.clear();
+    return all;
+  }
+}
@@ -22,9 +22,11 @@ import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.Gr
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.CountDistinct;
 import static org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType.Percentile;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.StringJoiner;
@@ -42,12 +44,16 @@ import org.apache.hop.core.row.value.ValueMetaBase;
 import org.apache.hop.core.row.value.ValueMetaInteger;
 import org.apache.hop.core.row.value.ValueMetaNumber;
 import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.spill.SpillFileReader;
+import org.apache.hop.core.spill.SpillPartition;
+import org.apache.hop.core.spill.SpillPartitions;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.memgroupby.CopyAggregation.Partial;
 import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByData.HashEntry;
 
 /** Groups information based on aggregation rules. (sum, count, ...) */
@@ -73,16 +79,22 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     Object[] r = getRow(); // get row!
 
     if (first) {
-      if ((r == null) && (!meta.isAlwaysGivingBackOneRow())) {
-        setOutputDone();
-        return false;
-      }
-
       String val = getVariable(Const.HOP_AGGREGATION_ALL_NULLS_ARE_ZERO, "N");
       allNullsAreZero = ValueMetaBase.convertStringToBoolean(val);
       val = getVariable(Const.HOP_AGGREGATION_MIN_NULL_IS_VALUED, "N");
       minNullIsValued = ValueMetaBase.convertStringToBoolean(val);
 
+      if ((r == null) && (!meta.isAlwaysGivingBackOneRow())) {
+        // The other copies might have groups for us to write
+        //
+        if (data.copyAggregation != null && mergeCopies()) {
+          handleLastOfGroup();
+        }
+        setOutputDone();
+        return false;
+      }
+      data.receivedRows = r != null;
+
       // What is the output looking like?
       //
       data.inputRowMeta = getInputRowMeta();
@@ -165,7 +177,11 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     // Here is where we start to do the real work...
     //
     if (r == null) { // no more input to be expected... (or none received in the first place)
-      handleLastOfGroup();
+      // When merging the groups of all copies, the last copy to finish writes the result
+      //
+      if (data.copyAggregation == null || mergeCopies()) {
+        handleLastOfGroup();
+      }
 
       setOutputDone();
       return false;
@@ -190,27 +206,39 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
   private void handleLastOfGroup() throws HopException {
     // Dump the content of the map...
     //
-    for (HashEntry entry : data.map.keySet()) {
-      Aggregate aggregate = data.map.get(entry);
-      Object[] aggregateResult = getAggregateResult(aggregate);
+    long nrGroups = writeGroups();
 
-      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
-      int index = 0;
-      for (int i = 0; i < data.groupMeta.size(); i++) {
-        outputRowData[index++] =
-            data.groupMeta.getValueMeta(i).convertToNormalStorageType(entry.getGroupData()[i]);
-      }
-      for (int i = 0; i < data.aggMeta.size(); i++) {
-        outputRowData[index++] =
-            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+    // Then aggregate the rows of the groups which didn't fit in memory, one partition at a time.
+    // The rows of a partition which doesn't fit in memory either are spilled again.
+    //
+    while (data.spillPartitions != null
+        && data.spillPartitions.hasPendingPartitions()
+        && !isStopped()) {
+      try (SpillPartition partition = data.spillPartitions.nextPartition()) {
+        if (log.isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(
+                  PKG, "MemoryGroupBy.Log.AggregatingSpilledRows", partition.getNrRows()));
+        }
+        try (SpillFileReader reader = partition.openReader()) {
+          while (reader.next()) {
+            addToAggregate(reader.getRow());
+          }
+        } catch (IOException e) {
+          throw new HopException(e);
+        }
       }
-      putRow(data.outputRowMeta, outputRowData);
+      nrGroups += writeGroups();
+    }
+    if (data.spillPartitions != null) {
+      data.spillPartitions.close();
+      data.spillPartitions = null;
     }
 
     // What if we always need to give back one row?
     // This means we give back 0 for count all, count distinct, null for everything else
     //
-    if (data.map.isEmpty() && meta.isAlwaysGivingBackOneRow()) {
+    if (nrGroups == 0 && meta.isAlwaysGivingBackOneRow()) {
       Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
       int index = 0;
       for (int i = 0; i < data.groupMeta.size(); i++) {
@@ -230,6 +258,191 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
     }
   }
 
+  /**
+   * Write out the groups in memory and clear the map.
+   *
+   * @return the number of groups written
+   */
+  private long writeGroups() throws HopException {
+    for (Map.Entry<HashEntry, Aggregate> mapEntry : data.map.entrySet()) {
+      Object[] groupData = mapEntry.getKey().getGroupData();
+      Object[] aggregateResult = getAggregateResult(mapEntry.getValue());
+
+      Object[] outputRowData = RowDataUtil.allocateRowData(data.outputRowMeta.size());
+      int index = 0;
+      for (int i = 0; i < data.groupMeta.size(); i++) {
+        outputRowData[index++] =
+            data.groupMeta.getValueMeta(i).convertToNormalStorageType(groupData[i]);
+      }
+      for (int i = 0; i < data.aggMeta.size(); i++) {
+        outputRowData[index++] =
+            data.aggMeta.getValueMeta(i).convertToNormalStorageType(aggregateResult[i]);
+      }
+      putRow(data.outputRowMeta, outputRowData);
+    }
+    long nrGroups = data.map.size();
+    data.map.clear();
+    return nrGroups;
+  }
+
+  /**
+   * Spill the row of a new group to disk if the group doesn't fit in memory. Once the map is full
+   * the partition of the new group is spilled, see {@link SpillPartitions}.
+   *
+   * @param entry The new group
+   * @param r The row
+   * @return true if the row was written to disk
+   */
+  private boolean spillRow(HashEntry entry, Object[] r) throws HopException {
+    boolean memoryFull = data.map.size() >= data.maxGroupsInMemory;
+    if (data.spillPartitions == null) {
+      if (!memoryFull) {
+        return false;
+      }
+      data.spillPartitions =
+          new SpillPartitions(
+              data.inputRowMeta,
+              resolve(Const.NVL(meta.getSpillPrefix(), "grp")),
+              resolve(Const.NVL(meta.getSpillDirectory(), "${java.io.tmpdir}")),
+              false,
+              this::addBytesSpilled,
+              partitionNr -> {
+                if (log.isDetailed()) {
+                  logDetailed(
+                      BaseMessages.getString(
+                          PKG,
+                          "MemoryGroupBy.Log.SpillingPartition",
+                          partitionNr,
+                          data.map.size()));
+                }
+              });
+    }
+    return data.spillPartitions.spillRow(entry.hashCode(), r, memoryFull);
+  }
+
+  /**
+   * Hand over the groups of this copy to be merged with the groups of the other copies.
+   *
+   * @return true if this is the last copy to finish, the merged groups are in the map to be written
+   */
+  private boolean mergeCopies() throws HopException {
+    List<Partial> partials = data.copyAggregation.addPartial(new Partial(data, data.map));
+    data.map = new HashMap<>();
+    if (partials == null) {
+      return false;
+    }
+
+    // If this copy didn't receive any rows, take the layout from a copy which did
+    //
+    for (Partial partial : partials) {
+      if (!data.receivedRows && partial.getData().receivedRows) {
+        data.copyLayout(partial.getData());
+      }
+    }
+
+    for (Partial partial : partials) {
+      for (Map.Entry<HashEntry, Aggregate> mapEntry : partial.getMap().entrySet()) {
+        HashEntry entry = data.getHashEntry(mapEntry.getKey().getGroupData());
+        Aggregate aggregate = data.map.get(entry);
+        if (aggregate == null) {
+          data.map.put(entry, mapEntry.getValue());
+        } else {
+          mergeAggregate(aggregate, mapEntry.getValue());
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Merge the partial aggregate of a group calculated by another copy into an aggregate of the same
+   * group.
+   *
+   * @param aggregate The aggregate to merge into
+   * @param other The aggregate of the other copy
+   * @throws HopException
+   */
+  void mergeAggregate(Aggregate aggregate, Aggregate other) throws HopException {
+    for (int i = 0; i < data.subjectnrs.length; i++) {
+      IValueMeta valueMeta = data.aggMeta.getValueMeta(i);
+      Object value = aggregate.agg[i];
+      Object otherValue = other.agg[i];
+      GAggregate agg = meta.getAggregates().get(i);
+
+      switch (agg.getType()) {
+        case Sum:
+          aggregate.agg[i] = ValueDataUtil.sum(valueMeta, value, valueMeta, otherValue);
+          break;
+        case Average:
+          aggregate.agg[i] = ValueDataUtil.sum(valueMeta, value, valueMeta, otherValue);
+          aggregate.counts[i] += other.counts[i];
+          break;
+        case Median:
+        case Percentile:
+          ((List<Double>) value).addAll((List<Double>) otherValue);
+          break;
+        case StandardDeviation:
+          // Combine the means and the sums of squared differences from the mean
+          //
+          long n1 = aggregate.counts[i];
+          long n2 = other.counts[i];
+          if (n1 == 0) {
+            aggregate.agg[i] = otherValue;
+            aggregate.mean[i] = other.mean[i];
+          } else if (n2 > 0) {
+            double n = (double) n1 + n2;
+            double delta = other.mean[i] - aggregate.mean[i];
+            double sum1 = value == null ? 0.0 : (Double) value;
+            double sum2 = otherValue == null ? 0.0 : (Double) otherValue;
+            aggregate.mean[i] = aggregate.mean[i] + delta * n2 / n;
+            aggregate.agg[i] = sum1 + sum2 + delta * delta * n1 * n2 / n;
+          }
+          aggregate.counts[i] = n1 + n2;
+          break;
+        case CountDistinct:
+          if (other.distinctObjs != null && other.distinctObjs[i] != null) {
+            if (aggregate.distinctObjs == null) {
+              aggregate.distinctObjs = new Set[meta.getAggregates().size()];
+            }
+            if (aggregate.distinctObjs[i] == null) {
+              aggregate.distinctObjs[i] = new TreeSet<>();
+            }
+            aggregate.distinctObjs[i].addAll(other.distinctObjs[i]);
+            aggregate.counts[i] = aggregate.distinctObjs[i].size();
+          }
+          break;
+        case CountAll:
+        case CountAny:
+          aggregate.counts[i] += other.counts[i];
+          break;
+        case Minimum:
+          boolean otherIsNull = valueMeta.isNull(otherValue);
+          boolean valueIsNull = valueMeta.isNull(value);
+          if (minNullIsValued || (!otherIsNull && !valueIsNull)) {
+            aggregate.agg[i] = valueMeta.compare(otherValue, value) < 0 ? otherValue : value;
+          } else if (valueIsNull && !otherIsNull) {
+            aggregate.agg[i] = otherValue;
+          }
+          break;
+        case Maximum:
+          if (valueMeta.compare(otherValue, value) > 0) {
+            aggregate.agg[i] = otherValue;
+          }
+          break;
+        case ConcatDistinct:
+          ((SortedSet<Object>) value).addAll((SortedSet<Object>) otherValue);
+          break;
+        default:
+          throw new HopException(
+              BaseMessages.getString(
+                  PKG,
+                  "MemoryGroupBy.Exception.AggregateNotMergeable",
+                  agg.getField(),
+                  agg.getType().getDescription()));
+      }
+    }
+  }
+
   /**
    * Used for junits in MemoryGroupByAggregationNullsTest
    *
@@ -246,6 +459,10 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     Aggregate aggregate = data.map.get(entry);
     if (aggregate == null) {
+      if (data.maxGroupsInMemory > 0 && spillRow(entry, r)) {
+        return;
+      }
+
       // Create a new value...
       //
       aggregate = new Aggregate();
@@ -572,6 +789,31 @@ public class MemoryGroupBy extends BaseTransform<MemoryGroupByMeta, MemoryGroupB
 
     if (super.init()) {
       data.map = new HashMap<>(5000);
+      data.maxGroupsInMemory = Const.toInt(resolve(meta.getMaxGroupsInMemory()), 0);
+
+      int nrCopies = getTransformMeta().getCopies(this);
+      if (meta.isMergingCopies() && nrCopies > 1) {
+        for (GAggregate aggregate : meta.getAggregates()) {
+          if (!aggregate.getType().isMergeable()) {
+            logError(
+                BaseMessages.getString(
+                    PKG,
+                    "MemoryGroupBy.Exception.AggregateNotMergeable",
+                    aggregate.getField(),
+                    aggregate.getType().getDescription()));
+            return false;
+          }
+        }
+        data.copyAggregation =
+            CopyAggregation.getInstance(getPipeline(), getTransformName(), nrCopies);
+
+        // The partial aggregates are merged in memory
+        //
+        if (data.maxGroupsInMemory > 0) {
+          logBasic(BaseMessages.getString(PKG, "MemoryGroupBy.Log.MaxGroupsIgnoredWhenMerging"));
+          data.maxGroupsInMemory = 0;
+        }
+      }
       return true;
     }
     return false;
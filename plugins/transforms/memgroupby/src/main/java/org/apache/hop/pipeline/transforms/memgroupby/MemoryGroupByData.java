@@ -21,6 +21,7 @@ import java.util.HashMap;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.spill.SpillPartitions;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
@@ -88,6 +89,18 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
 
   public boolean newBatch;
 
+  /** The maximum number of groups to keep in memory, 0 or less means there is no limit */
+  public int maxGroupsInMemory;
+
+  /** The partitions spilled to disk while aggregating, null as long as nothing was spilled */
+  public SpillPartitions spillPartitions;
+
+  /** Shared by the copies of the transform if their partial aggregates are merged */
+  public CopyAggregation copyAggregation;
+
+  /** True if this copy received rows, the layout is taken from the input rows in that case */
+  public boolean receivedRows;
+
   public MemoryGroupByData() {
     super();
   }
@@ -96,8 +109,29 @@ public class MemoryGroupByData extends BaseTransformData implements ITransformDa
     return new HashEntry(groupData);
   }
 
+  /**
+   * Take over the layout of the rows and groups of another copy of the transform.
+   *
+   * @param other The data of the other copy
+   */
+  public void copyLayout(MemoryGroupByData other) {
+    inputRowMeta = other.inputRowMeta;
+    outputRowMeta = other.outputRowMeta;
+    groupMeta = other.groupMeta;
+    entryMeta = other.entryMeta;
+    aggMeta = other.aggMeta;
+    groupAggMeta = other.groupAggMeta;
+    groupnrs = other.groupnrs;
+    subjectnrs = other.subjectnrs;
+    receivedRows = other.receivedRows;
+  }
+
   /** Method responsible for clearing out memory hogs */
   public void clear() {
     map = new HashMap<>();
+    if (spillPartitions != null) {
+      spillPartitions.close();
+      spillPartitions = null;
+    }
   }
 }
@@ -35,6 +35,7 @@ import org.apache.hop.ui.core.dialog.BaseDialog;
 import org.apache.hop.ui.core.dialog.ErrorDialog;
 import org.apache.hop.ui.core.widget.ColumnInfo;
 import org.apache.hop.ui.core.widget.TableView;
+import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ModifyListener;
@@ -59,6 +60,14 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
 
   private Button wAlwaysAddResult;
 
+  private TextVar wMaxGroupsInMemory;
+
+  private TextVar wSpillDirectory;
+
+  private TextVar wSpillPrefix;
+
+  private Button wMergingCopies;
+
   private final MemoryGroupByMeta input;
 
   private ColumnInfo[] ciKey;
@@ -143,12 +152,110 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
     wAlwaysAddResult.setLayoutData(fdAlwaysAddResult);
     wAlwaysAddResult.addSelectionListener(lsSel);
 
+    // Maximum number of groups to keep in memory before using temporary files
+    //
+    Label wlMaxGroupsInMemory = new Label(shell, SWT.RIGHT);
+    wlMaxGroupsInMemory.setText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.MaxGroupsInMemory.Label"));
+    wlMaxGroupsInMemory.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.MaxGroupsInMemory.ToolTip"));
+    PropsUi.setLook(wlMaxGroupsInMemory);
+    FormData fdlMaxGroupsInMemory = new FormData();
+    fdlMaxGroupsInMemory.left = new FormAttachment(0, 0);
+    fdlMaxGroupsInMemory.top = new FormAttachment(wlAlwaysAddResult, 2 * margin);
+    fdlMaxGroupsInMemory.right = new FormAttachment(middle, -margin);
+    wlMaxGroupsInMemory.setLayoutData(fdlMaxGroupsInMemory);
+    wMaxGroupsInMemory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMaxGroupsInMemory.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.MaxGroupsInMemory.ToolTip"));
+    PropsUi.setLook(wMaxGroupsInMemory);
+    wMaxGroupsInMemory.addModifyListener(lsMod);
+    FormData fdMaxGroupsInMemory = new FormData();
+    fdMaxGroupsInMemory.left = new FormAttachment(middle, 0);
+    fdMaxGroupsInMemory.top = new FormAttachment(wlMaxGroupsInMemory, 0, SWT.CENTER);
+    fdMaxGroupsInMemory.right = new FormAttachment(100, 0);
+    wMaxGroupsInMemory.setLayoutData(fdMaxGroupsInMemory);
+
+    // Temp directory for the groups which don't fit in memory
+    //
+    Label wlSpillDirectory = new Label(shell, SWT.RIGHT);
+    wlSpillDirectory.setText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillDirectory.Label"));
+    PropsUi.setLook(wlSpillDirectory);
+    FormData fdlSpillDirectory = new FormData();
+    fdlSpillDirectory.left = new FormAttachment(0, 0);
+    fdlSpillDirectory.top = new FormAttachment(wMaxGroupsInMemory, margin);
+    fdlSpillDirectory.right = new FormAttachment(middle, -margin);
+    wlSpillDirectory.setLayoutData(fdlSpillDirectory);
+
+    Button wbSpillDirectory = new Button(shell, SWT.PUSH | SWT.CENTER);
+    PropsUi.setLook(wbSpillDirectory);
+    wbSpillDirectory.setText(BaseMessages.getString(PKG, "System.Button.Browse"));
+    FormData fdbSpillDirectory = new FormData();
+    fdbSpillDirectory.right = new FormAttachment(100, 0);
+    fdbSpillDirectory.top = new FormAttachment(wMaxGroupsInMemory, margin);
+    wbSpillDirectory.setLayoutData(fdbSpillDirectory);
+
+    wSpillDirectory = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wSpillDirectory);
+    wSpillDirectory.addModifyListener(lsMod);
+    FormData fdSpillDirectory = new FormData();
+    fdSpillDirectory.left = new FormAttachment(middle, 0);
+    fdSpillDirectory.top = new FormAttachment(wMaxGroupsInMemory, margin);
+    fdSpillDirectory.right = new FormAttachment(wbSpillDirectory, -margin);
+    wSpillDirectory.setLayoutData(fdSpillDirectory);
+
+    wbSpillDirectory.addListener(
+        SWT.Selection, e -> BaseDialog.presentDirectoryDialog(shell, wSpillDirectory, variables));
+
+    // Prefix of the temporary files
+    //
+    Label wlSpillPrefix = new Label(shell, SWT.RIGHT);
+    wlSpillPrefix.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.SpillPrefix.Label"));
+    PropsUi.setLook(wlSpillPrefix);
+    FormData fdlSpillPrefix = new FormData();
+    fdlSpillPrefix.left = new FormAttachment(0, 0);
+    fdlSpillPrefix.top = new FormAttachment(wbSpillDirectory, margin);
+    fdlSpillPrefix.right = new FormAttachment(middle, -margin);
+    wlSpillPrefix.setLayoutData(fdlSpillPrefix);
+    wSpillPrefix = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wSpillPrefix);
+    wSpillPrefix.addModifyListener(lsMod);
+    FormData fdSpillPrefix = new FormData();
+    fdSpillPrefix.left = new FormAttachment(middle, 0);
+    fdSpillPrefix.top = new FormAttachment(wbSpillDirectory, margin);
+    fdSpillPrefix.right = new FormAttachment(100, 0);
+    wSpillPrefix.setLayoutData(fdSpillPrefix);
+
+    // Merge the partial aggregates of the transform copies
+    //
+    Label wlMergingCopies = new Label(shell, SWT.RIGHT);
+    wlMergingCopies.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.MergingCopies.Label"));
+    wlMergingCopies.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.MergingCopies.ToolTip"));
+    PropsUi.setLook(wlMergingCopies);
+    FormData fdlMergingCopies = new FormData();
+    fdlMergingCopies.left = new FormAttachment(0, 0);
+    fdlMergingCopies.top = new FormAttachment(wSpillPrefix, margin);
+    fdlMergingCopies.right = new FormAttachment(middle, -margin);
+    wlMergingCopies.setLayoutData(fdlMergingCopies);
+    wMergingCopies = new Button(shell, SWT.CHECK);
+    wMergingCopies.setToolTipText(
+        BaseMessages.getString(PKG, "MemoryGroupByDialog.MergingCopies.ToolTip"));
+    PropsUi.setLook(wMergingCopies);
+    FormData fdMergingCopies = new FormData();
+    fdMergingCopies.left = new FormAttachment(middle, 0);
+    fdMergingCopies.top = new FormAttachment(wlMergingCopies, 0, SWT.CENTER);
+    fdMergingCopies.right = new FormAttachment(100, 0);
+    wMergingCopies.setLayoutData(fdMergingCopies);
+    wMergingCopies.addSelectionListener(lsSel);
+
     Label wlGroup = new Label(shell, SWT.NONE);
     wlGroup.setText(BaseMessages.getString(PKG, "MemoryGroupByDialog.Group.Label"));
     PropsUi.setLook(wlGroup);
     FormData fdlGroup = new FormData();
     fdlGroup.left = new FormAttachment(0, 0);
-    fdlGroup.top = new FormAttachment(wlAlwaysAddResult, 2 * margin);
+    fdlGroup.top = new FormAttachment(wlMergingCopies, 2 * margin);
     wlGroup.setLayoutData(fdlGroup);
 
     int groupCols = 1;
@@ -305,6 +412,10 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
     logDebug(BaseMessages.getString(PKG, "MemoryGroupByDialog.Log.GettingKeyInfo"));
 
     wAlwaysAddResult.setSelection(input.isAlwaysGivingBackOneRow());
+    wMaxGroupsInMemory.setText(Const.NVL(input.getMaxGroupsInMemory(), ""));
+    wSpillDirectory.setText(Const.NVL(input.getSpillDirectory(), ""));
+    wSpillPrefix.setText(Const.NVL(input.getSpillPrefix(), ""));
+    wMergingCopies.setSelection(input.isMergingCopies());
 
     for (int i = 0; i < input.getGroups().size(); i++) {
       TableItem item = wGroup.table.getItem(i);
@@ -341,6 +452,10 @@ public class MemoryGroupByDialog extends BaseTransformDialog implements ITransfo
     }
 
     input.setAlwaysGivingBackOneRow(wAlwaysAddResult.getSelection());
+    input.setMaxGroupsInMemory(wMaxGroupsInMemory.getText());
+    input.setSpillDirectory(wSpillDirectory.getText());
+    input.setSpillPrefix(wSpillPrefix.getText());
+    input.setMergingCopies(wMergingCopies.getSelection());
 
     input.getGroups().clear();
     for (TableItem item : wGroup.getNonEmptyItems()) {
@@ -82,9 +82,46 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       injectionKeyDescription = "MemoryGroupBy.Injection.ALWAYSGIVINGBACKONEROW")
   private boolean alwaysGivingBackOneRow;
 
+  /**
+   * The maximum number of groups to keep in memory. Beyond this number the rows of new groups are
+   * spilled to temporary files and aggregated after the groups in memory were written. Empty means
+   * that there is no limit.
+   */
+  @HopMetadataProperty(
+      key = "max_groups_in_memory",
+      injectionKey = "MAXGROUPSINMEMORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.MAXGROUPSINMEMORY")
+  private String maxGroupsInMemory;
+
+  /** The directory to store the temporary files in */
+  @HopMetadataProperty(
+      key = "spill_directory",
+      injectionKey = "SPILLDIRECTORY",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILLDIRECTORY")
+  private String spillDirectory;
+
+  /** The prefix of the temporary files */
+  @HopMetadataProperty(
+      key = "spill_prefix",
+      injectionKey = "SPILLPREFIX",
+      injectionKeyDescription = "MemoryGroupBy.Injection.SPILLPREFIX")
+  private String spillPrefix;
+
+  /**
+   * When running in multiple copies, every copy aggregates its share of the rows and the partial
+   * aggregates of all copies are merged into a single result.
+   */
+  @HopMetadataProperty(
+      key = "merge_copies",
+      injectionKey = "MERGINGCOPIES",
+      injectionKeyDescription = "MemoryGroupBy.Injection.MERGINGCOPIES")
+  private boolean mergingCopies;
+
   public MemoryGroupByMeta() {
     this.groups = new ArrayList<>();
     this.aggregates = new ArrayList<>();
+    this.spillDirectory = "${java.io.tmpdir}";
+    this.spillPrefix = "grp";
   }
 
   public MemoryGroupByMeta(MemoryGroupByMeta meta) {
@@ -96,6 +133,10 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       aggregates.add(new GAggregate(aggregate));
     }
     this.alwaysGivingBackOneRow = meta.alwaysGivingBackOneRow;
+    this.maxGroupsInMemory = meta.maxGroupsInMemory;
+    this.spillDirectory = meta.spillDirectory;
+    this.spillPrefix = meta.spillPrefix;
+    this.mergingCopies = meta.mergingCopies;
   }
 
   @Override
@@ -244,6 +285,22 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
               transformMeta);
       remarks.add(cr);
     }
+
+    if (mergingCopies) {
+      for (GAggregate aggregate : aggregates) {
+        if (!aggregate.getType().isMergeable()) {
+          remarks.add(
+              new CheckResult(
+                  ICheckResult.TYPE_RESULT_ERROR,
+                  BaseMessages.getString(
+                      PKG,
+                      "MemoryGroupByMeta.CheckResult.AggregateNotMergeable",
+                      aggregate.getField(),
+                      aggregate.getType().getDescription()),
+                  transformMeta));
+        }
+      }
+    }
   }
 
   @Override
@@ -397,6 +454,24 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
       return None;
     }
 
+    /**
+     * @return true if the partial aggregates of different copies can be merged. This is not the
+     *     case for aggregates which depend on the order of the rows.
+     */
+    public boolean isMergeable() {
+      switch (this) {
+        case First:
+        case Last:
+        case FirstIncludingNull:
+        case LastIncludingNull:
+        case ConcatComma:
+        case ConcatString:
+          return false;
+        default:
+          return true;
+      }
+    }
+
     public static GroupType getTypeWithCode(String code) {
       for (GroupType value : values()) {
         if (value.getCode().equalsIgnoreCase(code)) {
@@ -475,8 +550,80 @@ public class MemoryGroupByMeta extends BaseTransformMeta<MemoryGroupBy, MemoryGr
     this.alwaysGivingBackOneRow = alwaysGivingBackOneRow;
   }
 
+  /**
+   * Gets maxGroupsInMemory
+   *
+   * @return value of maxGroupsInMemory
+   */
+  public String getMaxGroupsInMemory() {
+    return maxGroupsInMemory;
+  }
+
+  /**
+   * Sets maxGroupsInMemory
+   *
+   * @param maxGroupsInMemory value of maxGroupsInMemory
+   */
+  public void setMaxGroupsInMemory(String maxGroupsInMemory) {
+    this.maxGroupsInMemory = maxGroupsInMemory;
+  }
+
+  /**
+   * Gets spillDirectory
+   *
+   * @return value of spillDirectory
+   */
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /**
+   * Sets spillDirectory
+   *
+   * @param spillDirectory value of spillDirectory
+   */
+  public void setSpillDirectory(String spillDirectory) {
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * Gets spillPrefix
+   *
+   * @return value of spillPrefix
+   */
+  public String getSpillPrefix() {
+    return spillPrefix;
+  }
+
+  /**
+   * Sets spillPrefix
+   *
+   * @param spillPrefix value of spillPrefix
+   */
+  public void setSpillPrefix(String spillPrefix) {
+    this.spillPrefix = spillPrefix;
+  }
+
+  /**
+   * Gets mergingCopies
+   *
+   * @return value of mergingCopies
+   */
+  public boolean isMergingCopies() {
+    return mergingCopies;
+  }
+
+  /**
+   * Sets mergingCopies
+   *
+   * @param mergingCopies value of mergingCopies
+   */
+  public void setMergingCopies(boolean mergingCopies) {
+    this.mergingCopies = mergingCopies;
+  }
+
   @Override
   public boolean supportsMultiCopyExecution() {
-    return false;
+    return mergingCopies;
   }
 }
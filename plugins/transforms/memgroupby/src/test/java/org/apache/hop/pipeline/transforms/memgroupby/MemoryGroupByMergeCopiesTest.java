@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.variables.IVariables;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class MemoryGroupByMergeCopiesTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private static final int NR_COPIES = 3;
+
+  private TransformMockHelper<MemoryGroupByMeta, MemoryGroupByData> mockHelper;
+
+  @Before
+  public void setUp() {
+    mockHelper =
+        new TransformMockHelper<>(
+            "Memory group by", MemoryGroupByMeta.class, MemoryGroupByData.class);
+    mockHelper.initRunningPipeline();
+    when(mockHelper.pipeline.getExtensionDataMap()).thenReturn(new HashMap<>());
+  }
+
+  @After
+  public void cleanUp() {
+    mockHelper.cleanUp();
+  }
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    rowMeta.addValueMeta(new ValueMetaNumber("amount"));
+    rowMeta.addValueMeta(new ValueMetaString("code"));
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows(int nrRows, int nrGroups) {
+    Random random = new Random(5L);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < nrRows; i++) {
+      rows.add(
+          new Object[] {
+            "key" + random.nextInt(nrGroups),
+            (long) random.nextInt(1000),
+            random.nextInt(10) == 0 ? null : random.nextDouble() * 100,
+            "code" + random.nextInt(5)
+          });
+    }
+    return rows;
+  }
+
+  private MemoryGroupByMeta createMeta(boolean mergingCopies) {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.getGroups().add(new GGroup("key"));
+    meta.getAggregates().add(new GAggregate("sum", "id", GroupType.Sum, null));
+    meta.getAggregates().add(new GAggregate("average", "amount", GroupType.Average, null));
+    meta.getAggregates().add(new GAggregate("count", "amount", GroupType.CountAll, null));
+    meta.getAggregates().add(new GAggregate("rows", null, GroupType.CountAny, null));
+    meta.getAggregates().add(new GAggregate("codes", "code", GroupType.CountDistinct, null));
+    meta.getAggregates().add(new GAggregate("min", "amount", GroupType.Minimum, null));
+    meta.getAggregates().add(new GAggregate("max", "id", GroupType.Maximum, null));
+    meta.getAggregates().add(new GAggregate("stddev", "id", GroupType.StandardDeviation, null));
+    meta.getAggregates().add(new GAggregate("median", "id", GroupType.Median, null));
+    meta.getAggregates().add(new GAggregate("list", "code", GroupType.ConcatDistinct, ","));
+    meta.setMergingCopies(mergingCopies);
+    return meta;
+  }
+
+  private MemoryGroupBy createTransform(MemoryGroupByMeta meta, int copyNr, List<Object[]> rows) {
+    MemoryGroupBy groupBy =
+        new MemoryGroupBy(
+            mockHelper.transformMeta,
+            meta,
+            new MemoryGroupByData(),
+            copyNr,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    mockHelper.setInputRows(groupBy, createRowMeta(), rows);
+    return groupBy;
+  }
+
+  private Map<String, Object[]> run(MemoryGroupBy groupBy) throws HopException {
+    // Every group is written exactly once
+    //
+    Map<String, Object[]> output = new HashMap<>();
+    for (Object[] row : mockHelper.runTransform(groupBy)) {
+      assertEquals(null, output.put((String) row[0], row));
+    }
+    return output;
+  }
+
+  /** Distribute the rows round-robin over the copies, like a hop which distributes rows. */
+  private List<List<Object[]>> distribute(List<Object[]> rows) {
+    List<List<Object[]>> shares = new ArrayList<>();
+    for (int i = 0; i < NR_COPIES; i++) {
+      shares.add(new ArrayList<>());
+    }
+    for (int i = 0; i < rows.size(); i++) {
+      shares.get(i % NR_COPIES).add(rows.get(i));
+    }
+    return shares;
+  }
+
+  private void assertSameGroups(Map<String, Object[]> expected, Map<String, Object[]> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (Map.Entry<String, Object[]> entry : expected.entrySet()) {
+      Object[] expectedRow = entry.getValue();
+      Object[] actualRow = actual.get(entry.getKey());
+      assertEquals(expectedRow.length, actualRow.length);
+      for (int i = 0; i < expectedRow.length; i++) {
+        if (expectedRow[i] instanceof Double) {
+          assertEquals((Double) expectedRow[i], (Double) actualRow[i], 1e-9);
+        } else {
+          assertEquals(expectedRow[i], actualRow[i]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testMergeCopies() throws Exception {
+    List<Object[]> rows = createRows(3000, 100);
+
+    MemoryGroupBy single = createTransform(createMeta(false), 0, rows);
+    assertTrue(single.init());
+    Map<String, Object[]> expected = run(single);
+    assertEquals(100, expected.size());
+
+    when(mockHelper.transformMeta.getCopies(any(IVariables.class))).thenReturn(NR_COPIES);
+    MemoryGroupByMeta meta = createMeta(true);
+    List<List<Object[]>> shares = distribute(rows);
+    List<MemoryGroupBy> copies = new ArrayList<>();
+    for (int i = 0; i < NR_COPIES; i++) {
+      MemoryGroupBy copy = createTransform(meta, i, shares.get(i));
+      assertTrue(copy.init());
+      copies.add(copy);
+    }
+
+    // Only the last copy to finish writes the merged groups
+    //
+    assertTrue(run(copies.get(1)).isEmpty());
+    assertTrue(run(copies.get(0)).isEmpty());
+    assertSameGroups(expected, run(copies.get(2)));
+  }
+
+  /** The last copy to finish didn't receive any rows itself. */
+  @Test
+  public void testLastCopyWithoutRows() throws Exception {
+    List<List<Object[]>> shares = distribute(createRows(1000, 50));
+    List<Object[]> rows = new ArrayList<>(shares.get(0));
+    rows.addAll(shares.get(1));
+
+    MemoryGroupBy single = createTransform(createMeta(false), 0, rows);
+    assertTrue(single.init());
+    Map<String, Object[]> expected = run(single);
+
+    when(mockHelper.transformMeta.getCopies(any(IVariables.class))).thenReturn(NR_COPIES);
+    MemoryGroupByMeta meta = createMeta(true);
+    MemoryGroupBy copy0 = createTransform(meta, 0, shares.get(0));
+    MemoryGroupBy copy1 = createTransform(meta, 1, shares.get(1));
+    MemoryGroupBy copy2 = createTransform(meta, 2, new ArrayList<>());
+    assertTrue(copy0.init());
+    assertTrue(copy1.init());
+    assertTrue(copy2.init());
+
+    assertTrue(run(copy0).isEmpty());
+    assertTrue(run(copy1).isEmpty());
+    assertSameGroups(expected, run(copy2));
+  }
+
+  @Test
+  public void testOrderDependentAggregateNotMergeable() throws Exception {
+    when(mockHelper.transformMeta.getCopies(any(IVariables.class))).thenReturn(NR_COPIES);
+    MemoryGroupByMeta meta = createMeta(true);
+    meta.getAggregates().add(new GAggregate("first", "id", GroupType.First, null));
+
+    assertFalse(createTransform(meta, 0, new ArrayList<>()).init());
+  }
+}
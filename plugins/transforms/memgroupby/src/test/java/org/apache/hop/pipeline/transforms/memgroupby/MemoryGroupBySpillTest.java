@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.memgroupby;
+
+import static org.apache.hop.pipeline.transforms.mock.TransformMockHelper.createKeyRowMeta;
+import static org.apache.hop.pipeline.transforms.mock.TransformMockHelper.createKeyRows;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transforms.memgroupby.MemoryGroupByMeta.GroupType;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MemoryGroupBySpillTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private TransformMockHelper<MemoryGroupByMeta, MemoryGroupByData> mockHelper;
+
+  @Before
+  public void setUp() {
+    mockHelper =
+        new TransformMockHelper<>(
+            "Memory group by", MemoryGroupByMeta.class, MemoryGroupByData.class);
+    mockHelper.initRunningPipeline();
+  }
+
+  @After
+  public void cleanUp() {
+    mockHelper.cleanUp();
+  }
+
+  private List<Object[]> createRows(int nrRows, int nrGroups) {
+    return createKeyRows(nrRows, nrGroups, 11L);
+  }
+
+  private MemoryGroupByMeta createMeta(String maxGroupsInMemory) {
+    MemoryGroupByMeta meta = new MemoryGroupByMeta();
+    meta.getGroups().add(new GGroup("key"));
+    meta.getAggregates().add(new GAggregate("sum", "id", GroupType.Sum, null));
+    meta.getAggregates().add(new GAggregate("count", "id", GroupType.CountAll, null));
+    meta.getAggregates().add(new GAggregate("first", "id", GroupType.First, null));
+    meta.getAggregates().add(new GAggregate("last", "id", GroupType.Last, null));
+    meta.getAggregates().add(new GAggregate("list", "id", GroupType.ConcatComma, null));
+    meta.getAggregates().add(new GAggregate("median", "id", GroupType.Median, null));
+    meta.setMaxGroupsInMemory(maxGroupsInMemory);
+    meta.setSpillDirectory(tempFolder.getRoot().getAbsolutePath());
+    return meta;
+  }
+
+  private Map<String, Object[]> groupBy(MemoryGroupByMeta meta, List<Object[]> rows)
+      throws HopException {
+    MemoryGroupBy groupBy =
+        new MemoryGroupBy(
+            mockHelper.transformMeta,
+            meta,
+            new MemoryGroupByData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+
+    // Every group is written exactly once
+    //
+    Map<String, Object[]> output = new HashMap<>();
+    for (Object[] row : mockHelper.processRows(groupBy, createKeyRowMeta(), rows)) {
+      assertEquals(null, output.put((String) row[0], row));
+    }
+
+    // All the temporary files are removed
+    //
+    assertEquals(0, tempFolder.getRoot().list().length);
+    return output;
+  }
+
+  private void assertSameGroups(Map<String, Object[]> expected, Map<String, Object[]> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (Map.Entry<String, Object[]> entry : expected.entrySet()) {
+      assertArrayEquals(
+          Arrays.toString(entry.getValue()), entry.getValue(), actual.get(entry.getKey()));
+    }
+  }
+
+  @Test
+  public void testAllGroupsInMemory() throws Exception {
+    List<Object[]> rows = createRows(2000, 200);
+    Map<String, Object[]> expected = groupBy(createMeta(null), rows);
+    assertEquals(200, expected.size());
+
+    assertSameGroups(expected, groupBy(createMeta("500"), rows));
+  }
+
+  @Test
+  public void testSpillToDisk() throws Exception {
+    List<Object[]> rows = createRows(5000, 1000);
+    Map<String, Object[]> expected = groupBy(createMeta(null), rows);
+    assertTrue(expected.size() > 900);
+
+    assertSameGroups(expected, groupBy(createMeta("100"), rows));
+  }
+
+  /** The spilled partitions don't fit in memory either and are spilled again. */
+  @Test
+  public void testSpillSpilledPartitions() throws Exception {
+    List<Object[]> rows = createRows(5000, 2000);
+    Map<String, Object[]> expected = groupBy(createMeta(null), rows);
+
+    assertSameGroups(expected, groupBy(createMeta("20"), rows));
+  }
+}
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import org.apache.hop.base.MetaFileCache;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.annotations.Transform;
 import org.apache.hop.core.exception.HopException;
@@ -302,7 +303,7 @@ public class MetaInjectMeta extends BaseTransformMeta<MetaInject, MetaInjectData
     this.fileName = fileName;
   }
 
-  public static final synchronized PipelineMeta loadPipelineMeta(
+  public static final PipelineMeta loadPipelineMeta(
       MetaInjectMeta injectMeta, IHopMetadataProvider metadataProvider, IVariables variables)
       throws HopException {
     PipelineMeta mappingPipelineMeta = null;
@@ -319,7 +320,8 @@ public class MetaInjectMeta extends BaseTransformMeta<MetaInject, MetaInjectData
       // Don't set internal variables: they belong to the parent thread!
       //
       if (mappingPipelineMeta == null) {
-        mappingPipelineMeta = new PipelineMeta(realFilename, metadataProvider, tmpSpace);
+        mappingPipelineMeta =
+            MetaFileCache.getInstance().loadPipelineMeta(realFilename, metadataProvider, tmpSpace);
         LogChannel.GENERAL.logDetailed(
             "Loading Mapping from repository",
             "Mapping transformation was loaded from XML file [" + realFilename + "]");
@@ -650,4 +652,9 @@ public class MetaInjectMeta extends BaseTransformMeta<MetaInject, MetaInjectData
   public String getFilename() {
     return null;
   }
+
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
 }
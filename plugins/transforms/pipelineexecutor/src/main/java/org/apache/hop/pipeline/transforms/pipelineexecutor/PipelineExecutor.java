@@ -21,6 +21,8 @@ import com.google.common.annotations.VisibleForTesting;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -39,11 +41,14 @@ import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.TransformWithMappingMeta;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.engine.PipelineEngineFactory;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.TransformMetaDataCombi;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
 
 /** Execute a pipeline for every input row, set parameters. */
 public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, PipelineExecutorData> {
@@ -75,6 +80,7 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
 
       if (row == null) {
         executePipeline(null);
+        stopPersistentPipeline();
         setOutputDone();
         return false;
       }
@@ -226,6 +232,12 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
       discardLogLines(pipelineExecutorData);
     }
 
+    if (meta.isPersistentPipeline()
+        && !pipelineExecutorData.persistentFallback
+        && executePersistentPipeline(incomingFieldValues)) {
+      return;
+    }
+
     IPipelineEngine<PipelineMeta> executorPipeline = createInternalPipeline();
     pipelineExecutorData.setExecutorPipeline(executorPipeline);
     if (incomingFieldValues != null) {
@@ -272,6 +284,232 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
     pipelineExecutorData.groupBuffer.clear();
   }
 
+  /**
+   * Pass the rows of the current group through the persistent sub-pipeline. The sub-pipeline is
+   * started for the first group and kept running: the transforms are only initialized once. The
+   * rows are injected into the Injector transform of the sub-pipeline and a single threaded
+   * iteration passes them through all the transforms. The rows copied to the result by the
+   * sub-pipeline during that iteration are the result rows of the group.
+   *
+   * @param incomingFieldValues The field values to pass as parameters
+   * @return false if the sub-pipeline can't be kept running and needs to be executed for every
+   *     group instead
+   * @throws HopException In case the sub-pipeline can't be started
+   */
+  private boolean executePersistentPipeline(List<String> incomingFieldValues) throws HopException {
+    PipelineExecutorData pipelineExecutorData = getData();
+
+    boolean starting = pipelineExecutorData.persistentPipeline == null;
+    String injectorTransformName = null;
+    if (starting) {
+      // Load a separate copy since the pipeline type is changed
+      //
+      PipelineMeta persistentPipelineMeta = loadExecutorPipelineMeta();
+      persistentPipelineMeta.setPipelineType(PipelineMeta.PipelineType.SingleThreaded);
+
+      // The rows are injected into the (only) Injector transform
+      //
+      for (TransformMeta transformMeta : persistentPipelineMeta.getTransforms()) {
+        if (transformMeta.getTransform() instanceof InjectorMeta) {
+          if (injectorTransformName != null) {
+            throw new HopException(
+                BaseMessages.getString(
+                    PKG,
+                    "PipelineExecutor.Exception.MoreThanOneInjector",
+                    persistentPipelineMeta.getName()));
+          }
+          injectorTransformName = transformMeta.getName();
+        }
+      }
+      if (injectorTransformName == null) {
+        logBasic(
+            BaseMessages.getString(
+                PKG, "PipelineExecutor.Log.NoInjectorTransform", persistentPipelineMeta.getName()));
+        pipelineExecutorData.persistentFallback = true;
+        return false;
+      }
+
+      IPipelineEngine<PipelineMeta> executorPipeline =
+          createInternalPipeline(persistentPipelineMeta);
+      if (!(executorPipeline instanceof Pipeline)) {
+        logBasic(
+            BaseMessages.getString(
+                PKG,
+                "PipelineExecutor.Log.PersistentPipelineNotLocal",
+                resolve(meta.getRunConfigurationName())));
+        pipelineExecutorData.persistentFallback = true;
+        return false;
+      }
+      pipelineExecutorData.setExecutorPipeline(executorPipeline);
+      pipelineExecutorData.persistentPipeline = (Pipeline) executorPipeline;
+
+      // Parameter values change per group but the transforms are only initialized once
+      //
+      if (hasFieldParameters()) {
+        logBasic(
+            BaseMessages.getString(
+                PKG,
+                "PipelineExecutor.Log.PersistentPipelineParameters",
+                persistentPipelineMeta.getName()));
+      }
+    }
+
+    Pipeline pipeline = pipelineExecutorData.persistentPipeline;
+    passParametersToPipeline(
+        incomingFieldValues != null ? incomingFieldValues : getLastIncomingFieldValues());
+
+    Result result;
+    boolean keepRunning = false;
+    try {
+      if (starting) {
+        startPersistentPipeline(pipeline, injectorTransformName);
+      } else {
+        // The transforms are running already: give them the parameter values of this group
+        //
+        for (TransformMetaDataCombi combi : pipeline.getTransforms()) {
+          for (String variable : meta.getParameters().getVariable()) {
+            combi.transform.setVariable(variable, pipeline.getVariable(variable));
+          }
+        }
+      }
+
+      for (RowMetaAndData row : pipelineExecutorData.groupBuffer) {
+        pipelineExecutorData.persistentRowProducer.putRow(row.getRowMeta(), row.getData());
+      }
+      keepRunning = pipelineExecutorData.persistentExecutor.oneIteration();
+
+      result = pipeline.getResult();
+      if (pipelineExecutorData.persistentExecutor.getErrors() > 0) {
+        result.setResult(false);
+        result.setNrErrors(
+            Math.max(result.getNrErrors(), pipelineExecutorData.persistentExecutor.getErrors()));
+        keepRunning = false;
+      }
+    } catch (HopException e) {
+      log.logError("An error occurred executing the pipeline: ", e);
+      result = new Result();
+      result.setResult(false);
+      result.setNrErrors(1);
+    }
+
+    // Only pass on the rows and files of this group
+    //
+    result.setRows(new ArrayList<>(pipeline.getResultRows()));
+    pipeline.getResultRows().clear();
+    Map<String, ResultFile> resultFiles = new HashMap<>();
+    for (Map.Entry<String, ResultFile> entry : result.getResultFiles().entrySet()) {
+      if (pipelineExecutorData.persistentResultFiles.add(entry.getKey())) {
+        resultFiles.put(entry.getKey(), entry.getValue());
+      }
+    }
+    result.setResultFiles(resultFiles);
+
+    collectPipelineResults(result);
+    collectExecutionResults(result);
+    collectExecutionResultFiles(result);
+
+    pipelineExecutorData.groupBuffer.clear();
+
+    if (keepRunning) {
+      resetPersistentPipelineMetrics(pipeline);
+    } else {
+      // Errors or a stopped sub-pipeline: start a fresh one for the next group
+      //
+      stopPersistentPipeline();
+    }
+    return true;
+  }
+
+  /**
+   * @return true if a parameter of the sub-pipeline takes its value from a field
+   */
+  private boolean hasFieldParameters() {
+    String[] fields = meta.getParameters().getField();
+    if (fields != null) {
+      for (String field : fields) {
+        if (!Utils.isEmpty(field)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private void startPersistentPipeline(Pipeline pipeline, String injectorTransformName)
+      throws HopException {
+    PipelineExecutorData pipelineExecutorData = getData();
+
+    // keep track for drill down in HopGui...
+    getPipeline().addActiveSubPipeline(getTransformName(), pipeline);
+
+    pipeline.setPreviousResult(new Result());
+    pipelineExecutorData.persistentResultFiles = new HashSet<>();
+
+    // This initializes the transforms, once. From here on the executor disposes of them, also when
+    // the rest of the start fails.
+    //
+    pipeline.prepareExecution();
+    pipelineExecutorData.persistentExecutor = new SingleThreadedPipelineExecutor(pipeline);
+    pipelineExecutorData.persistentRowProducer = pipeline.addRowProducer(injectorTransformName, 0);
+    pipeline.startThreads();
+
+    logDetailed(
+        BaseMessages.getString(
+            PKG, "PipelineExecutor.Log.PersistentPipelineStarted", pipeline.getName()));
+  }
+
+  /** Reset the metrics of the transforms so that the next group reports its own numbers. */
+  private void resetPersistentPipelineMetrics(Pipeline pipeline) {
+    for (TransformMetaDataCombi combi : pipeline.getTransforms()) {
+      BaseTransform<?, ?> transform = (BaseTransform<?, ?>) combi.transform;
+      transform.setLinesInput(0);
+      transform.setLinesOutput(0);
+      transform.setLinesWritten(0);
+      transform.setLinesRead(0);
+      transform.setLinesSkipped(0);
+      transform.setLinesUpdated(0);
+      transform.setLinesRejected(0);
+    }
+  }
+
+  /**
+   * Finish and dispose the persistent sub-pipeline, if there is one. This also cleans up after a
+   * sub-pipeline which failed to start.
+   */
+  private void stopPersistentPipeline() {
+    PipelineExecutorData pipelineExecutorData = getData();
+    Pipeline persistentPipeline = pipelineExecutorData.persistentPipeline;
+    if (persistentPipeline == null) {
+      return;
+    }
+    SingleThreadedPipelineExecutor persistentExecutor = pipelineExecutorData.persistentExecutor;
+    pipelineExecutorData.persistentPipeline = null;
+    pipelineExecutorData.persistentExecutor = null;
+    pipelineExecutorData.persistentRowProducer = null;
+    pipelineExecutorData.persistentResultFiles = null;
+
+    // Without an executor the transforms were never initialized, or prepareExecution() disposed of
+    // them already
+    //
+    if (persistentExecutor != null) {
+      try {
+        persistentExecutor.dispose();
+      } catch (HopException e) {
+        log.logError("An error occurred disposing of the pipeline: ", e);
+      }
+    }
+    persistentPipeline.cleanup();
+
+    if (getPipeline() instanceof Pipeline) {
+      ((Pipeline) getPipeline())
+          .getActiveSubPipelines()
+          .remove(getTransformName(), persistentPipeline);
+    }
+    if (pipelineExecutorData.getExecutorPipeline() == persistentPipeline) {
+      pipelineExecutorData.setExecutorPipeline(null);
+    }
+  }
+
   @VisibleForTesting
   void discardLogLines(PipelineExecutorData pipelineExecutorData) {
     // Keep the strain on the logging back-end conservative.
@@ -285,11 +523,16 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
 
   @VisibleForTesting
   IPipelineEngine<PipelineMeta> createInternalPipeline() throws HopException {
+    return createInternalPipeline(getData().getExecutorPipelineMeta());
+  }
+
+  private IPipelineEngine<PipelineMeta> createInternalPipeline(PipelineMeta executorPipelineMeta)
+      throws HopException {
 
     String runConfigurationName = resolve(meta.getRunConfigurationName());
     IPipelineEngine<PipelineMeta> executorPipeline =
         PipelineEngineFactory.createPipelineEngine(
-            this, runConfigurationName, metadataProvider, getData().getExecutorPipelineMeta());
+            this, runConfigurationName, metadataProvider, executorPipelineMeta);
     executorPipeline.setParentPipeline(getPipeline());
     executorPipeline.setParent(this);
     executorPipeline.setLogLevel(getLogLevel());
@@ -548,6 +791,11 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
 
   private boolean initPipeline(PipelineExecutorData pipelineExecutorData) throws HopException {
 
+    // A persistent sub-pipeline runs the previous pipeline
+    //
+    stopPersistentPipeline();
+    pipelineExecutorData.persistentFallback = false;
+
     pipelineExecutorData.setExecutorPipelineMeta(loadExecutorPipelineMeta());
 
     // Do we have a pipeline at all?
@@ -570,6 +818,7 @@ public class PipelineExecutor extends BaseTransform<PipelineExecutorMeta, Pipeli
   @Override
   public void dispose() {
     PipelineExecutorData pipelineExecutorData = getData();
+    stopPersistentPipeline();
     pipelineExecutorData.groupBuffer = null;
     super.dispose();
   }
@@ -18,11 +18,15 @@
 package org.apache.hop.pipeline.transforms.pipelineexecutor;
 
 import java.util.List;
+import java.util.Set;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.RowProducer;
+import org.apache.hop.pipeline.SingleThreadedPipelineExecutor;
 import org.apache.hop.pipeline.engine.IPipelineEngine;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
@@ -49,6 +53,21 @@ public class PipelineExecutorData extends BaseTransformData implements ITransfor
 
   public Object prevGroupFieldData;
 
+  /** The sub-pipeline which is kept running between groups of rows */
+  public Pipeline persistentPipeline;
+
+  /** Runs the persistent sub-pipeline one group of rows at a time */
+  public SingleThreadedPipelineExecutor persistentExecutor;
+
+  /** Injects the rows of a group into the persistent sub-pipeline */
+  public RowProducer persistentRowProducer;
+
+  /** The result files of the persistent sub-pipeline which were already passed on */
+  public Set<String> persistentResultFiles;
+
+  /** The sub-pipeline can't be kept running: execute it for every group of rows */
+  public boolean persistentFallback;
+
   private IRowSet executorTransformOutputRowSet;
   private IRowSet resultRowsRowSet;
   private IRowSet resultFilesRowSet;
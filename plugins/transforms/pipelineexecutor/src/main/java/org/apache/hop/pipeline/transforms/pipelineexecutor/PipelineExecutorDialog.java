@@ -111,6 +111,7 @@ public class PipelineExecutorDialog extends BaseTransformDialog implements ITran
   private CCombo wGroupField;
   private Label wlGroupTime;
   private TextVar wGroupTime;
+  private Button wPersistentPipeline;
 
   private CCombo wExecutionResultTarget;
   private TableItem tiExecutionTimeField;
@@ -504,6 +505,7 @@ public class PipelineExecutorDialog extends BaseTransformDialog implements ITran
     wGroupSize.setText(Const.NVL(pipelineExecutorMeta.getGroupSize(), ""));
     wGroupTime.setText(Const.NVL(pipelineExecutorMeta.getGroupTime(), ""));
     wGroupField.setText(Const.NVL(pipelineExecutorMeta.getGroupField(), ""));
+    wPersistentPipeline.setSelection(pipelineExecutorMeta.isPersistentPipeline());
 
     wExecutionResultTarget.setText(
         pipelineExecutorMeta.getExecutionResultTargetTransformMeta() == null
@@ -865,6 +867,30 @@ public class PipelineExecutorDialog extends BaseTransformDialog implements ITran
     fdGroupTime.left = new FormAttachment(wlGroupTime, margin);
     wGroupTime.setLayoutData(fdGroupTime);
 
+    // Keep the sub-pipeline running between groups?
+    //
+    Label wlPersistentPipeline = new Label(wInputComposite, SWT.RIGHT);
+    PropsUi.setLook(wlPersistentPipeline);
+    wlPersistentPipeline.setText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.PersistentPipeline.Label"));
+    wlPersistentPipeline.setToolTipText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.PersistentPipeline.Tooltip"));
+    FormData fdlPersistentPipeline = new FormData();
+    fdlPersistentPipeline.top = new FormAttachment(wGroupTime, 10);
+    fdlPersistentPipeline.left = new FormAttachment(0, 0);
+    fdlPersistentPipeline.right = new FormAttachment(middle, -margin);
+    wlPersistentPipeline.setLayoutData(fdlPersistentPipeline);
+
+    wPersistentPipeline = new Button(wInputComposite, SWT.CHECK);
+    PropsUi.setLook(wPersistentPipeline);
+    wPersistentPipeline.setToolTipText(
+        BaseMessages.getString(PKG, "PipelineExecutorDialog.PersistentPipeline.Tooltip"));
+    FormData fdPersistentPipeline = new FormData();
+    fdPersistentPipeline.right = new FormAttachment(100);
+    fdPersistentPipeline.top = new FormAttachment(wlPersistentPipeline, 0, SWT.CENTER);
+    fdPersistentPipeline.left = new FormAttachment(middle, margin);
+    wPersistentPipeline.setLayoutData(fdPersistentPipeline);
+
     wTab.setControl(wInputComposite);
     wTabFolder.setSelection(wTab);
   }
@@ -1282,6 +1308,7 @@ public class PipelineExecutorDialog extends BaseTransformDialog implements ITran
     pipelineExecutorMeta.setGroupSize(wGroupSize.getText());
     pipelineExecutorMeta.setGroupField(wGroupField.getText());
     pipelineExecutorMeta.setGroupTime(wGroupTime.getText());
+    pipelineExecutorMeta.setPersistentPipeline(wPersistentPipeline.getSelection());
 
     pipelineExecutorMeta.setExecutionResultTargetTransform(wExecutionResultTarget.getText());
     pipelineExecutorMeta.setExecutionResultTargetTransformMeta(
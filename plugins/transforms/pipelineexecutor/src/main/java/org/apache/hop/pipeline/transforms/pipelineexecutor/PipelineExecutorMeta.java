@@ -99,6 +99,13 @@ public class PipelineExecutorMeta
    */
   private String groupTime;
 
+  /**
+   * Keep the sub-pipeline initialized and running between groups of rows. The rows of every group
+   * are injected into the Injector transform of the sub-pipeline instead of starting a new pipeline
+   * for every group.
+   */
+  private boolean persistentPipeline;
+
   private PipelineExecutorParameters parameters;
 
   private String executionResultTargetTransform;
@@ -237,6 +244,7 @@ public class PipelineExecutorMeta
     retval.append("    ").append(XmlHandler.addTagValue("group_size", groupSize));
     retval.append("    ").append(XmlHandler.addTagValue("group_field", groupField));
     retval.append("    ").append(XmlHandler.addTagValue("group_time", groupTime));
+    retval.append("    ").append(XmlHandler.addTagValue("persistent_pipeline", persistentPipeline));
 
     // Add the mapping parameters too
     //
@@ -358,6 +366,8 @@ public class PipelineExecutorMeta
       groupSize = XmlHandler.getTagValue(transformNode, "group_size");
       groupField = XmlHandler.getTagValue(transformNode, "group_field");
       groupTime = XmlHandler.getTagValue(transformNode, "group_time");
+      persistentPipeline =
+          "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "persistent_pipeline"));
 
       // Load the mapping parameters too..
       //
@@ -433,6 +443,7 @@ public class PipelineExecutorMeta
     groupSize = "1";
     groupField = "";
     groupTime = "";
+    persistentPipeline = false;
 
     executionTimeField = "ExecutionTime";
     executionResultField = "ExecutionResult";
@@ -966,6 +977,20 @@ public class PipelineExecutorMeta
     this.groupTime = groupTime;
   }
 
+  /**
+   * @return true if the sub-pipeline is kept running between groups of rows
+   */
+  public boolean isPersistentPipeline() {
+    return persistentPipeline;
+  }
+
+  /**
+   * @param persistentPipeline true to keep the sub-pipeline running between groups of rows
+   */
+  public void setPersistentPipeline(boolean persistentPipeline) {
+    this.persistentPipeline = persistentPipeline;
+  }
+
   @Override
   public boolean excludeFromCopyDistributeVerification() {
     return true;
@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.hop.pipeline.transforms.pipelineexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.Result;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.metadata.serializer.memory.MemoryMetadataProvider;
+import org.apache.hop.pipeline.Pipeline;
+import org.apache.hop.pipeline.PipelineHopMeta;
+import org.apache.hop.pipeline.PipelineMeta;
+import org.apache.hop.pipeline.config.PipelineRunConfiguration;
+import org.apache.hop.pipeline.engines.local.LocalPipelineRunConfiguration;
+import org.apache.hop.pipeline.transform.BaseTransform;
+import org.apache.hop.pipeline.transform.BaseTransformData;
+import org.apache.hop.pipeline.transform.BaseTransformMeta;
+import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.injector.InjectorMeta;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/** Keeping the sub-pipeline running between groups of rows */
+public class PipelineExecutorPersistentTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private static final String TRANSFORM_NAME = "Pipeline executor";
+
+  private static final AtomicInteger nrInits = new AtomicInteger();
+  private static final AtomicInteger nrDisposes = new AtomicInteger();
+
+  private TransformMockHelper<PipelineExecutorMeta, PipelineExecutorData> mockHelper;
+  private MemoryMetadataProvider metadataProvider;
+  private PipelineExecutorMeta meta;
+  private PipelineExecutorData data;
+
+  @Before
+  public void setUp() throws Exception {
+    nrInits.set(0);
+    nrDisposes.set(0);
+
+    mockHelper =
+        new TransformMockHelper<>(
+            TRANSFORM_NAME, PipelineExecutorMeta.class, PipelineExecutorData.class);
+    mockHelper.initRunningPipeline();
+
+    LocalPipelineRunConfiguration engineRunConfiguration = new LocalPipelineRunConfiguration();
+    engineRunConfiguration.setEnginePluginId("Local");
+    metadataProvider = new MemoryMetadataProvider();
+    metadataProvider
+        .getSerializer(PipelineRunConfiguration.class)
+        .save(
+            new PipelineRunConfiguration(
+                "local", "", "", new ArrayList<>(), engineRunConfiguration, null, false));
+
+    // Group on the key and pass it to the sub-pipeline as a parameter
+    //
+    meta = new PipelineExecutorMeta();
+    meta.setDefault();
+    meta.setFilename("sub-pipeline.hpl");
+    meta.setRunConfigurationName("local");
+    meta.setGroupSize("");
+    meta.setGroupField("key");
+    meta.setPersistentPipeline(true);
+    meta.getParameters().setVariable(new String[] {"GROUP"});
+    meta.getParameters().setField(new String[] {"key"});
+    meta.getParameters().setInput(new String[] {""});
+
+    data = new PipelineExecutorData();
+  }
+
+  @After
+  public void tearDown() {
+    mockHelper.cleanUp();
+  }
+
+  /**
+   * The sub-pipeline: an optional Injector followed by a transform which copies its input rows to
+   * the result, with the value of the GROUP variable added.
+   */
+  private static PipelineMeta createSubPipelineMeta(boolean withInjector) {
+    PipelineMeta pipelineMeta = new PipelineMeta();
+    pipelineMeta.setName("sub-pipeline");
+    TransformMeta groupTransform = new TransformMeta("GroupTest", "group", new GroupTestMeta());
+    pipelineMeta.addTransform(groupTransform);
+    if (withInjector) {
+      TransformMeta injector = new TransformMeta("Injector", "input", new InjectorMeta());
+      pipelineMeta.addTransform(injector);
+      pipelineMeta.addPipelineHop(new PipelineHopMeta(injector, groupTransform));
+    }
+    return pipelineMeta;
+  }
+
+  private PipelineExecutor createExecutor(boolean withInjector) throws HopException {
+    PipelineExecutor executor =
+        spy(
+            new PipelineExecutor(
+                mockHelper.transformMeta,
+                meta,
+                data,
+                0,
+                mockHelper.pipelineMeta,
+                mockHelper.pipeline));
+    executor.setMetadataProvider(metadataProvider);
+    doAnswer(invocation -> createSubPipelineMeta(withInjector))
+        .when(executor)
+        .loadExecutorPipelineMeta();
+    return executor;
+  }
+
+  /** Run the executor over rows with the given keys, the row number is the id. */
+  private List<Result> execute(PipelineExecutor executor, String... keys) throws HopException {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < keys.length; i++) {
+      rows.add(new Object[] {keys[i], (long) i});
+    }
+    mockHelper.processRows(executor, TransformMockHelper.createKeyRowMeta(), rows);
+
+    ArgumentCaptor<Result> results = ArgumentCaptor.forClass(Result.class);
+    verify(executor, times(countGroups(keys))).collectExecutionResults(results.capture());
+    return results.getAllValues();
+  }
+
+  private static int countGroups(String... keys) {
+    int nrGroups = 0;
+    for (int i = 0; i < keys.length; i++) {
+      if (i == 0 || !keys[i].equals(keys[i - 1])) {
+        nrGroups++;
+      }
+    }
+    return nrGroups;
+  }
+
+  private static void assertGroupResult(Result result, String key, int nrRows) {
+    assertTrue(result.getResult());
+    assertEquals(0, result.getNrErrors());
+    assertEquals(nrRows, result.getRows().size());
+    for (RowMetaAndData row : result.getRows()) {
+      assertEquals(key, row.getData()[0]);
+      // The parameter of the group was pushed to the running transforms
+      assertEquals(key, row.getData()[2]);
+    }
+    // The metrics are reset between groups
+    assertEquals(nrRows, result.getNrLinesRead());
+    assertEquals(nrRows, result.getNrLinesOutput());
+  }
+
+  private static void assertFailedResult(Result result) {
+    assertFalse(result.getResult());
+    assertTrue(result.getNrErrors() > 0);
+    assertTrue(result.getRows().isEmpty());
+  }
+
+  /** Nothing is left behind: the sub-pipelines are disposed of and no longer active. */
+  private void assertCleanedUp(PipelineExecutor executor) {
+    assertEquals(nrInits.get(), nrDisposes.get());
+    assertNull(data.persistentPipeline);
+    assertNull(data.persistentExecutor);
+    assertNull(executor.getExecutorPipeline());
+    assertNull(mockHelper.pipeline.getActiveSubPipeline(TRANSFORM_NAME));
+  }
+
+  @Test
+  public void testResultsPerGroup() throws Exception {
+    PipelineExecutor executor = createExecutor(true);
+    List<Result> results = execute(executor, "a", "a", "b", "c", "c", "c");
+
+    assertEquals(3, results.size());
+    assertGroupResult(results.get(0), "a", 2);
+    assertGroupResult(results.get(1), "b", 1);
+    assertGroupResult(results.get(2), "c", 3);
+
+    // The result rows were passed on per group as well
+    ArgumentCaptor<Result> pipelineResults = ArgumentCaptor.forClass(Result.class);
+    verify(executor, times(3)).collectPipelineResults(pipelineResults.capture());
+    assertEquals(results, pipelineResults.getAllValues());
+
+    // The sub-pipeline was only initialized once
+    assertEquals(1, nrInits.get());
+    assertFalse(data.persistentFallback);
+    assertCleanedUp(executor);
+  }
+
+  @Test
+  public void testRestartAfterError() throws Exception {
+    PipelineExecutor executor = createExecutor(true);
+    List<Result> results = execute(executor, "a", "error", "c", "c");
+
+    assertEquals(3, results.size());
+    assertGroupResult(results.get(0), "a", 1);
+    assertFailedResult(results.get(1));
+    assertGroupResult(results.get(2), "c", 2);
+
+    // A fresh sub-pipeline was started after the error
+    assertEquals(2, nrInits.get());
+    assertCleanedUp(executor);
+  }
+
+  @Test
+  public void testFailedStart() throws Exception {
+    PipelineExecutor executor = createExecutor(true);
+    List<Result> results = execute(executor, "broken-init", "broken-start", "c");
+
+    assertEquals(3, results.size());
+    assertFailedResult(results.get(0));
+    assertFailedResult(results.get(1));
+    assertGroupResult(results.get(2), "c", 1);
+
+    // The initialized transforms of the sub-pipeline which didn't start were disposed of
+    assertEquals(3, nrInits.get());
+    assertCleanedUp(executor);
+  }
+
+  @Test
+  public void testFallbackWithoutInjector() throws Exception {
+    PipelineExecutor executor = createExecutor(false);
+    List<Result> results = execute(executor, "a", "b", "b");
+
+    assertEquals(2, results.size());
+    for (Result result : results) {
+      assertTrue(result.getResult());
+    }
+
+    // The sub-pipeline was executed for every group
+    assertTrue(data.persistentFallback);
+    assertEquals(2, nrInits.get());
+    assertEquals(2, nrDisposes.get());
+    assertNull(data.persistentPipeline);
+  }
+
+  /**
+   * Copies its input rows to the result of the pipeline with the value of the GROUP variable added.
+   * Rows with key "error" fail the transform, the GROUP values "broken-init" and "broken-start" make
+   * it fail to initialize or to start.
+   */
+  public static class GroupTest extends BaseTransform<GroupTestMeta, GroupTestData> {
+    public GroupTest(
+        TransformMeta transformMeta,
+        GroupTestMeta meta,
+        GroupTestData data,
+        int copyNr,
+        PipelineMeta pipelineMeta,
+        Pipeline pipeline) {
+      super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
+    }
+
+    @Override
+    public boolean init() {
+      nrInits.incrementAndGet();
+      return !"broken-init".equals(resolve("${GROUP}")) && super.init();
+    }
+
+    @Override
+    public void initBeforeStart() throws HopTransformException {
+      if ("broken-start".equals(resolve("${GROUP}"))) {
+        throw new HopTransformException("Unable to start");
+      }
+    }
+
+    @Override
+    public boolean processRow() throws HopException {
+      Object[] row = getRow();
+      if (row == null) {
+        setOutputDone();
+        return false;
+      }
+      if (first) {
+        first = false;
+        data.outputRowMeta = getInputRowMeta().clone();
+        data.outputRowMeta.addValueMeta(new ValueMetaString("group"));
+      }
+      if ("error".equals(row[0])) {
+        setErrors(1);
+        return true;
+      }
+      Object[] outputRow =
+          RowDataUtil.addValueData(row, getInputRowMeta().size(), resolve("${GROUP}"));
+      ((Pipeline) getPipeline()).getResultRows().add(new RowMetaAndData(data.outputRowMeta, outputRow));
+      incrementLinesOutput();
+      return true;
+    }
+
+    @Override
+    public void dispose() {
+      nrDisposes.incrementAndGet();
+      super.dispose();
+    }
+  }
+
+  public static class GroupTestMeta extends BaseTransformMeta<GroupTest, GroupTestData> {}
+
+  public static class GroupTestData extends BaseTransformData implements ITransformData {
+    public IRowMeta outputRowMeta;
+  }
+}
@@ -24,7 +24,10 @@ import java.security.KeyManagementException;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
 import javax.net.ssl.SSLContext;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
@@ -47,6 +50,15 @@ import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transform.utils.RequestsInFlight;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
 import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.ClientProperties;
@@ -54,7 +66,11 @@ import org.glassfish.jersey.client.HttpUrlConnectorProvider;
 import org.glassfish.jersey.client.RequestEntityProcessing;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 import org.glassfish.jersey.uri.UriComponent;
+import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 
 public class Rest extends BaseTransform<RestMeta, RestData> {
   private static final Class<?> PKG = RestMeta.class; // For Translator
@@ -76,45 +92,81 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
     return queryParams;
   }
 
+  /** A request for one row or for a batch of rows, prepared on the transform thread */
+  static class Request {
+    private final List<Object[]> rows;
+    private final String url;
+    private final String method;
+    private final Invocation.Builder invocationBuilder;
+    private final String entityString;
+    private final String contentType;
+
+    Request(
+        List<Object[]> rows,
+        String url,
+        String method,
+        Invocation.Builder invocationBuilder,
+        String entityString,
+        String contentType) {
+      this.rows = rows;
+      this.url = url;
+      this.method = method;
+      this.invocationBuilder = invocationBuilder;
+      this.entityString = entityString;
+      this.contentType = contentType;
+    }
+  }
+
+  /** The outcome of a request: the output rows or the exception for the input rows */
+  static class Result {
+    private final List<Object[]> inputRows;
+    private final List<Object[]> outputRows;
+    private final HopException exception;
+
+    Result(List<Object[]> inputRows, List<Object[]> outputRows, HopException exception) {
+      this.inputRows = inputRows;
+      this.outputRows = outputRows;
+      this.exception = exception;
+    }
+  }
+
   protected Object[] callRest(Object[] rowData) throws HopException {
+    return callRest(Collections.singletonList(rowData)).get(0);
+  }
+
+  /**
+   * Call the service for a batch of rows. The URL, method, parameters and headers are taken from
+   * the first row. With a batch size larger than 1 the bodies of the rows are sent as a JSON array.
+   *
+   * @param rows The input rows
+   * @return The output rows
+   */
+  protected List<Object[]> callRest(List<Object[]> rows) throws HopException {
+    return executeRequest(prepareRequest(rows));
+  }
+
+  private Request prepareRequest(List<Object[]> rows) throws HopException {
+    Object[] rowData = rows.get(0);
+    String url = data.realUrl;
+    String method = data.method;
+
     // get dynamic url ?
     if (meta.isUrlInField()) {
-      data.realUrl = data.inputRowMeta.getString(rowData, data.indexOfUrlField);
+      url = data.inputRowMeta.getString(rowData, data.indexOfUrlField);
     }
     // get dynamic method?
     if (meta.isDynamicMethod()) {
-      data.method = data.inputRowMeta.getString(rowData, data.indexOfMethod);
-      if (Utils.isEmpty(data.method)) {
+      method = data.inputRowMeta.getString(rowData, data.indexOfMethod);
+      if (Utils.isEmpty(method)) {
         throw new HopException(BaseMessages.getString(PKG, "Rest.Error.MethodMissing"));
       }
     }
-    WebTarget webResource = null;
-    Client client = null;
-    Object[] newRow = null;
-    if (rowData != null) {
-      newRow = rowData.clone();
-    }
     try {
       if (isDetailed()) {
-        logDetailed(BaseMessages.getString(PKG, "Rest.Log.ConnectingToURL", data.realUrl));
-      }
-      ClientBuilder clientBuilder = ClientBuilder.newBuilder();
-      clientBuilder
-          .withConfig(data.config)
-          .property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
-      if (meta.isIgnoreSsl() || !Utils.isEmpty(data.trustStoreFile)) {
-        clientBuilder.sslContext(data.sslContext);
-        clientBuilder.hostnameVerifier((s1, s2) -> true);
-      }
-      client = clientBuilder.build();
-      if (data.basicAuthentication != null) {
-        client.register(data.basicAuthentication);
+        logDetailed(BaseMessages.getString(PKG, "Rest.Log.ConnectingToURL", url));
       }
       // create a WebResource object, which encapsulates a web resource for the client
-      webResource = client.target(data.realUrl);
-
-      // used for calculating the responseTime
-      long startTime = System.currentTimeMillis();
+      WebTarget webResource = data.client.target(url);
 
       if (data.useMatrixParams) {
         // Add matrix parameters
@@ -131,7 +183,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
                   data.matrixParamNames[i],
                   UriComponent.encode(value, UriComponent.Type.QUERY_PARAM));
         }
-        webResource = client.target(builder.build());
+        webResource = data.client.target(builder.build());
       }
 
       if (data.useParams) {
@@ -168,37 +220,70 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
         }
       }
 
-      Response response = null;
       String entityString = null;
       if (data.useBody) {
         // Set Http request entity
-        entityString = Const.NVL(data.inputRowMeta.getString(rowData, data.indexOfBodyField), null);
+        if (data.batchSize > 1) {
+          // Send the bodies of all the rows as one JSON array
+          StringBuilder entity = new StringBuilder("[");
+          for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+              entity.append(',');
+            }
+            entity.append(
+                Const.NVL(data.inputRowMeta.getString(rows.get(i), data.indexOfBodyField), "null"));
+          }
+          entityString = entity.append(']').toString();
+        } else {
+          entityString =
+              Const.NVL(data.inputRowMeta.getString(rowData, data.indexOfBodyField), null);
+        }
         if (isDebug()) {
           logDebug(BaseMessages.getString(PKG, "Rest.Log.BodyValue", entityString));
         }
       }
+      return new Request(rows, url, method, invocationBuilder, entityString, contentType);
+    } catch (Exception e) {
+      throw new HopException(BaseMessages.getString(PKG, "Rest.Error.CanNotReadURL", url), e);
+    }
+  }
+
+  /**
+   * Execute a prepared request and add the results to its rows. This doesn't convert any values of
+   * the rows so that requests can be executed in parallel.
+   */
+  private List<Object[]> executeRequest(Request request) throws HopException {
+    Invocation.Builder invocationBuilder = request.invocationBuilder;
+    String entityString = request.entityString;
+    String contentType = request.contentType;
+    String method = request.method;
+    try {
+      // used for calculating the responseTime
+      long startTime = System.currentTimeMillis();
+
+      Response response = null;
       try {
-        if (data.method.equals(RestMeta.HTTP_METHOD_GET)) {
+        if (method.equals(RestMeta.HTTP_METHOD_GET)) {
           response = invocationBuilder.get(Response.class);
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_POST)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_POST)) {
           if (null != contentType) {
             response = invocationBuilder.post(Entity.entity(entityString, contentType));
           } else {
             response = invocationBuilder.post(Entity.entity(entityString, data.mediaType));
           }
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_PUT)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_PUT)) {
           if (null != contentType) {
             response = invocationBuilder.put(Entity.entity(entityString, contentType));
           } else {
             response = invocationBuilder.put(Entity.entity(entityString, data.mediaType));
           }
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_DELETE)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_DELETE)) {
           response = invocationBuilder.delete();
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_HEAD)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_HEAD)) {
           response = invocationBuilder.head();
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_OPTIONS)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_OPTIONS)) {
           response = invocationBuilder.options();
-        } else if (data.method.equals(RestMeta.HTTP_METHOD_PATCH)) {
+        } else if (method.equals(RestMeta.HTTP_METHOD_PATCH)) {
           if (null != contentType) {
             response =
                 invocationBuilder.method(
@@ -209,8 +294,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
                     RestMeta.HTTP_METHOD_PATCH, Entity.entity(entityString, data.mediaType));
           }
         } else {
-          throw new HopException(
-              BaseMessages.getString(PKG, "Rest.Error.UnknownMethod", data.method));
+          throw new HopException(BaseMessages.getString(PKG, "Rest.Error.UnknownMethod", method));
         }
       } catch (Exception e) {
         throw new HopException("Request could not be processed", e);
@@ -220,7 +304,7 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       if (isDetailed()) {
         logDetailed(
             BaseMessages.getString(
-                PKG, "Rest.Log.ResponseTime", String.valueOf(responseTime), data.realUrl));
+                PKG, "Rest.Log.ResponseTime", String.valueOf(responseTime), request.url));
       }
 
       // Get status
@@ -234,58 +318,137 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       String body;
       String headerString = null;
       try {
-        body = response.readEntity(String.class);
-      } catch (Exception ex) {
-        body = "";
-      }
-      // get Header
-      MultivaluedMap<String, Object> headers = searchForHeaders(response);
-      JSONObject json = new JSONObject();
-      for (java.util.Map.Entry<String, List<Object>> entry : headers.entrySet()) {
-        String name = entry.getKey();
-        List<Object> value = entry.getValue();
-        if (value.size() > 1) {
-          json.put(name, value);
-        } else {
-          json.put(name, value.get(0));
+        try {
+          body = response.readEntity(String.class);
+        } catch (Exception ex) {
+          body = "";
+        }
+        // get Header
+        MultivaluedMap<String, Object> headers = searchForHeaders(response);
+        JSONObject json = new JSONObject();
+        for (java.util.Map.Entry<String, List<Object>> entry : headers.entrySet()) {
+          String name = entry.getKey();
+          List<Object> value = entry.getValue();
+          if (value.size() > 1) {
+            json.put(name, value);
+          } else {
+            json.put(name, value.get(0));
+          }
+        }
+        headerString = json.toJSONString();
+      } finally {
+        // Release the connection for the next request
+        response.close();
+      }
+
+      List<String> bodies = splitBatchResponse(body, request.rows.size());
+      List<Object[]> newRows = new ArrayList<>(request.rows.size());
+      for (int r = 0; r < request.rows.size(); r++) {
+        Object[] rowData = request.rows.get(r);
+        Object[] newRow = null;
+        if (rowData != null) {
+          newRow = rowData.clone();
+        }
+        // for output
+        int returnFieldsOffset = data.inputRowMeta.size();
+        // add response to output
+        if (!Utils.isEmpty(data.resultFieldName)) {
+          newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, bodies.get(r));
+          returnFieldsOffset++;
         }
-      }
-      headerString = json.toJSONString();
-      // for output
-      int returnFieldsOffset = data.inputRowMeta.size();
-      // add response to output
-      if (!Utils.isEmpty(data.resultFieldName)) {
-        newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, body);
-        returnFieldsOffset++;
-      }
 
-      // add status to output
-      if (!Utils.isEmpty(data.resultCodeFieldName)) {
-        newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, Long.valueOf(status));
-        returnFieldsOffset++;
-      }
+        // add status to output
+        if (!Utils.isEmpty(data.resultCodeFieldName)) {
+          newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, Long.valueOf(status));
+          returnFieldsOffset++;
+        }
 
-      // add response time to output
-      if (!Utils.isEmpty(data.resultResponseFieldName)) {
-        newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, responseTime);
-        returnFieldsOffset++;
-      }
-      // add response header to output
-      if (!Utils.isEmpty(data.resultHeaderFieldName)) {
-        newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, headerString);
+        // add response time to output
+        if (!Utils.isEmpty(data.resultResponseFieldName)) {
+          newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, responseTime);
+          returnFieldsOffset++;
+        }
+        // add response header to output
+        if (!Utils.isEmpty(data.resultHeaderFieldName)) {
+          newRow = RowDataUtil.addValueData(newRow, returnFieldsOffset, headerString);
+        }
+        newRows.add(newRow);
       }
+      return newRows;
     } catch (Exception e) {
       throw new HopException(
-          BaseMessages.getString(PKG, "Rest.Error.CanNotReadURL", data.realUrl), e);
-    } finally {
-      if (webResource != null) {
-        webResource = null;
-      }
-      if (client != null) {
-        client.close();
+          BaseMessages.getString(PKG, "Rest.Error.CanNotReadURL", request.url), e);
+    }
+  }
+
+  /**
+   * The response to a batch is split over the rows when it is a JSON array with an element for
+   * every row. Otherwise every row gets the complete response.
+   */
+  private List<String> splitBatchResponse(String body, int nrRows) {
+    if (nrRows > 1 && body != null && body.trim().startsWith("[")) {
+      try {
+        Object parsed = new JSONParser().parse(body);
+        if (parsed instanceof JSONArray && ((JSONArray) parsed).size() == nrRows) {
+          List<String> bodies = new ArrayList<>(nrRows);
+          for (Object element : (JSONArray) parsed) {
+            if (element == null || element instanceof String) {
+              bodies.add((String) element);
+            } else {
+              bodies.add(JSONValue.toJSONString(element));
+            }
+          }
+          return bodies;
+        }
+      } catch (ParseException e) {
+        // Not a JSON array, every row gets the complete response
       }
     }
-    return newRow;
+    return Collections.nCopies(nrRows, body);
+  }
+
+  /**
+   * The client is built once and used for all the requests of this transform copy. A JAX-RS client
+   * is thread safe so it can also be used for parallel requests.
+   */
+  private Client createClient() {
+    if (data.parallelRequests > 1) {
+      // The default connection pool only allows a few connections per host
+      data.config.property(ApacheClientProperties.CONNECTION_MANAGER, createConnectionManager());
+    }
+    ClientBuilder clientBuilder = ClientBuilder.newBuilder();
+    clientBuilder
+        .withConfig(data.config)
+        .property(HttpUrlConnectorProvider.SET_METHOD_WORKAROUND, true);
+    if (meta.isIgnoreSsl() || !Utils.isEmpty(data.trustStoreFile)) {
+      clientBuilder.sslContext(data.sslContext);
+      clientBuilder.hostnameVerifier((s1, s2) -> true);
+    }
+    Client client = clientBuilder.build();
+    if (data.basicAuthentication != null) {
+      client.register(data.basicAuthentication);
+    }
+    return client;
+  }
+
+  private PoolingHttpClientConnectionManager createConnectionManager() {
+    SSLConnectionSocketFactory sslSocketFactory;
+    if (meta.isIgnoreSsl() || !Utils.isEmpty(data.trustStoreFile)) {
+      sslSocketFactory =
+          new SSLConnectionSocketFactory(data.sslContext, NoopHostnameVerifier.INSTANCE);
+    } else {
+      sslSocketFactory = SSLConnectionSocketFactory.getSocketFactory();
+    }
+    Registry<ConnectionSocketFactory> registry =
+        RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", sslSocketFactory)
+            .build();
+    PoolingHttpClientConnectionManager connectionManager =
+        new PoolingHttpClientConnectionManager(registry);
+    connectionManager.setDefaultMaxPerRoute(data.parallelRequests);
+    connectionManager.setMaxTotal(data.parallelRequests);
+    return connectionManager;
   }
 
   private void setConfig() throws HopException {
@@ -369,7 +532,12 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
 
     if (r == null) {
       // no more input to be expected...
-      setOutputDone();
+      if (!data.batch.isEmpty() && !processRows(nextBatch())) {
+        return false;
+      }
+      if (data.requestsInFlight == null || data.requestsInFlight.writePending(this::writeResult)) {
+        setOutputDone();
+      }
       return false;
     }
     if (first) {
@@ -488,29 +656,105 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
           data.useBody = true;
         }
       }
+      if (!data.useBody) {
+        // Rows without a body can't be combined in one request
+        data.batchSize = 1;
+      }
     } // end if first
+
+    if (data.batchSize > 1) {
+      data.batch.add(r);
+      if (data.batch.size() < data.batchSize) {
+        return true;
+      }
+      return processRows(nextBatch());
+    }
+    return processRows(Collections.singletonList(r));
+  }
+
+  private List<Object[]> nextBatch() {
+    List<Object[]> rows = data.batch;
+    data.batch = new ArrayList<>(data.batchSize);
+    return rows;
+  }
+
+  /** Call the service for a single row or a batch of rows and write the results. */
+  private boolean processRows(List<Object[]> rows) throws HopException {
+    if (data.requestsInFlight != null) {
+      return processRowsInParallel(rows);
+    }
     try {
-      Object[] outputRowData = callRest(r);
-      putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
+      for (Object[] outputRowData : callRest(rows)) {
+        putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
+      }
       if (checkFeedback(getLinesRead()) && isDetailed()) {
         logDetailed(BaseMessages.getString(PKG, "Rest.LineNumber") + getLinesRead());
       }
     } catch (HopException e) {
-      boolean sendToErrorRow = false;
-      String errorMessage = null;
-      if (getTransformMeta().isDoingErrorHandling()) {
-        sendToErrorRow = true;
-        errorMessage = e.toString();
-      } else {
-        logError(BaseMessages.getString(PKG, "Rest.ErrorInTransformRunning") + e.getMessage());
-        setErrors(1);
-        logError(Const.getStackTracker(e));
-        stopAll();
-        setOutputDone(); // signal end to receiver(s)
-        return false;
+      return handleError(rows, e);
+    }
+    return true;
+  }
+
+  /**
+   * Send the request without waiting for the response, keeping up to the configured number of
+   * requests in flight. The results are written in input or completion order.
+   */
+  private boolean processRowsInParallel(List<Object[]> rows) throws HopException {
+    return data.requestsInFlight.submit(createRequestTask(rows), this::writeResult);
+  }
+
+  private Callable<Result> createRequestTask(List<Object[]> rows) {
+    Request request;
+    try {
+      request = prepareRequest(rows);
+    } catch (HopException e) {
+      return () -> new Result(rows, null, e);
+    }
+    return () -> {
+      try {
+        return new Result(rows, executeRequest(request), null);
+      } catch (HopException e) {
+        return new Result(rows, null, e);
+      }
+    };
+  }
+
+  private boolean writeResult(Result result) throws HopException {
+    if (result.exception != null) {
+      return handleError(result.inputRows, result.exception);
+    }
+    try {
+      for (Object[] outputRowData : result.outputRows) {
+        putRow(data.outputRowMeta, outputRowData); // copy row to output rowset(s)
       }
-      if (sendToErrorRow) {
-        // Simply add this row to the error row
+      if (checkFeedback(getLinesRead()) && isDetailed()) {
+        logDetailed(BaseMessages.getString(PKG, "Rest.LineNumber") + getLinesRead());
+      }
+    } catch (HopException e) {
+      return handleError(result.inputRows, e);
+    }
+    return true;
+  }
+
+  /** Send all the rows of a failed request to the error handling or stop the transform. */
+  private boolean handleError(List<Object[]> rows, HopException e) throws HopException {
+    boolean sendToErrorRow = false;
+    String errorMessage = null;
+    if (getTransformMeta().isDoingErrorHandling()) {
+      sendToErrorRow = true;
+      errorMessage = e.toString();
+    } else {
+      logError(BaseMessages.getString(PKG, "Rest.ErrorInTransformRunning") + e.getMessage());
+      setErrors(1);
+      logError(Const.getStackTracker(e));
+      stopAll();
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+    if (sendToErrorRow) {
+      // Simply add these rows to the error rows
+      for (Object[] r : rows) {
         putError(getInputRowMeta(), r, 1, errorMessage, null, "Rest001");
       }
     }
@@ -564,12 +808,30 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
       } else {
         data.mediaType = MediaType.TEXT_PLAIN_TYPE;
       }
+      data.parallelRequests = Math.max(1, Const.toInt(resolve(meta.getParallelRequests()), 1));
+      data.batchSize = Math.max(1, Const.toInt(resolve(meta.getBatchSize()), 1));
+      data.batch = new ArrayList<>(data.batchSize);
+
       try {
         setConfig();
+        data.client = createClient();
       } catch (Exception e) {
         logError(BaseMessages.getString(PKG, "Rest.Error.Config"), e);
         return false;
       }
+
+      if (data.parallelRequests > 1) {
+        data.requestsInFlight =
+            new RequestsInFlight<>(
+                getTransformName() + " request ",
+                data.parallelRequests,
+                meta.isKeepingInputOrder());
+        if (isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(
+                  PKG, "Rest.Log.ParallelRequests", data.parallelRequests, data.batchSize));
+        }
+      }
       return true;
     }
     return false;
@@ -577,7 +839,14 @@ public class Rest extends BaseTransform<RestMeta, RestData> {
 
   @Override
   public void dispose() {
-
+    if (data.requestsInFlight != null) {
+      data.requestsInFlight.shutdown();
+      data.requestsInFlight = null;
+    }
+    if (data.client != null) {
+      data.client.close();
+      data.client = null;
+    }
     data.config = null;
     data.headerNames = null;
     data.indexOfHeaderFields = null;
@@ -17,11 +17,15 @@
 
 package org.apache.hop.pipeline.transforms.rest;
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
 import javax.ws.rs.core.MediaType;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transform.utils.RequestsInFlight;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 
@@ -101,6 +105,20 @@ public class RestData extends BaseTransformData implements ITransformData {
 
   public SSLContext sslContext;
 
+  /** The client used for all the requests of this transform copy */
+  public Client client;
+
+  public int parallelRequests;
+
+  /** The number of rows sent in one request */
+  public int batchSize;
+
+  /** The rows collected for the next request */
+  public List<Object[]> batch;
+
+  /** Runs the requests when more than one request is kept in flight */
+  public RequestsInFlight<Rest.Result> requestsInFlight;
+
   public RestData() {
     super();
     this.indexOfUrlField = -1;
@@ -123,5 +141,9 @@ public class RestData extends BaseTransformData implements ITransformData {
     this.trustStorePassword = null;
     this.basicAuthentication = null;
     this.sslContext = null;
+    this.client = null;
+    this.parallelRequests = 1;
+    this.batchSize = 1;
+    this.batch = new ArrayList<>();
   }
 }
@@ -121,6 +121,12 @@ public class RestDialog extends BaseTransformDialog implements ITransformDialog
 
   private Button wIgnoreSsl;
 
+  private TextVar wParallelRequests;
+
+  private Button wKeepInputOrder;
+
+  private TextVar wBatchSize;
+
   private Button wMatrixGet;
 
   public RestDialog(
@@ -186,6 +192,9 @@ public class RestDialog extends BaseTransformDialog implements ITransformDialog
     setupMethodNameLine(lsMod, middle, margin, gSettings);
     setupBodyLine(lsMod, middle, margin, gSettings);
     setupAppTypeLine(lsMod, middle, margin, gSettings);
+    setupParallelRequestsLine(lsMod, middle, margin, gSettings);
+    setupKeepInputOrderLine(middle, margin, gSettings);
+    setupBatchSizeLine(lsMod, middle, margin, gSettings);
 
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, 0);
@@ -942,6 +951,80 @@ public class RestDialog extends BaseTransformDialog implements ITransformDialog
     return gOutputFields;
   }
 
+  private void setupParallelRequestsLine(
+      ModifyListener lsMod, int middle, int margin, Group gSettings) {
+    // Parallel requests line
+    Label wlParallelRequests = new Label(gSettings, SWT.RIGHT);
+    wlParallelRequests.setText(BaseMessages.getString(PKG, "RestDialog.ParallelRequests.Label"));
+    PropsUi.setLook(wlParallelRequests);
+    FormData fdlParallelRequests = new FormData();
+    fdlParallelRequests.left = new FormAttachment(0, 0);
+    fdlParallelRequests.right = new FormAttachment(middle, -margin);
+    fdlParallelRequests.top = new FormAttachment(wApplicationType, 2 * margin);
+    wlParallelRequests.setLayoutData(fdlParallelRequests);
+
+    wParallelRequests = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wParallelRequests.setToolTipText(
+        BaseMessages.getString(PKG, "RestDialog.ParallelRequests.Tooltip"));
+    PropsUi.setLook(wParallelRequests);
+    wParallelRequests.addModifyListener(lsMod);
+    FormData fdParallelRequests = new FormData();
+    fdParallelRequests.left = new FormAttachment(middle, 0);
+    fdParallelRequests.top = new FormAttachment(wApplicationType, 2 * margin);
+    fdParallelRequests.right = new FormAttachment(100, -margin);
+    wParallelRequests.setLayoutData(fdParallelRequests);
+  }
+
+  private void setupKeepInputOrderLine(int middle, int margin, Group gSettings) {
+    // Keep input order line
+    Label wlKeepInputOrder = new Label(gSettings, SWT.RIGHT);
+    wlKeepInputOrder.setText(BaseMessages.getString(PKG, "RestDialog.KeepInputOrder.Label"));
+    PropsUi.setLook(wlKeepInputOrder);
+    FormData fdlKeepInputOrder = new FormData();
+    fdlKeepInputOrder.left = new FormAttachment(0, 0);
+    fdlKeepInputOrder.top = new FormAttachment(wParallelRequests, margin);
+    fdlKeepInputOrder.right = new FormAttachment(middle, -margin);
+    wlKeepInputOrder.setLayoutData(fdlKeepInputOrder);
+    wKeepInputOrder = new Button(gSettings, SWT.CHECK);
+    wKeepInputOrder.setToolTipText(
+        BaseMessages.getString(PKG, "RestDialog.KeepInputOrder.Tooltip"));
+    PropsUi.setLook(wKeepInputOrder);
+    FormData fdKeepInputOrder = new FormData();
+    fdKeepInputOrder.left = new FormAttachment(middle, 0);
+    fdKeepInputOrder.top = new FormAttachment(wlKeepInputOrder, 0, SWT.CENTER);
+    fdKeepInputOrder.right = new FormAttachment(100, 0);
+    wKeepInputOrder.setLayoutData(fdKeepInputOrder);
+    wKeepInputOrder.addSelectionListener(
+        new SelectionAdapter() {
+          @Override
+          public void widgetSelected(SelectionEvent e) {
+            input.setChanged();
+          }
+        });
+  }
+
+  private void setupBatchSizeLine(ModifyListener lsMod, int middle, int margin, Group gSettings) {
+    // Batch size line
+    Label wlBatchSize = new Label(gSettings, SWT.RIGHT);
+    wlBatchSize.setText(BaseMessages.getString(PKG, "RestDialog.BatchSize.Label"));
+    PropsUi.setLook(wlBatchSize);
+    FormData fdlBatchSize = new FormData();
+    fdlBatchSize.left = new FormAttachment(0, 0);
+    fdlBatchSize.right = new FormAttachment(middle, -margin);
+    fdlBatchSize.top = new FormAttachment(wKeepInputOrder, 2 * margin);
+    wlBatchSize.setLayoutData(fdlBatchSize);
+
+    wBatchSize = new TextVar(variables, gSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wBatchSize.setToolTipText(BaseMessages.getString(PKG, "RestDialog.BatchSize.Tooltip"));
+    PropsUi.setLook(wBatchSize);
+    wBatchSize.addModifyListener(lsMod);
+    FormData fdBatchSize = new FormData();
+    fdBatchSize.left = new FormAttachment(middle, 0);
+    fdBatchSize.top = new FormAttachment(wKeepInputOrder, 2 * margin);
+    fdBatchSize.right = new FormAttachment(100, -margin);
+    wBatchSize.setLayoutData(fdBatchSize);
+  }
+
   private void setupAppTypeLine(ModifyListener lsMod, int middle, int margin, Group gSettings) {
     // ApplicationType Line
     Label wlApplicationType = new Label(gSettings, SWT.RIGHT);
@@ -1340,6 +1423,9 @@ public class RestDialog extends BaseTransformDialog implements ITransformDialog
     }
 
     wApplicationType.setText(Const.NVL(input.getApplicationType(), ""));
+    wParallelRequests.setText(Const.NVL(input.getParallelRequests(), ""));
+    wKeepInputOrder.setSelection(input.isKeepingInputOrder());
+    wBatchSize.setText(Const.NVL(input.getBatchSize(), ""));
 
     wFields.setRowNums();
     wFields.optWidth(true);
@@ -1407,6 +1493,9 @@ public class RestDialog extends BaseTransformDialog implements ITransformDialog
     input.setTrustStorePassword(wTrustStorePassword.getText());
     input.setIgnoreSsl(wIgnoreSsl.getSelection());
     input.setApplicationType(wApplicationType.getText());
+    input.setParallelRequests(wParallelRequests.getText());
+    input.setKeepingInputOrder(wKeepInputOrder.getSelection());
+    input.setBatchSize(wBatchSize.getText());
     transformName = wTransformName.getText(); // return value
 
     dispose();
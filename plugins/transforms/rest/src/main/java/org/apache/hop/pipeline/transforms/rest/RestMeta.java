@@ -137,6 +137,15 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
 
   private boolean ignoreSsl;
 
+  /** The number of requests kept in flight by one transform copy */
+  private String parallelRequests;
+
+  /** Write the results in the order of the input rows */
+  private boolean keepingInputOrder;
+
+  /** The number of rows sent as a JSON array in one request body */
+  private String batchSize;
+
   public RestMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -359,6 +368,48 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
     this.ignoreSsl = ignoreSsl;
   }
 
+  /**
+   * @return The number of requests kept in flight by one transform copy
+   */
+  public String getParallelRequests() {
+    return parallelRequests;
+  }
+
+  /**
+   * @param parallelRequests The number of requests kept in flight by one transform copy
+   */
+  public void setParallelRequests(String parallelRequests) {
+    this.parallelRequests = parallelRequests;
+  }
+
+  /**
+   * @return true if the results are written in the order of the input rows
+   */
+  public boolean isKeepingInputOrder() {
+    return keepingInputOrder;
+  }
+
+  /**
+   * @param keepingInputOrder true to write the results in the order of the input rows
+   */
+  public void setKeepingInputOrder(boolean keepingInputOrder) {
+    this.keepingInputOrder = keepingInputOrder;
+  }
+
+  /**
+   * @return The number of rows sent as a JSON array in one request body
+   */
+  public String getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * @param batchSize The number of rows sent as a JSON array in one request body
+   */
+  public void setBatchSize(String batchSize) {
+    this.batchSize = batchSize;
+  }
+
   @Override
   public void loadXml(Node transformNode, IHopMetadataProvider metadataProvider)
       throws HopXmlException {
@@ -408,6 +459,9 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
     this.trustStoreFile = null;
     this.trustStorePassword = null;
     this.applicationType = APPLICATION_TYPE_TEXT_PLAIN;
+    this.parallelRequests = "1";
+    this.keepingInputOrder = true;
+    this.batchSize = "1";
   }
 
   @Override
@@ -473,6 +527,9 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
             XmlHandler.addTagValue(
                 "trustStorePassword", Encr.encryptPasswordIfNotUsingVariables(trustStorePassword)));
     retval.append("    ").append(XmlHandler.addTagValue("ignoreSsl", ignoreSsl));
+    retval.append("    ").append(XmlHandler.addTagValue("parallelRequests", parallelRequests));
+    retval.append("    ").append(XmlHandler.addTagValue("keepInputOrder", keepingInputOrder));
+    retval.append("    ").append(XmlHandler.addTagValue("batchSize", batchSize));
 
     retval.append("    <headers>").append(Const.CR);
     for (int i = 0, len = (headerName != null ? headerName.length : 0); i < len; i++) {
@@ -541,6 +598,10 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
           Encr.decryptPasswordOptionallyEncrypted(
               XmlHandler.getTagValue(transformNode, "trustStorePassword"));
       ignoreSsl = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "ignoreSsl"));
+      parallelRequests = XmlHandler.getTagValue(transformNode, "parallelRequests");
+      keepingInputOrder =
+          !"N".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "keepInputOrder"));
+      batchSize = XmlHandler.getTagValue(transformNode, "batchSize");
 
       Node headernode = XmlHandler.getSubNode(transformNode, "headers");
       int nrheaders = XmlHandler.countNodes(headernode, "header");
@@ -681,6 +742,11 @@ public class RestMeta extends BaseTransformMeta<Rest, RestData> {
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   /**
    * @return the resultCodeFieldName
    */
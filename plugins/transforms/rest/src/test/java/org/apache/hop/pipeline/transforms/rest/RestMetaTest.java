@@ -90,7 +90,10 @@ public class RestMetaTest {
             "fieldName",
             "resultCodeFieldName",
             "responseTimeFieldName",
-            "responseHeaderFieldName");
+            "responseHeaderFieldName",
+            "parallelRequests",
+            "keepingInputOrder",
+            "batchSize");
 
     Map<String, IFieldLoadSaveValidator<?>> fieldLoadSaveValidatorAttributeMap = new HashMap<>();
 
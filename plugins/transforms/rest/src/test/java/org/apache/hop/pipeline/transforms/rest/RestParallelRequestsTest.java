@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.rest;
+
+import static org.junit.Assert.assertEquals;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+public class RestParallelRequestsTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private static final int NR_ROWS = 50;
+
+  private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+  private static String nodelay;
+
+  private TransformMockHelper<RestMeta, RestData> mockHelper;
+  private HttpServer server;
+  private AtomicInteger nrRequests;
+  private AtomicInteger inFlight;
+  private AtomicInteger maxInFlight;
+  private CountDownLatch allInFlight;
+
+  @BeforeClass
+  public static void init() {
+    // Don't let the test server delay the small responses
+    nodelay = System.setProperty(NODELAY_PROPERTY, "true");
+  }
+
+  @AfterClass
+  public static void restoreNodelay() {
+    if (nodelay == null) {
+      System.clearProperty(NODELAY_PROPERTY);
+    } else {
+      System.setProperty(NODELAY_PROPERTY, nodelay);
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    mockHelper = new TransformMockHelper<>("REST client", RestMeta.class, RestData.class);
+    mockHelper.initRunningPipeline();
+
+    // Echo the request body after a random delay so that responses complete out of order.
+    // The first requests are held until the expected number of requests is in flight.
+    //
+    nrRequests = new AtomicInteger();
+    inFlight = new AtomicInteger();
+    maxInFlight = new AtomicInteger();
+    Random random = new Random(3L);
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.setExecutor(Executors.newCachedThreadPool());
+    server.createContext(
+        "/echo",
+        exchange -> {
+          nrRequests.incrementAndGet();
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          byte[] body;
+          try (InputStream inputStream = exchange.getRequestBody()) {
+            body = inputStream.readAllBytes();
+          }
+          try {
+            CountDownLatch latch = allInFlight;
+            latch.countDown();
+            latch.await(30, TimeUnit.SECONDS);
+            Thread.sleep(random.nextInt(5));
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          inFlight.decrementAndGet();
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+          }
+        });
+    server.start();
+  }
+
+  @After
+  public void cleanUp() {
+    server.stop(0);
+    mockHelper.cleanUp();
+  }
+
+  private RestMeta createMeta(
+      String parallelRequests, boolean keepingInputOrder, String batchSize) {
+    allInFlight = new CountDownLatch(Integer.parseInt(parallelRequests));
+
+    RestMeta meta = new RestMeta();
+    meta.setDefault();
+    meta.allocate(0, 0, 0);
+    meta.setUrl("http://localhost:" + server.getAddress().getPort() + "/echo");
+    meta.setMethod(RestMeta.HTTP_METHOD_POST);
+    meta.setBodyField("body");
+    meta.setFieldName("result");
+    meta.setParallelRequests(parallelRequests);
+    meta.setKeepingInputOrder(keepingInputOrder);
+    meta.setBatchSize(batchSize);
+    return meta;
+  }
+
+  private List<Object[]> call(RestMeta meta) throws HopException {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("body"));
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < NR_ROWS; i++) {
+      rows.add(new Object[] {"\"row" + i + "\""});
+    }
+
+    Rest rest =
+        new Rest(
+            mockHelper.transformMeta,
+            meta,
+            new RestData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+    List<Object[]> output = mockHelper.processRows(rest, rowMeta, rows);
+    assertEquals(0, rest.getErrors());
+    return output;
+  }
+
+  @Test
+  public void testSequentialRequests() throws Exception {
+    List<Object[]> output = call(createMeta("1", true, "1"));
+
+    assertEquals(NR_ROWS, output.size());
+    for (int i = 0; i < NR_ROWS; i++) {
+      assertEquals(output.get(i)[0], output.get(i)[1]);
+      assertEquals("\"row" + i + "\"", output.get(i)[1]);
+    }
+    assertEquals(NR_ROWS, nrRequests.get());
+    assertEquals(1, maxInFlight.get());
+  }
+
+  @Test
+  public void testParallelRequestsInInputOrder() throws Exception {
+    List<Object[]> output = call(createMeta("8", true, "1"));
+
+    assertEquals(NR_ROWS, output.size());
+    for (int i = 0; i < NR_ROWS; i++) {
+      assertEquals("\"row" + i + "\"", output.get(i)[0]);
+      assertEquals(output.get(i)[0], output.get(i)[1]);
+    }
+    assertEquals(8, maxInFlight.get());
+  }
+
+  @Test
+  public void testParallelRequestsInCompletionOrder() throws Exception {
+    List<Object[]> output = call(createMeta("8", false, "1"));
+
+    assertEquals(NR_ROWS, output.size());
+    Set<Object> bodies = new HashSet<>();
+    for (Object[] row : output) {
+      assertEquals(row[0], row[1]);
+      bodies.add(row[0]);
+    }
+    assertEquals(NR_ROWS, bodies.size());
+    assertEquals(8, maxInFlight.get());
+  }
+
+  @Test
+  public void testBatchedRequests() throws Exception {
+    List<Object[]> output = call(createMeta("4", true, "8"));
+
+    // The echoed JSON array is split over the rows of every batch, including the last partial one
+    //
+    assertEquals(NR_ROWS, output.size());
+    for (int i = 0; i < NR_ROWS; i++) {
+      assertEquals("row" + i, output.get(i)[1]);
+    }
+    assertEquals((NR_ROWS + 7) / 8, nrRequests.get());
+    assertEquals(4, maxInFlight.get());
+  }
+}
@@ -66,6 +66,19 @@ public class RowsToResult extends BaseTransform<RowsToResultMeta, RowsToResultDa
     return true;
   }
 
+  /**
+   * In a single threaded pipeline, hand over the rows of every batch as soon as the batch is
+   * complete. This way a sub-pipeline which is kept running (see the Pipeline Executor transform)
+   * can pass its result rows batch by batch without keeping them all in memory.
+   */
+  @Override
+  public void batchComplete() throws HopException {
+    if (!data.rows.isEmpty()) {
+      ((Pipeline) getPipeline()).getResultRows().addAll(data.rows);
+      data.rows.clear();
+    }
+  }
+
   @Override
   public boolean init() {
 
@@ -356,23 +356,14 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
 
   @Override
   public boolean processRow() throws HopException {
-    Object[] rowData = getRow(); // get row from rowset, wait for our turn, indicate busy!
-    if (rowData == null) { // no more input to be expected...
+    // get a batch of rows from the rowset, wait for our turn, indicate busy!
+    List<Object[]> rows = getRows(Const.ROWS_IN_BATCH);
+    if (rows == null) { // no more input to be expected...
 
       setOutputDone();
       return false;
     }
-
-    Object[] rowCopy = null;
-    if (getTransformMeta().isDoingErrorHandling()) {
-      rowCopy = getInputRowMeta().cloneRow(rowData);
-    }
-
-    if (log.isRowLevel()) {
-      logRowlevel(
-          BaseMessages.getString(PKG, "SelectValues.Log.GotRowFromPreviousTransform")
-              + getInputRowMeta().getString(rowData));
-    }
+    long previousLinesRead = getLinesRead() - rows.size();
 
     if (first) {
       first = false;
@@ -385,49 +376,71 @@ public class SelectValues extends BaseTransform<SelectValuesMeta, SelectValuesDa
       meta.getMetadataFields(data.metadataRowMeta, getTransformName(), this);
     }
 
-    try {
-      Object[] outputData = rowData;
-
-      if (data.select) {
-        outputData = selectValues(getInputRowMeta(), outputData);
-      }
-      if (data.deselect) {
-        outputData = removeValues(data.selectRowMeta, outputData);
-      }
-      if (data.metadata) {
-        outputData = metadataValues(data.deselectRowMeta, outputData);
-      }
-
-      if (outputData == null) {
-        setOutputDone(); // signal end to receiver(s)
-        return false;
+    List<Object[]> outputRows = new ArrayList<>(rows.size());
+    boolean outputDone = false;
+    for (Object[] rowData : rows) {
+      Object[] rowCopy = null;
+      if (getTransformMeta().isDoingErrorHandling()) {
+        rowCopy = getInputRowMeta().cloneRow(rowData);
       }
 
-      // Send the row on its way
-      //
-      putRow(data.metadataRowMeta, outputData);
       if (log.isRowLevel()) {
         logRowlevel(
-            BaseMessages.getString(PKG, "SelectValues.Log.WroteRowToNextTransform")
-                + data.metadataRowMeta.getString(outputData));
+            BaseMessages.getString(PKG, "SelectValues.Log.GotRowFromPreviousTransform")
+                + getInputRowMeta().getString(rowData));
       }
 
-    } catch (HopException e) {
-      if (getTransformMeta().isDoingErrorHandling()) {
-        String field;
-        if (e instanceof HopConversionException) {
-          List<IValueMeta> fields = ((HopConversionException) e).getFields();
-          field = fields.isEmpty() ? null : fields.get(0).getName();
+      try {
+        Object[] outputData = rowData;
+
+        if (data.select) {
+          outputData = selectValues(getInputRowMeta(), outputData);
+        }
+        if (data.deselect) {
+          outputData = removeValues(data.selectRowMeta, outputData);
+        }
+        if (data.metadata) {
+          outputData = metadataValues(data.deselectRowMeta, outputData);
+        }
+
+        if (outputData == null) {
+          outputDone = true;
+          break;
+        }
+
+        outputRows.add(outputData);
+        if (log.isRowLevel()) {
+          logRowlevel(
+              BaseMessages.getString(PKG, "SelectValues.Log.WroteRowToNextTransform")
+                  + data.metadataRowMeta.getString(outputData));
+        }
+
+      } catch (HopException e) {
+        if (getTransformMeta().isDoingErrorHandling()) {
+          String field;
+          if (e instanceof HopConversionException) {
+            List<IValueMeta> fields = ((HopConversionException) e).getFields();
+            field = fields.isEmpty() ? null : fields.get(0).getName();
+          } else {
+            field = null;
+          }
+          putError(getInputRowMeta(), rowCopy, 1, e.getMessage(), field, "SELECT001");
         } else {
-          field = null;
+          throw e;
         }
-        putError(getInputRowMeta(), rowCopy, 1, e.getMessage(), field, "SELECT001");
-      } else {
-        throw e;
       }
     }
 
-    if (checkFeedback(getLinesRead())) {
+    // Send the rows on their way
+    //
+    putRows(data.metadataRowMeta, outputRows);
+
+    if (outputDone) {
+      setOutputDone(); // signal end to receiver(s)
+      return false;
+    }
+
+    if (checkFeedback(previousLinesRead, getLinesRead())) {
       logBasic(BaseMessages.getString(PKG, "SelectValues.Log.LineNumber") + getLinesRead());
     }
 
@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.selectvalues;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doNothing;
@@ -30,6 +31,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
 import org.apache.hop.core.exception.HopConversionException;
@@ -80,7 +83,7 @@ public class SelectValuesTest {
     transform =
         new SelectValues(helper.transformMeta, meta, data, 1, helper.pipelineMeta, helper.pipeline);
     transform = spy(transform);
-    doReturn(inputRow).when(transform).getRow();
+    doReturn(Collections.singletonList(inputRow)).when(transform).getRows(anyInt());
     doNothing()
         .when(transform)
         .putError(
@@ -149,7 +152,7 @@ public class SelectValuesTest {
             helper.pipeline);
     transform2 = spy(transform2);
     inputRow2 = new Object[] {new BigDecimal("589")}; // Starting with a BigDecimal (no places)
-    doReturn(inputRow2).when(transform2).getRow();
+    doReturn(Collections.singletonList(inputRow2)).when(transform2).getRows(anyInt());
     doNothing()
         .when(transform2)
         .putError(
@@ -207,7 +210,7 @@ public class SelectValuesTest {
             helper.pipelineMeta,
             helper.pipeline);
     transform2 = spy(transform2);
-    doReturn(inputRow2).when(transform2).getRow();
+    doReturn(Collections.singletonList(inputRow2)).when(transform2).getRows(anyInt());
     doNothing()
         .when(transform2)
         .putError(
@@ -267,7 +270,7 @@ public class SelectValuesTest {
             helper.pipeline);
     transform2 = spy(transform2);
     inputRow2 = new Object[] {new Long("589")}; // Starting with a Long
-    doReturn(inputRow2).when(transform2).getRow();
+    doReturn(Collections.singletonList(inputRow2)).when(transform2).getRows(anyInt());
     doNothing()
         .when(transform2)
         .putError(
@@ -361,6 +364,13 @@ public class SelectValuesTest {
       rowMeta = rm;
     }
 
+    @Override
+    public void putRows(IRowMeta rm, List<Object[]> rows) throws HopTransformException {
+      for (Object[] row : rows) {
+        putRow(rm, row);
+      }
+    }
+
     /**
      * Find input row set.
      *
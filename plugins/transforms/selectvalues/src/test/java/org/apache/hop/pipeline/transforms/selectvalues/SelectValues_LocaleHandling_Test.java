@@ -17,6 +17,7 @@
 
 package org.apache.hop.pipeline.transforms.selectvalues;
 
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.when;
@@ -75,7 +76,10 @@ public class SelectValues_LocaleHandling_Test {
     // Dec 28, 2015
     Calendar calendar = Calendar.getInstance();
     calendar.set(2015, Calendar.DECEMBER, 28, 0, 0, 0);
-    doReturn(new Object[] {calendar.getTime()}).doReturn(null).when(transform).getRow();
+    doReturn(Collections.singletonList(new Object[] {calendar.getTime()}))
+        .doReturn(null)
+        .when(transform)
+        .getRows(anyInt());
   }
 
   @After
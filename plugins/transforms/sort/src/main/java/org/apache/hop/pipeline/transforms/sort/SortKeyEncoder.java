@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import java.util.Arrays;
+import org.apache.hop.core.exception.HopValueException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+
+/**
+ * Encodes the sort keys of a row into a normalized byte array. Comparing two encoded keys byte by
+ * byte (unsigned) gives the same result as comparing the rows with {@link
+ * IRowMeta#compare(Object[], Object[], int[])}, including null handling, descending fields and
+ * case-insensitive strings.
+ *
+ * <p>Only the plain string, integer, number, date and boolean types are supported. Strings sorted
+ * with a collator can't be encoded: use {@link #create(IRowMeta, int[])} to find out if the keys of
+ * a row layout can be encoded.
+ */
+public class SortKeyEncoder {
+  private static final byte NULL_VALUE = 0;
+  private static final byte NOT_NULL_VALUE = 1;
+  private static final byte STRING_CHAR = 1;
+  private static final byte STRING_END = 0;
+
+  private final IValueMeta[] valueMetas;
+  private final int[] fieldNrs;
+  private byte[] buffer;
+  private int length;
+
+  private SortKeyEncoder(IValueMeta[] valueMetas, int[] fieldNrs) {
+    this.valueMetas = valueMetas;
+    this.fieldNrs = fieldNrs;
+    this.buffer = new byte[64];
+  }
+
+  /**
+   * Create an encoder for the given sort keys.
+   *
+   * @param rowMeta the layout of the rows, with the sort direction and case sensitivity set on the
+   *     key fields
+   * @param fieldNrs the indexes of the key fields
+   * @return the encoder or null if one of the key fields can't be encoded
+   */
+  public static SortKeyEncoder create(IRowMeta rowMeta, int[] fieldNrs) {
+    IValueMeta[] valueMetas = new IValueMeta[fieldNrs.length];
+    for (int i = 0; i < fieldNrs.length; i++) {
+      IValueMeta valueMeta = rowMeta.getValueMeta(fieldNrs[i]);
+      if (!isSupported(valueMeta)) {
+        return null;
+      }
+      valueMetas[i] = valueMeta;
+    }
+    return new SortKeyEncoder(valueMetas, fieldNrs);
+  }
+
+  private static boolean isSupported(IValueMeta valueMeta) {
+    if (valueMeta.getStorageType() != IValueMeta.STORAGE_TYPE_NORMAL) {
+      return false;
+    }
+    // Subclasses like Timestamp or Internet Address compare differently
+    //
+    Class<?> valueMetaClass = valueMeta.getClass();
+    if (valueMetaClass == ValueMetaString.class) {
+      return valueMeta.isCollatorDisabled();
+    }
+    return valueMetaClass == ValueMetaInteger.class
+        || valueMetaClass == ValueMetaNumber.class
+        || valueMetaClass == ValueMetaDate.class
+        || valueMetaClass == ValueMetaBoolean.class;
+  }
+
+  /**
+   * Encode the sort keys of a row.
+   *
+   * @param row the row to encode the keys of
+   * @return a new byte array with the normalized keys
+   * @throws HopValueException in case a value can't be converted to the type of its field
+   */
+  public byte[] encode(Object[] row) throws HopValueException {
+    length = 0;
+    for (int i = 0; i < valueMetas.length; i++) {
+      int start = length;
+      encodeValue(valueMetas[i], row[fieldNrs[i]]);
+      if (valueMetas[i].isSortedDescending()) {
+        for (int b = start; b < length; b++) {
+          buffer[b] = (byte) ~buffer[b];
+        }
+      }
+    }
+    return Arrays.copyOf(buffer, length);
+  }
+
+  /**
+   * Compare two encoded keys.
+   *
+   * @return a negative number, zero or a positive number if the first key is smaller, equal or
+   *     larger than the second key
+   */
+  public static int compare(byte[] key1, byte[] key2) {
+    return Arrays.compareUnsigned(key1, key2);
+  }
+
+  private void encodeValue(IValueMeta valueMeta, Object value) throws HopValueException {
+    if (valueMeta.isNull(value)) {
+      writeByte(NULL_VALUE);
+      return;
+    }
+    writeByte(NOT_NULL_VALUE);
+
+    switch (valueMeta.getType()) {
+      case IValueMeta.TYPE_STRING:
+        writeString(valueMeta, valueMeta.getString(value));
+        break;
+      case IValueMeta.TYPE_INTEGER:
+        writeLong(valueMeta.getInteger(value));
+        break;
+      case IValueMeta.TYPE_NUMBER:
+        // Flip the bits of negative numbers so that the order of the longs matches Double.compare()
+        //
+        long bits = Double.doubleToLongBits(valueMeta.getNumber(value));
+        writeLong(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+        break;
+      case IValueMeta.TYPE_DATE:
+        writeLong(valueMeta.getDate(value).getTime());
+        break;
+      case IValueMeta.TYPE_BOOLEAN:
+        writeByte(Boolean.TRUE.equals(valueMeta.getBoolean(value)) ? (byte) 1 : (byte) 0);
+        break;
+      default:
+        throw new HopValueException(
+            valueMeta.toStringMeta() + " : sort keys can not be encoded for this data type");
+    }
+  }
+
+  private void writeString(IValueMeta valueMeta, String string) {
+    if (valueMeta.isIgnoreWhitespace()) {
+      string = string.trim();
+    }
+    boolean caseInsensitive = valueMeta.isCaseInsensitive();
+    ensureCapacity(string.length() * 3 + 1);
+
+    // Every character is prefixed so that a shorter string sorts before a longer one starting with
+    // the same characters, the same way String.compareTo() does.
+    //
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (caseInsensitive) {
+        // The same folding as String.compareToIgnoreCase()
+        //
+        c = Character.toLowerCase(Character.toUpperCase(c));
+      }
+      buffer[length++] = STRING_CHAR;
+      buffer[length++] = (byte) (c >>> 8);
+      buffer[length++] = (byte) c;
+    }
+    buffer[length++] = STRING_END;
+  }
+
+  private void writeLong(long value) {
+    ensureCapacity(8);
+    long sortable = value ^ Long.MIN_VALUE;
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buffer[length++] = (byte) (sortable >>> shift);
+    }
+  }
+
+  private void writeByte(byte value) {
+    ensureCapacity(1);
+    buffer[length++] = value;
+  }
+
+  private void ensureCapacity(int extra) {
+    if (length + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+    }
+  }
+}
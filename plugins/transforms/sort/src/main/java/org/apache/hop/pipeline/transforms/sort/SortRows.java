@@ -17,29 +17,19 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.net.SocketTimeoutException;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.vfs2.FileObject;
-import org.apache.commons.vfs2.FileSystemException;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
-import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.spill.SpillFile;
+import org.apache.hop.core.spill.SpillFileReader;
+import org.apache.hop.core.spill.SpillRunMerger;
 import org.apache.hop.core.vfs.HopVfs;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
@@ -120,66 +110,42 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
 
     // First sort the rows in buffer[]
-    quickSort(data.buffer);
+    byte[][] keys = sortBuffer();
 
     // Then write them to disk...
-    DataOutputStream dos;
-    GZIPOutputStream gzos;
-    int p;
-
     try {
-      FileObject fileObject =
-          HopVfs.createTempFile(meta.getPrefix(), ".tmp", resolve(meta.getDirectory()));
-
-      data.files.add(fileObject); // Remember the files!
-      OutputStream outputStream = HopVfs.getOutputStream(fileObject, false);
-      if (data.compressFiles) {
-        gzos = new GZIPOutputStream(new BufferedOutputStream(outputStream));
-        dos = new DataOutputStream(gzos);
-      } else {
-        dos = new DataOutputStream(new BufferedOutputStream(outputStream, 500000));
-        gzos = null;
-      }
+      SpillFile spillFile =
+          new SpillFile(
+              data.outputRowMeta,
+              meta.getPrefix(),
+              resolve(meta.getDirectory()),
+              data.compressFiles,
+              keys != null,
+              this::addBytesSpilled);
+
+      data.files.add(spillFile); // Remember the files!
 
       // Just write the data, nothing else
-      List<Integer> duplicates = new ArrayList<>();
       Object[] previousRow = null;
-      if (meta.isOnlyPassingUniqueRows()) {
-        int index = 0;
-        while (index < data.buffer.size()) {
-          Object[] row = data.buffer.get(index);
-          if (previousRow != null) {
-            int result = data.outputRowMeta.compare(row, previousRow, data.fieldnrs);
-            if (result == 0) {
-              duplicates.add(index);
-              if (log.isRowLevel()) {
-                logRowlevel(
-                    BaseMessages.getString(
-                        PKG,
-                        "SortRows.RowLevel.DuplicateRowRemoved",
-                        data.outputRowMeta.getString(row)));
-              }
-            }
+      for (int p = 0; p < data.buffer.size(); p++) {
+        Object[] row = data.buffer.get(p);
+        if (meta.isOnlyPassingUniqueRows()
+            && previousRow != null
+            && data.outputRowMeta.compare(row, previousRow, data.fieldnrs) == 0) {
+          if (log.isRowLevel()) {
+            logRowlevel(
+                BaseMessages.getString(
+                    PKG,
+                    "SortRows.RowLevel.DuplicateRowRemoved",
+                    data.outputRowMeta.getString(row)));
           }
-          index++;
-          previousRow = row;
+          continue;
         }
-      }
-
-      // How many records do we have left?
-      data.bufferSizes.add(data.buffer.size() - duplicates.size());
+        previousRow = row;
 
-      int duplicatesIndex = 0;
-      for (p = 0; p < data.buffer.size(); p++) {
-        boolean skip = false;
-        if (duplicatesIndex < duplicates.size() && p == duplicates.get(duplicatesIndex)) {
-          skip = true;
-          duplicatesIndex++;
-        }
-        if (!skip) {
-          data.outputRowMeta.writeData(dos, data.buffer.get(p));
-        }
+        spillFile.write(keys != null ? keys[p] : null, row);
       }
+      spillFile.finishWriting();
 
       if (data.sortSize < 0 && data.buffer.size() > data.minSortSize) {
         data.minSortSize = data.buffer.size(); // if we did it once, we can do
@@ -195,13 +161,6 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       // Clear the list
       data.buffer.clear();
 
-      // Close temp-file
-      dos.close(); // close data stream
-      if (gzos != null) {
-        gzos.close(); // close gzip stream
-      }
-      outputStream.close(); // close file stream
-
       // How much memory do we have left?
       //
       data.freeMemoryPct = Const.getPercentageFreeMemory();
@@ -218,150 +177,51 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     data.getBufferIndex = 0;
   }
 
-  private DataInputStream getDataInputStream(GZIPInputStream gzipInputStream) {
-    DataInputStream result = new DataInputStream(gzipInputStream);
-    data.gzis.add(gzipInputStream);
-    return result;
-  }
-
   // get sorted rows from available files in iterative manner.
   // that means call to this method will continue to return rows
   // till all temp files will not be read to the end.
-  Object[] getBuffer() throws HopValueException {
-    Object[] retval;
+  Object[] getBuffer() throws HopException {
+    if (data.files.isEmpty()) {
+      // read from in-memory processing
+      //
+      if (data.getBufferIndex < data.buffer.size()) {
+        return data.buffer.get(data.getBufferIndex++);
+      }
+      return null;
+    }
 
-    // Open all files at once and read one row from each file...
-    if (CollectionUtils.isNotEmpty(data.files) && (data.dis.isEmpty() || data.fis.isEmpty())) {
+    // Open all files at once and merge them
+    //
+    if (data.merger == null) {
       if (log.isBasic()) {
         logBasic(BaseMessages.getString(PKG, "SortRows.Basic.OpeningTempFiles", data.files.size()));
       }
 
       try {
         for (int f = 0; f < data.files.size() && !isStopped(); f++) {
-          FileObject fileObject = data.files.get(f);
-          String filename = HopVfs.getFilename(fileObject);
+          SpillFile spillFile = data.files.get(f);
+          String filename = HopVfs.getFilename(spillFile.getFile());
           if (log.isDetailed()) {
             logDetailed(BaseMessages.getString(PKG, "SortRows.Detailed.OpeningTempFile", filename));
-          }
-          InputStream fi = HopVfs.getInputStream(fileObject);
-          DataInputStream di;
-          data.fis.add(fi);
-          if (data.compressFiles) {
-            di = getDataInputStream(new GZIPInputStream(new BufferedInputStream(fi)));
-          } else {
-            di = new DataInputStream(new BufferedInputStream(fi, 50000));
-          }
-          data.dis.add(di);
-
-          // How long is the buffer?
-          int buffersize = data.bufferSizes.get(f);
-
-          if (log.isDetailed()) {
             logDetailed(
                 BaseMessages.getString(
-                    PKG, "SortRows.Detailed.FromFileExpectingRows", filename, buffersize));
-          }
-
-          if (buffersize > 0) {
-            Object[] row = data.outputRowMeta.readData(di);
-            data.rowbuffer.add(row); // new row from input stream
-            data.tempRows.add(new RowTempFile(row, f));
+                    PKG,
+                    "SortRows.Detailed.FromFileExpectingRows",
+                    filename,
+                    spillFile.getNrRows()));
           }
+          data.runReaders.add(spillFile.openReader());
         }
-
-        // Sort the data row buffer
-        Collections.sort(data.tempRows, data.comparator);
-      } catch (Exception e) {
-        logError(BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
+        data.merger =
+            new SpillRunMerger(
+                data.runReaders, data.outputRowMeta, data.fieldnrs, data.keyEncoder != null);
+      } catch (HopException e) {
+        throw new HopException(
+            BaseMessages.getString(PKG, "SortRows.Error.ErrorReadingBackTempFiles"), e);
       }
     }
 
-    if (data.files.isEmpty()) {
-      // read from in-memory processing
-
-      if (data.getBufferIndex < data.buffer.size()) {
-        retval = data.buffer.get(data.getBufferIndex);
-        data.getBufferIndex++;
-      } else {
-        retval = null;
-      }
-    } else {
-      // read from disk processing
-
-      if (data.rowbuffer.isEmpty()) {
-        retval = null;
-      } else {
-        // We now have "filenr" rows waiting: which one is the smallest?
-        //
-        if (log.isRowLevel()) {
-          for (int i = 0; i < data.rowbuffer.size() && !isStopped(); i++) {
-            Object[] b = data.rowbuffer.get(i);
-            logRowlevel(
-                BaseMessages.getString(
-                    PKG, "SortRows.RowLevel.PrintRow", i, data.outputRowMeta.getString(b)));
-          }
-        }
-
-        RowTempFile rowTempFile = data.tempRows.remove(0);
-        retval = rowTempFile.row;
-        int smallest = rowTempFile.fileNumber;
-
-        // now get another Row for position smallest
-
-        FileObject file = data.files.get(smallest);
-        DataInputStream di = data.dis.get(smallest);
-        InputStream fi = data.fis.get(smallest);
-
-        try {
-          Object[] row2 = data.outputRowMeta.readData(di);
-          RowTempFile extra = new RowTempFile(row2, smallest);
-
-          int index = Collections.binarySearch(data.tempRows, extra, data.comparator);
-          if (index < 0) {
-            data.tempRows.add(index * (-1) - 1, extra);
-          } else {
-            data.tempRows.add(index, extra);
-          }
-        } catch (HopFileException fe) { // empty file or EOF mostly
-          GZIPInputStream gzfi = (data.compressFiles) ? data.gzis.get(smallest) : null;
-          try {
-            di.close();
-            fi.close();
-            if (gzfi != null) {
-              gzfi.close();
-            }
-            file.delete();
-          } catch (IOException e) {
-            logError(
-                BaseMessages.getString(
-                    PKG, "SortRows.Error.UnableToCloseFile", smallest, file.toString()));
-            setErrors(1);
-            stopAll();
-            return null;
-          }
-
-          data.files.remove(smallest);
-          data.dis.remove(smallest);
-          data.fis.remove(smallest);
-
-          if (gzfi != null) {
-            data.gzis.remove(smallest);
-          }
-
-          // Also update all file numbers in in data.tempRows if they are larger
-          // than smallest.
-          //
-          for (RowTempFile rtf : data.tempRows) {
-            if (rtf.fileNumber > smallest) {
-              rtf.fileNumber--;
-            }
-          }
-        } catch (SocketTimeoutException e) {
-          throw new HopValueException(e); // should never happen on local files
-        }
-      }
-    }
-    return retval;
+    return data.merger.next();
   }
 
   @Override
@@ -412,7 +272,6 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       // Metadata
       data.outputRowMeta = inputRowMeta.clone();
       meta.getFields(data.outputRowMeta, getTransformName(), null, null, this, metadataProvider);
-      data.comparator = new RowTemapFileComparator(data.outputRowMeta, data.fieldnrs);
 
       for (int i = 0; i < fieldNames.length; i++) {
         data.fieldnrs[i] = inputRowMeta.indexOfValue(fieldNames[i]);
@@ -436,6 +295,10 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
         i++;
       }
       data.rowComparator = new RowObjectArrayComparator(data.outputRowMeta, data.fieldnrs);
+
+      // Compare normalized binary keys if the data types of the keys allow it
+      //
+      data.keyEncoder = SortKeyEncoder.create(data.outputRowMeta, data.fieldnrs);
     } // end if first
 
     // it is not first row and it is null
@@ -561,15 +424,9 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     //
     data.buffer = new ArrayList<>(5000);
 
-    // Buffer for reading from disk
-    //
-    data.rowbuffer = new ArrayList<>(5000);
-
     data.compressFiles =
         getVariableBoolean(meta.getCompressFilesVariable(), meta.getCompressFiles());
 
-    data.tempRows = new ArrayList<>();
-
     data.minSortSize = 5000;
 
     return true;
@@ -586,49 +443,65 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     // Clean out the sort buffer
     data.buffer.clear();
     data.getBufferIndex = 0;
-    data.rowbuffer.clear();
 
-    // close any open DataInputStream objects
-    if (CollectionUtils.isNotEmpty(data.dis)) {
-      for (DataInputStream dis : data.dis) {
-        BaseTransform.closeQuietly(dis);
-      }
-    }
-    // close any open InputStream objects
-    if (CollectionUtils.isNotEmpty(data.fis)) {
-      for (InputStream is : data.fis) {
-        BaseTransform.closeQuietly(is);
-      }
+    // close the readers of the temp files
+    for (SpillFileReader runReader : data.runReaders) {
+      BaseTransform.closeQuietly(runReader);
     }
+    data.runReaders.clear();
+    data.merger = null;
+
     // remove temp files
-    for (int f = 0; f < data.files.size(); f++) {
-      FileObject fileToDelete = data.files.get(f);
-      try {
-        if (fileToDelete != null && fileToDelete.exists()) {
-          fileToDelete.delete();
-        }
-      } catch (FileSystemException e) {
-        logError(e.getLocalizedMessage(), e);
-      }
+    for (SpillFile spillFile : data.files) {
+      spillFile.close();
     }
+    data.files.clear();
   }
 
-  /** Sort the entire vector, if it is not empty. */
-  void quickSort(List<Object[]> elements) {
-    if (CollectionUtils.isNotEmpty(elements)) {
-      Collections.sort(elements, data.rowComparator);
+  /**
+   * Sort the rows in the buffer, if it is not empty. Large buffers are sorted in parallel. When the
+   * keys can be normalized the rows are sorted on their binary keys.
+   *
+   * @return the normalized keys of the sorted rows or null if the keys can't be normalized
+   */
+  byte[][] sortBuffer() throws HopException {
+    if (CollectionUtils.isEmpty(data.buffer)) {
+      return null;
+    }
 
-      long nrConversions = 0L;
-      for (IValueMeta valueMeta : data.outputRowMeta.getValueMetaList()) {
-        nrConversions += valueMeta.getNumberOfBinaryStringConversions();
-        valueMeta.setNumberOfBinaryStringConversions(0L);
+    byte[][] keys = null;
+    if (data.keyEncoder != null) {
+      KeyedRow[] keyedRows = new KeyedRow[data.buffer.size()];
+      for (int i = 0; i < keyedRows.length; i++) {
+        Object[] row = data.buffer.get(i);
+        keyedRows[i] = new KeyedRow(data.keyEncoder.encode(row), row);
       }
-      if (log.isDetailed()) {
-        logDetailed(
-            BaseMessages.getString(
-                PKG, "SortRows.Detailed.ReportNumberOfBinaryStringConv", nrConversions));
+      Arrays.parallelSort(keyedRows);
+
+      keys = new byte[keyedRows.length][];
+      for (int i = 0; i < keyedRows.length; i++) {
+        keys[i] = keyedRows[i].key;
+        data.buffer.set(i, keyedRows[i].row);
       }
+    } else {
+      Object[][] rows = data.buffer.toArray(new Object[0][]);
+      Arrays.parallelSort(rows, data.rowComparator);
+      for (int i = 0; i < rows.length; i++) {
+        data.buffer.set(i, rows[i]);
+      }
+    }
+
+    long nrConversions = 0L;
+    for (IValueMeta valueMeta : data.outputRowMeta.getValueMetaList()) {
+      nrConversions += valueMeta.getNumberOfBinaryStringConversions();
+      valueMeta.setNumberOfBinaryStringConversions(0L);
     }
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "SortRows.Detailed.ReportNumberOfBinaryStringConv", nrConversions));
+    }
+    return keys;
   }
 
   @Override
@@ -661,7 +534,7 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
       sortExternalRows();
     } else {
       // sort in memory
-      quickSort(data.buffer);
+      sortBuffer();
     }
   }
 
@@ -692,16 +565,16 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
   }
 
-  private class RowTemapFileComparator extends SortRowsComparator
-      implements Comparator<RowTempFile> {
-    RowTemapFileComparator(IRowMeta rowMeta, int[] fieldNrs) {
+  private class RowObjectArrayComparator extends SortRowsComparator
+      implements Comparator<Object[]> {
+    RowObjectArrayComparator(IRowMeta rowMeta, int[] fieldNrs) {
       super(rowMeta, fieldNrs);
     }
 
     @Override
-    public int compare(RowTempFile o1, RowTempFile o2) {
+    public int compare(Object[] o1, Object[] o2) {
       try {
-        return rowMeta.compare(o1.row, o2.row, fieldNrs);
+        return rowMeta.compare(o1, o2, fieldNrs);
       } catch (HopValueException e) {
         logError("Error comparing rows: " + e.toString());
         return 0;
@@ -709,20 +582,19 @@ public class SortRows extends BaseTransform<SortRowsMeta, SortRowsData> {
     }
   }
 
-  private class RowObjectArrayComparator extends SortRowsComparator
-      implements Comparator<Object[]> {
-    RowObjectArrayComparator(IRowMeta rowMeta, int[] fieldNrs) {
-      super(rowMeta, fieldNrs);
+  /** A row with its normalized sort key */
+  private static final class KeyedRow implements Comparable<KeyedRow> {
+    private final byte[] key;
+    private final Object[] row;
+
+    KeyedRow(byte[] key, Object[] row) {
+      this.key = key;
+      this.row = row;
     }
 
     @Override
-    public int compare(Object[] o1, Object[] o2) {
-      try {
-        return rowMeta.compare(o1, o2, fieldNrs);
-      } catch (HopValueException e) {
-        logError("Error comparing rows: " + e.toString());
-        return 0;
-      }
+    public int compareTo(KeyedRow other) {
+      return SortKeyEncoder.compare(key, other.key);
     }
   }
 }
@@ -17,30 +17,25 @@
 
 package org.apache.hop.pipeline.transforms.sort;
 
-import java.io.DataInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.zip.GZIPInputStream;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.spill.SpillFile;
+import org.apache.hop.core.spill.SpillFileReader;
+import org.apache.hop.core.spill.SpillRunMerger;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
 public class SortRowsData extends BaseTransformData implements ITransformData {
-  public List<FileObject> files;
+  public List<SpillFile> files;
   public List<Object[]> buffer;
   public int getBufferIndex;
 
-  public List<InputStream> fis;
-  public List<GZIPInputStream> gzis;
-  public List<DataInputStream> dis;
-  public List<Object[]> rowbuffer;
-  public List<Integer> bufferSizes;
-
-  // To store rows and file references
-  public List<RowTempFile> tempRows;
+  // Reading back the sorted runs from the temporary files
+  public List<SpillFileReader> runReaders;
+  public SpillRunMerger merger;
 
   public int[] fieldnrs; // the corresponding field numbers
   public FileObject fil;
@@ -50,8 +45,8 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
   public int[] convertKeysToNative;
   public boolean convertAnyKeysToNative;
 
-  Comparator<RowTempFile> comparator;
   Comparator<Object[]> rowComparator;
+  SortKeyEncoder keyEncoder;
 
   public int freeCounter;
   public int freeMemoryPct;
@@ -70,10 +65,7 @@ public class SortRowsData extends BaseTransformData implements ITransformData {
     super();
 
     files = new ArrayList<>();
-    fis = new ArrayList<>();
-    gzis = new ArrayList<>();
-    dis = new ArrayList<>();
-    bufferSizes = new ArrayList<>();
+    runReaders = new ArrayList<>();
 
     previous = null; // Heroic
   }
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBoolean;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaNumber;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Test;
+
+public class SortKeyEncoderTest {
+
+  private static final String[] STRINGS = {
+    null, "", "a", "A", "ab", "aB", "b", "abc", "a\u0000", "été", "￿", "  a  "
+  };
+  private static final Double[] NUMBERS = {
+    null, 0.0, -0.0, 1.5, -1.5, Double.MAX_VALUE, -Double.MAX_VALUE, Double.NaN, 1e-300, -1e-300
+  };
+  private static final Long[] INTEGERS = {null, 0L, 1L, -1L, Long.MAX_VALUE, Long.MIN_VALUE, 42L};
+
+  private IRowMeta createRowMeta(boolean descending, boolean caseInsensitive) {
+    IRowMeta rowMeta = new RowMeta();
+    IValueMeta[] valueMetas = {
+      new ValueMetaString("string"),
+      new ValueMetaNumber("number"),
+      new ValueMetaInteger("integer"),
+      new ValueMetaDate("date"),
+      new ValueMetaBoolean("boolean")
+    };
+    for (IValueMeta valueMeta : valueMetas) {
+      valueMeta.setSortedDescending(descending);
+      valueMeta.setCaseInsensitive(caseInsensitive);
+      rowMeta.addValueMeta(valueMeta);
+    }
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows(int nrRows) {
+    Random random = new Random(123L);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < nrRows; i++) {
+      Long integer = INTEGERS[random.nextInt(INTEGERS.length)];
+      rows.add(
+          new Object[] {
+            STRINGS[random.nextInt(STRINGS.length)],
+            NUMBERS[random.nextInt(NUMBERS.length)],
+            integer,
+            integer == null ? null : new Date(integer / 1000),
+            random.nextInt(3) == 0 ? null : random.nextBoolean()
+          });
+    }
+    return rows;
+  }
+
+  private void assertSameOrder(boolean descending, boolean caseInsensitive) throws Exception {
+    IRowMeta rowMeta = createRowMeta(descending, caseInsensitive);
+    List<Object[]> rows = createRows(300);
+
+    for (int[] fieldNrs : new int[][] {{0}, {1}, {2}, {3}, {4}, {0, 1}, {4, 0, 2}, {1, 3, 0}}) {
+      SortKeyEncoder encoder = SortKeyEncoder.create(rowMeta, fieldNrs);
+      assertNotNull(encoder);
+      for (Object[] row1 : rows) {
+        byte[] key1 = encoder.encode(row1);
+        for (Object[] row2 : rows) {
+          byte[] key2 = encoder.encode(row2);
+          assertEquals(
+              Integer.signum(rowMeta.compare(row1, row2, fieldNrs)),
+              Integer.signum(SortKeyEncoder.compare(key1, key2)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testAscending() throws Exception {
+    assertSameOrder(false, false);
+  }
+
+  @Test
+  public void testDescending() throws Exception {
+    assertSameOrder(true, false);
+  }
+
+  @Test
+  public void testCaseInsensitive() throws Exception {
+    assertSameOrder(false, true);
+    assertSameOrder(true, true);
+  }
+
+  @Test
+  public void testUnsupportedKeys() {
+    IRowMeta rowMeta = new RowMeta();
+    IValueMeta collated = new ValueMetaString("collated");
+    collated.setCollatorDisabled(false);
+    rowMeta.addValueMeta(collated);
+    rowMeta.addValueMeta(new ValueMetaTimestamp("timestamp"));
+    IValueMeta binaryString = new ValueMetaString("binaryString");
+    binaryString.setStorageType(IValueMeta.STORAGE_TYPE_BINARY_STRING);
+    rowMeta.addValueMeta(binaryString);
+
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {0}));
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {1}));
+    assertNull(SortKeyEncoder.create(rowMeta, new int[] {2}));
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.sort;
+
+import static org.apache.hop.pipeline.transforms.mock.TransformMockHelper.createKeyRowMeta;
+import static org.apache.hop.pipeline.transforms.mock.TransformMockHelper.createKeyRows;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SortRowsTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private TransformMockHelper<SortRowsMeta, SortRowsData> smh;
+
+  @Before
+  public void setUp() {
+    smh = new TransformMockHelper<>("Sort rows", SortRowsMeta.class, SortRowsData.class);
+    smh.initRunningPipeline();
+  }
+
+  @After
+  public void cleanUp() {
+    smh.cleanUp();
+  }
+
+  private List<Object[]> createRows(int nrRows) {
+    return createKeyRows(nrRows, 100, 7L);
+  }
+
+  private SortRowsMeta createMeta(int sortSize, boolean compress, boolean collator) {
+    SortRowsMeta meta = new SortRowsMeta();
+    meta.setDefault();
+    meta.allocate(1);
+    meta.setFieldName(new String[] {"key"});
+    meta.setAscending(new boolean[] {true});
+    meta.setCaseSensitive(new boolean[] {true});
+    meta.setCollatorEnabled(new boolean[] {collator});
+    meta.setCollatorStrength(new int[] {0});
+    meta.setPreSortedField(new boolean[] {false});
+    meta.setDirectory(tempFolder.getRoot().getAbsolutePath());
+    meta.setSortSize(Integer.toString(sortSize));
+    meta.setCompressFiles(compress);
+    return meta;
+  }
+
+  private List<Object[]> sort(SortRowsMeta meta, List<Object[]> rows) throws HopException {
+    SortRows sortRows =
+        new SortRows(
+            smh.transformMeta, meta, new SortRowsData(), 0, smh.pipelineMeta, smh.pipeline);
+    List<Object[]> output = smh.processRows(sortRows, createKeyRowMeta(), rows);
+
+    // All the temporary files are removed
+    //
+    assertEquals(0, tempFolder.getRoot().list().length);
+    return output;
+  }
+
+  /** The sort is stable: rows with the same key keep the order in which they arrived. */
+  private void assertSorted(List<Object[]> input, List<Object[]> output) {
+    assertEquals(input.size(), output.size());
+    for (int i = 1; i < output.size(); i++) {
+      Object[] previous = output.get(i - 1);
+      Object[] row = output.get(i);
+      int cmp = ((String) previous[0]).compareTo((String) row[0]);
+      assertTrue(cmp < 0 || (cmp == 0 && (Long) previous[1] < (Long) row[1]));
+    }
+  }
+
+  @Test
+  public void testSortInMemory() throws Exception {
+    List<Object[]> rows = createRows(20000);
+    assertSorted(rows, sort(createMeta(100000, false, false), new ArrayList<>(rows)));
+  }
+
+  @Test
+  public void testSortExternal() throws Exception {
+    List<Object[]> rows = createRows(5000);
+    assertSorted(rows, sort(createMeta(300, false, false), new ArrayList<>(rows)));
+  }
+
+  @Test
+  public void testSortExternalCompressed() throws Exception {
+    List<Object[]> rows = createRows(5000);
+    assertSorted(rows, sort(createMeta(300, true, false), new ArrayList<>(rows)));
+  }
+
+  @Test
+  public void testSortExternalWithoutNormalizedKeys() throws Exception {
+    List<Object[]> rows = createRows(5000);
+    List<Object[]> output = sort(createMeta(300, false, true), new ArrayList<>(rows));
+    assertEquals(rows.size(), output.size());
+    for (int i = 1; i < output.size(); i++) {
+      assertFalse(((String) output.get(i - 1)[0]).compareTo((String) output.get(i)[0]) > 0);
+    }
+  }
+
+  @Test
+  public void testOnlyPassingUniqueRows() throws Exception {
+    SortRowsMeta meta = createMeta(300, false, false);
+    meta.setOnlyPassingUniqueRows(true);
+    List<Object[]> output = sort(meta, createRows(5000));
+    assertEquals(100, output.size());
+    for (int i = 1; i < output.size(); i++) {
+      assertTrue(((String) output.get(i - 1)[0]).compareTo((String) output.get(i)[0]) < 0);
+    }
+  }
+}
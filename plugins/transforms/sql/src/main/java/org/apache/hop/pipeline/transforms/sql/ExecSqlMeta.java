@@ -459,6 +459,11 @@ public class ExecSqlMeta extends BaseTransformMeta<ExecSql, ExecSqlData> {
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   /**
    * @return the singleStatement
    */
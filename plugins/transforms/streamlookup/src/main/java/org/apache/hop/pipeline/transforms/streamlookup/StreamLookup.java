@@ -26,6 +26,7 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashIndex;
+import org.apache.hop.core.hash.CompositeKeyHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.core.row.RowDataUtil;
@@ -194,6 +195,16 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
 
         data.cacheKeyMeta = cacheKeyMeta;
         data.cacheValueMeta = cacheValueMeta;
+
+        // Keys with only primitive and string values go in a compact index which doesn't need
+        // to serialize the keys or allocate objects when looking them up.
+        //
+        boolean specificAlgorithm =
+            meta.isMemoryPreservationActive()
+                && (meta.isUsingSortedList() || meta.isUsingIntegerPair());
+        if (!specificAlgorithm && CompositeKeyHashIndex.isSupportedKey(cacheKeyMeta)) {
+          data.compositeIndex = new CompositeKeyHashIndex(cacheKeyMeta, cacheValueMeta);
+        }
       }
 
       Object[] keyData = new Object[keyNrs.length];
@@ -296,6 +307,10 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
   private void addToCache(
       IRowMeta keyMeta, Object[] keyData, IRowMeta valueMeta, Object[] valueData)
       throws HopValueException {
+    if (data.compositeIndex != null) {
+      data.compositeIndex.put(keyData, valueData);
+      return;
+    }
     if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, valueData);
@@ -340,6 +355,9 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
   }
 
   private Object[] getFromCache(IRowMeta keyMeta, Object[] keyData) throws HopValueException {
+    if (data.compositeIndex != null) {
+      return data.compositeIndex.get(keyData);
+    }
     if (meta.isMemoryPreservationActive()) {
       if (meta.isUsingSortedList()) {
         KeyValue keyValue = new KeyValue(keyData, null);
@@ -498,6 +516,7 @@ public class StreamLookup extends BaseTransform<StreamLookupMeta, StreamLookupDa
     data.list = null;
     data.hashIndex = null;
     data.longIndex = null;
+    data.compositeIndex = null;
 
     super.dispose();
   }
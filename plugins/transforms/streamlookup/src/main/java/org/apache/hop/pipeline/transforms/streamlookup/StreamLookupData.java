@@ -25,6 +25,7 @@ import java.util.Map;
 import org.apache.hop.core.RowMetaAndData;
 import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.hash.ByteArrayHashIndex;
+import org.apache.hop.core.hash.CompositeKeyHashIndex;
 import org.apache.hop.core.hash.LongHashIndex;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
@@ -64,6 +65,9 @@ public class StreamLookupData extends BaseTransformData implements ITransformDat
   public ByteArrayHashIndex hashIndex;
   public LongHashIndex longIndex;
 
+  /** Used instead of the other caches when the keys are all primitive or string values */
+  public CompositeKeyHashIndex compositeIndex;
+
   public IRowMeta lookupMeta;
 
   public IRowMeta infoMeta;
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Map;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+import org.apache.hop.core.row.RowDataUtil;
+import org.apache.hop.i18n.BaseMessages;
+import org.apache.hop.pipeline.engine.IPipelineEngine;
+
+/**
+ * Splits the rows of the query of a Table Input transform over its copies. The minimum and maximum
+ * value of the split column are looked up once, by the first copy to start reading. The range in
+ * between is divided in equal parts and every copy reads the rows of its own part:
+ *
+ * <pre>
+ *   SELECT * FROM ( the query ) hop_partition WHERE split_column &gt;= ? AND split_column &lt; ?
+ * </pre>
+ *
+ * The first copy also reads the rows without a value for the split column.
+ */
+public class PartitionedRead {
+  private static final Class<?> PKG = TableInputMeta.class; // For Translator
+
+  private static final String EXTENSION_DATA_PREFIX = "TableInput.PartitionedRead.";
+
+  private static final String ALIAS = "hop_partition";
+
+  private boolean calculated;
+  private IValueMeta boundaryMeta;
+  private Object[] boundaries;
+
+  /**
+   * Get the partitioned read shared by the copies of a transform in a pipeline, creating it if
+   * needed.
+   *
+   * @param pipeline The pipeline the copies run in
+   * @param transformName The name of the transform
+   * @return The shared partitioned read
+   */
+  public static PartitionedRead getInstance(IPipelineEngine<?> pipeline, String transformName) {
+    Map<String, Object> extensionDataMap = pipeline.getExtensionDataMap();
+    synchronized (extensionDataMap) {
+      return (PartitionedRead)
+          extensionDataMap.computeIfAbsent(
+              EXTENSION_DATA_PREFIX + transformName, key -> new PartitionedRead());
+    }
+  }
+
+  /**
+   * Build the query for one copy of the transform.
+   *
+   * @param db The database to look up the range of the split column in
+   * @param sql The query of the transform
+   * @param column The name of the split column, a column of the query
+   * @param parametersMeta The description of the parameters of the query
+   * @param parameters The parameters of the query
+   * @param copyNr The copy to build the query for
+   * @param nrCopies The number of copies reading the query
+   * @return The query of the copy, or null if the copy has nothing to read
+   * @throws HopException In case the range of the split column can't be determined
+   */
+  public Query getQuery(
+      Database db,
+      String sql,
+      String column,
+      IRowMeta parametersMeta,
+      Object[] parameters,
+      int copyNr,
+      int nrCopies)
+      throws HopException {
+    String query = stripTerminator(sql);
+    String quotedColumn = db.getDatabaseMeta().quoteField(column);
+    calculateBoundaries(db, query, quotedColumn, parametersMeta, parameters, nrCopies);
+
+    if (boundaries == null) {
+      // No rows or no values for the split column: let the first copy read everything
+      //
+      if (copyNr == 0) {
+        return new Query(query, parametersMeta, parameters);
+      }
+      return null;
+    }
+
+    IRowMeta queryMeta = parametersMeta.clone();
+    Object[] queryParameters = RowDataUtil.createResizedCopy(parameters, parametersMeta.size());
+    StringBuilder where = new StringBuilder();
+    if (copyNr > 0) {
+      where.append(quotedColumn).append(" >= ?");
+      queryParameters = addParameter(queryMeta, queryParameters, "lower", boundaries[copyNr - 1]);
+    }
+    if (copyNr < nrCopies - 1) {
+      if (where.length() > 0) {
+        where.append(" AND ");
+      }
+      where.append(quotedColumn).append(" < ?");
+      queryParameters = addParameter(queryMeta, queryParameters, "upper", boundaries[copyNr]);
+    }
+    if (copyNr == 0) {
+      where.append(" OR ").append(quotedColumn).append(" IS NULL");
+    }
+    return new Query(
+        "SELECT * FROM " + wrap(query) + Const.CR + "WHERE " + where, queryMeta, queryParameters);
+  }
+
+  private synchronized void calculateBoundaries(
+      Database db,
+      String query,
+      String quotedColumn,
+      IRowMeta parametersMeta,
+      Object[] parameters,
+      int nrCopies)
+      throws HopException {
+    if (calculated) {
+      return;
+    }
+    String sql = "SELECT MIN(" + quotedColumn + "), MAX(" + quotedColumn + ") FROM " + wrap(query);
+    RowMetaAndData range;
+    if (parametersMeta.isEmpty()) {
+      range = db.getOneRow(sql);
+    } else {
+      range = db.getOneRow(sql, parametersMeta, parameters);
+    }
+    if (range != null && range.getData() != null) {
+      Object min = range.getData()[0];
+      Object max = range.getData()[1];
+      if (min != null && max != null) {
+        boundaryMeta = range.getRowMeta().getValueMeta(0);
+        boundaries = calculateBoundaries(boundaryMeta, min, max, nrCopies);
+      }
+    }
+    calculated = true;
+  }
+
+  /**
+   * Divide the range between the minimum and the maximum in equal parts.
+   *
+   * @param valueMeta The type of the split column
+   * @param min The minimum value
+   * @param max The maximum value
+   * @param nrParts The number of parts
+   * @return The start of every part but the first
+   * @throws HopException In case the type of the split column is not supported
+   */
+  static Object[] calculateBoundaries(IValueMeta valueMeta, Object min, Object max, int nrParts)
+      throws HopException {
+    Object[] boundaries = new Object[nrParts - 1];
+    for (int i = 1; i < nrParts; i++) {
+      switch (valueMeta.getType()) {
+        case IValueMeta.TYPE_INTEGER:
+          boundaries[i - 1] =
+              interpolate(
+                      BigDecimal.valueOf((Long) min),
+                      BigDecimal.valueOf((Long) max).add(BigDecimal.ONE),
+                      i,
+                      nrParts)
+                  .setScale(0, RoundingMode.FLOOR)
+                  .longValue();
+          break;
+        case IValueMeta.TYPE_NUMBER:
+          boundaries[i - 1] =
+              interpolate(
+                      BigDecimal.valueOf((Double) min),
+                      BigDecimal.valueOf((Double) max),
+                      i,
+                      nrParts)
+                  .doubleValue();
+          break;
+        case IValueMeta.TYPE_BIGNUMBER:
+          boundaries[i - 1] = interpolate((BigDecimal) min, (BigDecimal) max, i, nrParts);
+          break;
+        case IValueMeta.TYPE_DATE:
+        case IValueMeta.TYPE_TIMESTAMP:
+          long millis =
+              interpolate(
+                      BigDecimal.valueOf(((Date) min).getTime()),
+                      BigDecimal.valueOf(((Date) max).getTime()),
+                      i,
+                      nrParts)
+                  .setScale(0, RoundingMode.FLOOR)
+                  .longValue();
+          boundaries[i - 1] =
+              valueMeta.getType() == IValueMeta.TYPE_TIMESTAMP
+                  ? new Timestamp(millis)
+                  : new Date(millis);
+          break;
+        default:
+          throw new HopException(
+              BaseMessages.getString(
+                  PKG,
+                  "TableInput.Exception.PartitionColumnType",
+                  valueMeta.getName(),
+                  valueMeta.getTypeDesc()));
+      }
+    }
+    return boundaries;
+  }
+
+  private static BigDecimal interpolate(BigDecimal min, BigDecimal max, int part, int nrParts) {
+    return min.add(
+        max.subtract(min)
+            .multiply(BigDecimal.valueOf(part))
+            .divide(BigDecimal.valueOf(nrParts), MathContext.DECIMAL128));
+  }
+
+  private Object[] addParameter(IRowMeta rowMeta, Object[] row, String name, Object value) {
+    IValueMeta valueMeta = boundaryMeta.clone();
+    valueMeta.setName(name);
+    rowMeta.addValueMeta(valueMeta);
+    Object[] result = RowDataUtil.createResizedCopy(row, rowMeta.size());
+    result[rowMeta.size() - 1] = value;
+    return result;
+  }
+
+  private static String wrap(String query) {
+    return "(" + Const.CR + query + Const.CR + ") " + ALIAS;
+  }
+
+  /** The query one copy of the transform reads, with its parameters. */
+  public static class Query {
+    private final String sql;
+    private final IRowMeta parametersMeta;
+    private final Object[] parameters;
+
+    public Query(String sql, IRowMeta parametersMeta, Object[] parameters) {
+      this.sql = sql;
+      this.parametersMeta = parametersMeta;
+      this.parameters = parameters;
+    }
+
+    public String getSql() {
+      return sql;
+    }
+
+    public IRowMeta getParametersMeta() {
+      return parametersMeta;
+    }
+
+    public Object[] getParameters() {
+      return parameters;
+    }
+  }
+
+  private static String stripTerminator(String sql) {
+    String query = Const.rtrim(sql);
+    while (query.endsWith(";")) {
+      query = Const.rtrim(query.substring(0, query.length() - 1));
+    }
+    return query;
+  }
+}
@@ -220,8 +220,7 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
     }
   }
 
-  private boolean doQuery(IRowMeta parametersMeta, Object[] parameters)
-      throws HopDatabaseException {
+  private boolean doQuery(IRowMeta parametersMeta, Object[] parameters) throws HopException {
     boolean success = true;
 
     // Open the query with the optional parameters received from the source transforms.
@@ -232,6 +231,28 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
       sql = meta.getSql();
     }
 
+    if (data.partitionColumn != null) {
+      PartitionedRead.Query query =
+          PartitionedRead.getInstance(getPipeline(), getTransformName())
+              .getQuery(
+                  data.db,
+                  sql,
+                  data.partitionColumn,
+                  parametersMeta,
+                  parameters,
+                  getCopyNr(),
+                  getTransformMeta().getCopies(this));
+      if (query == null) {
+        // Nothing to read for this copy
+        //
+        data.thisrow = null;
+        return true;
+      }
+      sql = query.getSql();
+      parametersMeta = query.getParametersMeta();
+      parameters = query.getParameters();
+    }
+
     if (log.isDetailed()) {
       logDetailed("SQL query : " + sql);
     }
@@ -321,6 +342,16 @@ public class TableInput extends BaseTransform<TableInputMeta, TableInputData> {
         logError(BaseMessages.getString(PKG, "TableInput.Exception.DatabaseConnectionsIsNeeded"));
         passed = false;
       }
+      // Split the rows over the copies of this transform?
+      //
+      String partitionColumn = resolve(meta.getPartitionColumn());
+      if (!Utils.isEmpty(partitionColumn) && getTransformMeta().getCopies(this) > 1) {
+        if (meta.isExecuteEachInputRow()) {
+          logError(BaseMessages.getString(PKG, "TableInput.Exception.PartitionColumnEachRow"));
+          passed = false;
+        }
+        data.partitionColumn = partitionColumn;
+      }
       if (!passed) {
         return false;
       }
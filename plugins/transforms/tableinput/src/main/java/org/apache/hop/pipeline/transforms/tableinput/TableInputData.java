@@ -36,6 +36,9 @@ public class TableInputData extends BaseTransformData implements ITransformData
   public boolean isCanceled;
   public IStream infoStream;
 
+  /** The column to split the rows over the copies with, null if every copy reads all rows */
+  public String partitionColumn;
+
   public TableInputData() {
     super();
 
@@ -76,6 +76,8 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
 
   private TextVar wLimit;
 
+  private TextVar wPartitionColumn;
+
   private Label wlEachRow;
   private Button wEachRow;
 
@@ -146,6 +148,28 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
 
     setButtonPositions(new Button[] {wOk, wPreview, wCancel}, margin, null);
 
+    // Split the rows over the copies on this column
+    Label wlPartitionColumn = new Label(shell, SWT.RIGHT);
+    wlPartitionColumn.setText(BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn"));
+    wlPartitionColumn.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn.Tooltip"));
+    PropsUi.setLook(wlPartitionColumn);
+    FormData fdlPartitionColumn = new FormData();
+    fdlPartitionColumn.left = new FormAttachment(0, 0);
+    fdlPartitionColumn.right = new FormAttachment(middle, -margin);
+    fdlPartitionColumn.bottom = new FormAttachment(wOk, -2 * margin);
+    wlPartitionColumn.setLayoutData(fdlPartitionColumn);
+    wPartitionColumn = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wPartitionColumn.setToolTipText(
+        BaseMessages.getString(PKG, "TableInputDialog.PartitionColumn.Tooltip"));
+    PropsUi.setLook(wPartitionColumn);
+    wPartitionColumn.addModifyListener(lsMod);
+    FormData fdPartitionColumn = new FormData();
+    fdPartitionColumn.left = new FormAttachment(middle, 0);
+    fdPartitionColumn.right = new FormAttachment(100, 0);
+    fdPartitionColumn.bottom = new FormAttachment(wlPartitionColumn, 0, SWT.CENTER);
+    wPartitionColumn.setLayoutData(fdPartitionColumn);
+
     // Limit input ...
     Label wlLimit = new Label(shell, SWT.RIGHT);
     wlLimit.setText(BaseMessages.getString(PKG, "TableInputDialog.LimitSize"));
@@ -153,7 +177,7 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
     FormData fdlLimit = new FormData();
     fdlLimit.left = new FormAttachment(0, 0);
     fdlLimit.right = new FormAttachment(middle, -margin);
-    fdlLimit.bottom = new FormAttachment(wOk, -2 * margin);
+    fdlLimit.bottom = new FormAttachment(wlPartitionColumn, -margin);
     wlLimit.setLayoutData(fdlLimit);
     wLimit = new TextVar(variables, shell, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
     PropsUi.setLook(wLimit);
@@ -365,6 +389,7 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
     }
 
     wLimit.setText(Const.NVL(input.getRowLimit(), ""));
+    wPartitionColumn.setText(Const.NVL(input.getPartitionColumn(), ""));
     wDataFrom.setText(Const.NVL(input.getLookup(), ""));
     wEachRow.setSelection(input.isExecuteEachInputRow());
     wVariables.setSelection(input.isVariableReplacementActive());
@@ -392,6 +417,7 @@ public class TableInputDialog extends BaseTransformDialog implements ITransformD
             : wSql.getText());
 
     meta.setRowLimit(wLimit.getText());
+    meta.setPartitionColumn(wPartitionColumn.getText());
     meta.setExecuteEachInputRow(wEachRow.getSelection());
     meta.setVariableReplacementActive(wVariables.getSelection());
     meta.setLookup(wDataFrom.getText());
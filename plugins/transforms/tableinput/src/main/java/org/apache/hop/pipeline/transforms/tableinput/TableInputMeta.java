@@ -79,6 +79,10 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
 
   @HopMetadataProperty private String lookup;
 
+  /** The column to split the rows of the query over the copies of the transform with */
+  @HopMetadataProperty(key = "partition_column", injectionKey = "PARTITION_COLUMN")
+  private String partitionColumn;
+
   public TableInputMeta() {
     super();
   }
@@ -141,6 +145,21 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
     this.lookup = lookup;
   }
 
+  /**
+   * @return The column to split the rows of the query over the copies of the transform with
+   */
+  public String getPartitionColumn() {
+    return partitionColumn;
+  }
+
+  /**
+   * @param partitionColumn The column to split the rows of the query over the copies of the
+   *     transform with
+   */
+  public void setPartitionColumn(String partitionColumn) {
+    this.partitionColumn = partitionColumn;
+  }
+
   @Override
   public Object clone() {
     TableInputMeta retval = (TableInputMeta) super.clone();
@@ -519,4 +538,9 @@ public class TableInputMeta extends BaseTransformMeta<TableInput, TableInputData
 
     return ioMeta;
   }
+
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
 }
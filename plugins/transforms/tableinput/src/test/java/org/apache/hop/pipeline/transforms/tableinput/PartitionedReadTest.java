@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.tableinput;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import org.apache.hop.core.Const;
+import org.apache.hop.core.RowMetaAndData;
+import org.apache.hop.core.database.Database;
+import org.apache.hop.core.database.DatabaseMeta;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaDate;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.core.row.value.ValueMetaTimestamp;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PartitionedReadTest {
+  private static final String SQL = "SELECT * FROM orders;";
+  private static final String WRAPPED =
+      "(" + Const.CR + "SELECT * FROM orders" + Const.CR + ") hop_partition";
+
+  private Database db;
+
+  @Before
+  public void setUp() {
+    DatabaseMeta databaseMeta = mock(DatabaseMeta.class);
+    when(databaseMeta.quoteField("id")).thenReturn("\"id\"");
+    db = mock(Database.class);
+    when(db.getDatabaseMeta()).thenReturn(databaseMeta);
+  }
+
+  private static RowMetaAndData range(Object min, Object max) {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaInteger("MIN"));
+    rowMeta.addValueMeta(new ValueMetaInteger("MAX"));
+    return new RowMetaAndData(rowMeta, min, max);
+  }
+
+  @Test
+  public void testIntegerBoundaries() throws Exception {
+    ValueMetaInteger valueMeta = new ValueMetaInteger("id");
+
+    assertArrayEquals(
+        new Object[] {26L, 51L, 76L}, PartitionedRead.calculateBoundaries(valueMeta, 1L, 100L, 4));
+
+    // The maximum is part of the range: every copy gets one value
+    //
+    assertArrayEquals(
+        new Object[] {2L, 3L, 4L}, PartitionedRead.calculateBoundaries(valueMeta, 1L, 4L, 4));
+
+    // Boundaries are rounded down, also below zero
+    //
+    assertArrayEquals(
+        new Object[] {-5L}, PartitionedRead.calculateBoundaries(valueMeta, -10L, 0L, 2));
+  }
+
+  @Test
+  public void testMoreCopiesThanValues() throws Exception {
+    ValueMetaInteger valueMeta = new ValueMetaInteger("id");
+
+    // Some copies get an empty range, but every value is read by exactly one copy
+    //
+    assertArrayEquals(
+        new Object[] {1L, 2L, 2L}, PartitionedRead.calculateBoundaries(valueMeta, 1L, 2L, 4));
+    assertArrayEquals(
+        new Object[] {5L, 5L}, PartitionedRead.calculateBoundaries(valueMeta, 5L, 5L, 3));
+  }
+
+  @Test
+  public void testDateBoundaries() throws Exception {
+    Object[] boundaries =
+        PartitionedRead.calculateBoundaries(
+            new ValueMetaDate("date"), new Date(1000L), new Date(2001L), 4);
+    assertArrayEquals(new Object[] {new Date(1250L), new Date(1500L), new Date(1750L)}, boundaries);
+    for (Object boundary : boundaries) {
+      assertEquals(Date.class, boundary.getClass());
+    }
+  }
+
+  @Test
+  public void testTimestampBoundaries() throws Exception {
+    Object[] boundaries =
+        PartitionedRead.calculateBoundaries(
+            new ValueMetaTimestamp("timestamp"), new Timestamp(0L), new Timestamp(3000L), 3);
+    assertArrayEquals(new Object[] {new Timestamp(1000L), new Timestamp(2000L)}, boundaries);
+    for (Object boundary : boundaries) {
+      assertEquals(Timestamp.class, boundary.getClass());
+    }
+  }
+
+  @Test(expected = HopException.class)
+  public void testUnsupportedType() throws Exception {
+    PartitionedRead.calculateBoundaries(new ValueMetaString("name"), "a", "z", 2);
+  }
+
+  @Test
+  public void testQueries() throws Exception {
+    when(db.getOneRow(anyString())).thenReturn(range(1L, 30L));
+    PartitionedRead partitionedRead = new PartitionedRead();
+    IRowMeta parametersMeta = new RowMeta();
+    Object[] parameters = new Object[0];
+
+    PartitionedRead.Query first =
+        partitionedRead.getQuery(db, SQL, "id", parametersMeta, parameters, 0, 3);
+    assertEquals(
+        "SELECT * FROM " + WRAPPED + Const.CR + "WHERE \"id\" < ? OR \"id\" IS NULL",
+        first.getSql());
+    assertArrayEquals(new String[] {"upper"}, first.getParametersMeta().getFieldNames());
+    assertArrayEquals(new Object[] {11L}, first.getParameters());
+
+    PartitionedRead.Query middle =
+        partitionedRead.getQuery(db, SQL, "id", parametersMeta, parameters, 1, 3);
+    assertEquals(
+        "SELECT * FROM " + WRAPPED + Const.CR + "WHERE \"id\" >= ? AND \"id\" < ?",
+        middle.getSql());
+    assertArrayEquals(new String[] {"lower", "upper"}, middle.getParametersMeta().getFieldNames());
+    assertArrayEquals(new Object[] {11L, 21L}, middle.getParameters());
+
+    PartitionedRead.Query last =
+        partitionedRead.getQuery(db, SQL, "id", parametersMeta, parameters, 2, 3);
+    assertEquals("SELECT * FROM " + WRAPPED + Const.CR + "WHERE \"id\" >= ?", last.getSql());
+    assertArrayEquals(new String[] {"lower"}, last.getParametersMeta().getFieldNames());
+    assertArrayEquals(new Object[] {21L}, last.getParameters());
+
+    // The range is looked up once for all copies
+    //
+    verify(db, times(1)).getOneRow("SELECT MIN(\"id\"), MAX(\"id\") FROM " + WRAPPED);
+    assertEquals(0, parametersMeta.size());
+  }
+
+  @Test
+  public void testQueriesWithParameters() throws Exception {
+    IRowMeta parametersMeta = new RowMeta();
+    parametersMeta.addValueMeta(new ValueMetaString("country"));
+    Object[] parameters = new Object[] {"BE"};
+    when(db.getOneRow(anyString(), any(IRowMeta.class), any(Object[].class)))
+        .thenReturn(range(1L, 30L));
+    PartitionedRead partitionedRead = new PartitionedRead();
+
+    // The parameters of the query come before the boundaries
+    //
+    PartitionedRead.Query first =
+        partitionedRead.getQuery(db, SQL, "id", parametersMeta, parameters, 0, 3);
+    assertArrayEquals(new String[] {"country", "upper"}, first.getParametersMeta().getFieldNames());
+    assertArrayEquals(new Object[] {"BE", 11L}, first.getParameters());
+
+    PartitionedRead.Query middle =
+        partitionedRead.getQuery(db, SQL, "id", parametersMeta, parameters, 1, 3);
+    assertArrayEquals(
+        new String[] {"country", "lower", "upper"}, middle.getParametersMeta().getFieldNames());
+    assertArrayEquals(new Object[] {"BE", 11L, 21L}, middle.getParameters());
+
+    PartitionedRead.Query last =
+        partitionedRead.getQuery(db, SQL, "id", parametersMeta, parameters, 2, 3);
+    assertArrayEquals(new String[] {"country", "lower"}, last.getParametersMeta().getFieldNames());
+    assertArrayEquals(new Object[] {"BE", 21L}, last.getParameters());
+
+    // The range is looked up with the parameters of the query
+    //
+    verify(db, times(1))
+        .getOneRow("SELECT MIN(\"id\"), MAX(\"id\") FROM " + WRAPPED, parametersMeta, parameters);
+    assertEquals(1, parametersMeta.size());
+    assertArrayEquals(new Object[] {"BE"}, parameters);
+  }
+
+  @Test
+  public void testNoRows() throws Exception {
+    when(db.getOneRow(anyString())).thenReturn(range(null, null));
+    PartitionedRead partitionedRead = new PartitionedRead();
+    IRowMeta parametersMeta = new RowMeta();
+    Object[] parameters = new Object[0];
+
+    // Only the first copy reads the query, as it is
+    //
+    PartitionedRead.Query first =
+        partitionedRead.getQuery(db, SQL, "id", parametersMeta, parameters, 0, 3);
+    assertEquals("SELECT * FROM orders", first.getSql());
+    assertEquals(0, first.getParametersMeta().size());
+    assertNull(partitionedRead.getQuery(db, SQL, "id", parametersMeta, parameters, 1, 3));
+    assertNull(partitionedRead.getQuery(db, SQL, "id", parametersMeta, parameters, 2, 3));
+
+    verify(db, times(1)).getOneRow(anyString());
+  }
+}
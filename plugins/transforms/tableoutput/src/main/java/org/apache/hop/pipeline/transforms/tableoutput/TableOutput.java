@@ -20,6 +20,7 @@ package org.apache.hop.pipeline.transforms.tableoutput;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import org.apache.hop.core.Const;
@@ -59,8 +60,9 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
   @Override
   public boolean processRow() throws HopException {
 
-    Object[] r = getRow(); // this also waits for a previous transform to be finished.
-    if (r == null) { // no more input to be expected...
+    // this also waits for a previous transform to be finished.
+    List<Object[]> rows = getRows(Const.ROWS_IN_BATCH);
+    if (rows == null) { // no more input to be expected...
       if (first && meta.isTruncateTable() && !meta.isOnlyWhenHaveRows()) {
         truncateTable();
       }
@@ -112,14 +114,19 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
       }
     }
 
+    long previousLinesRead = getLinesRead() - rows.size();
     try {
-      Object[] outputRowData = writeToTable(getInputRowMeta(), r);
-      if (outputRowData != null) {
-        putRow(data.outputRowMeta, outputRowData); // in case we want it go further...
-        incrementLinesOutput();
+      List<Object[]> outputRows = new ArrayList<>(rows.size());
+      for (Object[] r : rows) {
+        Object[] outputRowData = writeToTable(getInputRowMeta(), r);
+        if (outputRowData != null) {
+          outputRows.add(outputRowData);
+          incrementLinesOutput();
+        }
       }
+      putRows(data.outputRowMeta, outputRows); // in case we want it go further...
 
-      if (checkFeedback(getLinesRead()) && log.isBasic()) {
+      if (checkFeedback(previousLinesRead, getLinesRead()) && log.isBasic()) {
         logBasic("linenr " + getLinesRead());
       }
     } catch (HopException e) {
@@ -407,9 +414,8 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         outputRowData = null;
 
         if (rowIsSafe) { // A commit was done and the rows are all safe (no error)
+          putRows(data.outputRowMeta, data.batchBuffer);
           for (int i = 0; i < data.batchBuffer.size(); i++) {
-            Object[] row = data.batchBuffer.get(i);
-            putRow(data.outputRowMeta, row);
             incrementLinesOutput();
           }
           // Clear the buffer
@@ -606,9 +612,8 @@ public class TableOutput extends BaseTransform<TableOutputMeta, TableOutputData>
         data.db.emptyAndCommit(insertStatement, data.batchMode, batchCounter, dispose);
         data.commitCounterMap.put(schemaTable, 0);
       }
+      putRows(data.outputRowMeta, data.batchBuffer);
       for (int i = 0; i < data.batchBuffer.size(); i++) {
-        Object[] row = data.batchBuffer.get(i);
-        putRow(data.outputRowMeta, row);
         incrementLinesOutput();
       }
       // Clear the buffer
@@ -973,6 +973,11 @@ public class TableOutputMeta extends BaseTransformMeta<TableOutput, TableOutputD
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   public DatabaseMeta getDatabaseMeta() {
     return null;
   }
@@ -19,6 +19,7 @@ package org.apache.hop.pipeline.transforms.tableoutput;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.doNothing;
@@ -32,6 +33,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
+import java.util.Collections;
 import java.util.Map;
 import org.apache.hop.core.database.Database;
 import org.apache.hop.core.database.DatabaseMeta;
@@ -139,7 +141,7 @@ public class TableOutputTest {
   public void testProcessRow_truncatesIfNoRowsAvailable() throws Exception {
     when(tableOutputMeta.isTruncateTable()).thenReturn(true);
 
-    doReturn(null).when(tableOutputSpy).getRow();
+    doReturn(null).when(tableOutputSpy).getRows(anyInt());
 
     boolean result = tableOutputSpy.processRow();
 
@@ -151,7 +153,7 @@ public class TableOutputTest {
   public void testProcessRow_doesNotTruncateIfNoRowsAvailableAndTruncateIsOff() throws Exception {
     when(tableOutputMeta.isTruncateTable()).thenReturn(false);
 
-    doReturn(null).when(tableOutputSpy).getRow();
+    doReturn(null).when(tableOutputSpy).getRows(anyInt());
 
     boolean result = tableOutputSpy.processRow();
 
@@ -163,7 +165,7 @@ public class TableOutputTest {
   public void testProcessRow_truncatesOnFirstRow() throws Exception {
     when(tableOutputMeta.isTruncateTable()).thenReturn(true);
     Object[] row = new Object[] {};
-    doReturn(row).when(tableOutputSpy).getRow();
+    doReturn(Collections.singletonList(row)).when(tableOutputSpy).getRows(anyInt());
 
     try {
       boolean result = tableOutputSpy.processRow();
@@ -177,7 +179,7 @@ public class TableOutputTest {
   public void testProcessRow_doesNotTruncateOnOtherRows() throws Exception {
     when(tableOutputMeta.isTruncateTable()).thenReturn(true);
     Object[] row = new Object[] {};
-    doReturn(row).when(tableOutputSpy).getRow();
+    doReturn(Collections.singletonList(row)).when(tableOutputSpy).getRows(anyInt());
     tableOutputSpy.first = false;
     doReturn(null).when(tableOutputSpy).writeToTable(any(IRowMeta.class), any(row.getClass()));
 
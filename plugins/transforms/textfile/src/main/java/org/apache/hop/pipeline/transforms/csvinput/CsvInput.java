@@ -22,7 +22,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
-import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.io.ByteOrderMark;
@@ -315,6 +315,14 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       logError("Error closing file input stream", e);
     }
 
+    try {
+      if (data.inputStream != null) {
+        data.inputStream.close();
+      }
+    } catch (Exception e) {
+      logError("Error closing file input stream", e);
+    }
+
     super.dispose();
   }
 
@@ -333,28 +341,38 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       //
       data.fieldsMapping = createFieldMapping(data.filenames[data.filenr], meta);
       FileObject fileObject = HopVfs.getFileObject(data.filenames[data.filenr]);
-      if (!(fileObject instanceof LocalFile)) {
-        // We can only use NIO on local files at the moment, so that's what we limit ourselves to.
+      boolean localFile = fileObject instanceof LocalFile;
+      if (!localFile && data.parallel) {
+        // We can only position the reading of local files at the block to read.
         //
         throw new HopException(
-            BaseMessages.getString(PKG, "CsvInput.Log.OnlyLocalFilesAreSupported"));
+            BaseMessages.getString(PKG, "CsvInput.Log.ParallelOnlyOnLocalFiles"));
       }
 
       if (meta.isLazyConversionActive()) {
         data.binaryFilename = data.filenames[data.filenr].getBytes();
       }
 
-      String vfsFilename = HopVfs.getFilename(fileObject);
+      if (localFile) {
+        String vfsFilename = HopVfs.getFilename(fileObject);
 
-      int bomSize = getBOMSize(vfsFilename);
+        int bomSize = getBOMSize(vfsFilename);
 
-      data.fis = new FileInputStream(vfsFilename);
-      if (0 != bomSize) {
-        data.fis.skip(bomSize);
-      }
+        data.fis = new FileInputStream(vfsFilename);
+        if (0 != bomSize) {
+          data.fis.skip(bomSize);
+        }
 
-      data.fc = data.fis.getChannel();
-      data.bb = ByteBuffer.allocateDirect(data.preferredBufferSize);
+        data.fc = data.fis.getChannel();
+      } else {
+        // Other file systems are read as a stream, the detector skips the BOM if there is one
+        //
+        BufferedInputStream inputStream =
+            new BufferedInputStream(HopVfs.getInputStream(fileObject));
+        new BOMDetector(inputStream);
+        data.inputStream = inputStream;
+      }
+      data.prepareBuffers();
 
       // If we are running in parallel and we need to skip bytes in the first file, let's do so
       // here.
@@ -374,7 +392,9 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
             // on windows systems, it's a sequence of '\r' and '\n'. finally we set the start of the
             // buffer to the end buffer position.
             while (!data.newLineFound()) {
-              data.moveEndBufferPointer();
+              if (data.moveEndBufferPointer()) {
+                break; // the block starts in the last line of the file
+              }
             }
 
             data.moveEndBufferPointer();
@@ -545,9 +565,11 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
    * between '\r\n'.
    */
   private boolean needToSkipRow() {
+    long startPosition = -1L;
     try {
       // first we move pointer to the last byte of the previous transform
-      data.fc.position(data.fc.position() - 1);
+      startPosition = data.fc.position();
+      data.fc.position(startPosition - 1);
       // read data, if not yet
       data.resizeBufferIfNeeded();
 
@@ -571,7 +593,12 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       e.printStackTrace();
     } finally {
       try {
-        data.fc.position(data.fc.position() + 1);
+        // Only go back to the start position if nothing was read from there: otherwise the
+        // channel is positioned right after the data in the buffer and moving it would skip a byte.
+        //
+        if (startPosition > 0 && data.fc.position() < startPosition) {
+          data.fc.position(startPosition);
+        }
       } catch (IOException e) {
         // nothing to do here
       }
@@ -744,22 +771,28 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
         // data.byteBuffer[data.startBuffer]
         //
 
-        byte[] field = data.getField(delimiterFound, enclosureFound, newLineFound, endOfBuffer);
-
-        // Did we have any escaped characters in there?
+        // The field is only copied when it's needed: skipped rows and fields are never copied.
         //
-        if (escapedEnclosureFound > 0) {
-          if (log.isRowLevel()) {
-            logRowlevel("Escaped enclosures found in " + new String(field));
-          }
-          field = data.removeEscapedEnclosures(field, escapedEnclosureFound);
-        }
+        data.setField(delimiterFound, enclosureFound, newLineFound, endOfBuffer);
 
         final int actualFieldIndex = outputIndex++;
         if (actualFieldIndex != IFieldsMapping.FIELD_DOES_NOT_EXIST) {
           if (!skipRow) {
+            // Did we have any escaped characters in there?
+            //
+            byte[] field = null;
+            if (escapedEnclosureFound > 0) {
+              field = data.getField();
+              if (log.isRowLevel()) {
+                logRowlevel("Escaped enclosures found in " + new String(field));
+              }
+              field = data.removeEscapedEnclosures(field, escapedEnclosureFound);
+            }
+
             if (meta.isLazyConversionActive()) {
-              outputRowData[actualFieldIndex] = field;
+              // The binary string needs to stay valid after the buffer moved on
+              //
+              outputRowData[actualFieldIndex] = field != null ? field : data.getField();
             } else {
               // We're not lazy so we convert the data right here and now.
               // The convert object uses binary storage as such we just have to ask the native type
@@ -769,7 +802,9 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
               IValueMeta sourceValueMeta = data.convertRowMeta.getValueMeta(actualFieldIndex);
               try {
                 outputRowData[actualFieldIndex] =
-                    sourceValueMeta.convertBinaryStringToNativeType(field);
+                    field != null
+                        ? sourceValueMeta.convertBinaryStringToNativeType(field)
+                        : data.convertField(sourceValueMeta);
               } catch (HopValueException e) {
                 // There was a conversion error,
                 //
@@ -890,6 +925,7 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
       // see if a variable is used as encoding value
       String realEncoding = resolve(meta.getEncoding());
       data.preferredBufferSize = Integer.parseInt(resolve(meta.getBufferSize()));
+      data.memoryMapped = meta.isMemoryMapped();
 
       // If the transform doesn't have any previous transforms, we just get the filename.
       // Otherwise, we'll grab the list of file names later...
@@ -926,7 +962,9 @@ public class CsvInput extends BaseTransform<CsvInputMeta, CsvInputData> {
           data.enclosure = data.encodingType.getBytes(resolve(meta.getEnclosure()), realEncoding);
         }
 
-      } catch (UnsupportedEncodingException e) {
+        data.charset =
+            Utils.isEmpty(realEncoding) ? Charset.defaultCharset() : Charset.forName(realEncoding);
+      } catch (UnsupportedEncodingException | IllegalArgumentException e) {
         logError(BaseMessages.getString(PKG, "CsvInput.BadEncoding.Message"), e);
         return false;
       }
@@ -19,26 +19,71 @@ package org.apache.hop.pipeline.transforms.csvinput;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.exception.HopValueException;
 import org.apache.hop.core.file.EncodingType;
 import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
 
 public class CsvInputData extends BaseTransformData implements ITransformData {
+  /** The size of the part of a file that is mapped in memory at once */
+  static final long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
+  /**
+   * The number of bytes after the data in the byte array, or after a mapped region, to look ahead
+   * for patterns
+   */
+  private static final int BUFFER_PADDING = 100;
+
+  private static final byte[] EMPTY_FIELD = new byte[0];
+
   public FileChannel fc;
   public ByteBuffer bb;
+
+  /** The stream of a file which is not on the local file system */
+  public InputStream inputStream;
+
+  /** True if local files are read through a memory mapping instead of the byte buffer */
+  public boolean memoryMapped;
+
+  long mappedRegionSize = MAPPED_REGION_SIZE;
+
   public IRowMeta convertRowMeta;
   public IRowMeta outputRowMeta;
 
+  /** The character set of the file, to convert the fields with */
+  public Charset charset;
+
   private byte[] byteBuffer;
   private int startBuffer;
   private int endBuffer;
   private int bufferSize;
 
+  /** True if the current file is parsed straight from the mapping, not from the byte array */
+  private boolean readingMapped;
+
+  private MappedByteBuffer mappedBuffer;
+
+  /** The position in the file of the start of the mapped region */
+  private long mappedPosition;
+
+  /** The last field that was found: a slice of the byte array or of the mapped region */
+  private int fieldStart;
+
+  private int fieldLength;
+
+  /** Re-used to convert fields of the mapped region */
+  private byte[] fieldBytes = EMPTY_FIELD;
+
   public byte[] delimiter;
   public byte[] enclosure;
 
@@ -94,13 +139,21 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
     //
     bufferSize = endBuffer - startBuffer;
     int newSize = bufferSize + preferredBufferSize;
-    byte[] newByteBuffer = new byte[newSize + 100];
+    if (byteBuffer.length >= newSize + BUFFER_PADDING) {
+      // The byte array is large enough: move the data to the start and clear the rest.
+      // This avoids allocating a new array for every block of data we read.
+      //
+      System.arraycopy(byteBuffer, startBuffer, byteBuffer, 0, bufferSize);
+      Arrays.fill(byteBuffer, bufferSize, byteBuffer.length, (byte) 0);
+    } else {
+      byte[] newByteBuffer = new byte[newSize + BUFFER_PADDING];
 
-    // copy over the old data...
-    System.arraycopy(byteBuffer, startBuffer, newByteBuffer, 0, bufferSize);
+      // copy over the old data...
+      System.arraycopy(byteBuffer, startBuffer, newByteBuffer, 0, bufferSize);
 
-    // replace the old byte buffer...
-    byteBuffer = newByteBuffer;
+      // replace the old byte buffer...
+      byteBuffer = newByteBuffer;
+    }
 
     // Adjust start and end point of data in the byte buffer
     //
@@ -109,6 +162,10 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
   }
 
   private int readBufferFromFile() throws IOException {
+    if (fc == null) {
+      return readBufferFromStream();
+    }
+
     // See if the line is not longer than the buffer.
     // In that case we need to increase the size of the byte buffer.
     // Since this method doesn't get called every other character, I'm sure we can spend a bit of
@@ -144,6 +201,75 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
     return n;
   }
 
+  /** Read the next block of data of a file on another file system straight into the byte array */
+  private int readBufferFromStream() throws IOException {
+    int n = inputStream.read(byteBuffer, endBuffer, byteBuffer.length - BUFFER_PADDING - endBuffer);
+    if (n >= 0) {
+      bufferSize = endBuffer + n;
+    }
+    return n;
+  }
+
+  /**
+   * Map the next region of the file. The region starts at the start of the current field, so that
+   * the field and the row it is part of can be parsed without copying it.
+   *
+   * @return false if there is no more data in the file
+   */
+  private boolean mapNextRegion() throws IOException {
+    long position;
+    if (mappedBuffer == null) {
+      position = fc.position();
+      startBuffer = 0;
+      endBuffer = 0;
+    } else {
+      position = mappedPosition + startBuffer;
+    }
+
+    // Keep the part of the field we already scanned, and map at least a region after it
+    //
+    int scanned = endBuffer - startBuffer;
+    long remaining = fc.size() - position;
+    if (remaining <= scanned) {
+      return false;
+    }
+    long size = Math.min(scanned + mappedRegionSize, Integer.MAX_VALUE - BUFFER_PADDING);
+    size = Math.min(remaining, size);
+
+    // Also map the bytes right after the region, so that patterns crossing its end can be matched
+    //
+    mappedBuffer =
+        fc.map(FileChannel.MapMode.READ_ONLY, position, Math.min(remaining, size + BUFFER_PADDING));
+    mappedPosition = position;
+    fc.position(position + size);
+
+    startBuffer = 0;
+    endBuffer = scanned;
+    bufferSize = (int) size;
+
+    return true;
+  }
+
+  /**
+   * Get ready to read a new file. The byte buffer and byte array of the previous file are re-used,
+   * only the mapping belongs to a single file.
+   */
+  void prepareBuffers() {
+    mappedBuffer = null;
+    readingMapped = memoryMapped && fc != null;
+    if (readingMapped) {
+      startBuffer = 0;
+      endBuffer = 0;
+      bufferSize = 0;
+    } else if (fc != null) {
+      if (bb == null || bb.capacity() < preferredBufferSize) {
+        bb = ByteBuffer.allocateDirect(preferredBufferSize);
+      } else {
+        bb.clear();
+      }
+    }
+  }
+
   private void resizeByteBuffer(int newSize) {
     ByteBuffer newBuffer = ByteBuffer.allocateDirect(newSize); // Increase by 50%
     newBuffer.position(0);
@@ -160,6 +286,10 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
    */
   boolean resizeBufferIfNeeded() throws IOException {
     if (endOfBuffer()) {
+      if (readingMapped) {
+        return !mapNextRegion();
+      }
+
       // Oops, we need to read more data...
       // Better resize this before we read other things in it...
       //
@@ -233,9 +363,13 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
     return result;
   }
 
-  byte[] getField(
+  /**
+   * Remember where the field that was just scanned is. The field is only copied or converted when
+   * its value is needed.
+   */
+  void setField(
       boolean delimiterFound, boolean enclosureFound, boolean newLineFound, boolean endOfBuffer) {
-    int fieldStart = startBuffer;
+    fieldStart = startBuffer;
     int fieldEnd = endBuffer;
 
     if (newLineFound && !endOfBuffer) {
@@ -247,25 +381,62 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
       fieldEnd -= enclosure.length;
     }
 
-    int length = fieldEnd - fieldStart;
+    fieldLength = Math.max(fieldEnd - fieldStart, 0);
+  }
 
-    if (length <= 0) {
-      length = 0;
+  /**
+   * @return a copy of the last field, for values which need to stay valid after the buffer moved on
+   */
+  byte[] getField() {
+    byte[] field = new byte[fieldLength];
+    if (readingMapped) {
+      mappedBuffer.position(fieldStart);
+      mappedBuffer.get(field);
+    } else {
+      System.arraycopy(byteBuffer, fieldStart, field, 0, fieldLength);
     }
+    return field;
+  }
 
-    byte[] field = new byte[length];
-    System.arraycopy(byteBuffer, fieldStart, field, 0, length);
+  /**
+   * Convert the last field to the native type of the value, like {@link
+   * IValueMeta#convertBinaryStringToNativeType(byte[])} does for a copy of the field. The field is
+   * decoded where it is instead: in the byte array, or through an array that is re-used for every
+   * field of the mapped region.
+   */
+  Object convertField(IValueMeta valueMeta) throws HopValueException {
+    if (fieldLength == 0) {
+      return valueMeta.convertBinaryStringToNativeType(EMPTY_FIELD);
+    }
 
-    return field;
+    String string;
+    if (readingMapped) {
+      if (fieldBytes.length < fieldLength) {
+        fieldBytes = new byte[Math.max(fieldLength, fieldBytes.length * 2)];
+      }
+      mappedBuffer.position(fieldStart);
+      mappedBuffer.get(fieldBytes, 0, fieldLength);
+      string = new String(fieldBytes, 0, fieldLength, charset);
+    } else {
+      string = new String(byteBuffer, fieldStart, fieldLength, charset);
+    }
+    return valueMeta.convertData(valueMeta.getStorageMetadata(), string);
   }
 
   void closeFile() throws HopException {
     try {
+      mappedBuffer = null;
       if (fc != null) {
         fc.close();
+        fc = null;
       }
       if (fis != null) {
         fis.close();
+        fis = null;
+      }
+      if (inputStream != null) {
+        inputStream.close();
+        inputStream = null;
       }
     } catch (IOException e) {
       throw new HopException("Unable to close file channel for file '" + filenames[filenr - 1], e);
@@ -285,19 +456,32 @@ public class CsvInputData extends BaseTransformData implements ITransformData {
   }
 
   boolean isCarriageReturn() {
+    if (readingMapped) {
+      return endBuffer < mappedBuffer.limit() && encodingType.isReturn(mappedBuffer.get(endBuffer));
+    }
     return encodingType.isReturn(byteBuffer[endBuffer]);
   }
 
   boolean newLineFound() {
+    if (readingMapped) {
+      return crLfMatcher.isReturn(mappedBuffer, endBuffer)
+          || crLfMatcher.isLineFeed(mappedBuffer, endBuffer);
+    }
     return crLfMatcher.isReturn(byteBuffer, endBuffer)
         || crLfMatcher.isLineFeed(byteBuffer, endBuffer);
   }
 
   boolean delimiterFound() {
+    if (readingMapped) {
+      return delimiterMatcher.matchesPattern(mappedBuffer, endBuffer, delimiter);
+    }
     return delimiterMatcher.matchesPattern(byteBuffer, endBuffer, delimiter);
   }
 
   boolean enclosureFound() {
+    if (readingMapped) {
+      return enclosureMatcher.matchesPattern(mappedBuffer, endBuffer, enclosure);
+    }
     return enclosureMatcher.matchesPattern(byteBuffer, endBuffer, enclosure);
   }
 
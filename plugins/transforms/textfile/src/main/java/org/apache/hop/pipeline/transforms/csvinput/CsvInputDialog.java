@@ -24,9 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.vfs2.FileObject;
-import org.apache.commons.vfs2.provider.local.LocalFile;
 import org.apache.hop.core.Const;
-import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopPluginException;
 import org.apache.hop.core.exception.HopTransformException;
 import org.apache.hop.core.file.TextFileInputField;
@@ -117,6 +115,7 @@ public class CsvInputDialog extends BaseTransformDialog
   private Button wAddResult;
   private boolean isReceivingInput;
   private Button wRunningInParallel;
+  private Button wMemoryMapped;
   private Button wNewlinePossible;
   private ComboVar wEncoding;
 
@@ -448,6 +447,26 @@ public class CsvInputDialog extends BaseTransformDialog
     wRunningInParallel.setLayoutData(fdRunningInParallel);
     lastControl = wlRunningInParallel;
 
+    // read the files through a memory mapping?
+    //
+    Label wlMemoryMapped = new Label(shell, SWT.RIGHT);
+    wlMemoryMapped.setText(BaseMessages.getString(PKG, "CsvInputDialog.MemoryMapped.Label"));
+    PropsUi.setLook(wlMemoryMapped);
+    FormData fdlMemoryMapped = new FormData();
+    fdlMemoryMapped.top = new FormAttachment(lastControl, margin);
+    fdlMemoryMapped.left = new FormAttachment(0, 0);
+    fdlMemoryMapped.right = new FormAttachment(middle, -margin);
+    wlMemoryMapped.setLayoutData(fdlMemoryMapped);
+    wMemoryMapped = new Button(shell, SWT.CHECK);
+    wMemoryMapped.setToolTipText(
+        BaseMessages.getString(PKG, "CsvInputDialog.MemoryMapped.Tooltip"));
+    PropsUi.setLook(wMemoryMapped);
+    FormData fdMemoryMapped = new FormData();
+    fdMemoryMapped.top = new FormAttachment(wlMemoryMapped, 0, SWT.CENTER);
+    fdMemoryMapped.left = new FormAttachment(middle, 0);
+    wMemoryMapped.setLayoutData(fdMemoryMapped);
+    lastControl = wlMemoryMapped;
+
     // Is a new line possible in a field?
     //
     Label wlNewlinePossible = new Label(shell, SWT.RIGHT);
@@ -819,6 +838,7 @@ public class CsvInputDialog extends BaseTransformDialog
     wLazyConversion.setSelection(inputMeta.isLazyConversionActive());
     wHeaderPresent.setSelection(inputMeta.isHeaderPresent());
     wRunningInParallel.setSelection(inputMeta.isRunningInParallel());
+    wMemoryMapped.setSelection(inputMeta.isMemoryMapped());
     wNewlinePossible.setSelection(inputMeta.isNewlinePossibleInFields());
     wRowNumField.setText(Const.NVL(inputMeta.getRowNumField(), ""));
     wAddResult.setSelection(inputMeta.isAddResultFile());
@@ -878,6 +898,7 @@ public class CsvInputDialog extends BaseTransformDialog
     inputMeta.setRowNumField(wRowNumField.getText());
     inputMeta.setAddResultFile(wAddResult.getSelection());
     inputMeta.setRunningInParallel(wRunningInParallel.getSelection());
+    inputMeta.setMemoryMapped(wMemoryMapped.getSelection());
     inputMeta.setNewlinePossibleInFields(wNewlinePossible.getSelection());
     inputMeta.setEncoding(wEncoding.getText());
     inputMeta.setSchemaDefinition(wSchemaDefinition.getText());
@@ -931,17 +952,6 @@ public class CsvInputDialog extends BaseTransformDialog
   private InputStreamReader getReader(final CsvInputMeta meta, final InputStream inputStream) {
     InputStreamReader reader = null;
     try {
-      String filename = variables.resolve(meta.getFilename());
-
-      FileObject fileObject = HopVfs.getFileObject(filename);
-      if (!(fileObject instanceof LocalFile)) {
-        // We can only use NIO on local files at the moment, so that's what we
-        // limit ourselves to.
-        //
-        throw new HopException(
-            BaseMessages.getString(PKG, "CsvInput.Log.OnlyLocalFilesAreSupported"));
-      }
-
       String realEncoding = variables.resolve(meta.getEncoding());
       if (Utils.isEmpty(realEncoding)) {
         reader = new InputStreamReader(inputStream);
@@ -967,14 +977,6 @@ public class CsvInputDialog extends BaseTransformDialog
       final String filename = variables.resolve(meta.getFilename());
 
       final FileObject fileObject = HopVfs.getFileObject(filename);
-      if (!(fileObject instanceof LocalFile)) {
-        // We can only use NIO on local files at the moment, so that's what we
-        // limit ourselves to.
-        //
-        throw new HopException(
-            BaseMessages.getString(PKG, "CsvInput.Log.OnlyLocalFilesAreSupported"));
-      }
-
       inputStream = HopVfs.getInputStream(fileObject);
     } catch (final Exception e) {
       logError(BaseMessages.getString(PKG, "CsvInputDialog.ErrorGettingFileDesc.DialogMessage"), e);
@@ -1175,12 +1177,6 @@ public class CsvInputDialog extends BaseTransformDialog
     InputStream inputStream = null;
     try {
       FileObject fileObject = meta.getHeaderFileObject(variables);
-      if (!(fileObject instanceof LocalFile)) {
-        // We can only use NIO on local files at the moment, so that's what we limit ourselves to.
-        throw new HopException(
-            BaseMessages.getString("FileInputDialog.Log.OnlyLocalFilesAreSupported"));
-      }
-
       inputStream = HopVfs.getInputStream(fileObject);
     } catch (final Exception e) {
       logError(BaseMessages.getString("FileInputDialog.ErrorGettingFileDesc.DialogMessage"), e);
@@ -108,6 +108,9 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData>
   @Injection(name = "RUNNING_IN_PARALLEL")
   private boolean runningInParallel;
 
+  @Injection(name = "MEMORY_MAPPED")
+  private boolean memoryMapped;
+
   @Injection(name = "FILE_ENCODING")
   private String encoding;
 
@@ -173,6 +176,7 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData>
       isaddresult =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "add_filename_result"));
       runningInParallel = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "parallel"));
+      memoryMapped = "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "memory_mapped"));
       String nlp = XmlHandler.getTagValue(transformNode, "newline_possible");
       if (Utils.isEmpty(nlp)) {
         if (runningInParallel) {
@@ -232,6 +236,7 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData>
     retval.append("    ").append(XmlHandler.addTagValue("lazy_conversion", lazyConversionActive));
     retval.append("    ").append(XmlHandler.addTagValue("add_filename_result", isaddresult));
     retval.append("    ").append(XmlHandler.addTagValue("parallel", runningInParallel));
+    retval.append("    ").append(XmlHandler.addTagValue("memory_mapped", memoryMapped));
     retval
         .append("    ")
         .append(XmlHandler.addTagValue("newline_possible", newlinePossibleInFields));
@@ -645,6 +650,20 @@ public class CsvInputMeta extends BaseTransformMeta<CsvInput, CsvInputData>
     this.runningInParallel = runningInParallel;
   }
 
+  /**
+   * @return true if the files are read through a memory mapping
+   */
+  public boolean isMemoryMapped() {
+    return memoryMapped;
+  }
+
+  /**
+   * @param memoryMapped true if the files are read through a memory mapping
+   */
+  public void setMemoryMapped(boolean memoryMapped) {
+    this.memoryMapped = memoryMapped;
+  }
+
   /**
    * @return the encoding
    */
@@ -17,10 +17,17 @@
 
 package org.apache.hop.pipeline.transforms.csvinput;
 
+import java.nio.ByteBuffer;
+
 public class EmptyPatternMatcher implements IPatternMatcher {
 
   @Override
   public boolean matchesPattern(byte[] source, int location, byte[] pattern) {
     return false;
   }
+
+  @Override
+  public boolean matchesPattern(ByteBuffer source, int location, byte[] pattern) {
+    return false;
+  }
 }
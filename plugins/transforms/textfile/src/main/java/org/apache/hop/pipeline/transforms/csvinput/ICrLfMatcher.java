@@ -17,8 +17,14 @@
 
 package org.apache.hop.pipeline.transforms.csvinput;
 
+import java.nio.ByteBuffer;
+
 public interface ICrLfMatcher {
   boolean isReturn(byte[] source, int location);
 
   boolean isLineFeed(byte[] source, int location);
+
+  boolean isReturn(ByteBuffer source, int location);
+
+  boolean isLineFeed(ByteBuffer source, int location);
 }
@@ -17,6 +17,11 @@
 
 package org.apache.hop.pipeline.transforms.csvinput;
 
+import java.nio.ByteBuffer;
+
 public interface IPatternMatcher {
   boolean matchesPattern(byte[] source, int location, byte[] pattern);
+
+  /** Match the pattern in a buffer, a pattern which doesn't fit before its limit doesn't match */
+  boolean matchesPattern(ByteBuffer source, int location, byte[] pattern);
 }
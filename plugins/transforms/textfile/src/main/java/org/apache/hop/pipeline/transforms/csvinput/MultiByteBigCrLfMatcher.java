@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transforms.csvinput;
 
+import java.nio.ByteBuffer;
+
 public class MultiByteBigCrLfMatcher implements ICrLfMatcher {
 
   @Override
@@ -36,4 +38,22 @@ public class MultiByteBigCrLfMatcher implements ICrLfMatcher {
       return false;
     }
   }
+
+  @Override
+  public boolean isLineFeed(ByteBuffer source, int location) {
+    if (location >= 1 && location + 1 < source.limit()) {
+      return source.get(location) == 0 && source.get(location + 1) == 0x0a;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean isReturn(ByteBuffer source, int location) {
+    if (location >= 1 && location + 1 < source.limit()) {
+      return source.get(location) == 0 && source.get(location + 1) == 0x0d;
+    } else {
+      return false;
+    }
+  }
 }
@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transforms.csvinput;
 
+import java.nio.ByteBuffer;
+
 public class MultiByteLittleCrLfMatcher implements ICrLfMatcher {
 
   @Override
@@ -36,4 +38,22 @@ public class MultiByteLittleCrLfMatcher implements ICrLfMatcher {
       return false;
     }
   }
+
+  @Override
+  public boolean isReturn(ByteBuffer source, int location) {
+    if (location >= 1 && location + 1 < source.limit()) {
+      return source.get(location) == 0x0d && source.get(location + 1) == 0x00;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public boolean isLineFeed(ByteBuffer source, int location) {
+    if (location >= 1 && location + 1 < source.limit()) {
+      return source.get(location) == 0x0a && source.get(location + 1) == 0x00;
+    } else {
+      return false;
+    }
+  }
 }
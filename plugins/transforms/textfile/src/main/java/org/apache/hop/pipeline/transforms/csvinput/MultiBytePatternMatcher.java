@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transforms.csvinput;
 
+import java.nio.ByteBuffer;
+
 public class MultiBytePatternMatcher implements IPatternMatcher {
 
   @Override
@@ -29,4 +31,17 @@ public class MultiBytePatternMatcher implements IPatternMatcher {
     }
     return true;
   }
+
+  @Override
+  public boolean matchesPattern(ByteBuffer source, int location, byte[] pattern) {
+    if (location + pattern.length > source.limit()) {
+      return false;
+    }
+    for (int i = 0; i < pattern.length; i++) {
+      if (source.get(location + i) != pattern[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
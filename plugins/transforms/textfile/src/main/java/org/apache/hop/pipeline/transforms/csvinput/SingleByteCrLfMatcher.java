@@ -17,6 +17,8 @@
 
 package org.apache.hop.pipeline.transforms.csvinput;
 
+import java.nio.ByteBuffer;
+
 public class SingleByteCrLfMatcher implements ICrLfMatcher {
 
   @Override
@@ -28,4 +30,14 @@ public class SingleByteCrLfMatcher implements ICrLfMatcher {
   public boolean isLineFeed(byte[] source, int location) {
     return source[location] == '\r';
   }
+
+  @Override
+  public boolean isReturn(ByteBuffer source, int location) {
+    return location < source.limit() && source.get(location) == '\n';
+  }
+
+  @Override
+  public boolean isLineFeed(ByteBuffer source, int location) {
+    return location < source.limit() && source.get(location) == '\r';
+  }
 }
@@ -17,10 +17,17 @@
 
 package org.apache.hop.pipeline.transforms.csvinput;
 
+import java.nio.ByteBuffer;
+
 public class SingleBytePatternMatcher implements IPatternMatcher {
 
   @Override
   public boolean matchesPattern(byte[] source, int location, byte[] pattern) {
     return source[location] == pattern[0];
   }
+
+  @Override
+  public boolean matchesPattern(ByteBuffer source, int location, byte[] pattern) {
+    return location < source.limit() && source.get(location) == pattern[0];
+  }
 }
@@ -17,8 +17,12 @@
 
 package org.apache.hop.pipeline.transforms.fileinput.text;
 
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.playlist.FilePlayListAll;
+import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
@@ -47,9 +51,146 @@ public class TextFileInput extends BaseFileInputTransform<TextFileInputMeta, Tex
   @Override
   protected IBaseFileInputReader createReader(
       TextFileInputMeta meta, TextFileInputData data, FileObject file) throws Exception {
+    if (data.parallel) {
+      return new TextFileInputReader(
+          this,
+          meta,
+          data,
+          file,
+          log,
+          data.startPositions[data.currentFileIndex],
+          data.endPositions[data.currentFileIndex]);
+    }
     return new TextFileInputReader(this, meta, data, file, log);
   }
 
+  @Override
+  protected void prepareToRowProcessing() throws HopException {
+    super.prepareToRowProcessing();
+
+    // Filenames from a previous transform are already divided over the transform copies
+    //
+    int nrCopies = getTransformMeta().getCopies(this);
+    data.parallel =
+        meta.content.runningInParallel && nrCopies > 1 && !meta.inputFiles.acceptingFilenames;
+    if (data.parallel) {
+      // Every copy counts its own rows
+      //
+      if (meta.content.rowLimit > 0) {
+        throw new HopException(
+            BaseMessages.getString(PKG, "TextFileInput.Exception.RowLimitInParallel"));
+      }
+      if (meta.content.includeRowNumber && !meta.content.rowNumberByFile) {
+        throw new HopException(
+            BaseMessages.getString(PKG, "TextFileInput.Exception.RowNumberInParallel"));
+      }
+      prepareToRunInParallel(nrCopies);
+    }
+  }
+
+  /**
+   * Determine which part of which files this transform copy reads. If the files can be split, the
+   * total size of all the files is divided in equal blocks of bytes, one for each transform copy.
+   * Otherwise each transform copy reads complete files.
+   */
+  private void prepareToRunInParallel(int nrCopies) throws HopException {
+    int nrFiles = data.files.nrOfFiles();
+    data.startPositions = new long[nrFiles];
+    data.endPositions = new long[nrFiles];
+    Arrays.fill(data.startPositions, -1L);
+
+    if (!isSplittingFiles()) {
+      for (int i = getCopyNr(); i < nrFiles; i += nrCopies) {
+        data.startPositions[i] = 0L;
+        data.endPositions[i] = Long.MAX_VALUE;
+      }
+      return;
+    }
+
+    try {
+      long[] fileSizes = new long[nrFiles];
+      long totalFileSize = 0L;
+      for (int i = 0; i < nrFiles; i++) {
+        fileSizes[i] = data.files.getFile(i).getContent().getSize();
+        totalFileSize += fileSizes[i];
+      }
+
+      // For example, the total file size is 50000, spread over 5 files of 10000.
+      // With 2 transform copies, copy 0 reads 0-24999 and copy 1 reads 25000-49999:
+      // the first 2.5 files and the last 2.5 files.
+      //
+      long blockToRead = (totalFileSize + nrCopies - 1) / nrCopies;
+      long startPosition = blockToRead * getCopyNr();
+      long endPosition = Math.min(startPosition + blockToRead, totalFileSize);
+
+      long fileStart = 0L;
+      for (int i = 0; i < nrFiles; i++) {
+        long start = Math.max(startPosition - fileStart, 0L);
+        long end = Math.min(endPosition - fileStart, fileSizes[i]);
+        if (start < end) {
+          data.startPositions[i] = start;
+          data.endPositions[i] = end;
+          if (log.isDetailed()) {
+            logDetailed(
+                BaseMessages.getString(
+                    PKG,
+                    "TextFileInput.Log.ParallelFileRange",
+                    data.files.getFile(i).getName().getFriendlyURI(),
+                    Long.toString(start),
+                    Long.toString(end)));
+          }
+        }
+        fileStart += fileSizes[i];
+      }
+    } catch (Exception e) {
+      throw new HopException(
+          BaseMessages.getString(PKG, "TextFileInput.Exception.ErrorPreparingParallelRun"), e);
+    }
+  }
+
+  /**
+   * Files can only be split in blocks of bytes if every line can be read without looking at the
+   * lines before it. A block could start inside a header of more than one line, and row numbers
+   * by file need to count from the start of the file.
+   */
+  private boolean isSplittingFiles() {
+    if (!"None".equals(meta.content.fileCompression)
+        || (meta.content.header && meta.content.nrHeaderLines > 1)
+        || meta.content.includeRowNumber
+        || meta.content.footer
+        || meta.content.lineWrapped
+        || meta.content.layoutPaged
+        || meta.content.breakInEnclosureAllowed) {
+      return false;
+    }
+    for (TextFileFilter filter : meta.getFilter()) {
+      if (filter.isFilterLastLine()) {
+        return false;
+      }
+    }
+
+    // Blocks are split on line feeds, which need to be a single byte
+    //
+    String encoding = meta.getEncoding();
+    if (Utils.isEmpty(encoding)) {
+      return "\n".getBytes(Charset.defaultCharset()).length == 1;
+    }
+    return Charset.isSupported(encoding) && "\n".getBytes(Charset.forName(encoding)).length == 1;
+  }
+
+  @Override
+  protected boolean openNextFile() {
+    if (data.parallel) {
+      // Skip the files read by the other transform copies
+      //
+      while (data.currentFileIndex < data.files.nrOfFiles()
+          && data.startPositions[data.currentFileIndex] < 0) {
+        data.currentFileIndex++;
+      }
+    }
+    return super.openNextFile();
+  }
+
   @Override
   public boolean init() {
     if (!super.init()) {
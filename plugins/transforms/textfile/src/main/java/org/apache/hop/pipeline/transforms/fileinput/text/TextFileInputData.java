@@ -60,6 +60,18 @@ public class TextFileInputData extends BaseFileInputTransformData {
 
   public EncodingType encodingType;
 
+  /** True if the files are divided over the copies of the transform */
+  public boolean parallel;
+
+  /**
+   * When reading in parallel: the position of the first byte to read in each file, -1 if the file
+   * is read by another transform copy.
+   */
+  public long[] startPositions;
+
+  /** When reading in parallel: the position after the last byte to read in each file. */
+  public long[] endPositions;
+
   public TextFileInputData() {
     // linked list is better, as usually .remove(0) is applied to this list
     lineBuffer = new LinkedList<>();
@@ -210,6 +210,8 @@ public class TextFileInputDialog extends BaseTransformDialog
 
   private Text wLimit;
 
+  private Button wRunningInParallel;
+
   private Button wDateLenient;
 
   private CCombo wDateLocale;
@@ -1377,13 +1379,32 @@ public class TextFileInputDialog extends BaseTransformDialog
     fdLimit.right = new FormAttachment(100, 0);
     wLimit.setLayoutData(fdLimit);
 
+    // Running in parallel checkbox
+    Label wlRunningInParallel = new Label(wContentComp, SWT.RIGHT);
+    wlRunningInParallel.setText(
+        BaseMessages.getString(PKG, "TextFileInputDialog.RunningInParallel.Label"));
+    PropsUi.setLook(wlRunningInParallel);
+    FormData fdlRunningInParallel = new FormData();
+    fdlRunningInParallel.left = new FormAttachment(0, 0);
+    fdlRunningInParallel.top = new FormAttachment(wLimit, margin);
+    fdlRunningInParallel.right = new FormAttachment(middle, -margin);
+    wlRunningInParallel.setLayoutData(fdlRunningInParallel);
+    wRunningInParallel = new Button(wContentComp, SWT.CHECK);
+    wRunningInParallel.setToolTipText(
+        BaseMessages.getString(PKG, "TextFileInputDialog.RunningInParallel.Tooltip"));
+    PropsUi.setLook(wRunningInParallel);
+    FormData fdRunningInParallel = new FormData();
+    fdRunningInParallel.left = new FormAttachment(middle, 0);
+    fdRunningInParallel.top = new FormAttachment(wlRunningInParallel, 0, SWT.CENTER);
+    wRunningInParallel.setLayoutData(fdRunningInParallel);
+
     // Date Lenient checkbox
     Label wlDateLenient = new Label(wContentComp, SWT.RIGHT);
     wlDateLenient.setText(BaseMessages.getString(PKG, "TextFileInputDialog.DateLenient.Label"));
     PropsUi.setLook(wlDateLenient);
     FormData fdlDateLenient = new FormData();
     fdlDateLenient.left = new FormAttachment(0, 0);
-    fdlDateLenient.top = new FormAttachment(wLimit, margin);
+    fdlDateLenient.top = new FormAttachment(wRunningInParallel, margin);
     fdlDateLenient.right = new FormAttachment(middle, -margin);
     wlDateLenient.setLayoutData(fdlDateLenient);
     wDateLenient = new Button(wContentComp, SWT.CHECK);
@@ -2320,6 +2341,7 @@ public class TextFileInputDialog extends BaseTransformDialog
     wInclRownum.setSelection(meta.content.includeRowNumber);
     wRownumByFile.setSelection(meta.content.rowNumberByFile);
     wDateLenient.setSelection(meta.content.dateFormatLenient);
+    wRunningInParallel.setSelection(meta.content.runningInParallel);
     wAddResult.setSelection(meta.inputFiles.isaddresult);
 
     if (meta.content.filenameField != null) {
@@ -2610,6 +2632,7 @@ public class TextFileInputDialog extends BaseTransformDialog
     meta.content.nrLinesDocHeader = Const.toInt(wNrLinesDocHeader.getText(), 0);
     meta.content.fileCompression = wCompression.getText();
     meta.content.dateFormatLenient = wDateLenient.getSelection();
+    meta.content.runningInParallel = wRunningInParallel.getSelection();
     meta.content.noEmptyLines = wNoempty.getSelection();
     meta.content.encoding = wEncoding.getText();
     meta.content.length = wLength.getText();
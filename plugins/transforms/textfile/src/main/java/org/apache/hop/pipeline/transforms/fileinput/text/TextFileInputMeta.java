@@ -185,6 +185,10 @@ public class TextFileInputMeta
     @Injection(name = "ROW_LIMIT")
     public long rowLimit = -1;
 
+    /** Flag indicating that the files are divided over the copies of the transform */
+    @Injection(name = "RUNNING_IN_PARALLEL")
+    public boolean runningInParallel;
+
     /**
      * Indicate whether or not we want to date fields strictly according to the format or lenient
      */
@@ -327,6 +331,8 @@ public class TextFileInputMeta
       content.fileFormat = XmlHandler.getTagValue(transformNode, "format");
       content.encoding = XmlHandler.getTagValue(transformNode, "encoding");
       content.length = XmlHandler.getTagValue(transformNode, "length");
+      content.runningInParallel =
+          YES.equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "parallel"));
 
       Node filenode = XmlHandler.getSubNode(transformNode, "file");
       Node fields = XmlHandler.getSubNode(transformNode, "fields");
@@ -540,6 +546,7 @@ public class TextFileInputMeta
     content.rowNumberField = "";
     content.dateFormatLenient = true;
     content.rowNumberByFile = false;
+    content.runningInParallel = false;
 
     errorHandling.errorIgnored = false;
     errorHandling.skipBadFiles = false;
@@ -755,6 +762,7 @@ public class TextFileInputMeta
     retval.append("    ").append(XmlHandler.addTagValue("format", content.fileFormat));
     retval.append("    ").append(XmlHandler.addTagValue("encoding", content.encoding));
     retval.append("    ").append(XmlHandler.addTagValue("length", content.length));
+    retval.append("    ").append(XmlHandler.addTagValue("parallel", content.runningInParallel));
     retval.append(
         "    " + XmlHandler.addTagValue("add_to_result_filenames", inputFiles.isaddresult));
 
@@ -1184,6 +1192,20 @@ public class TextFileInputMeta
     content.length = length;
   }
 
+  /**
+   * @return true if the files are divided over the copies of the transform
+   */
+  public boolean isRunningInParallel() {
+    return content.runningInParallel;
+  }
+
+  /**
+   * @param runningInParallel true if the files are divided over the copies of the transform
+   */
+  public void setRunningInParallel(boolean runningInParallel) {
+    content.runningInParallel = runningInParallel;
+  }
+
   /** Required for the Data Lineage. */
   @Override
   public boolean isAcceptingFilenames() {
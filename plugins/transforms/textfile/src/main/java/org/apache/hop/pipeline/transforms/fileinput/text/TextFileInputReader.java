@@ -18,6 +18,7 @@
 package org.apache.hop.pipeline.transforms.fileinput.text;
 
 import java.io.BufferedInputStream;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import org.apache.commons.vfs2.FileObject;
 import org.apache.hop.core.compress.CompressionInputStream;
@@ -47,6 +48,9 @@ public class TextFileInputReader implements IBaseFileInputReader {
 
   private final InputStreamReader isr;
 
+  /** Only the first part of a file contains the header lines */
+  private final boolean header;
+
   protected long lineInFile;
 
   private boolean first;
@@ -60,10 +64,30 @@ public class TextFileInputReader implements IBaseFileInputReader {
       FileObject file,
       ILogChannel log)
       throws Exception {
+    this(transform, meta, data, file, log, 0L, Long.MAX_VALUE);
+  }
+
+  /**
+   * Create a reader for the lines that start in a range of bytes of the file.
+   *
+   * @param startPosition The position of the first byte of the range
+   * @param endPosition The position after the last byte of the range
+   * @see TextFileRangeInputStream
+   */
+  public TextFileInputReader(
+      IBaseFileInputTransformControl transform,
+      TextFileInputMeta meta,
+      TextFileInputData data,
+      FileObject file,
+      ILogChannel log,
+      long startPosition,
+      long endPosition)
+      throws Exception {
     this.transform = transform;
     this.meta = meta;
     this.data = data;
     this.log = log;
+    this.header = meta.content.header && startPosition == 0;
 
     ICompressionProvider provider =
         CompressionProviderFactory.getInstance()
@@ -74,7 +98,11 @@ public class TextFileInputReader implements IBaseFileInputReader {
           "This is a compressed file being handled by the " + provider.getName() + " provider");
     }
 
-    in = provider.createInputStream(HopVfs.getInputStream(file));
+    InputStream fileStream = HopVfs.getInputStream(file);
+    if (startPosition > 0 || endPosition < Long.MAX_VALUE) {
+      fileStream = new TextFileRangeInputStream(fileStream, startPosition, endPosition);
+    }
+    in = provider.createInputStream(fileStream);
 
     in.nextEntry();
 
@@ -97,7 +125,7 @@ public class TextFileInputReader implements IBaseFileInputReader {
   }
 
   protected void readInitial() throws Exception {
-    data.doneWithHeader = !meta.content.header;
+    data.doneWithHeader = !header;
     // /////////////////////////////////////////////////////////////////////////////
     // Read the first lines...
 
@@ -110,7 +138,7 @@ public class TextFileInputReader implements IBaseFileInputReader {
      * OK, read a number of lines in the buffer: The header rows The nr rows in the page : optional The footer rows
      */
     int bufferSize = 1;
-    bufferSize += meta.content.header ? meta.content.nrHeaderLines : 0;
+    bufferSize += header ? meta.content.nrHeaderLines : 0;
     bufferSize +=
         meta.content.layoutPaged
             ? meta.content.nrLinesPerPage * (Math.max(0, meta.content.nrWraps) + 1)
@@ -132,8 +160,7 @@ public class TextFileInputReader implements IBaseFileInputReader {
     }
 
     for (int i = 0; i < bufferSize && !data.doneReading; i++) {
-      boolean wasNotFiltered =
-          tryToReadLine(!meta.content.header || i >= meta.content.nrHeaderLines);
+      boolean wasNotFiltered = tryToReadLine(!header || i >= meta.content.nrHeaderLines);
       if (!wasNotFiltered) {
         // grab another line, this one got filtered
         bufferSize++;
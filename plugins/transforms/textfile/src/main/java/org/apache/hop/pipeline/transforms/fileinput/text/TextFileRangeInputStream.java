@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fileinput.text;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the lines of a text file that start in a range of bytes. This allows a number of transform
+ * copies to read distinct parts of the same file.
+ *
+ * <p>A line belongs to the range in which its first byte lies. The partial line at the start of the
+ * range is skipped because it's read by the previous range, and the last line of the range is read
+ * completely, even if it ends after the range. Lines are separated by line feed characters, so this
+ * only works for encodings where a line feed is a single byte.
+ */
+public class TextFileRangeInputStream extends InputStream {
+  private static final int BUFFER_SIZE_INPUT_STREAM = 8192;
+
+  private final InputStream in;
+
+  private final long endPosition;
+
+  /** The position in the file of the next byte to read */
+  private long position;
+
+  private boolean done;
+
+  /**
+   * @param in The input stream of the complete file
+   * @param startPosition The position of the first byte of the range
+   * @param endPosition The position after the last byte of the range
+   * @throws IOException In case the start of the range can't be reached
+   */
+  public TextFileRangeInputStream(InputStream in, long startPosition, long endPosition)
+      throws IOException {
+    this.in = new BufferedInputStream(in, BUFFER_SIZE_INPUT_STREAM);
+    this.endPosition = endPosition;
+
+    if (startPosition > 0) {
+      // Skip to the last byte of the previous range: if that's a line feed,
+      // the first line of this range starts at the start position.
+      //
+      skipFully(startPosition - 1);
+      position = startPosition - 1;
+
+      int b;
+      do {
+        b = this.in.read();
+        if (b < 0) {
+          done = true;
+          break;
+        }
+        position++;
+      } while (b != '\n');
+    }
+    if (position >= endPosition) {
+      done = true;
+    }
+  }
+
+  private void skipFully(long bytes) throws IOException {
+    long remaining = bytes;
+    while (remaining > 0) {
+      long skipped = in.skip(remaining);
+      if (skipped <= 0) {
+        if (in.read() < 0) {
+          return;
+        }
+        skipped = 1;
+      }
+      remaining -= skipped;
+    }
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (done) {
+      return -1;
+    }
+    int b = in.read();
+    if (b < 0) {
+      done = true;
+      return -1;
+    }
+    position++;
+    if (b == '\n' && position >= endPosition) {
+      done = true;
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (done) {
+      return -1;
+    }
+    if (len == 0) {
+      return 0;
+    }
+
+    if (position < endPosition) {
+      // Every line starting before the end of the range is ours
+      //
+      int n = in.read(b, off, (int) Math.min(len, endPosition - position));
+      if (n < 0) {
+        done = true;
+        return -1;
+      }
+      position += n;
+      if (position >= endPosition && b[off + n - 1] == '\n') {
+        done = true;
+      }
+      return n;
+    }
+
+    // Finish the last line of the range
+    //
+    int n = in.read(b, off, len);
+    if (n < 0) {
+      done = true;
+      return -1;
+    }
+    for (int i = 0; i < n; i++) {
+      if (b[off + i] == '\n') {
+        done = true;
+        position += i + 1;
+        return i + 1;
+      }
+    }
+    position += n;
+    return n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
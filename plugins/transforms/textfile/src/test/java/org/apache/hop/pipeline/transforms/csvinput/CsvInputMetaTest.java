@@ -86,6 +86,7 @@ public class CsvInputMetaTest implements IInitializer<ITransformMeta> {
             "headerPresent",
             "includingFilename",
             "lazyConversionActive",
+            "memoryMapped",
             "newlinePossibleInFields",
             "runningInParallel");
 
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.csvinput;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.exception.HopTransformException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.vfs.HopVfs;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transform.RowAdapter;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+/**
+ * Reading a file in parallel or through a memory mapping needs to give the same rows as reading it
+ * with a single copy, also when the rows and fields cross the boundaries of the read buffer or of
+ * the mapped regions.
+ */
+public class CsvInputParallelContentTest extends CsvInputUnitTestBase {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  private static final int NR_ROWS = 2000;
+
+  private TransformMockHelper<CsvInputMeta, CsvInputData> transformMockHelper;
+
+  private File file;
+
+  private String filename;
+
+  @Before
+  public void setUp() throws Exception {
+    transformMockHelper =
+        TransformMockUtil.getTransformMockHelper(
+            CsvInputMeta.class, CsvInputData.class, "CsvInputParallelContentTest");
+
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < NR_ROWS; i++) {
+      content.append(i).append(",\"text \"\"").append(i).append("\"\", x\",");
+      for (int j = 0; j < i % 50; j++) {
+        content.append('v');
+      }
+      content.append(i % 3 == 0 ? "\r\n" : "\n");
+    }
+    file = createTestFile(ENCODING, content.toString());
+    filename = file.getAbsolutePath();
+  }
+
+  @After
+  public void cleanUp() {
+    transformMockHelper.cleanUp();
+    file.delete();
+  }
+
+  private List<String> readRows(int transformNr, int totalNumberOfTransforms) throws Exception {
+    return readRows(false, 0, false, transformNr, totalNumberOfTransforms);
+  }
+
+  private List<String> readRows(
+      boolean memoryMapped,
+      long mappedRegionSize,
+      boolean lazyConversion,
+      int transformNr,
+      int totalNumberOfTransforms)
+      throws Exception {
+    CsvInputMeta meta = createMeta(file, createInputFileFields("id", "text", "pad"));
+    meta.setFilename(filename);
+    meta.setMemoryMapped(memoryMapped);
+    meta.setLazyConversionActive(lazyConversion);
+    meta.setRunningInParallel(totalNumberOfTransforms > 1);
+    meta.setNewlinePossibleInFields(false);
+
+    CsvInputData data = new CsvInputData();
+    CsvInput csvInput =
+        new CsvInput(
+            transformMockHelper.transformMeta,
+            meta,
+            data,
+            0,
+            transformMockHelper.pipelineMeta,
+            transformMockHelper.pipeline);
+    csvInput.init();
+    data.mappedRegionSize = mappedRegionSize;
+    if (totalNumberOfTransforms > 1) {
+      data.parallel = true;
+      data.transformNumber = transformNr;
+      data.totalNumberOfTransforms = totalNumberOfTransforms;
+    }
+
+    List<String> rows = new ArrayList<>();
+    csvInput.addRowListener(
+        new RowAdapter() {
+          @Override
+          public void rowWrittenEvent(IRowMeta rowMeta, Object[] row) throws HopTransformException {
+            Object[] values = Arrays.copyOf(row, 3);
+            for (int i = 0; i < values.length; i++) {
+              if (values[i] instanceof byte[]) {
+                values[i] = new String((byte[]) values[i], StandardCharsets.UTF_8);
+              }
+            }
+            rows.add(Arrays.toString(values));
+          }
+        });
+    try {
+      while (csvInput.processRow()) {
+        // Keep reading
+      }
+    } finally {
+      csvInput.dispose();
+    }
+    return rows;
+  }
+
+  @Test
+  public void testReadInParallel() throws Exception {
+    List<String> expected = readRows(0, 1);
+    assertEquals(NR_ROWS, expected.size());
+    assertEquals("[7, text \"7\", x, vvvvvvv]", expected.get(7));
+
+    for (int totalNumberOfTransforms = 2; totalNumberOfTransforms <= 5; totalNumberOfTransforms++) {
+      List<String> rows = new ArrayList<>();
+      for (int transformNr = 0; transformNr < totalNumberOfTransforms; transformNr++) {
+        rows.addAll(readRows(transformNr, totalNumberOfTransforms));
+      }
+      assertEquals(expected, rows);
+    }
+  }
+
+  @Test
+  public void testReadMemoryMapped() throws Exception {
+    List<String> expected = readRows(0, 1);
+
+    for (long mappedRegionSize : new long[] {7, 777, CsvInputData.MAPPED_REGION_SIZE}) {
+      assertEquals(expected, readRows(true, mappedRegionSize, false, 0, 1));
+      assertEquals(expected, readRows(true, mappedRegionSize, true, 0, 1));
+
+      List<String> rows = new ArrayList<>();
+      for (int transformNr = 0; transformNr < 3; transformNr++) {
+        rows.addAll(readRows(true, mappedRegionSize, false, transformNr, 3));
+      }
+      assertEquals(expected, rows);
+    }
+  }
+
+  @Test
+  public void testReadFromVfs() throws Exception {
+    List<String> expected = readRows(0, 1);
+
+    try (FileObject fileObject = HopVfs.getFileObject("ram:///csvInputTest/content.csv")) {
+      try (OutputStream out = fileObject.getContent().getOutputStream()) {
+        Files.copy(file.toPath(), out);
+      }
+      filename = fileObject.getName().getURI();
+
+      // Files which are not local are read as a stream, also when mapping is asked for
+      //
+      assertEquals(expected, readRows(0, 1));
+      assertEquals(expected, readRows(true, CsvInputData.MAPPED_REGION_SIZE, true, 0, 1));
+      fileObject.delete();
+    }
+  }
+}
@@ -42,7 +42,8 @@ public class TextFileInputMetaLoadSaveTest {
   @Before
   public void setUp() throws Exception {
     List<String> attributes =
-        Arrays.asList("errorCountField", "errorFieldsField", "errorTextField", "length");
+        Arrays.asList(
+            "errorCountField", "errorFieldsField", "errorTextField", "length", "runningInParallel");
 
     Map<String, String> getters = new HashMap<>();
     getters.put("header", "hasHeader");
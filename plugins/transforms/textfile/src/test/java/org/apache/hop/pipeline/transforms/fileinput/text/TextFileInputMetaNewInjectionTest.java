@@ -88,6 +88,8 @@ public class TextFileInputMetaNewInjectionTest
 
     check("ROW_LIMIT", () -> meta.content.rowLimit);
 
+    check("RUNNING_IN_PARALLEL", () -> meta.content.runningInParallel);
+
     check("DATE_FORMAT_LENIENT", () -> meta.content.dateFormatLenient);
 
     check("DATE_FORMAT_LOCALE", () -> meta.content.dateFormatLocale.toString(), "en", "en_us");
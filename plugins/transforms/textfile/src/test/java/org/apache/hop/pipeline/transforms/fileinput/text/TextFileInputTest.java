@@ -18,6 +18,8 @@
 package org.apache.hop.pipeline.transforms.fileinput.text;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -28,12 +30,15 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.vfs2.FileContent;
 import org.apache.commons.vfs2.FileObject;
+import org.apache.hop.core.BlockingRowSet;
 import org.apache.hop.core.HopEnvironment;
 import org.apache.hop.core.IRowSet;
+import org.apache.hop.core.exception.HopException;
 import org.apache.hop.core.exception.HopFileException;
 import org.apache.hop.core.fileinput.FileInputList;
 import org.apache.hop.core.logging.ILogChannel;
@@ -54,6 +59,7 @@ import org.apache.hop.pipeline.transform.errorhandling.IFileErrorHandler;
 import org.apache.hop.pipeline.transforms.file.BaseFileField;
 import org.apache.hop.pipeline.transforms.file.IBaseFileInputReader;
 import org.apache.hop.pipeline.transforms.file.IBaseFileInputTransformControl;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
 import org.apache.hop.ui.pipeline.transform.common.TextFileLineUtil;
 import org.apache.hop.utils.TestUtils;
 import org.junit.BeforeClass;
@@ -392,6 +398,100 @@ public class TextFileInputTest {
     deleteVfsFile(virtualFile);
   }
 
+  @Test
+  public void readFilesInParallel() throws Exception {
+    // Long header lines so that the blocks of some copies start inside the header
+    //
+    for (int nrHeaderLines : new int[] {1, 3}) {
+      List<String> expected = new ArrayList<>();
+      StringBuilder content1 = new StringBuilder("col1\n");
+      StringBuilder content2 = new StringBuilder("col1\r\n");
+      for (int i = 1; i < nrHeaderLines; i++) {
+        content1.append("h".repeat(600)).append('\n');
+        content2.append("h".repeat(600)).append("\r\n");
+      }
+      for (int i = 0; i < 100; i++) {
+        content1.append("a").append(i).append('\n');
+        content2.append("b").append(i).append("\r\n");
+        expected.add("a" + i);
+        expected.add("b" + i);
+      }
+      Collections.sort(expected);
+      final String virtualFile1 = createVirtualFile("parallel-1.txt", content1.toString());
+      final String virtualFile2 = createVirtualFile("parallel-2.txt", content2.toString());
+
+      for (boolean splittingFiles : new boolean[] {true, false}) {
+        for (int nrCopies = 1; nrCopies <= 4; nrCopies++) {
+          List<String> values = new ArrayList<>();
+          for (int copyNr = 0; copyNr < nrCopies; copyNr++) {
+            TextFileInputMeta meta = createMetaObject(field("col1"));
+            meta.content.header = true;
+            meta.content.nrHeaderLines = nrHeaderLines;
+            meta.content.breakInEnclosureAllowed = !splittingFiles;
+            meta.content.runningInParallel = true;
+            TextFileInputData data = createDataObject(virtualFile1, ",", "col1");
+            data.files.addFile(HopVfs.getFileObject(virtualFile2));
+            data.fileFormatType = TextFileLineUtil.FILE_FORMAT_MIXED;
+
+            TextFileInput input = createParallelInput(meta, data, copyNr, nrCopies);
+            IRowSet output = new BlockingRowSet(1000);
+            input.setOutputRowSets(Collections.singletonList(output));
+            while (input.processRow()) {
+              // Keep reading
+            }
+            Object[] row;
+            while ((row = output.getRowImmediate()) != null) {
+              values.add((String) row[0]);
+            }
+            input.dispose();
+          }
+          Collections.sort(values);
+          assertEquals(nrHeaderLines + "/" + splittingFiles + "/" + nrCopies, expected, values);
+        }
+      }
+
+      deleteVfsFile(virtualFile1);
+      deleteVfsFile(virtualFile2);
+    }
+  }
+
+  @Test
+  public void rowLimitAndRowNumbersAreRejectedInParallel() throws Exception {
+    final String virtualFile = createVirtualFile("parallel-limit.txt", "a\nb\nc\n");
+
+    for (int option = 0; option < 2; option++) {
+      TextFileInputMeta meta = createMetaObject(field("col1"));
+      meta.content.runningInParallel = true;
+      if (option == 0) {
+        meta.content.rowLimit = 2L;
+      } else {
+        meta.content.includeRowNumber = true;
+        meta.content.rowNumberField = "rownr";
+      }
+      TextFileInput input =
+          createParallelInput(meta, createDataObject(virtualFile, ",", "col1"), 0, 2);
+      try {
+        input.processRow();
+        fail("A limit or row numbers can't be counted over the copies");
+      } catch (HopException e) {
+        // Expected
+      }
+      input.dispose();
+    }
+
+    deleteVfsFile(virtualFile);
+  }
+
+  private static TextFileInput createParallelInput(
+      TextFileInputMeta meta, TextFileInputData data, int copyNr, int nrCopies) {
+    TransformMockHelper<TextFileInputMeta, TextFileInputData> helper =
+        TransformMockUtil.getTransformMockHelper(
+            TextFileInputMeta.class, TextFileInputData.class, "test");
+    when(helper.transformMeta.getCopies(any())).thenReturn(nrCopies);
+    return new TextFileInput(
+        helper.transformMeta, meta, data, copyNr, helper.pipelineMeta, helper.pipeline);
+  }
+
   @Test
   public void testClose() throws Exception {
 
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.fileinput.text;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class TextFileRangeInputStreamTest {
+  private static final String CONTENT = "header\r\nline 1\r\n\r\nline 3\nlong line 4\nline 5";
+
+  private static String read(String content, long start, long end, boolean singleBytes)
+      throws IOException {
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (InputStream in =
+        new TextFileRangeInputStream(new ByteArrayInputStream(bytes), start, end)) {
+      if (singleBytes) {
+        int b;
+        while ((b = in.read()) >= 0) {
+          out.write(b);
+        }
+      } else {
+        byte[] buffer = new byte[3];
+        int n;
+        while ((n = in.read(buffer, 0, buffer.length)) >= 0) {
+          out.write(buffer, 0, n);
+        }
+      }
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testRangesReadEveryLineOnce() throws IOException {
+    int length = CONTENT.length();
+    for (boolean singleBytes : new boolean[] {true, false}) {
+      for (int split1 = 0; split1 <= length; split1++) {
+        for (int split2 = split1; split2 <= length; split2++) {
+          String result =
+              read(CONTENT, 0, split1, singleBytes)
+                  + read(CONTENT, split1, split2, singleBytes)
+                  + read(CONTENT, split2, length, singleBytes);
+          assertEquals(split1 + "/" + split2, CONTENT, result);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLinesBelongToTheRangeTheyStartIn() throws IOException {
+    // "header\r\n" is 8 bytes: the line "line 1" starts at position 8
+    //
+    assertEquals("header\r\n", read(CONTENT, 0, 8, false));
+    assertEquals("header\r\nline 1\r\n", read(CONTENT, 0, 9, false));
+    assertEquals("line 1\r\n", read(CONTENT, 8, 9, true));
+    assertEquals("", read(CONTENT, 9, 16, false));
+    assertEquals("line 5", read(CONTENT, CONTENT.length() - 6, CONTENT.length(), false));
+    assertEquals("", read(CONTENT, CONTENT.length() - 5, CONTENT.length(), false));
+  }
+}
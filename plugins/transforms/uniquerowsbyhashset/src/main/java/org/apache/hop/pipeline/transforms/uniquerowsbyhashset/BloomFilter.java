@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+/**
+ * A Bloom filter over 128-bit key fingerprints. It takes a fixed amount of memory, sized for an
+ * expected number of keys and a false positive rate. A key which was never added can be reported as
+ * seen before (a false positive), a key which was added is never reported as new.
+ */
+class BloomFilter {
+  private final long[] bits;
+  private final long nrBits;
+  private final int nrHashes;
+
+  /**
+   * @param expectedKeys The expected number of distinct keys
+   * @param falsePositiveRate The acceptable probability that a new key is reported as seen before
+   */
+  BloomFilter(long expectedKeys, double falsePositiveRate) {
+    long n = Math.max(1L, expectedKeys);
+    double p = Math.min(0.5, Math.max(1e-12, falsePositiveRate));
+
+    long m = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+    long nrWords = Math.min(Integer.MAX_VALUE - 8, Math.max(1L, (m + 63) / 64));
+    this.bits = new long[(int) nrWords];
+    this.nrBits = nrWords * 64;
+    this.nrHashes = Math.max(1, (int) Math.round((double) nrBits / n * Math.log(2)));
+  }
+
+  /**
+   * Add a key to the filter.
+   *
+   * @param hi The high half of the fingerprint of the key
+   * @param lo The low half of the fingerprint of the key
+   * @return true if the key is new, false if it was (probably) added before
+   */
+  boolean add(long hi, long lo) {
+    boolean added = false;
+    long combined = hi;
+    for (int i = 0; i < nrHashes; i++) {
+      long index = (combined & Long.MAX_VALUE) % nrBits;
+      int word = (int) (index >>> 6);
+      long bit = 1L << index;
+      if ((bits[word] & bit) == 0) {
+        bits[word] |= bit;
+        added = true;
+      }
+      combined += lo;
+    }
+    return added;
+  }
+
+  /**
+   * @return The number of bits in the filter
+   */
+  long getNrBits() {
+    return nrBits;
+  }
+
+  /**
+   * @return The number of bits set or checked per key
+   */
+  int getNrHashes() {
+    return nrHashes;
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A set of 128-bit key fingerprints, stored in primitive arrays with open addressing. This takes
+ * about 16 to 32 bytes of memory per key, far less than a {@link RowKey} object with its values.
+ *
+ * <p>If the keys are verified, the encoded key bytes are kept as well, packed in large pages. A key
+ * is then only considered a duplicate if both the fingerprint and the bytes are equal.
+ */
+class FingerprintSet {
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final int PAGE_SIZE = 1024 * 1024;
+
+  private final boolean verifyKeys;
+
+  /** The high and low half of the fingerprint of every slot, 0/0 marks an empty slot */
+  private long[] fingerprints;
+
+  /** The page number (high half) and position (low half) of the key bytes of every slot */
+  private long[] keyReferences;
+
+  private int mask;
+  private int size;
+  private int threshold;
+
+  private final List<byte[]> pages;
+  private byte[] page;
+  private int pagePosition;
+
+  /**
+   * @param verifyKeys true to keep the key bytes and compare them when the fingerprints are equal
+   */
+  FingerprintSet(boolean verifyKeys) {
+    this.verifyKeys = verifyKeys;
+    this.pages = new ArrayList<>();
+    allocate(INITIAL_CAPACITY);
+  }
+
+  private void allocate(int capacity) {
+    fingerprints = new long[capacity * 2];
+    keyReferences = verifyKeys ? new long[capacity] : null;
+    mask = capacity - 1;
+    threshold = capacity / 4 * 3;
+  }
+
+  /**
+   * Add a key to the set.
+   *
+   * @param hi The high half of the fingerprint
+   * @param lo The low half of the fingerprint
+   * @param key The buffer with the encoded key, only used when the keys are verified
+   * @param keyLength The length of the encoded key
+   * @return true if the key was not in the set yet
+   */
+  boolean add(long hi, long lo, byte[] key, int keyLength) {
+    if (hi == 0 && lo == 0) {
+      // 0/0 marks an empty slot
+      lo = 1;
+    }
+    int slot = (int) lo & mask;
+    while (true) {
+      long slotHi = fingerprints[slot * 2];
+      long slotLo = fingerprints[slot * 2 + 1];
+      if (slotHi == 0 && slotLo == 0) {
+        break;
+      }
+      if (slotHi == hi && slotLo == lo && (!verifyKeys || keyEquals(slot, key, keyLength))) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    fingerprints[slot * 2] = hi;
+    fingerprints[slot * 2 + 1] = lo;
+    if (verifyKeys) {
+      keyReferences[slot] = storeKey(key, keyLength);
+    }
+    if (++size > threshold) {
+      grow();
+    }
+    return true;
+  }
+
+  private boolean keyEquals(int slot, byte[] key, int keyLength) {
+    byte[] keyPage = pages.get((int) (keyReferences[slot] >>> 32));
+    int position = (int) keyReferences[slot];
+    int length = getInt(keyPage, position);
+    return length == keyLength
+        && Arrays.equals(keyPage, position + 4, position + 4 + length, key, 0, keyLength);
+  }
+
+  private long storeKey(byte[] key, int keyLength) {
+    int needed = keyLength + 4;
+    if (page == null || pagePosition + needed > page.length) {
+      page = new byte[Math.max(PAGE_SIZE, needed)];
+      pages.add(page);
+      pagePosition = 0;
+    }
+    long reference = ((long) (pages.size() - 1) << 32) | pagePosition;
+    putInt(page, pagePosition, keyLength);
+    System.arraycopy(key, 0, page, pagePosition + 4, keyLength);
+    pagePosition += needed;
+    return reference;
+  }
+
+  private void grow() {
+    long[] oldFingerprints = fingerprints;
+    long[] oldKeyReferences = keyReferences;
+    allocate((mask + 1) * 2);
+    for (int oldSlot = 0; oldSlot < oldFingerprints.length / 2; oldSlot++) {
+      long hi = oldFingerprints[oldSlot * 2];
+      long lo = oldFingerprints[oldSlot * 2 + 1];
+      if (hi == 0 && lo == 0) {
+        continue;
+      }
+      int slot = (int) lo & mask;
+      while (fingerprints[slot * 2] != 0 || fingerprints[slot * 2 + 1] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      fingerprints[slot * 2] = hi;
+      fingerprints[slot * 2 + 1] = lo;
+      if (verifyKeys) {
+        keyReferences[slot] = oldKeyReferences[oldSlot];
+      }
+    }
+  }
+
+  /**
+   * @return The number of keys in the set
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @return The number of slots, used slots are found with {@link #isUsed(int)}
+   */
+  int getCapacity() {
+    return mask + 1;
+  }
+
+  boolean isUsed(int slot) {
+    return fingerprints[slot * 2] != 0 || fingerprints[slot * 2 + 1] != 0;
+  }
+
+  long getHi(int slot) {
+    return fingerprints[slot * 2];
+  }
+
+  long getLo(int slot) {
+    return fingerprints[slot * 2 + 1];
+  }
+
+  /**
+   * @return A copy of the key bytes of a slot or null if the keys are not verified
+   */
+  byte[] getKey(int slot) {
+    if (!verifyKeys) {
+      return null;
+    }
+    byte[] keyPage = pages.get((int) (keyReferences[slot] >>> 32));
+    int position = (int) keyReferences[slot];
+    int length = getInt(keyPage, position);
+    return Arrays.copyOfRange(keyPage, position + 4, position + 4 + length);
+  }
+
+  private static int getInt(byte[] bytes, int position) {
+    return (bytes[position] & 0xff) << 24
+        | (bytes[position + 1] & 0xff) << 16
+        | (bytes[position + 2] & 0xff) << 8
+        | (bytes[position + 3] & 0xff);
+  }
+
+  private static void putInt(byte[] bytes, int position, int value) {
+    bytes[position] = (byte) (value >>> 24);
+    bytes[position + 1] = (byte) (value >>> 16);
+    bytes[position + 2] = (byte) (value >>> 8);
+    bytes[position + 3] = (byte) value;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+import java.util.function.LongConsumer;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaBinary;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.spill.SpillFile;
+import org.apache.hop.core.spill.SpillPartition;
+
+/**
+ * A partition of the key fingerprints which was written to disk because the keys didn't fit in
+ * memory. The keys seen so far are in a second temporary file. The rows of the partition which
+ * arrive after that are written to the partition itself: whether they are unique is decided after
+ * all input was read, when the keys of the partition are loaded again.
+ */
+class FingerprintSpillPartition extends SpillPartition {
+  private final SpillFile keys;
+  private final boolean verifyKeys;
+
+  /**
+   * @param rowMeta The layout of the input rows
+   * @param prefix The prefix of the temporary files
+   * @param directory The directory to create the temporary files in
+   * @param verifyKeys true if the encoded key bytes are kept with the fingerprints
+   * @param bytesSpilledListener Receives the number of bytes written to disk
+   */
+  FingerprintSpillPartition(
+      IRowMeta rowMeta,
+      String prefix,
+      String directory,
+      boolean verifyKeys,
+      LongConsumer bytesSpilledListener)
+      throws HopException {
+    super(rowMeta, prefix, directory, true, 0, bytesSpilledListener);
+    this.verifyKeys = verifyKeys;
+    this.keys =
+        new SpillFile(
+            getKeyRowMeta(verifyKeys), prefix, directory, true, false, bytesSpilledListener);
+  }
+
+  private static IRowMeta getKeyRowMeta(boolean verifyKeys) {
+    IRowMeta keyRowMeta = new RowMeta();
+    keyRowMeta.addValueMeta(new ValueMetaInteger("hi"));
+    keyRowMeta.addValueMeta(new ValueMetaInteger("lo"));
+    if (verifyKeys) {
+      keyRowMeta.addValueMeta(new ValueMetaBinary("key"));
+    }
+    return keyRowMeta;
+  }
+
+  /**
+   * Write all the keys of a set to disk.
+   *
+   * @param set The keys in memory of this partition
+   * @throws HopException In case the keys can't be written
+   */
+  void writeKeys(FingerprintSet set) throws HopException {
+    for (int slot = 0; slot < set.getCapacity(); slot++) {
+      if (set.isUsed(slot)) {
+        if (verifyKeys) {
+          keys.write(new Object[] {set.getHi(slot), set.getLo(slot), set.getKey(slot)});
+        } else {
+          keys.write(new Object[] {set.getHi(slot), set.getLo(slot)});
+        }
+      }
+    }
+    keys.finishWriting();
+  }
+
+  /**
+   * @return The file with the keys which were in memory when the partition was spilled
+   */
+  SpillFile getKeys() {
+    return keys;
+  }
+
+  /** Remove the temporary files */
+  @Override
+  public void close() {
+    keys.close();
+    super.close();
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.IValueMeta;
+
+/**
+ * Encodes the key values of a row into bytes and calculates a 128-bit fingerprint of these bytes
+ * (MurmurHash3, x64 variant). The key values are converted to the normal storage type first so that
+ * equal values always give the same bytes.
+ *
+ * <p>The encoder is reused for every row: the bytes and fingerprint are those of the last encoded
+ * row.
+ */
+class KeyEncoder {
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private final IValueMeta[] valueMetas;
+  private final IValueMeta[] normalValueMetas;
+  private final int[] fieldnrs;
+
+  private final KeyBuffer buffer;
+  private final DataOutputStream outputStream;
+
+  private long hi;
+  private long lo;
+
+  /**
+   * @param rowMeta The layout of the rows
+   * @param fieldnrs The indexes of the key fields, an empty array means: the entire row
+   */
+  KeyEncoder(IRowMeta rowMeta, int[] fieldnrs) {
+    if (fieldnrs.length == 0) {
+      fieldnrs = new int[rowMeta.size()];
+      for (int i = 0; i < fieldnrs.length; i++) {
+        fieldnrs[i] = i;
+      }
+    }
+    this.fieldnrs = fieldnrs;
+    this.valueMetas = new IValueMeta[fieldnrs.length];
+    this.normalValueMetas = new IValueMeta[fieldnrs.length];
+    for (int i = 0; i < fieldnrs.length; i++) {
+      valueMetas[i] = rowMeta.getValueMeta(fieldnrs[i]);
+      normalValueMetas[i] = valueMetas[i].clone();
+      normalValueMetas[i].setStorageType(IValueMeta.STORAGE_TYPE_NORMAL);
+    }
+    this.buffer = new KeyBuffer();
+    this.outputStream = new DataOutputStream(buffer);
+  }
+
+  /**
+   * Encode the key of a row and calculate its fingerprint.
+   *
+   * @param row The row
+   * @throws HopException In case a value can't be converted or encoded
+   */
+  void encode(Object[] row) throws HopException {
+    buffer.reset();
+    for (int i = 0; i < fieldnrs.length; i++) {
+      Object value = valueMetas[i].convertToNormalStorageType(row[fieldnrs[i]]);
+      normalValueMetas[i].writeData(outputStream, value);
+    }
+    hash(buffer.getBuffer(), buffer.size());
+  }
+
+  /** MurmurHash3_x64_128 with seed 0 */
+  private void hash(byte[] data, int length) {
+    long h1 = 0;
+    long h2 = 0;
+
+    int nrBlocks = length / 16;
+    for (int i = 0; i < nrBlocks; i++) {
+      long k1 = getLong(data, i * 16);
+      long k2 = getLong(data, i * 16 + 8);
+
+      k1 *= C1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= C2;
+      h1 ^= k1;
+      h1 = Long.rotateLeft(h1, 27);
+      h1 += h2;
+      h1 = h1 * 5 + 0x52dce729;
+
+      k2 *= C2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= C1;
+      h2 ^= k2;
+      h2 = Long.rotateLeft(h2, 31);
+      h2 += h1;
+      h2 = h2 * 5 + 0x38495ab5;
+    }
+
+    int tail = nrBlocks * 16;
+    long k1 = 0;
+    long k2 = 0;
+    int remaining = length & 15;
+    for (int i = remaining - 1; i >= 8; i--) {
+      k2 ^= (long) (data[tail + i] & 0xff) << ((i - 8) * 8);
+    }
+    if (remaining > 8) {
+      k2 *= C2;
+      k2 = Long.rotateLeft(k2, 33);
+      k2 *= C1;
+      h2 ^= k2;
+    }
+    for (int i = Math.min(remaining, 8) - 1; i >= 0; i--) {
+      k1 ^= (long) (data[tail + i] & 0xff) << (i * 8);
+    }
+    if (remaining > 0) {
+      k1 *= C1;
+      k1 = Long.rotateLeft(k1, 31);
+      k1 *= C2;
+      h1 ^= k1;
+    }
+
+    h1 ^= length;
+    h2 ^= length;
+    h1 += h2;
+    h2 += h1;
+    h1 = mix(h1);
+    h2 = mix(h2);
+    h1 += h2;
+    h2 += h1;
+
+    hi = h1;
+    lo = h2;
+  }
+
+  private static long getLong(byte[] data, int offset) {
+    return (data[offset] & 0xffL)
+        | (data[offset + 1] & 0xffL) << 8
+        | (data[offset + 2] & 0xffL) << 16
+        | (data[offset + 3] & 0xffL) << 24
+        | (data[offset + 4] & 0xffL) << 32
+        | (data[offset + 5] & 0xffL) << 40
+        | (data[offset + 6] & 0xffL) << 48
+        | (data[offset + 7] & 0xffL) << 56;
+  }
+
+  private static long mix(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+
+  /**
+   * @return The high 64 bits of the fingerprint of the last encoded key
+   */
+  long getHi() {
+    return hi;
+  }
+
+  /**
+   * @return The low 64 bits of the fingerprint of the last encoded key
+   */
+  long getLo() {
+    return lo;
+  }
+
+  /**
+   * @return The buffer with the bytes of the last encoded key, see {@link #getLength()}
+   */
+  byte[] getBytes() {
+    return buffer.getBuffer();
+  }
+
+  /**
+   * @return The number of bytes of the last encoded key
+   */
+  int getLength() {
+    return buffer.size();
+  }
+
+  /** Gives access to the bytes written, without copying them. */
+  private static class KeyBuffer extends ByteArrayOutputStream {
+    private byte[] getBuffer() {
+      return buf;
+    }
+  }
+}
@@ -17,18 +17,26 @@
 
 package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
 
+import java.io.IOException;
+import org.apache.hop.core.Const;
 import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.spill.SpillFileReader;
+import org.apache.hop.core.spill.SpillPartitions;
 import org.apache.hop.core.util.Utils;
 import org.apache.hop.i18n.BaseMessages;
 import org.apache.hop.pipeline.Pipeline;
 import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransform;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.uniquerowsbyhashset.UniqueRowsByHashSetMeta.KeyStorage;
 
 public class UniqueRowsByHashSet
     extends BaseTransform<UniqueRowsByHashSetMeta, UniqueRowsByHashSetData> {
   private static final Class<?> PKG = UniqueRowsByHashSetMeta.class; // For Translator
 
+  private static final long DEFAULT_EXPECTED_KEYS = 10000000L;
+  private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
   public UniqueRowsByHashSet(
       TransformMeta transformMeta,
       UniqueRowsByHashSetMeta meta,
@@ -39,8 +47,141 @@ public class UniqueRowsByHashSet
     super(transformMeta, meta, data, copyNr, pipelineMeta, pipeline);
   }
 
-  private boolean isUniqueRow(Object[] row) {
-    return data.seen.add(new RowKey(row, data));
+  private boolean isUniqueRow(Object[] row) throws HopException {
+    switch (data.keyStorage) {
+      case APPROXIMATE:
+        data.keyEncoder.encode(row);
+        return data.bloomFilter.add(data.keyEncoder.getHi(), data.keyEncoder.getLo());
+      case FINGERPRINTS:
+        // The key was encoded already to find its partition
+        return addFingerprint(data.partitions[getPartition(data.keyEncoder.getHi())]);
+      default:
+        return data.seen.add(new RowKey(row, data));
+    }
+  }
+
+  /** A partition of the fingerprints is spilled to disk as a whole */
+  private static int getPartition(long hi) {
+    return SpillPartitions.getPartition(Long.hashCode(hi), 0);
+  }
+
+  private boolean addFingerprint(FingerprintSet set) throws HopException {
+    boolean added =
+        set.add(
+            data.keyEncoder.getHi(),
+            data.keyEncoder.getLo(),
+            data.keyEncoder.getBytes(),
+            data.keyEncoder.getLength());
+    if (added && data.partitions != null) {
+      data.nrKeysInMemory++;
+      if (data.maxKeysInMemory > 0 && data.nrKeysInMemory > data.maxKeysInMemory) {
+        spillLargestPartition();
+      }
+    }
+    return added;
+  }
+
+  /**
+   * Write the keys of the largest partition in memory to disk. The rows of the partition which
+   * arrive after this are written to disk as well and handled once all input was read.
+   */
+  private void spillLargestPartition() throws HopException {
+    int largest = -1;
+    for (int i = 0; i < SpillPartitions.NR_OF_PARTITIONS; i++) {
+      if (data.partitions[i] != null
+          && (largest < 0 || data.partitions[i].size() > data.partitions[largest].size())) {
+        largest = i;
+      }
+    }
+    if (largest < 0) {
+      return;
+    }
+
+    FingerprintSet set = data.partitions[largest];
+    FingerprintSpillPartition spilledPartition =
+        new FingerprintSpillPartition(
+            data.inputRowMeta,
+            "unique",
+            resolve(Const.NVL(meta.getSpillDirectory(), "${java.io.tmpdir}")),
+            data.storeValues,
+            this::addBytesSpilled);
+    data.spilledPartitions[largest] = spilledPartition;
+    spilledPartition.writeKeys(set);
+    data.partitions[largest] = null;
+    data.nrKeysInMemory -= set.size();
+
+    if (log.isDetailed()) {
+      logDetailed(
+          BaseMessages.getString(
+              PKG, "UniqueRowsByHashSet.Log.SpillingPartition", largest, set.size()));
+    }
+  }
+
+  /**
+   * Handle the rows of the partitions which were spilled to disk, one partition at a time. The keys
+   * of the partition are loaded in memory again before its rows are checked.
+   */
+  private void handleSpilledPartitions() throws HopException {
+    if (data.spilledPartitions == null) {
+      return;
+    }
+
+    // Make room for the spilled keys
+    //
+    data.partitions = null;
+
+    for (int i = 0; i < SpillPartitions.NR_OF_PARTITIONS && !isStopped(); i++) {
+      try (FingerprintSpillPartition spilledPartition = data.spilledPartitions[i]) {
+        if (spilledPartition == null) {
+          continue;
+        }
+        data.spilledPartitions[i] = null;
+
+        FingerprintSet set = new FingerprintSet(data.storeValues);
+        try (SpillFileReader reader = spilledPartition.getKeys().openReader()) {
+          while (reader.next()) {
+            Object[] key = reader.getRow();
+            byte[] keyBytes = data.storeValues ? (byte[]) key[2] : null;
+            set.add((Long) key[0], (Long) key[1], keyBytes, keyBytes == null ? 0 : keyBytes.length);
+          }
+        }
+        if (log.isDetailed()) {
+          logDetailed(
+              BaseMessages.getString(
+                  PKG,
+                  "UniqueRowsByHashSet.Log.HandlingSpilledRows",
+                  spilledPartition.getNrRows(),
+                  i));
+        }
+        try (SpillFileReader reader = spilledPartition.openReader()) {
+          while (reader.next() && !isStopped()) {
+            Object[] r = reader.getRow();
+            data.keyEncoder.encode(r);
+            handleRow(r, addFingerprint(set));
+          }
+        }
+      } catch (IOException e) {
+        throw new HopException(e);
+      }
+    }
+  }
+
+  private void handleRow(Object[] r, boolean unique) throws HopException {
+    if (unique) {
+      putRow(data.outputRowMeta, r);
+    } else {
+      incrementLinesRejected();
+      if (data.sendDuplicateRows) {
+        // Simply add this row to the error row
+        putError(
+            data.inputRowMeta,
+            r,
+            1,
+            data.realErrorDescription,
+            Utils.isEmpty(data.compareFields) ? null : data.compareFields,
+            "UNRH001");
+      }
+    }
   }
 
   @Override
@@ -49,6 +190,7 @@ public class UniqueRowsByHashSet
     Object[] r = getRow(); // get row!
     if (r == null) { // no more input to be expected...
 
+      handleSpilledPartitions();
       data.clearHashSet();
       setOutputDone();
       return false;
@@ -88,22 +230,25 @@ public class UniqueRowsByHashSet
       if (data.sendDuplicateRows && !Utils.isEmpty(meta.getErrorDescription())) {
         data.realErrorDescription = resolve(meta.getErrorDescription());
       }
+
+      if (data.keyStorage != KeyStorage.ROW_KEYS) {
+        data.keyEncoder = new KeyEncoder(data.inputRowMeta, data.fieldnrs);
+      }
     }
 
-    if (isUniqueRow(r)) {
-      putRow(data.outputRowMeta, r);
-    } else {
-      incrementLinesRejected();
-      if (data.sendDuplicateRows) {
-        // Simply add this row to the error row
-        putError(
-            getInputRowMeta(),
-            r,
-            1,
-            data.realErrorDescription,
-            Utils.isEmpty(data.compareFields) ? null : data.compareFields,
-            "UNRH001");
+    if (data.keyStorage == KeyStorage.FINGERPRINTS) {
+      // The rows of a spilled partition are handled once all input was read
+      //
+      data.keyEncoder.encode(r);
+      FingerprintSpillPartition spilledPartition =
+          data.spilledPartitions[getPartition(data.keyEncoder.getHi())];
+      if (spilledPartition != null) {
+        spilledPartition.write(r);
+      } else {
+        handleRow(r, isUniqueRow(r));
       }
+    } else {
+      handleRow(r, isUniqueRow(r));
     }
 
     if (checkFeedback(getLinesRead())) {
@@ -123,8 +268,43 @@ public class UniqueRowsByHashSet
       // Add init code here.
       data.sendDuplicateRows =
           getTransformMeta().getTransformErrorMeta() != null && meta.supportsErrorHandling();
+
+      data.keyStorage = meta.getKeyStorage() == null ? KeyStorage.ROW_KEYS : meta.getKeyStorage();
+      switch (data.keyStorage) {
+        case FINGERPRINTS:
+          data.partitions = new FingerprintSet[SpillPartitions.NR_OF_PARTITIONS];
+          for (int i = 0; i < SpillPartitions.NR_OF_PARTITIONS; i++) {
+            data.partitions[i] = new FingerprintSet(meta.getStoreValues());
+          }
+          data.spilledPartitions = new FingerprintSpillPartition[SpillPartitions.NR_OF_PARTITIONS];
+          data.maxKeysInMemory = Const.toLong(resolve(meta.getMaxKeysInMemory()), 0L);
+          break;
+        case APPROXIMATE:
+          data.bloomFilter =
+              new BloomFilter(
+                  Const.toLong(resolve(meta.getExpectedKeys()), DEFAULT_EXPECTED_KEYS),
+                  Const.toDouble(
+                      resolve(meta.getFalsePositiveRate()), DEFAULT_FALSE_POSITIVE_RATE));
+          if (log.isDetailed()) {
+            logDetailed(
+                BaseMessages.getString(
+                    PKG,
+                    "UniqueRowsByHashSet.Log.BloomFilterSize",
+                    data.bloomFilter.getNrBits() / 8,
+                    data.bloomFilter.getNrHashes()));
+          }
+          break;
+        default:
+          break;
+      }
       return true;
     }
     return false;
   }
+
+  @Override
+  public void dispose() {
+    data.clearHashSet();
+    super.dispose();
+  }
 }
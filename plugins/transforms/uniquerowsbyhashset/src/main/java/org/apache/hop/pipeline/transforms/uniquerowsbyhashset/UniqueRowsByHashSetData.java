@@ -21,6 +21,7 @@ import java.util.HashSet;
 import org.apache.hop.core.row.IRowMeta;
 import org.apache.hop.pipeline.transform.BaseTransformData;
 import org.apache.hop.pipeline.transform.ITransformData;
+import org.apache.hop.pipeline.transforms.uniquerowsbyhashset.UniqueRowsByHashSetMeta.KeyStorage;
 
 public class UniqueRowsByHashSetData extends BaseTransformData implements ITransformData {
   public IRowMeta outputRowMeta;
@@ -33,6 +34,25 @@ public class UniqueRowsByHashSetData extends BaseTransformData implements ITrans
 
   public HashSet<RowKey> seen = new HashSet<>();
 
+  public KeyStorage keyStorage;
+
+  /** Encodes the keys and calculates their fingerprints, if the keys aren't stored as row keys */
+  KeyEncoder keyEncoder;
+
+  /** The fingerprints in memory, per partition. A spilled partition is null. */
+  FingerprintSet[] partitions;
+
+  /** The partitions written to disk, null for the partitions in memory */
+  FingerprintSpillPartition[] spilledPartitions;
+
+  /** The number of fingerprints in all the partitions in memory */
+  long nrKeysInMemory;
+
+  /** The maximum number of fingerprints in memory, 0 or less means there is no limit */
+  long maxKeysInMemory;
+
+  BloomFilter bloomFilter;
+
   public UniqueRowsByHashSetData() {
     super();
   }
@@ -41,5 +61,15 @@ public class UniqueRowsByHashSetData extends BaseTransformData implements ITrans
     sendDuplicateRows = false;
     compareFields = null;
     realErrorDescription = null;
+    partitions = null;
+    bloomFilter = null;
+    if (spilledPartitions != null) {
+      for (FingerprintSpillPartition spilledPartition : spilledPartitions) {
+        if (spilledPartition != null) {
+          spilledPartition.close();
+        }
+      }
+      spilledPartitions = null;
+    }
   }
 }
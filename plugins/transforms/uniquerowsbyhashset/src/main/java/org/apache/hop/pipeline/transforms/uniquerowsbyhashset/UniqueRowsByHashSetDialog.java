@@ -29,6 +29,7 @@ import org.apache.hop.pipeline.PipelineMeta;
 import org.apache.hop.pipeline.transform.BaseTransformMeta;
 import org.apache.hop.pipeline.transform.ITransformDialog;
 import org.apache.hop.pipeline.transform.TransformMeta;
+import org.apache.hop.pipeline.transforms.uniquerowsbyhashset.UniqueRowsByHashSetMeta.KeyStorage;
 import org.apache.hop.ui.core.ConstUi;
 import org.apache.hop.ui.core.PropsUi;
 import org.apache.hop.ui.core.dialog.BaseDialog;
@@ -38,6 +39,7 @@ import org.apache.hop.ui.core.widget.TableView;
 import org.apache.hop.ui.core.widget.TextVar;
 import org.apache.hop.ui.pipeline.transform.BaseTransformDialog;
 import org.eclipse.swt.SWT;
+import org.eclipse.swt.custom.CCombo;
 import org.eclipse.swt.events.ModifyListener;
 import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
@@ -69,6 +71,21 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog implements IT
   private Label wlErrorDesc;
   private TextVar wErrorDesc;
 
+  private CCombo wKeyStorage;
+
+  private Label wlMaxKeysInMemory;
+  private TextVar wMaxKeysInMemory;
+
+  private Label wlSpillDirectory;
+  private Button wbSpillDirectory;
+  private TextVar wSpillDirectory;
+
+  private Label wlExpectedKeys;
+  private TextVar wExpectedKeys;
+
+  private Label wlFalsePositiveRate;
+  private TextVar wFalsePositiveRate;
+
   public UniqueRowsByHashSetDialog(
       Shell parent, IVariables variables, Object in, PipelineMeta pipelineMeta, String sname) {
     super(parent, variables, (BaseTransformMeta) in, pipelineMeta, sname);
@@ -198,6 +215,128 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog implements IT
     fdErrorDesc.right = new FormAttachment(100, 0);
     wErrorDesc.setLayoutData(fdErrorDesc);
 
+    // How are the keys kept in memory?
+    //
+    Label wlKeyStorage = new Label(wSettings, SWT.RIGHT);
+    wlKeyStorage.setText(BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.KeyStorage.Label"));
+    wlKeyStorage.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.KeyStorage.ToolTip"));
+    PropsUi.setLook(wlKeyStorage);
+    FormData fdlKeyStorage = new FormData();
+    fdlKeyStorage.left = new FormAttachment(0, 0);
+    fdlKeyStorage.top = new FormAttachment(wErrorDesc, margin);
+    fdlKeyStorage.right = new FormAttachment(middle, -margin);
+    wlKeyStorage.setLayoutData(fdlKeyStorage);
+    wKeyStorage = new CCombo(wSettings, SWT.BORDER | SWT.READ_ONLY);
+    wKeyStorage.setItems(KeyStorage.getDescriptions());
+    wKeyStorage.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.KeyStorage.ToolTip"));
+    PropsUi.setLook(wKeyStorage);
+    FormData fdKeyStorage = new FormData();
+    fdKeyStorage.left = new FormAttachment(middle, 0);
+    fdKeyStorage.top = new FormAttachment(wlKeyStorage, 0, SWT.CENTER);
+    fdKeyStorage.right = new FormAttachment(100, 0);
+    wKeyStorage.setLayoutData(fdKeyStorage);
+    wKeyStorage.addListener(
+        SWT.Selection,
+        e -> {
+          input.setChanged();
+          setKeyStorageFlags();
+        });
+
+    wlMaxKeysInMemory = new Label(wSettings, SWT.RIGHT);
+    wlMaxKeysInMemory.setText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.MaxKeysInMemory.Label"));
+    wlMaxKeysInMemory.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.MaxKeysInMemory.ToolTip"));
+    PropsUi.setLook(wlMaxKeysInMemory);
+    FormData fdlMaxKeysInMemory = new FormData();
+    fdlMaxKeysInMemory.left = new FormAttachment(0, 0);
+    fdlMaxKeysInMemory.top = new FormAttachment(wKeyStorage, margin);
+    fdlMaxKeysInMemory.right = new FormAttachment(middle, -margin);
+    wlMaxKeysInMemory.setLayoutData(fdlMaxKeysInMemory);
+    wMaxKeysInMemory = new TextVar(variables, wSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wMaxKeysInMemory.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.MaxKeysInMemory.ToolTip"));
+    PropsUi.setLook(wMaxKeysInMemory);
+    wMaxKeysInMemory.addModifyListener(lsMod);
+    FormData fdMaxKeysInMemory = new FormData();
+    fdMaxKeysInMemory.left = new FormAttachment(middle, 0);
+    fdMaxKeysInMemory.top = new FormAttachment(wlMaxKeysInMemory, 0, SWT.CENTER);
+    fdMaxKeysInMemory.right = new FormAttachment(100, 0);
+    wMaxKeysInMemory.setLayoutData(fdMaxKeysInMemory);
+
+    wlSpillDirectory = new Label(wSettings, SWT.RIGHT);
+    wlSpillDirectory.setText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.SpillDirectory.Label"));
+    PropsUi.setLook(wlSpillDirectory);
+    FormData fdlSpillDirectory = new FormData();
+    fdlSpillDirectory.left = new FormAttachment(0, 0);
+    fdlSpillDirectory.top = new FormAttachment(wMaxKeysInMemory, margin);
+    fdlSpillDirectory.right = new FormAttachment(middle, -margin);
+    wlSpillDirectory.setLayoutData(fdlSpillDirectory);
+    wbSpillDirectory = new Button(wSettings, SWT.PUSH | SWT.CENTER);
+    PropsUi.setLook(wbSpillDirectory);
+    wbSpillDirectory.setText(BaseMessages.getString(PKG, "System.Button.Browse"));
+    FormData fdbSpillDirectory = new FormData();
+    fdbSpillDirectory.right = new FormAttachment(100, 0);
+    fdbSpillDirectory.top = new FormAttachment(wMaxKeysInMemory, margin);
+    wbSpillDirectory.setLayoutData(fdbSpillDirectory);
+    wSpillDirectory = new TextVar(variables, wSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wSpillDirectory);
+    wSpillDirectory.addModifyListener(lsMod);
+    FormData fdSpillDirectory = new FormData();
+    fdSpillDirectory.left = new FormAttachment(middle, 0);
+    fdSpillDirectory.top = new FormAttachment(wMaxKeysInMemory, margin);
+    fdSpillDirectory.right = new FormAttachment(wbSpillDirectory, -margin);
+    wSpillDirectory.setLayoutData(fdSpillDirectory);
+    wbSpillDirectory.addListener(
+        SWT.Selection, e -> BaseDialog.presentDirectoryDialog(shell, wSpillDirectory, variables));
+
+    wlExpectedKeys = new Label(wSettings, SWT.RIGHT);
+    wlExpectedKeys.setText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.ExpectedKeys.Label"));
+    wlExpectedKeys.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.ExpectedKeys.ToolTip"));
+    PropsUi.setLook(wlExpectedKeys);
+    FormData fdlExpectedKeys = new FormData();
+    fdlExpectedKeys.left = new FormAttachment(0, 0);
+    fdlExpectedKeys.top = new FormAttachment(wSpillDirectory, margin);
+    fdlExpectedKeys.right = new FormAttachment(middle, -margin);
+    wlExpectedKeys.setLayoutData(fdlExpectedKeys);
+    wExpectedKeys = new TextVar(variables, wSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wExpectedKeys.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.ExpectedKeys.ToolTip"));
+    PropsUi.setLook(wExpectedKeys);
+    wExpectedKeys.addModifyListener(lsMod);
+    FormData fdExpectedKeys = new FormData();
+    fdExpectedKeys.left = new FormAttachment(middle, 0);
+    fdExpectedKeys.top = new FormAttachment(wlExpectedKeys, 0, SWT.CENTER);
+    fdExpectedKeys.right = new FormAttachment(100, 0);
+    wExpectedKeys.setLayoutData(fdExpectedKeys);
+
+    wlFalsePositiveRate = new Label(wSettings, SWT.RIGHT);
+    wlFalsePositiveRate.setText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.FalsePositiveRate.Label"));
+    wlFalsePositiveRate.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.FalsePositiveRate.ToolTip"));
+    PropsUi.setLook(wlFalsePositiveRate);
+    FormData fdlFalsePositiveRate = new FormData();
+    fdlFalsePositiveRate.left = new FormAttachment(0, 0);
+    fdlFalsePositiveRate.top = new FormAttachment(wExpectedKeys, margin);
+    fdlFalsePositiveRate.right = new FormAttachment(middle, -margin);
+    wlFalsePositiveRate.setLayoutData(fdlFalsePositiveRate);
+    wFalsePositiveRate = new TextVar(variables, wSettings, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    wFalsePositiveRate.setToolTipText(
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetDialog.FalsePositiveRate.ToolTip"));
+    PropsUi.setLook(wFalsePositiveRate);
+    wFalsePositiveRate.addModifyListener(lsMod);
+    FormData fdFalsePositiveRate = new FormData();
+    fdFalsePositiveRate.left = new FormAttachment(middle, 0);
+    fdFalsePositiveRate.top = new FormAttachment(wlFalsePositiveRate, 0, SWT.CENTER);
+    fdFalsePositiveRate.right = new FormAttachment(100, 0);
+    wFalsePositiveRate.setLayoutData(fdFalsePositiveRate);
+
     FormData fdSettings = new FormData();
     fdSettings.left = new FormAttachment(0, margin);
     fdSettings.top = new FormAttachment(wTransformName, margin);
@@ -282,6 +421,7 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog implements IT
 
     getData();
     setErrorDesc();
+    setKeyStorageFlags();
     input.setChanged(changed);
 
     BaseDialog.defaultShellHandling(shell, c -> ok(), c -> cancel());
@@ -294,6 +434,21 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog implements IT
     wErrorDesc.setEnabled(wRejectDuplicateRow.getSelection());
   }
 
+  private void setKeyStorageFlags() {
+    KeyStorage keyStorage = KeyStorage.getKeyStorageForDescription(wKeyStorage.getText());
+    boolean fingerprints = keyStorage == KeyStorage.FINGERPRINTS;
+    boolean approximate = keyStorage == KeyStorage.APPROXIMATE;
+    wlMaxKeysInMemory.setEnabled(fingerprints);
+    wMaxKeysInMemory.setEnabled(fingerprints);
+    wlSpillDirectory.setEnabled(fingerprints);
+    wbSpillDirectory.setEnabled(fingerprints);
+    wSpillDirectory.setEnabled(fingerprints);
+    wlExpectedKeys.setEnabled(approximate);
+    wExpectedKeys.setEnabled(approximate);
+    wlFalsePositiveRate.setEnabled(approximate);
+    wFalsePositiveRate.setEnabled(approximate);
+  }
+
   protected void setComboBoxes() {
     // Something was changed in the row.
     //
@@ -308,6 +463,13 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog implements IT
     if (input.getErrorDescription() != null) {
       wErrorDesc.setText(input.getErrorDescription());
     }
+    KeyStorage keyStorage =
+        input.getKeyStorage() == null ? KeyStorage.ROW_KEYS : input.getKeyStorage();
+    wKeyStorage.setText(keyStorage.getDescription());
+    wMaxKeysInMemory.setText(Const.NVL(input.getMaxKeysInMemory(), ""));
+    wSpillDirectory.setText(Const.NVL(input.getSpillDirectory(), ""));
+    wExpectedKeys.setText(Const.NVL(input.getExpectedKeys(), ""));
+    wFalsePositiveRate.setText(Const.NVL(input.getFalsePositiveRate(), ""));
     for (int i = 0; i < input.getCompareFields().length; i++) {
       TableItem item = wFields.table.getItem(i);
       if (input.getCompareFields()[i] != null) {
@@ -345,6 +507,11 @@ public class UniqueRowsByHashSetDialog extends BaseTransformDialog implements IT
     input.setStoreValues(wStoreValues.getSelection());
     input.setRejectDuplicateRow(wRejectDuplicateRow.getSelection());
     input.setErrorDescription(wErrorDesc.getText());
+    input.setKeyStorage(KeyStorage.getKeyStorageForDescription(wKeyStorage.getText()));
+    input.setMaxKeysInMemory(wMaxKeysInMemory.getText());
+    input.setSpillDirectory(wSpillDirectory.getText());
+    input.setExpectedKeys(wExpectedKeys.getText());
+    input.setFalsePositiveRate(wFalsePositiveRate.getText());
     dispose();
   }
 
@@ -57,6 +57,90 @@ public class UniqueRowsByHashSetMeta
   private boolean rejectDuplicateRow;
   private String errorDescription;
 
+  /** How the keys of the rows seen so far are kept in memory */
+  private KeyStorage keyStorage;
+
+  /**
+   * The maximum number of key fingerprints in memory, the other keys are spilled to disk. Empty or
+   * 0 means no limit.
+   */
+  private String maxKeysInMemory;
+
+  /** The directory to store the temporary files in */
+  private String spillDirectory;
+
+  /** The expected number of distinct keys, used to size the Bloom filter */
+  private String expectedKeys;
+
+  /** The acceptable probability that a unique row is removed, used to size the Bloom filter */
+  private String falsePositiveRate;
+
+  /** The ways to keep the keys of the rows seen so far. */
+  public enum KeyStorage {
+    /** A row key object per distinct row, with the values of the keys if they are compared */
+    ROW_KEYS("row_keys", BaseMessages.getString(PKG, "UniqueRowsByHashSetMeta.KeyStorage.RowKeys")),
+
+    /** A 128-bit fingerprint per distinct row, with the encoded key if the values are compared */
+    FINGERPRINTS(
+        "fingerprints",
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetMeta.KeyStorage.Fingerprints")),
+
+    /** A Bloom filter of fixed size: a small part of the unique rows can be removed */
+    APPROXIMATE(
+        "approximate",
+        BaseMessages.getString(PKG, "UniqueRowsByHashSetMeta.KeyStorage.Approximate"));
+
+    private final String code;
+    private final String description;
+
+    KeyStorage(String code, String description) {
+      this.code = code;
+      this.description = description;
+    }
+
+    public String getCode() {
+      return code;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+
+    public static String[] getDescriptions() {
+      String[] descriptions = new String[values().length];
+      for (int i = 0; i < descriptions.length; i++) {
+        descriptions[i] = values()[i].description;
+      }
+      return descriptions;
+    }
+
+    /**
+     * @param code The code of the key storage
+     * @return The key storage with the code or {@link #ROW_KEYS} if it is unknown
+     */
+    public static KeyStorage getKeyStorageForCode(String code) {
+      for (KeyStorage keyStorage : values()) {
+        if (keyStorage.code.equalsIgnoreCase(code)) {
+          return keyStorage;
+        }
+      }
+      return ROW_KEYS;
+    }
+
+    /**
+     * @param description The description of the key storage
+     * @return The key storage with the description or {@link #ROW_KEYS} if it is unknown
+     */
+    public static KeyStorage getKeyStorageForDescription(String description) {
+      for (KeyStorage keyStorage : values()) {
+        if (keyStorage.description.equalsIgnoreCase(description)) {
+          return keyStorage;
+        }
+      }
+      return ROW_KEYS;
+    }
+  }
+
   public UniqueRowsByHashSetMeta() {
     super(); // allocate BaseTransformMeta
   }
@@ -115,6 +199,76 @@ public class UniqueRowsByHashSetMeta
     return errorDescription;
   }
 
+  /**
+   * @return How the keys of the rows seen so far are kept in memory
+   */
+  public KeyStorage getKeyStorage() {
+    return keyStorage;
+  }
+
+  /**
+   * @param keyStorage How the keys of the rows seen so far are kept in memory
+   */
+  public void setKeyStorage(KeyStorage keyStorage) {
+    this.keyStorage = keyStorage;
+  }
+
+  /**
+   * @return The maximum number of key fingerprints in memory
+   */
+  public String getMaxKeysInMemory() {
+    return maxKeysInMemory;
+  }
+
+  /**
+   * @param maxKeysInMemory The maximum number of key fingerprints in memory
+   */
+  public void setMaxKeysInMemory(String maxKeysInMemory) {
+    this.maxKeysInMemory = maxKeysInMemory;
+  }
+
+  /**
+   * @return The directory to store the temporary files in
+   */
+  public String getSpillDirectory() {
+    return spillDirectory;
+  }
+
+  /**
+   * @param spillDirectory The directory to store the temporary files in
+   */
+  public void setSpillDirectory(String spillDirectory) {
+    this.spillDirectory = spillDirectory;
+  }
+
+  /**
+   * @return The expected number of distinct keys, used to size the Bloom filter
+   */
+  public String getExpectedKeys() {
+    return expectedKeys;
+  }
+
+  /**
+   * @param expectedKeys The expected number of distinct keys, used to size the Bloom filter
+   */
+  public void setExpectedKeys(String expectedKeys) {
+    this.expectedKeys = expectedKeys;
+  }
+
+  /**
+   * @return The acceptable probability that a unique row is removed, used to size the Bloom filter
+   */
+  public String getFalsePositiveRate() {
+    return falsePositiveRate;
+  }
+
+  /**
+   * @param falsePositiveRate The acceptable probability that a unique row is removed
+   */
+  public void setFalsePositiveRate(String falsePositiveRate) {
+    this.falsePositiveRate = falsePositiveRate;
+  }
+
   @Override
   public void loadXml(Node transformNode, IHopMetadataProvider metadataProvider)
       throws HopXmlException {
@@ -139,6 +293,12 @@ public class UniqueRowsByHashSetMeta
       rejectDuplicateRow =
           "Y".equalsIgnoreCase(XmlHandler.getTagValue(transformNode, "reject_duplicate_row"));
       errorDescription = XmlHandler.getTagValue(transformNode, "error_description");
+      keyStorage =
+          KeyStorage.getKeyStorageForCode(XmlHandler.getTagValue(transformNode, "key_storage"));
+      maxKeysInMemory = XmlHandler.getTagValue(transformNode, "max_keys_in_memory");
+      spillDirectory = XmlHandler.getTagValue(transformNode, "spill_directory");
+      expectedKeys = XmlHandler.getTagValue(transformNode, "expected_keys");
+      falsePositiveRate = XmlHandler.getTagValue(transformNode, "false_positive_rate");
 
       Node fields = XmlHandler.getSubNode(transformNode, "fields");
       int nrFields = XmlHandler.countNodes(fields, "field");
@@ -163,6 +323,11 @@ public class UniqueRowsByHashSetMeta
   public void setDefault() {
     rejectDuplicateRow = false;
     errorDescription = null;
+    keyStorage = KeyStorage.ROW_KEYS;
+    maxKeysInMemory = null;
+    spillDirectory = "${java.io.tmpdir}";
+    expectedKeys = "10000000";
+    falsePositiveRate = "0.001";
     int nrFields = 0;
 
     allocate(nrFields);
@@ -189,6 +354,14 @@ public class UniqueRowsByHashSetMeta
     retval.append("      " + XmlHandler.addTagValue("store_values", storeValues));
     retval.append("      " + XmlHandler.addTagValue("reject_duplicate_row", rejectDuplicateRow));
     retval.append("      " + XmlHandler.addTagValue("error_description", errorDescription));
+    retval.append(
+        "      "
+            + XmlHandler.addTagValue(
+                "key_storage", keyStorage == null ? null : keyStorage.getCode()));
+    retval.append("      " + XmlHandler.addTagValue("max_keys_in_memory", maxKeysInMemory));
+    retval.append("      " + XmlHandler.addTagValue("spill_directory", spillDirectory));
+    retval.append("      " + XmlHandler.addTagValue("expected_keys", expectedKeys));
+    retval.append("      " + XmlHandler.addTagValue("false_positive_rate", falsePositiveRate));
     retval.append("    <fields>");
     for (int i = 0; i < compareFields.length; i++) {
       retval.append("      <field>");
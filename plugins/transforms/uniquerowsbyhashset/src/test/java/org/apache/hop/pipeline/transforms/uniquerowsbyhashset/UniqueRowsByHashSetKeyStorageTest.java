@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.hop.pipeline.transforms.uniquerowsbyhashset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.apache.hop.core.exception.HopException;
+import org.apache.hop.core.row.IRowMeta;
+import org.apache.hop.core.row.RowMeta;
+import org.apache.hop.core.row.value.ValueMetaInteger;
+import org.apache.hop.core.row.value.ValueMetaString;
+import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
+import org.apache.hop.pipeline.transforms.mock.TransformMockHelper;
+import org.apache.hop.pipeline.transforms.uniquerowsbyhashset.UniqueRowsByHashSetMeta.KeyStorage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UniqueRowsByHashSetKeyStorageTest {
+  @ClassRule public static RestoreHopEngineEnvironment env = new RestoreHopEngineEnvironment();
+
+  @Rule public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private TransformMockHelper<UniqueRowsByHashSetMeta, UniqueRowsByHashSetData> mockHelper;
+
+  @Before
+  public void setUp() {
+    mockHelper =
+        new TransformMockHelper<>(
+            "Unique rows", UniqueRowsByHashSetMeta.class, UniqueRowsByHashSetData.class);
+    mockHelper.initRunningPipeline();
+  }
+
+  @After
+  public void cleanUp() {
+    mockHelper.cleanUp();
+  }
+
+  private IRowMeta createRowMeta() {
+    IRowMeta rowMeta = new RowMeta();
+    rowMeta.addValueMeta(new ValueMetaString("key"));
+    rowMeta.addValueMeta(new ValueMetaInteger("nr"));
+    rowMeta.addValueMeta(new ValueMetaInteger("id"));
+    return rowMeta;
+  }
+
+  private List<Object[]> createRows(int nrRows, int nrKeys) {
+    Random random = new Random(3L);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < nrRows; i++) {
+      int key = random.nextInt(nrKeys);
+      rows.add(new Object[] {key % 3 == 0 ? null : "key" + key, (long) key, (long) i});
+    }
+    return rows;
+  }
+
+  private UniqueRowsByHashSetMeta createMeta(KeyStorage keyStorage, boolean storeValues) {
+    UniqueRowsByHashSetMeta meta = new UniqueRowsByHashSetMeta();
+    meta.setDefault();
+    meta.setCompareFields(new String[] {"key", "nr"});
+    meta.setKeyStorage(keyStorage);
+    meta.setStoreValues(storeValues);
+    meta.setSpillDirectory(tempFolder.getRoot().getAbsolutePath());
+    return meta;
+  }
+
+  /**
+   * @return The ids of the rows passed on
+   */
+  private Set<Long> uniqueRows(UniqueRowsByHashSetMeta meta, List<Object[]> rows)
+      throws HopException {
+    UniqueRowsByHashSet transform =
+        new UniqueRowsByHashSet(
+            mockHelper.transformMeta,
+            meta,
+            new UniqueRowsByHashSetData(),
+            0,
+            mockHelper.pipelineMeta,
+            mockHelper.pipeline);
+
+    Set<Long> output = new HashSet<>();
+    for (Object[] row : mockHelper.processRows(transform, createRowMeta(), rows)) {
+      assertTrue(output.add((Long) row[2]));
+    }
+
+    // All the temporary files are removed
+    //
+    assertEquals(0, tempFolder.getRoot().list().length);
+    return output;
+  }
+
+  @Test
+  public void testFingerprints() throws Exception {
+    List<Object[]> rows = createRows(5000, 1500);
+    Set<Long> expected = uniqueRows(createMeta(KeyStorage.ROW_KEYS, true), rows);
+    assertTrue(expected.size() > 1000);
+
+    assertEquals(expected, uniqueRows(createMeta(KeyStorage.FINGERPRINTS, false), rows));
+    assertEquals(expected, uniqueRows(createMeta(KeyStorage.FINGERPRINTS, true), rows));
+  }
+
+  @Test
+  public void testSpillToDisk() throws Exception {
+    List<Object[]> rows = createRows(5000, 1500);
+    Set<Long> expected = uniqueRows(createMeta(KeyStorage.ROW_KEYS, true), rows);
+
+    for (boolean storeValues : new boolean[] {false, true}) {
+      UniqueRowsByHashSetMeta meta = createMeta(KeyStorage.FINGERPRINTS, storeValues);
+      meta.setMaxKeysInMemory("100");
+      assertEquals(expected, uniqueRows(meta, rows));
+    }
+  }
+
+  @Test
+  public void testApproximate() throws Exception {
+    List<Object[]> rows = createRows(5000, 1500);
+    Set<Long> expected = uniqueRows(createMeta(KeyStorage.ROW_KEYS, true), rows);
+
+    // Plenty of room: no false positives to be expected
+    //
+    UniqueRowsByHashSetMeta meta = createMeta(KeyStorage.APPROXIMATE, false);
+    meta.setExpectedKeys("100000");
+    meta.setFalsePositiveRate("0.0001");
+    assertEquals(expected, uniqueRows(meta, rows));
+
+    // Far too small: unique rows are removed but duplicates never pass
+    //
+    meta.setExpectedKeys("10");
+    meta.setFalsePositiveRate("0.1");
+    Set<Long> approximate = uniqueRows(meta, rows);
+    assertTrue(approximate.size() < expected.size());
+    assertTrue(expected.containsAll(approximate));
+  }
+
+  @Test
+  public void testVerifiedFingerprintCollision() {
+    byte[] one = {1, 2, 3};
+    byte[] two = {1, 2, 4};
+
+    FingerprintSet unverified = new FingerprintSet(false);
+    assertTrue(unverified.add(42L, 43L, one, one.length));
+    assertFalse(unverified.add(42L, 43L, two, two.length));
+
+    FingerprintSet verified = new FingerprintSet(true);
+    assertTrue(verified.add(42L, 43L, one, one.length));
+    assertTrue(verified.add(42L, 43L, two, two.length));
+    assertFalse(verified.add(42L, 43L, two, two.length));
+    assertEquals(2, verified.size());
+
+    // Growing the set keeps all keys
+    //
+    for (long i = 0; i < 5000; i++) {
+      assertTrue(verified.add(i, i * 31, one, one.length));
+    }
+    assertFalse(verified.add(42L, 43L, one, one.length));
+    assertFalse(verified.add(4999L, 4999L * 31, one, one.length));
+  }
+}
@@ -25,8 +25,10 @@ import org.apache.hop.core.exception.HopException;
 import org.apache.hop.junit.rules.RestoreHopEngineEnvironment;
 import org.apache.hop.pipeline.transforms.loadsave.LoadSaveTester;
 import org.apache.hop.pipeline.transforms.loadsave.validator.ArrayLoadSaveValidator;
+import org.apache.hop.pipeline.transforms.loadsave.validator.EnumLoadSaveValidator;
 import org.apache.hop.pipeline.transforms.loadsave.validator.IFieldLoadSaveValidator;
 import org.apache.hop.pipeline.transforms.loadsave.validator.StringLoadSaveValidator;
+import org.apache.hop.pipeline.transforms.uniquerowsbyhashset.UniqueRowsByHashSetMeta.KeyStorage;
 import org.junit.ClassRule;
 import org.junit.Test;
 
@@ -36,19 +38,38 @@ public class UniqueRowsByHashSetMetaTest {
   @Test
   public void testRoundTrip() throws HopException {
     List<String> attributes =
-        Arrays.asList("store_values", "reject_duplicate_row", "error_description", "name");
+        Arrays.asList(
+            "store_values",
+            "reject_duplicate_row",
+            "error_description",
+            "name",
+            "key_storage",
+            "max_keys_in_memory",
+            "spill_directory",
+            "expected_keys",
+            "false_positive_rate");
 
     Map<String, String> getterMap = new HashMap<>();
     getterMap.put("store_values", "getStoreValues");
     getterMap.put("reject_duplicate_row", "isRejectDuplicateRow");
     getterMap.put("error_description", "getErrorDescription");
     getterMap.put("name", "getCompareFields");
+    getterMap.put("key_storage", "getKeyStorage");
+    getterMap.put("max_keys_in_memory", "getMaxKeysInMemory");
+    getterMap.put("spill_directory", "getSpillDirectory");
+    getterMap.put("expected_keys", "getExpectedKeys");
+    getterMap.put("false_positive_rate", "getFalsePositiveRate");
 
     Map<String, String> setterMap = new HashMap<>();
     setterMap.put("store_values", "setStoreValues");
     setterMap.put("reject_duplicate_row", "setRejectDuplicateRow");
     setterMap.put("error_description", "setErrorDescription");
     setterMap.put("name", "setCompareFields");
+    setterMap.put("key_storage", "setKeyStorage");
+    setterMap.put("max_keys_in_memory", "setMaxKeysInMemory");
+    setterMap.put("spill_directory", "setSpillDirectory");
+    setterMap.put("expected_keys", "setExpectedKeys");
+    setterMap.put("false_positive_rate", "setFalsePositiveRate");
 
     Map<String, IFieldLoadSaveValidator<?>> fieldLoadSaveValidatorAttributeMap = new HashMap<>();
 
@@ -57,6 +78,8 @@ public class UniqueRowsByHashSetMetaTest {
         new ArrayLoadSaveValidator<>(new StringLoadSaveValidator(), 25);
 
     fieldLoadSaveValidatorAttributeMap.put("name", stringArrayLoadSaveValidator);
+    fieldLoadSaveValidatorAttributeMap.put(
+        "key_storage", new EnumLoadSaveValidator<>(KeyStorage.FINGERPRINTS));
 
     LoadSaveTester loadSaveTester =
         new LoadSaveTester(
@@ -684,6 +684,11 @@ public class UpdateMeta extends BaseTransformMeta<Update, UpdateData> {
     return true;
   }
 
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
+
   /**
    * @return the useBatchUpdate
    */
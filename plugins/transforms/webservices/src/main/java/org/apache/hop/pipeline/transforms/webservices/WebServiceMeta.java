@@ -583,4 +583,9 @@ public class WebServiceMeta extends BaseTransformMeta<WebService, WebServiceData
   public void setOperationRequestName(String operationRequestName) {
     this.operationRequestName = operationRequestName;
   }
+
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
 }
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang.StringUtils;
+import org.apache.hop.base.MetaFileCache;
 import org.apache.hop.core.CheckResult;
 import org.apache.hop.core.Const;
 import org.apache.hop.core.ICheckResult;
@@ -536,7 +537,7 @@ public class WorkflowExecutorMeta
     return targetTransforms.toArray(new String[targetTransforms.size()]);
   }
 
-  public static final synchronized WorkflowMeta loadWorkflowMeta(
+  public static final WorkflowMeta loadWorkflowMeta(
       WorkflowExecutorMeta executorMeta,
       IVariables variables,
       IHopMetadataProvider metadataProvider)
@@ -544,7 +545,7 @@ public class WorkflowExecutorMeta
     return loadWorkflowMeta(executorMeta, metadataProvider, variables);
   }
 
-  public static final synchronized WorkflowMeta loadWorkflowMeta(
+  public static final WorkflowMeta loadWorkflowMeta(
       WorkflowExecutorMeta executorMeta,
       IHopMetadataProvider metadataProvider,
       IVariables variables)
@@ -562,7 +563,8 @@ public class WorkflowExecutorMeta
     //
     // Don't set internal variables: they belong to the parent thread!
     //
-    mappingWorkflowMeta = new WorkflowMeta(variables, realFilename, metadataProvider);
+    mappingWorkflowMeta =
+        MetaFileCache.getInstance().loadWorkflowMeta(realFilename, metadataProvider, variables);
     LogChannel.GENERAL.logDetailed(
         "Loaded workflow", "Workflow was loaded from XML file [" + realFilename + "]");
 
@@ -1322,4 +1324,9 @@ public class WorkflowExecutorMeta
   public void setRunConfigurationName(String runConfigurationName) {
     this.runConfigurationName = runConfigurationName;
   }
+
+  @Override
+  public boolean requiresDedicatedThread() {
+    return true;
+  }
 }
@@ -104,6 +104,11 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
   private TextVar wPreferredSchema;
   private TextVar wSqlStatements;
 
+  private Button wUsePool;
+  private TextVar wMaximumIdleConnections;
+  private TextVar wPoolIdleTimeout;
+  private TextVar wPoolValidationQuery;
+
   private TableView wOptions;
 
   private PropsUi props;
@@ -194,6 +199,7 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
 
     addGeneralTab();
     addAdvancedTab();
+    addPoolingTab();
     addOptionsTab();
 
     // Select the general tab
@@ -231,6 +237,11 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wPreserveCase.addListener(SWT.Selection, modifyListener);
     wPreferredSchema.addListener(SWT.Modify, modifyListener);
     wSqlStatements.addListener(SWT.Modify, modifyListener);
+    wUsePool.addListener(SWT.Selection, modifyListener);
+    wUsePool.addListener(SWT.Selection, event -> enableFields());
+    wMaximumIdleConnections.addListener(SWT.Modify, modifyListener);
+    wPoolIdleTimeout.addListener(SWT.Modify, modifyListener);
+    wPoolValidationQuery.addListener(SWT.Modify, modifyListener);
     wOptions.addListener(SWT.Modify, modifyListener);
   }
 
@@ -678,6 +689,116 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wAdvancedTab.setControl(wAdvancedComp);
   }
 
+  private void addPoolingTab() {
+
+    CTabItem wPoolingTab = new CTabItem(wTabFolder, SWT.NONE);
+    wPoolingTab.setFont(GuiResource.getInstance().getFontDefault());
+    wPoolingTab.setText(
+        "   " + BaseMessages.getString(PKG, "DatabaseDialog.PoolingTab.title") + "   ");
+
+    Composite wPoolingComp = new Composite(wTabFolder, SWT.NONE);
+    PropsUi.setLook(wPoolingComp);
+
+    FormLayout poolingLayout = new FormLayout();
+    poolingLayout.marginWidth = PropsUi.getFormMargin() * 2;
+    poolingLayout.marginHeight = PropsUi.getFormMargin() * 2;
+    wPoolingComp.setLayout(poolingLayout);
+
+    // Use a connection pool?
+    //
+    Label wlUsePool = new Label(wPoolingComp, SWT.RIGHT);
+    PropsUi.setLook(wlUsePool);
+    wlUsePool.setText(BaseMessages.getString(PKG, "DatabaseDialog.label.UseConnectionPool"));
+    FormData fdlUsePool = new FormData();
+    fdlUsePool.top = new FormAttachment(0, 0);
+    fdlUsePool.left = new FormAttachment(0, 0); // First one in the left top corner
+    fdlUsePool.right = new FormAttachment(middle, 0);
+    wlUsePool.setLayoutData(fdlUsePool);
+    wUsePool = new Button(wPoolingComp, SWT.CHECK | SWT.LEFT);
+    PropsUi.setLook(wUsePool);
+    FormData fdUsePool = new FormData();
+    fdUsePool.top = new FormAttachment(wlUsePool, 0, SWT.CENTER);
+    fdUsePool.left = new FormAttachment(middle, margin); // To the right of the label
+    fdUsePool.right = new FormAttachment(100, 0);
+    wUsePool.setLayoutData(fdUsePool);
+    Control lastControl = wUsePool;
+
+    // The maximum number of idle connections kept in the pool
+    //
+    Label wlMaximumIdleConnections = new Label(wPoolingComp, SWT.RIGHT);
+    PropsUi.setLook(wlMaximumIdleConnections);
+    wlMaximumIdleConnections.setText(
+        BaseMessages.getString(PKG, "DatabaseDialog.label.MaximumIdleConnections"));
+    wlMaximumIdleConnections.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseDialog.tooltip.MaximumIdleConnections"));
+    FormData fdlMaximumIdleConnections = new FormData();
+    fdlMaximumIdleConnections.top = new FormAttachment(lastControl, margin);
+    fdlMaximumIdleConnections.left = new FormAttachment(0, 0);
+    fdlMaximumIdleConnections.right = new FormAttachment(middle, 0);
+    wlMaximumIdleConnections.setLayoutData(fdlMaximumIdleConnections);
+    wMaximumIdleConnections =
+        new TextVar(manager.getVariables(), wPoolingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wMaximumIdleConnections);
+    wMaximumIdleConnections.setToolTipText(
+        BaseMessages.getString(PKG, "DatabaseDialog.tooltip.MaximumIdleConnections"));
+    FormData fdMaximumIdleConnections = new FormData();
+    fdMaximumIdleConnections.top = new FormAttachment(wlMaximumIdleConnections, 0, SWT.CENTER);
+    fdMaximumIdleConnections.left = new FormAttachment(middle, margin); // To the right of the label
+    fdMaximumIdleConnections.right = new FormAttachment(100, 0);
+    wMaximumIdleConnections.setLayoutData(fdMaximumIdleConnections);
+    lastControl = wMaximumIdleConnections;
+
+    // Close the connections which weren't used for a while
+    //
+    Label wlPoolIdleTimeout = new Label(wPoolingComp, SWT.RIGHT);
+    PropsUi.setLook(wlPoolIdleTimeout);
+    wlPoolIdleTimeout.setText(BaseMessages.getString(PKG, "DatabaseDialog.label.PoolIdleTimeout"));
+    FormData fdlPoolIdleTimeout = new FormData();
+    fdlPoolIdleTimeout.top = new FormAttachment(lastControl, margin);
+    fdlPoolIdleTimeout.left = new FormAttachment(0, 0);
+    fdlPoolIdleTimeout.right = new FormAttachment(middle, 0);
+    wlPoolIdleTimeout.setLayoutData(fdlPoolIdleTimeout);
+    wPoolIdleTimeout =
+        new TextVar(manager.getVariables(), wPoolingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wPoolIdleTimeout);
+    FormData fdPoolIdleTimeout = new FormData();
+    fdPoolIdleTimeout.top = new FormAttachment(wlPoolIdleTimeout, 0, SWT.CENTER);
+    fdPoolIdleTimeout.left = new FormAttachment(middle, margin); // To the right of the label
+    fdPoolIdleTimeout.right = new FormAttachment(100, 0);
+    wPoolIdleTimeout.setLayoutData(fdPoolIdleTimeout);
+    lastControl = wPoolIdleTimeout;
+
+    // The query to validate a connection with
+    //
+    Label wlPoolValidationQuery = new Label(wPoolingComp, SWT.RIGHT);
+    PropsUi.setLook(wlPoolValidationQuery);
+    wlPoolValidationQuery.setText(
+        BaseMessages.getString(PKG, "DatabaseDialog.label.PoolValidationQuery"));
+    FormData fdlPoolValidationQuery = new FormData();
+    fdlPoolValidationQuery.top = new FormAttachment(lastControl, margin);
+    fdlPoolValidationQuery.left = new FormAttachment(0, 0);
+    fdlPoolValidationQuery.right = new FormAttachment(middle, 0);
+    wlPoolValidationQuery.setLayoutData(fdlPoolValidationQuery);
+    wPoolValidationQuery =
+        new TextVar(manager.getVariables(), wPoolingComp, SWT.SINGLE | SWT.LEFT | SWT.BORDER);
+    PropsUi.setLook(wPoolValidationQuery);
+    FormData fdPoolValidationQuery = new FormData();
+    fdPoolValidationQuery.top = new FormAttachment(wlPoolValidationQuery, 0, SWT.CENTER);
+    fdPoolValidationQuery.left = new FormAttachment(middle, margin); // To the right of the label
+    fdPoolValidationQuery.right = new FormAttachment(100, 0);
+    wPoolValidationQuery.setLayoutData(fdPoolValidationQuery);
+
+    FormData fdPoolingComp = new FormData();
+    fdPoolingComp.left = new FormAttachment(0, 0);
+    fdPoolingComp.top = new FormAttachment(0, 0);
+    fdPoolingComp.right = new FormAttachment(100, 0);
+    fdPoolingComp.bottom = new FormAttachment(100, 0);
+    wPoolingComp.setLayoutData(fdPoolingComp);
+
+    wPoolingComp.layout();
+    wPoolingTab.setControl(wPoolingComp);
+  }
+
   private void addOptionsTab() {
 
     DatabaseMeta databaseMeta = this.getMetadata();
@@ -756,6 +877,11 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     //
     guiCompositeWidgets.enableWidgets(
         getMetadata().getIDatabase(), DatabaseMeta.GUI_PLUGIN_ELEMENT_PARENT_ID, !manualUrl);
+
+    boolean usePool = wUsePool.getSelection();
+    wMaximumIdleConnections.setEnabled(usePool);
+    wPoolIdleTimeout.setEnabled(usePool);
+    wPoolValidationQuery.setEnabled(usePool);
   }
 
   private void test() {
@@ -817,6 +943,10 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     wPreserveCase.setSelection(databaseMeta.preserveReservedCase());
     wPreferredSchema.setText(Const.NVL(databaseMeta.getPreferredSchemaName(), ""));
     wSqlStatements.setText(Const.NVL(databaseMeta.getConnectSql(), ""));
+    wUsePool.setSelection(databaseMeta.isUsingConnectionPool());
+    wMaximumIdleConnections.setText(Const.NVL(databaseMeta.getMaximumIdleConnections(), ""));
+    wPoolIdleTimeout.setText(Const.NVL(databaseMeta.getPoolIdleTimeout(), ""));
+    wPoolValidationQuery.setText(Const.NVL(databaseMeta.getPoolValidationQuery(), ""));
 
     wOptions.clearAll(false);
     Map<String, String> optionsMap = databaseMeta.getExtraOptionsMap();
@@ -859,6 +989,10 @@ public class DatabaseMetaEditor extends MetadataEditor<DatabaseMeta> {
     meta.setPreserveReservedCase(wPreserveCase.getSelection());
     meta.setPreferredSchemaName(wPreferredSchema.getText());
     meta.setConnectSql(wSqlStatements.getText());
+    meta.setUsingConnectionPool(wUsePool.getSelection());
+    meta.setMaximumIdleConnections(wMaximumIdleConnections.getText());
+    meta.setPoolIdleTimeout(wPoolIdleTimeout.getText());
+    meta.setPoolValidationQuery(wPoolValidationQuery.getText());
 
     meta.getExtraOptions().clear();
     for (int i = 0; i < wOptions.nrNonEmpty(); i++) {